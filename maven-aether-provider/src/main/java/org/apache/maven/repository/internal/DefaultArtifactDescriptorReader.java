@@ -80,6 +80,8 @@
     implements ArtifactDescriptorReader, Service
 {
 
+    private static final String DELEGATE_KEY = ArtifactDescriptorReaderDelegate.class.getName();
+
     @SuppressWarnings( "unused" )
     @Requirement( role = LoggerFactory.class )
     private Logger logger = NullLoggerFactory.LOGGER;
@@ -219,8 +221,7 @@ public ArtifactDescriptorResult readArtifactDescriptor( RepositorySystemSession
         if ( model != null )
         {
             Map<String, Object> config = session.getConfigProperties();
-            ArtifactDescriptorReaderDelegate delegate =
-                (ArtifactDescriptorReaderDelegate) config.get( ArtifactDescriptorReaderDelegate.class.getName() );
+            ArtifactDescriptorReaderDelegate delegate = (ArtifactDescriptorReaderDelegate) config.get( DELEGATE_KEY );
 
             if ( delegate == null )
             {
@@ -308,6 +309,8 @@ private Model loadPom( RepositorySystemSession session, ArtifactDescriptorReques
                 ModelBuildingRequest modelRequest = new DefaultModelBuildingRequest();
                 modelRequest.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
                 modelRequest.setProcessPlugins( false );
+                // a custom delegate might look at any part of the model
+                modelRequest.setDescriptorMode( session.getConfigProperties().get( DELEGATE_KEY ) == null );
                 modelRequest.setTwoPhaseBuilding( false );
                 modelRequest.setSystemProperties( toProperties( session.getUserProperties(),
                                                                 session.getSystemProperties() ) );
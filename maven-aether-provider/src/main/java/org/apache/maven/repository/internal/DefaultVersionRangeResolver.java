@@ -19,21 +19,30 @@
  * under the License.
  */
 
-import java.io.FileInputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
-import org.codehaus.plexus.util.IOUtil;
 import org.eclipse.aether.RepositoryEvent.EventType;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.RepositorySystemSession;
@@ -58,6 +67,7 @@
 import org.eclipse.aether.spi.log.Logger;
 import org.eclipse.aether.spi.log.LoggerFactory;
 import org.eclipse.aether.spi.log.NullLoggerFactory;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.version.GenericVersionScheme;
 import org.eclipse.aether.version.InvalidVersionSpecificationException;
 import org.eclipse.aether.version.Version;
@@ -75,6 +85,13 @@
 
     private static final String MAVEN_METADATA_XML = "maven-metadata.xml";
 
+    /**
+     * The number of threads used to parse the metadata of a batch of version ranges.
+     */
+    static final String CONFIG_PROP_THREADS = "maven.versionRangeResolver.threads";
+
+    static final String PREFETCHED_KEY = DefaultVersionRangeResolver.class.getName() + ".prefetched";
+
     @SuppressWarnings( "unused" )
     @Requirement( role = LoggerFactory.class )
     private Logger logger = NullLoggerFactory.LOGGER;
@@ -88,6 +105,8 @@
     @Requirement
     private RepositoryEventDispatcher repositoryEventDispatcher;
 
+    private ExecutorService executor;
+
     public DefaultVersionRangeResolver()
     {
         // enable default constructor
@@ -156,80 +175,308 @@ public DefaultVersionRangeResolver setRepositoryEventDispatcher( RepositoryEvent
     public VersionRangeResult resolveVersionRange( RepositorySystemSession session, VersionRangeRequest request )
         throws VersionRangeResolutionException
     {
-        VersionRangeResult result = new VersionRangeResult( request );
-
-        VersionScheme versionScheme = new GenericVersionScheme();
+        VersionRangeResult result = takePrefetched( session, request );
 
-        VersionConstraint versionConstraint;
-        try
+        if ( result == null )
         {
-            versionConstraint = versionScheme.parseVersionConstraint( request.getArtifact().getVersion() );
+            result = resolve( session, Collections.singletonList( request ), 1 ).get( 0 );
         }
-        catch ( InvalidVersionSpecificationException e )
+
+        if ( result.getVersionConstraint() == null )
         {
-            result.addException( e );
             throw new VersionRangeResolutionException( result );
         }
 
-        result.setVersionConstraint( versionConstraint );
+        return result;
+    }
+
+    /**
+     * Resolves the specified version ranges at once. The metadata requests of all ranges are deduplicated per
+     * artifact and repository and handed to the metadata resolver in one go, the retrieved metadata is then parsed
+     * concurrently.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @param requests The version range requests, must not be {@code null}.
+     * @return The results in the order of the requests, never {@code null}. Results whose version constraint could
+     *         not be parsed have no {@link VersionRangeResult#getVersionConstraint() constraint}.
+     * @since 3.2.6
+     */
+    public List<VersionRangeResult> resolveVersionRanges( RepositorySystemSession session,
+                                                          Collection<VersionRangeRequest> requests )
+    {
+        return resolve( session, requests, ConfigUtils.getInteger( session, 4, CONFIG_PROP_THREADS ) );
+    }
+
+    /**
+     * Resolves the specified version ranges at once and keeps the results for use by subsequent calls to
+     * {@link #resolveVersionRange(RepositorySystemSession, VersionRangeRequest)} with equal requests, e.g. from the
+     * dependency collector. Each prefetched result is used at most once. Every call must be paired with a call to
+     * {@link #discardPrefetched(RepositorySystemSession)} which drops the results that were not used to not hide
+     * metadata updates from later requests. As concurrent project builds share the session, the results are only
+     * dropped once all pending prefetches of the session have been discarded.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @param requests The version range requests, must not be {@code null}.
+     * @since 3.2.6
+     */
+    public void prefetchVersionRanges( RepositorySystemSession session, Collection<VersionRangeRequest> requests )
+    {
+        Prefetched prefetched = getPrefetched( session );
+
+        prefetched.acquire();
+
+        if ( requests.isEmpty() )
+        {
+            return;
+        }
 
-        if ( versionConstraint.getRange() == null )
+        for ( VersionRangeResult result : resolveVersionRanges( session, requests ) )
         {
-            result.addVersion( versionConstraint.getVersion() );
+            if ( result.getVersionConstraint() != null )
+            {
+                prefetched.results.put( toKey( result.getRequest() ), result );
+            }
         }
-        else
+    }
+
+    /**
+     * Ends a prefetch started by {@link #prefetchVersionRanges(RepositorySystemSession, Collection)} and drops any
+     * prefetched results that were not used unless other prefetches of the session are still pending.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @since 3.2.6
+     */
+    public void discardPrefetched( RepositorySystemSession session )
+    {
+        Object prefetched = session.getData().get( PREFETCHED_KEY );
+        if ( prefetched instanceof Prefetched )
         {
-            Map<String, ArtifactRepository> versionIndex = getVersions( session, result, request );
+            ( (Prefetched) prefetched ).release();
+        }
+    }
 
-            List<Version> versions = new ArrayList<Version>();
-            for ( Map.Entry<String, ArtifactRepository> v : versionIndex.entrySet() )
+    private Prefetched getPrefetched( RepositorySystemSession session )
+    {
+        Object prefetched = session.getData().get( PREFETCHED_KEY );
+        if ( !( prefetched instanceof Prefetched ) )
+        {
+            prefetched = new Prefetched();
+            if ( !session.getData().set( PREFETCHED_KEY, null, prefetched ) )
             {
-                try
-                {
-                    Version ver = versionScheme.parseVersion( v.getKey() );
-                    if ( versionConstraint.containsVersion( ver ) )
-                    {
-                        versions.add( ver );
-                        result.setRepository( ver, v.getValue() );
-                    }
-                }
-                catch ( InvalidVersionSpecificationException e )
-                {
-                    result.addException( e );
-                }
+                prefetched = session.getData().get( PREFETCHED_KEY );
             }
+        }
+        return (Prefetched) prefetched;
+    }
+
+    private VersionRangeResult takePrefetched( RepositorySystemSession session, VersionRangeRequest request )
+    {
+        Object prefetched = session.getData().get( PREFETCHED_KEY );
+        if ( !( prefetched instanceof Prefetched ) || ( (Prefetched) prefetched ).results.isEmpty() )
+        {
+            return null;
+        }
 
-            Collections.sort( versions );
-            result.setVersions( versions );
+        Object cached = ( (Prefetched) prefetched ).results.remove( toKey( request ) );
+        if ( !( cached instanceof VersionRangeResult ) )
+        {
+            return null;
         }
 
+        VersionRangeResult source = (VersionRangeResult) cached;
+
+        VersionRangeResult result = new VersionRangeResult( request );
+        result.setVersionConstraint( source.getVersionConstraint() );
+        result.setVersions( new ArrayList<Version>( source.getVersions() ) );
+        for ( Version version : source.getVersions() )
+        {
+            result.setRepository( version, source.getRepository( version ) );
+        }
+        for ( Exception exception : source.getExceptions() )
+        {
+            result.addException( exception );
+        }
         return result;
     }
 
-    private Map<String, ArtifactRepository> getVersions( RepositorySystemSession session, VersionRangeResult result,
-                                                         VersionRangeRequest request )
+    private static String toKey( VersionRangeRequest request )
     {
-        RequestTrace trace = RequestTrace.newChild( request.getTrace(), request );
+        StringBuilder buffer = new StringBuilder( 256 );
+        buffer.append( request.getArtifact() ).append( '|' ).append( request.getRequestContext() );
+        for ( RemoteRepository repository : request.getRepositories() )
+        {
+            buffer.append( '|' ).append( repository.getId() ).append( '@' ).append( repository.getUrl() );
+        }
+        return buffer.toString();
+    }
 
-        Map<String, ArtifactRepository> versionIndex = new HashMap<String, ArtifactRepository>();
+    /**
+     * The prefetched results of a session along with the number of prefetches that have not been discarded yet.
+     */
+    static class Prefetched
+    {
+
+        final ConcurrentMap<String, VersionRangeResult> results =
+            new ConcurrentHashMap<String, VersionRangeResult>();
+
+        private int pending;
+
+        synchronized void acquire()
+        {
+            pending++;
+        }
+
+        synchronized void release()
+        {
+            if ( pending > 0 && --pending == 0 )
+            {
+                results.clear();
+            }
+        }
+
+    }
+
+    /**
+     * The metadata of one artifact in one repository, shared by all version ranges of the artifact.
+     */
+    private static class VersionsEntry
+    {
+
+        final RequestTrace trace;
+
+        final MetadataRequest request;
+
+        MetadataResult result;
+
+        Versioning versioning;
+
+        final List<Exception> exceptions = new ArrayList<Exception>();
+
+        VersionsEntry( RequestTrace trace, MetadataRequest request )
+        {
+            this.trace = trace;
+            this.request = request;
+        }
+
+    }
+
+    private List<VersionRangeResult> resolve( RepositorySystemSession session,
+                                              Collection<VersionRangeRequest> requests, int threads )
+    {
+        VersionScheme versionScheme = new GenericVersionScheme();
+
+        List<VersionRangeResult> results = new ArrayList<VersionRangeResult>( requests.size() );
+        List<List<VersionsEntry>> resultEntries = new ArrayList<List<VersionsEntry>>( requests.size() );
+
+        Map<String, VersionsEntry> entries = new LinkedHashMap<String, VersionsEntry>();
+
+        for ( VersionRangeRequest request : requests )
+        {
+            VersionRangeResult result = new VersionRangeResult( request );
+            results.add( result );
+            resultEntries.add( null );
+
+            VersionConstraint versionConstraint;
+            try
+            {
+                versionConstraint = versionScheme.parseVersionConstraint( request.getArtifact().getVersion() );
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                result.addException( e );
+                continue;
+            }
+
+            result.setVersionConstraint( versionConstraint );
+
+            if ( versionConstraint.getRange() == null )
+            {
+                result.addVersion( versionConstraint.getVersion() );
+            }
+            else
+            {
+                resultEntries.set( resultEntries.size() - 1, getEntries( request, entries ) );
+            }
+        }
+
+        if ( !entries.isEmpty() )
+        {
+            List<MetadataRequest> metadataRequests = new ArrayList<MetadataRequest>( entries.size() );
+            for ( VersionsEntry entry : entries.values() )
+            {
+                metadataRequests.add( entry.request );
+            }
+
+            List<MetadataResult> metadataResults = metadataResolver.resolveMetadata( session, metadataRequests );
+            ParsedMetadataCache.invalidate( session, metadataResults );
+
+            int index = 0;
+            for ( VersionsEntry entry : entries.values() )
+            {
+                entry.result = metadataResults.get( index++ );
+            }
+
+            readVersions( session, entries.values(), threads );
+        }
+
+        for ( int i = 0; i < results.size(); i++ )
+        {
+            List<VersionsEntry> versionsEntries = resultEntries.get( i );
+            if ( versionsEntries != null )
+            {
+                addVersions( session, versionScheme, results.get( i ), versionsEntries );
+            }
+        }
+
+        return results;
+    }
+
+    private List<VersionsEntry> getEntries( VersionRangeRequest request, Map<String, VersionsEntry> entries )
+    {
+        RequestTrace trace = RequestTrace.newChild( request.getTrace(), request );
 
         Metadata metadata =
             new DefaultMetadata( request.getArtifact().getGroupId(), request.getArtifact().getArtifactId(),
                                  MAVEN_METADATA_XML, Metadata.Nature.RELEASE_OR_SNAPSHOT );
 
-        List<MetadataRequest> metadataRequests = new ArrayList<MetadataRequest>( request.getRepositories().size() );
+        String ga = request.getArtifact().getGroupId() + ':' + request.getArtifact().getArtifactId();
+
+        List<VersionsEntry> result = new ArrayList<VersionsEntry>( request.getRepositories().size() + 1 );
 
-        metadataRequests.add( new MetadataRequest( metadata, null, request.getRequestContext() ) );
+        String key = ga + "|" + request.getRequestContext();
+        VersionsEntry entry = entries.get( key );
+        if ( entry == null )
+        {
+            entry = new VersionsEntry( trace, new MetadataRequest( metadata, null, request.getRequestContext() ) );
+            entries.put( key, entry );
+        }
+        result.add( entry );
 
         for ( RemoteRepository repository : request.getRepositories() )
         {
-            MetadataRequest metadataRequest = new MetadataRequest( metadata, repository, request.getRequestContext() );
-            metadataRequest.setDeleteLocalCopyIfMissing( true );
-            metadataRequest.setTrace( trace );
-            metadataRequests.add( metadataRequest );
+            key = ga + "|" + request.getRequestContext() + "|" + repository.getId() + "@" + repository.getUrl();
+            entry = entries.get( key );
+            if ( entry == null )
+            {
+                MetadataRequest metadataRequest =
+                    new MetadataRequest( metadata, repository, request.getRequestContext() );
+                metadataRequest.setDeleteLocalCopyIfMissing( true );
+                metadataRequest.setTrace( trace );
+                entry = new VersionsEntry( trace, metadataRequest );
+                entries.put( key, entry );
+            }
+            result.add( entry );
         }
 
-        List<MetadataResult> metadataResults = metadataResolver.resolveMetadata( session, metadataRequests );
+        return result;
+    }
+
+    private void addVersions( RepositorySystemSession session, VersionScheme versionScheme, VersionRangeResult result,
+                              List<VersionsEntry> entries )
+    {
+        VersionRangeRequest request = result.getRequest();
+
+        Map<String, ArtifactRepository> versionIndex = new HashMap<String, ArtifactRepository>();
 
         WorkspaceReader workspace = session.getWorkspaceReader();
         if ( workspace != null )
@@ -241,18 +488,23 @@ private Map<String, ArtifactRepository> getVersions( RepositorySystemSession ses
             }
         }
 
-        for ( MetadataResult metadataResult : metadataResults )
+        for ( VersionsEntry entry : entries )
         {
-            result.addException( metadataResult.getException() );
+            result.addException( entry.result.getException() );
+
+            for ( Exception exception : entry.exceptions )
+            {
+                result.addException( exception );
+            }
 
-            ArtifactRepository repository = metadataResult.getRequest().getRepository();
-            if ( repository == null )
+            if ( entry.versioning == null )
             {
-                repository = session.getLocalRepository();
+                continue;
             }
 
-            Versioning versioning = readVersions( session, trace, metadataResult.getMetadata(), repository, result );
-            for ( String version : versioning.getVersions() )
+            ArtifactRepository repository = getRepository( session, entry );
+
+            for ( String version : entry.versioning.getVersions() )
             {
                 if ( !versionIndex.containsKey( version ) )
                 {
@@ -261,15 +513,121 @@ private Map<String, ArtifactRepository> getVersions( RepositorySystemSession ses
             }
         }
 
-        return versionIndex;
+        List<Version> versions = new ArrayList<Version>();
+        for ( Map.Entry<String, ArtifactRepository> v : versionIndex.entrySet() )
+        {
+            try
+            {
+                Version ver = versionScheme.parseVersion( v.getKey() );
+                if ( result.getVersionConstraint().containsVersion( ver ) )
+                {
+                    versions.add( ver );
+                    result.setRepository( ver, v.getValue() );
+                }
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                result.addException( e );
+            }
+        }
+
+        Collections.sort( versions );
+        result.setVersions( versions );
     }
 
-    private Versioning readVersions( RepositorySystemSession session, RequestTrace trace, Metadata metadata,
-                                     ArtifactRepository repository, VersionRangeResult result )
+    private static ArtifactRepository getRepository( RepositorySystemSession session, VersionsEntry entry )
     {
+        ArtifactRepository repository = entry.result.getRequest().getRepository();
+        return ( repository != null ) ? repository : session.getLocalRepository();
+    }
+
+    private void readVersions( final RepositorySystemSession session, Collection<VersionsEntry> entries, int threads )
+    {
+        if ( threads <= 1 || entries.size() <= 1 )
+        {
+            for ( VersionsEntry entry : entries )
+            {
+                readVersions( session, entry );
+            }
+            return;
+        }
+
+        final Queue<VersionsEntry> queue = new ConcurrentLinkedQueue<VersionsEntry>( entries );
+
+        Runnable worker = new Runnable()
+        {
+            public void run()
+            {
+                for ( VersionsEntry entry = queue.poll(); entry != null; entry = queue.poll() )
+                {
+                    readVersions( session, entry );
+                }
+            }
+        };
+
+        // the calling thread is one of the workers, the others borrow threads from the shared pool
+        List<Future<?>> futures = new ArrayList<Future<?>>( threads );
+        for ( int i = Math.min( threads, entries.size() ) - 1; i > 0; i-- )
+        {
+            futures.add( getExecutor().submit( worker ) );
+        }
+
+        worker.run();
+
+        boolean interrupted = false;
+        for ( Future<?> future : futures )
+        {
+            while ( true )
+            {
+                try
+                {
+                    future.get();
+                    break;
+                }
+                catch ( InterruptedException e )
+                {
+                    // parsing is bounded, keep waiting to not hand out partial results
+                    interrupted = true;
+                }
+                catch ( ExecutionException e )
+                {
+                    logger.warn( "Failed to read version metadata: " + e.getCause() );
+                    break;
+                }
+            }
+        }
+
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized ExecutorService getExecutor()
+    {
+        if ( executor == null )
+        {
+            executor = Executors.newCachedThreadPool( new ThreadFactory()
+            {
+                private final AtomicInteger id = new AtomicInteger();
+
+                public Thread newThread( Runnable r )
+                {
+                    Thread thread = new Thread( r, "version-range-resolver-" + id.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return executor;
+    }
+
+    private void readVersions( RepositorySystemSession session, VersionsEntry entry )
+    {
+        Metadata metadata = entry.result.getMetadata();
+
         Versioning versioning = null;
 
-        FileInputStream fis = null;
         try
         {
             if ( metadata != null )
@@ -282,9 +640,8 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
 
                     if ( metadata.getFile() != null && metadata.getFile().exists() )
                     {
-                        fis = new FileInputStream( metadata.getFile() );
                         org.apache.maven.artifact.repository.metadata.Metadata m =
-                            new MetadataXpp3Reader().read( fis, false );
+                            ParsedMetadataCache.read( session, metadata.getFile() );
                         versioning = m.getVersioning();
                     }
                 }
@@ -296,15 +653,11 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
         }
         catch ( Exception e )
         {
-            invalidMetadata( session, trace, metadata, repository, e );
-            result.addException( e );
-        }
-        finally
-        {
-            IOUtil.close( fis );
+            invalidMetadata( session, entry.trace, metadata, getRepository( session, entry ), e );
+            entry.exceptions.add( e );
         }
 
-        return ( versioning != null ) ? versioning : new Versioning();
+        entry.versioning = ( versioning != null ) ? versioning : new Versioning();
     }
 
     private void invalidMetadata( RepositorySystemSession session, RequestTrace trace, Metadata metadata,
@@ -20,13 +20,15 @@
  */
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -34,10 +36,8 @@
 import org.apache.maven.artifact.repository.metadata.Snapshot;
 import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositoryEvent.EventType;
@@ -87,6 +87,8 @@
 
     private static final String SNAPSHOT = "SNAPSHOT";
 
+    private static final String RESOLUTIONS_KEY = DefaultVersionResolver.class.getName() + ".resolutions";
+
     @SuppressWarnings( "unused" )
     @Requirement( role = LoggerFactory.class )
     private Logger logger = NullLoggerFactory.LOGGER;
@@ -185,13 +187,81 @@ public VersionResult resolveVersion( RepositorySystemSession session, VersionReq
             Object obj = cache.get( session, cacheKey );
             if ( obj instanceof Record )
             {
-                Record record = (Record) obj;
-                result.setVersion( record.version );
-                result.setRepository( CacheUtils.getRepository( session, request.getRepositories(), record.repoClass,
-                                                                record.repoId ) );
-                return result;
+                return toResult( session, request, result, (Record) obj );
+            }
+
+            if ( isMetaVersion( version ) && isSafelyCacheable( session, artifact ) )
+            {
+                return resolveVersionOnce( session, request, trace, result, cacheKey );
+            }
+        }
+
+        return resolveVersion( session, request, trace, result, cacheKey );
+    }
+
+    /**
+     * Resolves a meta version such that concurrent requests for the same version share a single resolution. Requests
+     * that find a resolution already in flight wait for it and use its outcome, just like a later request would pick
+     * it up from the repository cache.
+     */
+    private VersionResult resolveVersionOnce( RepositorySystemSession session, VersionRequest request,
+                                              RequestTrace trace, VersionResult result, Key cacheKey )
+        throws VersionResolutionException
+    {
+        ConcurrentMap<Key, Resolution> resolutions = getResolutions( session );
+
+        Resolution resolution = new Resolution();
+        Resolution pending = resolutions.putIfAbsent( cacheKey, resolution );
+
+        if ( pending != null )
+        {
+            Record record = pending.await();
+            if ( record != null )
+            {
+                return toResult( session, request, result, record );
+            }
+
+            // the other resolution failed, retry on our own to report the errors for this request
+            return resolveVersion( session, request, trace, result, cacheKey );
+        }
+
+        try
+        {
+            Object obj = session.getCache().get( session, cacheKey );
+            if ( obj instanceof Record )
+            {
+                // completed by another request in between our cache lookups
+                resolution.record = (Record) obj;
+                return toResult( session, request, result, resolution.record );
             }
+
+            resolveVersion( session, request, trace, result, cacheKey );
+            resolution.record = new Record( result.getVersion(), result.getRepository() );
+            return result;
         }
+        finally
+        {
+            resolutions.remove( cacheKey, resolution );
+            resolution.done();
+        }
+    }
+
+    private static VersionResult toResult( RepositorySystemSession session, VersionRequest request,
+                                           VersionResult result, Record record )
+    {
+        result.setVersion( record.version );
+        result.setRepository( CacheUtils.getRepository( session, request.getRepositories(), record.repoClass,
+                                                        record.repoId ) );
+        return result;
+    }
+
+    private VersionResult resolveVersion( RepositorySystemSession session, VersionRequest request, RequestTrace trace,
+                                          VersionResult result, Key cacheKey )
+        throws VersionResolutionException
+    {
+        Artifact artifact = request.getArtifact();
+
+        String version = artifact.getVersion();
 
         Metadata metadata;
 
@@ -248,6 +318,7 @@ else if ( version.endsWith( SNAPSHOT ) )
             }
 
             List<MetadataResult> metadataResults = metadataResolver.resolveMetadata( session, metadataReqs );
+            ParsedMetadataCache.invalidate( session, metadataResults );
 
             Map<String, VersionInfo> infos = new HashMap<String, VersionInfo>();
 
@@ -316,12 +387,32 @@ else if ( LATEST.equals( version ) )
 
         if ( cacheKey != null && metadata != null && isSafelyCacheable( session, artifact ) )
         {
-            cache.put( session, cacheKey, new Record( result.getVersion(), result.getRepository() ) );
+            session.getCache().put( session, cacheKey, new Record( result.getVersion(), result.getRepository() ) );
         }
 
         return result;
     }
 
+    private static boolean isMetaVersion( String version )
+    {
+        return RELEASE.equals( version ) || LATEST.equals( version ) || version.endsWith( SNAPSHOT );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static ConcurrentMap<Key, Resolution> getResolutions( RepositorySystemSession session )
+    {
+        Object resolutions = session.getData().get( RESOLUTIONS_KEY );
+        if ( !( resolutions instanceof ConcurrentMap ) )
+        {
+            resolutions = new ConcurrentHashMap<Key, Resolution>();
+            if ( !session.getData().set( RESOLUTIONS_KEY, null, resolutions ) )
+            {
+                resolutions = session.getData().get( RESOLUTIONS_KEY );
+            }
+        }
+        return (ConcurrentMap<Key, Resolution>) resolutions;
+    }
+
     private boolean resolve( VersionResult result, Map<String, VersionInfo> infos, String key )
     {
         VersionInfo info = infos.get( key );
@@ -338,7 +429,6 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
     {
         Versioning versioning = null;
 
-        FileInputStream fis = null;
         try
         {
             if ( metadata != null )
@@ -351,9 +441,8 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
 
                     if ( metadata.getFile() != null && metadata.getFile().exists() )
                     {
-                        fis = new FileInputStream( metadata.getFile() );
                         org.apache.maven.artifact.repository.metadata.Metadata m =
-                            new MetadataXpp3Reader().read( fis, false );
+                            ParsedMetadataCache.read( session, metadata.getFile() );
                         versioning = m.getVersioning();
 
                         /*
@@ -390,10 +479,6 @@ private Versioning readVersions( RepositorySystemSession session, RequestTrace t
             invalidMetadata( session, trace, metadata, repository, e );
             result.addException( e );
         }
-        finally
-        {
-            IOUtil.close( fis );
-        }
 
         return ( versioning != null ) ? versioning : new Versioning();
     }
@@ -609,6 +694,36 @@ public int hashCode()
 
     }
 
+    /**
+     * A version resolution in flight, completed with a {@code null} record if the resolution failed.
+     */
+    private static class Resolution
+    {
+
+        private final CountDownLatch latch = new CountDownLatch( 1 );
+
+        volatile Record record;
+
+        void done()
+        {
+            latch.countDown();
+        }
+
+        Record await()
+        {
+            try
+            {
+                latch.await();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return record;
+        }
+
+    }
+
     private static class Record
     {
         final String version;
@@ -29,6 +29,7 @@
 import org.apache.maven.artifact.repository.metadata.Snapshot;
 import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
 import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 
 /**
@@ -42,15 +43,16 @@
 
     private final boolean legacyFormat;
 
-    public LocalSnapshotMetadata( Artifact artifact, boolean legacyFormat )
+    public LocalSnapshotMetadata( Artifact artifact, boolean legacyFormat, RepositorySystemSession session )
     {
-        super( createMetadata( artifact, legacyFormat ), null );
+        super( createMetadata( artifact, legacyFormat ), null, session );
         this.legacyFormat = legacyFormat;
     }
 
-    public LocalSnapshotMetadata( Metadata metadata, File file, boolean legacyFormat )
+    public LocalSnapshotMetadata( Metadata metadata, File file, boolean legacyFormat,
+                                  RepositorySystemSession session )
     {
-        super( metadata, file );
+        super( metadata, file, session );
         this.legacyFormat = legacyFormat;
     }
 
@@ -82,7 +84,7 @@ public void bind( Artifact artifact )
 
     public MavenMetadata setFile( File file )
     {
-        return new LocalSnapshotMetadata( metadata, file, legacyFormat );
+        return new LocalSnapshotMetadata( metadata, file, legacyFormat, session );
     }
 
     public Object getKey()
@@ -42,9 +42,12 @@
 
     private final boolean legacyFormat;
 
+    private final RepositorySystemSession session;
+
     public LocalSnapshotMetadataGenerator( RepositorySystemSession session, InstallRequest request )
     {
         legacyFormat = ConfigUtils.getBoolean( session.getConfigProperties(), false, "maven.metadata.legacy" );
+        this.session = session;
 
         snapshots = new LinkedHashMap<Object, LocalSnapshotMetadata>();
     }
@@ -59,7 +62,7 @@ public Collection<? extends Metadata> prepare( Collection<? extends Artifact> ar
                 LocalSnapshotMetadata snapshotMetadata = snapshots.get( key );
                 if ( snapshotMetadata == null )
                 {
-                    snapshotMetadata = new LocalSnapshotMetadata( artifact, legacyFormat );
+                    snapshotMetadata = new LocalSnapshotMetadata( artifact, legacyFormat, session );
                     snapshots.put( key, snapshotMetadata );
                 }
                 snapshotMetadata.bind( artifact );
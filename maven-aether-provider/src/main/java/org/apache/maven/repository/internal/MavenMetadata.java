@@ -34,6 +34,7 @@
 import org.codehaus.plexus.util.WriterFactory;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.eclipse.aether.RepositoryException;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.metadata.AbstractMetadata;
 import org.eclipse.aether.metadata.MergeableMetadata;
 
@@ -53,10 +54,13 @@
 
     private boolean merged;
 
-    protected MavenMetadata( Metadata metadata, File file )
+    protected final RepositorySystemSession session;
+
+    protected MavenMetadata( Metadata metadata, File file, RepositorySystemSession session )
     {
         this.metadata = metadata;
         this.file = file;
+        this.session = session;
     }
 
     public String getType()
@@ -78,6 +82,8 @@ public void merge( File existing, File result )
 
         write( result, metadata );
 
+        ParsedMetadataCache.invalidate( session, result );
+
         merged = true;
     }
 
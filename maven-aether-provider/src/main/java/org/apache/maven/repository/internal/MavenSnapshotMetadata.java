@@ -24,6 +24,7 @@
 import java.util.Collection;
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 
 /**
@@ -38,9 +39,10 @@
 
     protected final boolean legacyFormat;
 
-    protected MavenSnapshotMetadata( Metadata metadata, File file, boolean legacyFormat )
+    protected MavenSnapshotMetadata( Metadata metadata, File file, boolean legacyFormat,
+                                     RepositorySystemSession session )
     {
-        super( metadata, file );
+        super( metadata, file, session );
         this.legacyFormat = legacyFormat;
     }
 
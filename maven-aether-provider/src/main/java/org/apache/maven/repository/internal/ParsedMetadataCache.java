@@ -0,0 +1,206 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.resolution.MetadataResult;
+
+/**
+ * A session-scoped cache of parsed {@code maven-metadata*.xml} files. Entries are validated against the length and
+ * modification time of the file and are dropped when the metadata is rewritten or downloaded during the session, see
+ * {@link #invalidate(RepositorySystemSession, File)} and {@link #invalidate(RepositorySystemSession, Collection)}. The
+ * returned metadata is shared among all readers of the session and must not be modified. <strong>Warning:</strong>
+ * This is an internal utility class that is only public for technical reasons, it is not part of the public API. In
+ * particular, this class can be changed or deleted without prior notice.
+ *
+ * @since 3.2.6
+ */
+public final class ParsedMetadataCache
+{
+
+    private static final String KEY = ParsedMetadataCache.class.getName();
+
+    private static class Entry
+    {
+
+        final long length;
+
+        final long lastModified;
+
+        final long parsed;
+
+        final Metadata metadata;
+
+        Entry( long length, long lastModified, long parsed, Metadata metadata )
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.parsed = parsed;
+            this.metadata = metadata;
+        }
+
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * The time of the last rewrite of the metadata files written during the session, guards against rewrites that
+     * preserve length and modification time (which has only a resolution of seconds on some platforms) and that
+     * race with a concurrent parse of the previous contents.
+     */
+    private final ConcurrentMap<String, Long> written = new ConcurrentHashMap<String, Long>();
+
+    private ParsedMetadataCache()
+    {
+        // instances are bound to sessions
+    }
+
+    /**
+     * Reads the specified metadata file in non-strict mode, reusing the metadata already parsed during the session if
+     * the file has not changed since.
+     *
+     * @param session The repository session to cache the metadata in, may be {@code null} to bypass the cache.
+     * @param file The metadata file to read, must not be {@code null}.
+     * @return The metadata, never {@code null}. Callers must not modify the returned metadata.
+     * @throws IOException If the file could not be read or parsed.
+     */
+    public static Metadata read( RepositorySystemSession session, File file )
+        throws IOException
+    {
+        if ( session == null )
+        {
+            return parse( file );
+        }
+
+        return getInstance( session ).read( file );
+    }
+
+    /**
+     * Drops the parsed metadata of the specified file from the session. Must be called whenever the file is rewritten.
+     *
+     * @param session The repository session whose cache to update, may be {@code null}.
+     * @param file The metadata file, must not be {@code null}.
+     */
+    public static void invalidate( RepositorySystemSession session, File file )
+    {
+        if ( session != null )
+        {
+            getInstance( session ).invalidate( file );
+        }
+    }
+
+    /**
+     * Drops the parsed metadata of the files that were updated by the specified metadata resolution.
+     *
+     * @param session The repository session whose cache to update, may be {@code null}.
+     * @param results The results of the metadata resolution, must not be {@code null}.
+     */
+    public static void invalidate( RepositorySystemSession session, Collection<MetadataResult> results )
+    {
+        for ( MetadataResult result : results )
+        {
+            if ( result.isUpdated() && result.getMetadata() != null && result.getMetadata().getFile() != null )
+            {
+                invalidate( session, result.getMetadata().getFile() );
+            }
+        }
+    }
+
+    private static ParsedMetadataCache getInstance( RepositorySystemSession session )
+    {
+        Object cache = session.getData().get( KEY );
+        if ( !( cache instanceof ParsedMetadataCache ) )
+        {
+            cache = new ParsedMetadataCache();
+            if ( !session.getData().set( KEY, null, cache ) )
+            {
+                cache = session.getData().get( KEY );
+            }
+        }
+        return (ParsedMetadataCache) cache;
+    }
+
+    private void invalidate( File file )
+    {
+        String path = file.getAbsolutePath();
+        written.put( path, System.nanoTime() );
+        entries.remove( path );
+    }
+
+    private Metadata read( File file )
+        throws IOException
+    {
+        String path = file.getAbsolutePath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        Entry entry = entries.get( path );
+
+        if ( entry != null && entry.length == length && entry.lastModified == lastModified )
+        {
+            Long rewritten = written.get( path );
+            if ( rewritten == null || rewritten - entry.parsed < 0 )
+            {
+                return entry.metadata;
+            }
+        }
+
+        long parsed = System.nanoTime();
+
+        Metadata metadata = parse( file );
+
+        entries.put( path, new Entry( length, lastModified, parsed, metadata ) );
+
+        return metadata;
+    }
+
+    private static Metadata parse( File file )
+        throws IOException
+    {
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            return new MetadataXpp3Reader().read( is, false );
+        }
+        catch ( XmlPullParserException e )
+        {
+            IOException ex = new IOException( "Could not parse metadata " + file + ": " + e.getMessage() );
+            ex.initCause( e );
+            throw ex;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+    }
+
+}
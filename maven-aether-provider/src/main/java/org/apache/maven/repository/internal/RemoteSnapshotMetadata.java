@@ -32,6 +32,7 @@
 import org.apache.maven.artifact.repository.metadata.Snapshot;
 import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
 import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 
 /**
@@ -43,19 +44,20 @@
 
     private final Map<String, SnapshotVersion> versions = new LinkedHashMap<String, SnapshotVersion>();
 
-    public RemoteSnapshotMetadata( Artifact artifact, boolean legacyFormat )
+    public RemoteSnapshotMetadata( Artifact artifact, boolean legacyFormat, RepositorySystemSession session )
     {
-        super( createRepositoryMetadata( artifact, legacyFormat ), null, legacyFormat );
+        super( createRepositoryMetadata( artifact, legacyFormat ), null, legacyFormat, session );
     }
 
-    private RemoteSnapshotMetadata( Metadata metadata, File file, boolean legacyFormat )
+    private RemoteSnapshotMetadata( Metadata metadata, File file, boolean legacyFormat,
+                                    RepositorySystemSession session )
     {
-        super( metadata, file, legacyFormat );
+        super( metadata, file, legacyFormat, session );
     }
 
     public MavenMetadata setFile( File file )
     {
-        return new RemoteSnapshotMetadata( metadata, file, legacyFormat );
+        return new RemoteSnapshotMetadata( metadata, file, legacyFormat, session );
     }
 
     public String getExpandedVersion( Artifact artifact )
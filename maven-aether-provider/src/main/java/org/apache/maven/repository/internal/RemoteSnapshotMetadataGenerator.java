@@ -42,9 +42,12 @@
 
     private final boolean legacyFormat;
 
+    private final RepositorySystemSession session;
+
     public RemoteSnapshotMetadataGenerator( RepositorySystemSession session, DeployRequest request )
     {
         legacyFormat = ConfigUtils.getBoolean( session.getConfigProperties(), false, "maven.metadata.legacy" );
+        this.session = session;
 
         snapshots = new LinkedHashMap<Object, RemoteSnapshotMetadata>();
 
@@ -74,7 +77,7 @@ public Collection<? extends Metadata> prepare( Collection<? extends Artifact> ar
                 RemoteSnapshotMetadata snapshotMetadata = snapshots.get( key );
                 if ( snapshotMetadata == null )
                 {
-                    snapshotMetadata = new RemoteSnapshotMetadata( artifact, legacyFormat );
+                    snapshotMetadata = new RemoteSnapshotMetadata( artifact, legacyFormat, session );
                     snapshots.put( key, snapshotMetadata );
                 }
                 snapshotMetadata.bind( artifact );
@@ -26,6 +26,7 @@
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.ArtifactProperties;
 
@@ -38,15 +39,15 @@
 
     private final Artifact artifact;
 
-    public VersionsMetadata( Artifact artifact )
+    public VersionsMetadata( Artifact artifact, RepositorySystemSession session )
     {
-        super( createRepositoryMetadata( artifact ), null );
+        super( createRepositoryMetadata( artifact ), null, session );
         this.artifact = artifact;
     }
 
-    public VersionsMetadata( Artifact artifact, File file )
+    public VersionsMetadata( Artifact artifact, File file, RepositorySystemSession session )
     {
-        super( createRepositoryMetadata( artifact ), file );
+        super( createRepositoryMetadata( artifact ), file, session );
         this.artifact = artifact;
     }
 
@@ -107,7 +108,7 @@ public static Object getKey( Artifact artifact )
 
     public MavenMetadata setFile( File file )
     {
-        return new VersionsMetadata( artifact, file );
+        return new VersionsMetadata( artifact, file, session );
     }
 
     public String getGroupId()
@@ -43,6 +43,8 @@
 
     private Map<Object, VersionsMetadata> processedVersions;
 
+    private final RepositorySystemSession session;
+
     public VersionsMetadataGenerator( RepositorySystemSession session, InstallRequest request )
     {
         this( session, request.getMetadata() );
@@ -57,6 +59,7 @@ private VersionsMetadataGenerator( RepositorySystemSession session, Collection<?
     {
         versions = new LinkedHashMap<Object, VersionsMetadata>();
         processedVersions = new LinkedHashMap<Object, VersionsMetadata>();
+        this.session = session;
 
         /*
          * NOTE: This should be considered a quirk to support interop with Maven's legacy ArtifactDeployer which
@@ -96,7 +99,7 @@ public Collection<? extends Metadata> finish( Collection<? extends Artifact> art
                 VersionsMetadata versionsMetadata = versions.get( key );
                 if ( versionsMetadata == null )
                 {
-                    versionsMetadata = new VersionsMetadata( artifact );
+                    versionsMetadata = new VersionsMetadata( artifact, session );
                     versions.put( key, versionsMetadata );
                 }
             }
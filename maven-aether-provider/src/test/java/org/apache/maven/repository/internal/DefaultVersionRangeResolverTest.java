@@ -0,0 +1,141 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.impl.VersionRangeResolver;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.VersionRangeRequest;
+import org.eclipse.aether.resolution.VersionRangeResolutionException;
+import org.eclipse.aether.resolution.VersionRangeResult;
+
+public class DefaultVersionRangeResolverTest
+    extends AbstractRepositoryTestCase
+{
+    private DefaultVersionRangeResolver versionRangeResolver;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        versionRangeResolver = (DefaultVersionRangeResolver) lookup( VersionRangeResolver.class );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        versionRangeResolver = null;
+        super.tearDown();
+    }
+
+    private VersionRangeRequest newRequest( String artifactId, String version )
+        throws Exception
+    {
+        List<RemoteRepository> repositories = Arrays.asList( newTestRepository() );
+        return new VersionRangeRequest( new DefaultArtifact( "ut.simple", artifactId, "jar", version ), repositories,
+                                        null );
+    }
+
+    public void testResolveVersionRanges()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession( this.session );
+        session.setConfigProperty( DefaultVersionRangeResolver.CONFIG_PROP_THREADS, 2 );
+
+        List<VersionRangeResult> results =
+            versionRangeResolver.resolveVersionRanges( session,
+                                                       Arrays.asList( newRequest( "artifact", "[1.0,)" ),
+                                                                      newRequest( "dependency", "[0,)" ),
+                                                                      newRequest( "artifact", "[2.0,)" ),
+                                                                      newRequest( "artifact", "1.0" ),
+                                                                      newRequest( "artifact", "[1.0" ) ) );
+
+        assertEquals( 5, results.size() );
+        assertEquals( "[1.0]", results.get( 0 ).getVersions().toString() );
+        assertEquals( "[1.0]", results.get( 1 ).getVersions().toString() );
+        assertEquals( "[]", results.get( 2 ).getVersions().toString() );
+        assertEquals( "[1.0]", results.get( 3 ).getVersions().toString() );
+        assertNull( results.get( 4 ).getVersionConstraint() );
+        assertFalse( results.get( 4 ).getExceptions().isEmpty() );
+    }
+
+    public void testPrefetchedResultsAreUsedOnce()
+        throws Exception
+    {
+        VersionRangeRequest request = newRequest( "artifact", "[1.0,)" );
+
+        versionRangeResolver.prefetchVersionRanges( session, Arrays.asList( request ) );
+
+        VersionRangeResult result = versionRangeResolver.resolveVersionRange( session, newRequest( "artifact",
+                                                                                                   "[1.0,)" ) );
+        assertEquals( "[1.0]", result.getVersions().toString() );
+        assertNotSame( request, result.getRequest() );
+        versionRangeResolver.discardPrefetched( session );
+
+        versionRangeResolver.prefetchVersionRanges( session, Arrays.asList( request ) );
+        versionRangeResolver.discardPrefetched( session );
+
+        result = versionRangeResolver.resolveVersionRange( session, request );
+        assertEquals( "[1.0]", result.getVersions().toString() );
+    }
+
+    public void testDiscardKeepsResultsOfPendingPrefetches()
+        throws Exception
+    {
+        versionRangeResolver.prefetchVersionRanges( session, Arrays.asList( newRequest( "artifact", "[1.0,)" ) ) );
+        versionRangeResolver.prefetchVersionRanges( session, Arrays.asList( newRequest( "dependency", "[0,)" ) ) );
+
+        Object data = session.getData().get( DefaultVersionRangeResolver.PREFETCHED_KEY );
+        DefaultVersionRangeResolver.Prefetched prefetched = (DefaultVersionRangeResolver.Prefetched) data;
+        assertEquals( 2, prefetched.results.size() );
+
+        versionRangeResolver.discardPrefetched( session );
+        assertEquals( 2, prefetched.results.size() );
+
+        versionRangeResolver.discardPrefetched( session );
+        assertEquals( 0, prefetched.results.size() );
+
+        versionRangeResolver.discardPrefetched( session );
+        versionRangeResolver.prefetchVersionRanges( session, Arrays.asList( newRequest( "artifact", "[1.0,)" ) ) );
+        assertEquals( 1, prefetched.results.size() );
+        versionRangeResolver.discardPrefetched( session );
+        assertEquals( 0, prefetched.results.size() );
+    }
+
+    public void testInvalidRangeFails()
+        throws Exception
+    {
+        try
+        {
+            versionRangeResolver.resolveVersionRange( session, newRequest( "artifact", "[1.0" ) );
+            fail( "Expected VersionRangeResolutionException" );
+        }
+        catch ( VersionRangeResolutionException e )
+        {
+            assertNull( e.getResult().getVersionConstraint() );
+        }
+    }
+}
@@ -19,11 +19,27 @@
  * under the License.
  */
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.impl.MetadataResolver;
+import org.eclipse.aether.impl.RepositoryEventDispatcher;
+import org.eclipse.aether.impl.SyncContextFactory;
 import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
 import org.eclipse.aether.resolution.VersionRequest;
 import org.eclipse.aether.resolution.VersionResult;
 import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.spi.log.NullLoggerFactory;
 
 public class DefaultVersionResolverTest
     extends AbstractRepositoryTestCase
@@ -93,4 +109,124 @@ public void testResolveSeparateInstalledClassifiedNonVersionedArtifacts()
         VersionResult resultB = versionResolver.resolveVersion( session, requestB );
         assertEquals( versionB, resultB.getVersion() );
     }
+
+    public void testConcurrentSnapshotResolutionIsShared()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession( this.session );
+        session.setCache( new DefaultRepositoryCache() );
+
+        BlockingMetadataResolver metadataResolver = new BlockingMetadataResolver();
+        final DefaultVersionResolver versionResolver =
+            new DefaultVersionResolver( metadataResolver, lookup( SyncContextFactory.class ),
+                                        lookup( RepositoryEventDispatcher.class ), NullLoggerFactory.INSTANCE );
+
+        final VersionRequest request = new VersionRequest();
+        request.addRepository( newTestRepository() );
+        request.setArtifact( new DefaultArtifact( "org.apache.maven.its", "dep-mng5324", "classifierA", "jar",
+                                                  "07.20.3-SNAPSHOT" ) );
+
+        final RepositorySystemSession s = session;
+        final List<String> versions = new ArrayList<String>();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            Thread thread = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        String version = versionResolver.resolveVersion( s, request ).getVersion();
+                        synchronized ( versions )
+                        {
+                            versions.add( version );
+                        }
+                    }
+                    catch ( Throwable e )
+                    {
+                        synchronized ( errors )
+                        {
+                            errors.add( e );
+                        }
+                    }
+                }
+            };
+            threads.add( thread );
+            thread.start();
+        }
+
+        metadataResolver.entered.await();
+        Thread.sleep( 100 );
+        metadataResolver.release.countDown();
+
+        for ( Thread thread : threads )
+        {
+            thread.join();
+        }
+
+        for ( Throwable error : errors )
+        {
+            if ( error instanceof Error )
+            {
+                throw (Error) error;
+            }
+            throw (Exception) error;
+        }
+
+        assertEquals( 1, metadataResolver.calls.get() );
+        assertEquals( 4, versions.size() );
+        for ( String version : versions )
+        {
+            assertEquals( "07.20.3-20120809.112124-88", version );
+        }
+
+        assertEquals( "07.20.3-20120809.112124-88", versionResolver.resolveVersion( s, request ).getVersion() );
+        assertEquals( 1, metadataResolver.calls.get() );
+    }
+
+    static class BlockingMetadataResolver
+        implements MetadataResolver
+    {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        final CountDownLatch entered = new CountDownLatch( 1 );
+
+        final CountDownLatch release = new CountDownLatch( 1 );
+
+        public List<MetadataResult> resolveMetadata( RepositorySystemSession session,
+                                                     Collection<? extends MetadataRequest> requests )
+        {
+            calls.incrementAndGet();
+            entered.countDown();
+            try
+            {
+                release.await();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            List<MetadataResult> results = new ArrayList<MetadataResult>();
+            for ( MetadataRequest request : requests )
+            {
+                MetadataResult result = new MetadataResult( request );
+                if ( request.getRepository() != null )
+                {
+                    File file =
+                        getTestFile( "target/test-classes/repo/org/apache/maven/its/dep-mng5324/07.20.3-SNAPSHOT/"
+                            + "maven-metadata.xml" );
+                    result.setMetadata( request.getMetadata().setFile( file ) );
+                }
+                results.add( result );
+            }
+            return results;
+        }
+
+    }
+
 }
@@ -0,0 +1,149 @@
+package org.apache.maven.repository.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.metadata.DefaultMetadata;
+import org.eclipse.aether.metadata.Metadata.Nature;
+import org.eclipse.aether.resolution.MetadataRequest;
+import org.eclipse.aether.resolution.MetadataResult;
+
+public class ParsedMetadataCacheTest
+    extends TestCase
+{
+
+    private File file;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        file = File.createTempFile( "maven-metadata", ".xml" );
+        file.deleteOnExit();
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        file.delete();
+        super.tearDown();
+    }
+
+    private void write( String version )
+        throws Exception
+    {
+        FileUtils.fileWrite( file, "UTF-8", "<metadata><groupId>gid</groupId><artifactId>aid</artifactId><versioning>"
+            + "<versions><version>" + version + "</version></versions></versioning></metadata>" );
+        file.setLastModified( 1000000000000L );
+    }
+
+    public void testReuseWithinSession()
+        throws Exception
+    {
+        write( "1.0" );
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        Metadata metadata = ParsedMetadataCache.read( session, file );
+        assertEquals( "[1.0]", metadata.getVersioning().getVersions().toString() );
+        assertSame( metadata, ParsedMetadataCache.read( session, file ) );
+        assertNotSame( metadata, ParsedMetadataCache.read( new DefaultRepositorySystemSession(), file ) );
+        assertNotSame( metadata, ParsedMetadataCache.read( null, file ) );
+    }
+
+    public void testChangedFileIsReparsed()
+        throws Exception
+    {
+        write( "1.0" );
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        assertEquals( "[1.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+
+        write( "1.10" );
+
+        assertEquals( "[1.10]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+    }
+
+    public void testInvalidatedFileIsReparsed()
+        throws Exception
+    {
+        write( "1.0" );
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        assertEquals( "[1.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+
+        // same length and timestamp
+        write( "2.0" );
+        ParsedMetadataCache.invalidate( session, file );
+
+        assertEquals( "[2.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+    }
+
+    public void testDownloadedFileIsReparsed()
+        throws Exception
+    {
+        write( "1.0" );
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        assertEquals( "[1.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+
+        write( "2.0" );
+        MetadataResult result = new MetadataResult( new MetadataRequest() );
+        result.setMetadata( new DefaultMetadata( "gid", "aid", "", "maven-metadata.xml", Nature.RELEASE, file ) );
+        ParsedMetadataCache.invalidate( session, Collections.singletonList( result ) );
+
+        assertEquals( "[1.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+
+        result.setUpdated( true );
+        ParsedMetadataCache.invalidate( session, Collections.singletonList( result ) );
+
+        assertEquals( "[2.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+    }
+
+    public void testMergedFileIsReparsed()
+        throws Exception
+    {
+        write( "1.0" );
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+        assertEquals( "[1.0]", ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+
+        VersionsMetadata metadata = new VersionsMetadata( new DefaultArtifact( "gid:aid:2.0" ), session );
+        metadata.merge( file, file );
+
+        assertEquals( "[1.0, 2.0]",
+                      ParsedMetadataCache.read( session, file ).getVersioning().getVersions().toString() );
+    }
+
+}
@@ -21,12 +21,12 @@
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Properties;
-import java.util.Stack;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Generic implementation of version comparison.
@@ -53,6 +53,9 @@
  * <li>a dash usually precedes a qualifier, and is always less important than something preceded with a dot.</li>
  * </ul></p>
  *
+ * <p>Parsed versions can be shared through a bounded cache whose capacity is given by the system property
+ * {@code maven.version.cache.size}, the cache is disabled by default.</p>
+ *
  * @see <a href="https://cwiki.apache.org/confluence/display/MAVENOLD/Versioning">"Versioning" on Maven Wiki</a>
  * @author <a href="mailto:kenney@apache.org">Kenney Westerhof</a>
  * @author <a href="mailto:hboutemy@apache.org">Hervé Boutemy</a>
@@ -60,6 +63,10 @@
 public class ComparableVersion
     implements Comparable<ComparableVersion>
 {
+    private static final int CACHE_SIZE = Integer.getInteger( "maven.version.cache.size", 0 );
+
+    private static final ConcurrentMap<String, ListItem> CACHE = new ConcurrentHashMap<String, ListItem>();
+
     private String value;
 
     private String canonical;
@@ -80,25 +87,52 @@
     }
 
     /**
-     * Represents a numeric item in the version item list.
+     * Represents a numeric item in the version item list. Values that fit into a {@code long} are kept as such, only
+     * larger values fall back to a {@link BigInteger}.
      */
     private static class IntegerItem
         implements Item
     {
-        private static final BigInteger BIG_INTEGER_ZERO = new BigInteger( "0" );
+        private static final int MAX_LONG_DIGITS = 18;
 
-        private final BigInteger value;
+        private final long value;
 
-        public static final IntegerItem ZERO = new IntegerItem();
+        private final BigInteger bigValue;
 
-        private IntegerItem()
+        public static final IntegerItem ZERO = new IntegerItem( 0 );
+
+        private IntegerItem( long value )
         {
-            this.value = BIG_INTEGER_ZERO;
+            this.value = value;
+            this.bigValue = null;
         }
 
-        public IntegerItem( String str )
+        public IntegerItem( String str, int start, int end )
         {
-            this.value = new BigInteger( str );
+            if ( end - start <= MAX_LONG_DIGITS )
+            {
+                long val = 0;
+                for ( int i = start; i < end; i++ )
+                {
+                    val = val * 10 + Character.digit( str.charAt( i ), 10 );
+                }
+                this.value = val;
+                this.bigValue = null;
+            }
+            else
+            {
+                BigInteger big = new BigInteger( str.substring( start, end ) );
+                if ( big.bitLength() < Long.SIZE )
+                {
+                    this.value = big.longValue();
+                    this.bigValue = null;
+                }
+                else
+                {
+                    this.value = 0;
+                    this.bigValue = big;
+                }
+            }
         }
 
         public int getType()
@@ -108,20 +142,29 @@ public int getType()
 
         public boolean isNull()
         {
-            return BIG_INTEGER_ZERO.equals( value );
+            return bigValue == null && value == 0;
         }
 
         public int compareTo( Item item )
         {
             if ( item == null )
             {
-                return BIG_INTEGER_ZERO.equals( value ) ? 0 : 1; // 1.0 == 1, 1.1 > 1
+                return isNull() ? 0 : 1; // 1.0 == 1, 1.1 > 1
             }
 
             switch ( item.getType() )
             {
                 case INTEGER_ITEM:
-                    return value.compareTo( ( (IntegerItem) item ).value );
+                    IntegerItem other = (IntegerItem) item;
+                    if ( bigValue == null )
+                    {
+                        if ( other.bigValue == null )
+                        {
+                            return ( value < other.value ) ? -1 : ( ( value == other.value ) ? 0 : 1 );
+                        }
+                        return -1;
+                    }
+                    return ( other.bigValue == null ) ? 1 : bigValue.compareTo( other.bigValue );
 
                 case STRING_ITEM:
                     return 1; // 1.1 > 1-sp
@@ -136,36 +179,46 @@ public int compareTo( Item item )
 
         public String toString()
         {
-            return value.toString();
+            return ( bigValue != null ) ? bigValue.toString() : Long.toString( value );
         }
     }
 
     /**
-     * Represents a string in the version item list, usually a qualifier.
+     * Represents a string in the version item list, usually a qualifier. The rank of the qualifier is determined once
+     * when the item is created: known qualifiers are ranked by their index, unknown qualifiers share the rank after the
+     * known ones and are then ordered lexically.
      */
     private static class StringItem
         implements Item
     {
         private static final String[] QUALIFIERS = { "alpha", "beta", "milestone", "rc", "snapshot", "", "sp" };
 
-        @SuppressWarnings( "checkstyle:constantname" )
-        private static final List<String> _QUALIFIERS = Arrays.asList( QUALIFIERS );
+        private static final Map<String, Integer> RANKS = new HashMap<String, Integer>();
 
-        private static final Properties ALIASES = new Properties();
+        private static final Map<String, String> ALIASES = new HashMap<String, String>();
         static
         {
+            for ( int i = 0; i < QUALIFIERS.length; i++ )
+            {
+                RANKS.put( QUALIFIERS[i], i );
+            }
+
             ALIASES.put( "ga", "" );
             ALIASES.put( "final", "" );
             ALIASES.put( "cr", "rc" );
         }
 
         /**
-         * A comparable value for the empty-string qualifier. This one is used to determine if a given qualifier makes
-         * the version older than one without a qualifier, or more recent.
+         * The rank of the empty-string qualifier. This one is used to determine if a given qualifier makes the version
+         * older than one without a qualifier, or more recent.
          */
-        private static final String RELEASE_VERSION_INDEX = String.valueOf( _QUALIFIERS.indexOf( "" ) );
+        private static final int RELEASE_VERSION_RANK = RANKS.get( "" );
+
+        private static final int UNKNOWN_RANK = QUALIFIERS.length;
 
-        private String value;
+        private final String value;
+
+        private final int rank;
 
         public StringItem( String value, boolean followedByDigit )
         {
@@ -186,7 +239,12 @@ public StringItem( String value, boolean followedByDigit )
                     default:
                 }
             }
-            this.value = ALIASES.getProperty( value , value );
+
+            String alias = ALIASES.get( value );
+            this.value = ( alias != null ) ? alias : value;
+
+            Integer known = RANKS.get( this.value );
+            this.rank = ( known != null ) ? known : UNKNOWN_RANK;
         }
 
         public int getType()
@@ -196,27 +254,12 @@ public int getType()
 
         public boolean isNull()
         {
-            return ( comparableQualifier( value ).compareTo( RELEASE_VERSION_INDEX ) == 0 );
+            return rank == RELEASE_VERSION_RANK;
         }
 
-        /**
-         * Returns a comparable value for a qualifier.
-         *
-         * This method takes into account the ordering of known qualifiers then unknown qualifiers with lexical
-         * ordering.
-         *
-         * just returning an Integer with the index here is faster, but requires a lot of if/then/else to check for -1
-         * or QUALIFIERS.size and then resort to lexical ordering. Most comparisons are decided by the first character,
-         * so this is still fast. If more characters are needed then it requires a lexical sort anyway.
-         *
-         * @param qualifier
-         * @return an equivalent value that can be used with lexical comparison
-         */
-        public static String comparableQualifier( String qualifier )
+        private int compareRank( int otherRank )
         {
-            int i = _QUALIFIERS.indexOf( qualifier );
-
-            return i == -1 ? ( _QUALIFIERS.size() + "-" + qualifier ) : String.valueOf( i );
+            return ( rank < otherRank ) ? -1 : ( ( rank == otherRank ) ? 0 : 1 );
         }
 
         public int compareTo( Item item )
@@ -224,7 +267,7 @@ public int compareTo( Item item )
             if ( item == null )
             {
                 // 1-rc < 1, 1-ga > 1
-                return comparableQualifier( value ).compareTo( RELEASE_VERSION_INDEX );
+                return compareRank( RELEASE_VERSION_RANK );
             }
             switch ( item.getType() )
             {
@@ -232,7 +275,13 @@ public int compareTo( Item item )
                     return -1; // 1.any < 1.1 ?
 
                 case STRING_ITEM:
-                    return comparableQualifier( value ).compareTo( comparableQualifier( ( (StringItem) item ).value ) );
+                    StringItem other = (StringItem) item;
+                    int result = compareRank( other.rank );
+                    if ( result == 0 && rank == UNKNOWN_RANK )
+                    {
+                        result = value.compareTo( other.value );
+                    }
+                    return result;
 
                 case LIST_ITEM:
                     return -1; // 1.any < 1-1
@@ -304,13 +353,12 @@ public int compareTo( Item item )
                     return 1; // 1-1 > 1-sp
 
                 case LIST_ITEM:
-                    Iterator<Item> left = iterator();
-                    Iterator<Item> right = ( (ListItem) item ).iterator();
+                    ListItem other = (ListItem) item;
 
-                    while ( left.hasNext() || right.hasNext() )
+                    for ( int i = 0, n = Math.max( size(), other.size() ); i < n; i++ )
                     {
-                        Item l = left.hasNext() ? left.next() : null;
-                        Item r = right.hasNext() ? right.next() : null;
+                        Item l = ( i < size() ) ? get( i ) : null;
+                        Item r = ( i < other.size() ) ? other.get( i ) : null;
 
                         // if this is shorter, then invert the compare and mul with -1
                         int result = l == null ? ( r == null ? 0 : -1 * r.compareTo( l ) ) : l.compareTo( r );
@@ -331,9 +379,8 @@ public int compareTo( Item item )
         public String toString()
         {
             StringBuilder buffer = new StringBuilder();
-            for ( Iterator<Item> iter = iterator(); iter.hasNext(); )
+            for ( Item item : this )
             {
-                Item item = iter.next();
                 if ( buffer.length() > 0 )
                 {
                     buffer.append( ( item instanceof ListItem ) ? '-' : '.' );
@@ -352,15 +399,39 @@ public ComparableVersion( String version )
     public final void parseVersion( String version )
     {
         this.value = version;
+        this.canonical = null;
+
+        if ( CACHE_SIZE > 0 )
+        {
+            items = CACHE.get( version );
 
-        items = new ListItem();
+            if ( items == null )
+            {
+                items = parseItems( version );
+
+                if ( CACHE.size() >= CACHE_SIZE )
+                {
+                    CACHE.clear();
+                }
+                CACHE.put( version, items );
+            }
+        }
+        else
+        {
+            items = parseItems( version );
+        }
+    }
+
+    private static ListItem parseItems( String version )
+    {
+        ListItem items = new ListItem();
 
         version = version.toLowerCase( Locale.ENGLISH );
 
         ListItem list = items;
 
-        Stack<Item> stack = new Stack<Item>();
-        stack.push( list );
+        List<ListItem> lists = new ArrayList<ListItem>();
+        lists.add( list );
 
         boolean isDigit = false;
 
@@ -378,7 +449,7 @@ public final void parseVersion( String version )
                 }
                 else
                 {
-                    list.add( parseItem( isDigit, version.substring( startIndex, i ) ) );
+                    list.add( parseItem( isDigit, version, startIndex, i ) );
                 }
                 startIndex = i + 1;
             }
@@ -390,12 +461,12 @@ else if ( c == '-' )
                 }
                 else
                 {
-                    list.add( parseItem( isDigit, version.substring( startIndex, i ) ) );
+                    list.add( parseItem( isDigit, version, startIndex, i ) );
                 }
                 startIndex = i + 1;
 
                 list.add( list = new ListItem() );
-                stack.push( list );
+                lists.add( list );
             }
             else if ( Character.isDigit( c ) )
             {
@@ -405,7 +476,7 @@ else if ( Character.isDigit( c ) )
                     startIndex = i;
 
                     list.add( list = new ListItem() );
-                    stack.push( list );
+                    lists.add( list );
                 }
 
                 isDigit = true;
@@ -414,11 +485,11 @@ else if ( Character.isDigit( c ) )
             {
                 if ( isDigit && i > startIndex )
                 {
-                    list.add( parseItem( true, version.substring( startIndex, i ) ) );
+                    list.add( parseItem( true, version, startIndex, i ) );
                     startIndex = i;
 
                     list.add( list = new ListItem() );
-                    stack.push( list );
+                    lists.add( list );
                 }
 
                 isDigit = false;
@@ -427,21 +498,22 @@ else if ( Character.isDigit( c ) )
 
         if ( version.length() > startIndex )
         {
-            list.add( parseItem( isDigit, version.substring( startIndex ) ) );
+            list.add( parseItem( isDigit, version, startIndex, version.length() ) );
         }
 
-        while ( !stack.isEmpty() )
+        // normalize the innermost lists first
+        for ( int i = lists.size() - 1; i >= 0; i-- )
         {
-            list = (ListItem) stack.pop();
-            list.normalize();
+            lists.get( i ).normalize();
         }
 
-        canonical = items.toString();
+        return items;
     }
 
-    private static Item parseItem( boolean isDigit, String buf )
+    private static Item parseItem( boolean isDigit, String version, int start, int end )
     {
-        return isDigit ? new IntegerItem( buf ) : new StringItem( buf, false );
+        return isDigit ? new IntegerItem( version, start, end ) : new StringItem( version.substring( start, end ),
+                                                                                  false );
     }
 
     public int compareTo( ComparableVersion o )
@@ -456,17 +528,21 @@ public String toString()
 
     public String getCanonical()
     {
+        if ( canonical == null )
+        {
+            canonical = items.toString();
+        }
         return canonical;
     }
 
     public boolean equals( Object o )
     {
-        return ( o instanceof ComparableVersion ) && canonical.equals( ( (ComparableVersion) o ).canonical );
+        return ( o instanceof ComparableVersion ) && getCanonical().equals( ( (ComparableVersion) o ).getCanonical() );
     }
 
     public int hashCode()
     {
-        return canonical.hashCode();
+        return getCanonical().hashCode();
     }
 
     /**
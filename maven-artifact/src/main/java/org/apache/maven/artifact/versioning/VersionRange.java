@@ -23,16 +23,23 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.Artifact;
 
 /**
- * Construct a version range from a specification.
+ * Construct a version range from a specification. The restrictions of a range are kept sorted and disjoint, which
+ * allows to look up the restriction for a version by binary search.
  *
  * @author <a href="mailto:brett@apache.org">Brett Porter</a>
  */
 public class VersionRange
 {
+    private static final int CACHE_MAX_SIZE = 1024;
+
+    private static final ConcurrentMap<String, VersionRange> CACHE = new ConcurrentHashMap<String, VersionRange>();
+
     private final ArtifactVersion recommendedVersion;
 
     private final List<Restriction> restrictions;
@@ -96,6 +103,54 @@ public static VersionRange createFromVersionSpec( String spec )
             return null;
         }
 
+        VersionRange cached = CACHE.get( spec );
+
+        if ( cached == null )
+        {
+            cached = parseVersionSpec( spec );
+
+            if ( CACHE.size() >= CACHE_MAX_SIZE )
+            {
+                CACHE.clear();
+            }
+            CACHE.put( spec, cached );
+        }
+
+        // hand out a deep copy as callers have access to the restrictions and the (mutable) versions
+        return copyOf( cached );
+    }
+
+    private static VersionRange copyOf( VersionRange range )
+    {
+        List<Restriction> restrictions = new ArrayList<Restriction>( range.restrictions.size() );
+
+        for ( Restriction restriction : range.restrictions )
+        {
+            if ( restriction.getLowerBound() == null && restriction.getUpperBound() == null )
+            {
+                restrictions.add( restriction );
+                continue;
+            }
+
+            ArtifactVersion lowerBound = copyOf( restriction.getLowerBound() );
+            ArtifactVersion upperBound = ( restriction.getUpperBound() == restriction.getLowerBound() )
+                ? lowerBound : copyOf( restriction.getUpperBound() );
+
+            restrictions.add( new Restriction( lowerBound, restriction.isLowerBoundInclusive(), upperBound,
+                                               restriction.isUpperBoundInclusive() ) );
+        }
+
+        return new VersionRange( copyOf( range.recommendedVersion ), restrictions );
+    }
+
+    private static ArtifactVersion copyOf( ArtifactVersion version )
+    {
+        return ( version != null ) ? new DefaultArtifactVersion( version.toString() ) : null;
+    }
+
+    private static VersionRange parseVersionSpec( String spec )
+        throws InvalidVersionSpecificationException
+    {
         List<Restriction> restrictions = new ArrayList<Restriction>();
         String process = spec;
         ArtifactVersion version = null;
@@ -518,7 +573,10 @@ public String toString()
 
     public ArtifactVersion matchVersion( List<ArtifactVersion> versions )
     {
-        // TODO: could be more efficient by sorting the list and then moving along the restrictions in order?
+        if ( isSorted( versions ) )
+        {
+            return matchSortedVersion( versions );
+        }
 
         ArtifactVersion matched = null;
         for ( ArtifactVersion version : versions )
@@ -535,16 +593,117 @@ public ArtifactVersion matchVersion( List<ArtifactVersion> versions )
         return matched;
     }
 
+    private static boolean isSorted( List<ArtifactVersion> versions )
+    {
+        ArtifactVersion previous = null;
+        for ( ArtifactVersion version : versions )
+        {
+            if ( previous != null && previous.compareTo( version ) > 0 )
+            {
+                return false;
+            }
+            previous = version;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the greatest version contained in this range by binary search, starting with the highest restriction.
+     *
+     * @param versions The candidate versions in ascending order.
+     * @return The greatest matching version (the first one in case of equal versions) or {@code null} if none.
+     */
+    private ArtifactVersion matchSortedVersion( List<ArtifactVersion> versions )
+    {
+        for ( int i = restrictions.size() - 1; i >= 0; i-- )
+        {
+            Restriction restriction = restrictions.get( i );
+
+            int index = findLastBelowUpperBound( restriction, versions );
+
+            if ( index >= 0 && restriction.containsVersion( versions.get( index ) ) )
+            {
+                while ( index > 0 && versions.get( index - 1 ).compareTo( versions.get( index ) ) == 0 )
+                {
+                    index--;
+                }
+                return versions.get( index );
+            }
+        }
+        return null;
+    }
+
+    private static int findLastBelowUpperBound( Restriction restriction, List<ArtifactVersion> versions )
+    {
+        ArtifactVersion upperBound = restriction.getUpperBound();
+
+        if ( upperBound == null )
+        {
+            return versions.size() - 1;
+        }
+
+        int index = -1;
+        int low = 0;
+        int high = versions.size() - 1;
+        while ( low <= high )
+        {
+            int mid = ( low + high ) >>> 1;
+
+            int comparison = upperBound.compareTo( versions.get( mid ) );
+
+            if ( comparison > 0 || ( comparison == 0 && restriction.isUpperBoundInclusive() ) )
+            {
+                index = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return index;
+    }
+
     public boolean containsVersion( ArtifactVersion version )
     {
-        for ( Restriction restriction : restrictions )
+        // find the last restriction whose lower bound is not above the version
+        int index = -1;
+        int low = 0;
+        int high = restrictions.size() - 1;
+        while ( low <= high )
         {
-            if ( restriction.containsVersion( version ) )
+            int mid = ( low + high ) >>> 1;
+
+            ArtifactVersion lowerBound = restrictions.get( mid ).getLowerBound();
+
+            if ( lowerBound == null || lowerBound.compareTo( version ) <= 0 )
             {
-                return true;
+                index = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
             }
         }
-        return false;
+
+        if ( index < 0 )
+        {
+            return false;
+        }
+
+        Restriction restriction = restrictions.get( index );
+
+        if ( restriction.containsVersion( version ) )
+        {
+            return true;
+        }
+
+        // adjacent restrictions may touch at an exclusive lower bound, e.g. [1,2],(2,3]
+        ArtifactVersion lowerBound = restriction.getLowerBound();
+
+        return index > 0 && lowerBound != null && lowerBound.compareTo( version ) == 0
+            && restrictions.get( index - 1 ).containsVersion( version );
     }
 
     public boolean hasRestrictions()
@@ -19,6 +19,8 @@
  * under the License.
  */
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import junit.framework.TestCase;
@@ -228,4 +230,72 @@ public void testReuse()
 
         assertEquals( "reused instance should be equivalent to new instance", c1, c2 );
     }
+
+    private static final String[] TOKENS =
+        { "", "0", "1", "2", "10", "01", "9223372036854775807", "9223372036854775808",
+            "123456789012345678901234567890", "a", "b", "m", "alpha", "RC", "cr", "ga", "final", "sp", "SNAPSHOT",
+            "abc" };
+
+    private static final String[] SHORT_TOKENS = { "", "0", "1", "2", "a", "rc", "sp" };
+
+    private static final String[] SEPARATORS = { ".", "-", "" };
+
+    /**
+     * Verifies that the parsing and ordering matches the original implementation for all pairs of a generated set of
+     * versions covering numbers, overflowing numbers, known and unknown qualifiers and all kinds of separators.
+     */
+    public void testEquivalenceWithReference()
+    {
+        List<String> versions = new ArrayList<String>();
+        for ( String t1 : TOKENS )
+        {
+            versions.add( t1 );
+            for ( String sep : SEPARATORS )
+            {
+                for ( String t2 : TOKENS )
+                {
+                    versions.add( t1 + sep + t2 );
+                }
+            }
+        }
+        for ( String t1 : SHORT_TOKENS )
+        {
+            for ( String sep1 : SEPARATORS )
+            {
+                for ( String t2 : SHORT_TOKENS )
+                {
+                    for ( String sep2 : SEPARATORS )
+                    {
+                        for ( String t3 : SHORT_TOKENS )
+                        {
+                            versions.add( t1 + sep1 + t2 + sep2 + t3 );
+                        }
+                    }
+                }
+            }
+        }
+
+        int n = versions.size();
+        ComparableVersion[] actual = new ComparableVersion[n];
+        ReferenceComparableVersion[] expected = new ReferenceComparableVersion[n];
+        for ( int i = 0; i < n; i++ )
+        {
+            actual[i] = new ComparableVersion( versions.get( i ) );
+            expected[i] = new ReferenceComparableVersion( versions.get( i ) );
+            assertEquals( versions.get( i ), expected[i].getCanonical(), actual[i].getCanonical() );
+        }
+
+        for ( int i = 0; i < n; i++ )
+        {
+            for ( int j = 0; j < n; j++ )
+            {
+                int exp = Integer.signum( expected[i].compareTo( expected[j] ) );
+                int act = Integer.signum( actual[i].compareTo( actual[j] ) );
+                if ( exp != act )
+                {
+                    fail( versions.get( i ) + " <=> " + versions.get( j ) + ": expected " + exp + " but was " + act );
+                }
+            }
+        }
+    }
 }
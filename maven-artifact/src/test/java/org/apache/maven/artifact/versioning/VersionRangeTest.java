@@ -19,6 +19,8 @@
  * under the License.
  */
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -723,6 +725,59 @@ public boolean enforceVersion( String requiredVersionRange, ArtifactVersion actu
         return vr.containsVersion( actualVersion );
     }
 
+    public void testContainsWithMultipleRestrictions()
+        throws InvalidVersionSpecificationException
+    {
+        String spec = "(,1.0],[1.2,1.5),(1.5,2.0],(2.0,3.0)";
+        assertFalse( enforceVersion( spec, new DefaultArtifactVersion( "1.1" ) ) );
+        assertTrue( enforceVersion( spec, new DefaultArtifactVersion( "0.1" ) ) );
+        assertTrue( enforceVersion( spec, new DefaultArtifactVersion( "1.2" ) ) );
+        assertFalse( enforceVersion( spec, new DefaultArtifactVersion( "1.5" ) ) );
+        assertTrue( enforceVersion( spec, new DefaultArtifactVersion( "2.0" ) ) );
+        assertTrue( enforceVersion( spec, new DefaultArtifactVersion( "2.5" ) ) );
+        assertFalse( enforceVersion( spec, new DefaultArtifactVersion( "3.0" ) ) );
+    }
+
+    public void testMatchVersion()
+        throws InvalidVersionSpecificationException
+    {
+        VersionRange range = VersionRange.createFromVersionSpec( "[1.0,1.5),[2.0,2.1]" );
+
+        List<ArtifactVersion> versions = new ArrayList<ArtifactVersion>();
+        for ( String version : new String[] { "0.9", "1.0", "1.4", "1.5", "2.0", "2.0.0", "2.2" } )
+        {
+            versions.add( new DefaultArtifactVersion( version ) );
+        }
+
+        assertSame( versions.get( 4 ), range.matchVersion( versions ) );
+
+        Collections.reverse( versions );
+        assertSame( versions.get( 1 ), range.matchVersion( versions ) );
+
+        range = VersionRange.createFromVersionSpec( "[1.0,1.5)" );
+        Collections.reverse( versions );
+        assertEquals( "1.4", range.matchVersion( versions ).toString() );
+        assertNull( VersionRange.createFromVersionSpec( "[3.0,)" ).matchVersion( versions ) );
+        assertNull( VersionRange.createFromVersion( "1.0" ).matchVersion( versions ) );
+    }
+
+    public void testCachedSpecsAreNotShared()
+        throws InvalidVersionSpecificationException
+    {
+        VersionRange range = VersionRange.createFromVersionSpec( "[1.0,2.0)" );
+        range.getRestrictions().clear();
+
+        VersionRange other = VersionRange.createFromVersionSpec( "[1.0,2.0)" );
+        assertNotSame( range, other );
+        assertEquals( 1, other.getRestrictions().size() );
+
+        other.getRestrictions().get( 0 ).getLowerBound().parseVersion( "1.5" );
+        VersionRange.createFromVersionSpec( "1.0" ).getRecommendedVersion().parseVersion( "1.5" );
+
+        assertEquals( "[1.0,2.0)", VersionRange.createFromVersionSpec( "[1.0,2.0)" ).toString() );
+        assertEquals( "1.0", VersionRange.createFromVersionSpec( "1.0" ).getRecommendedVersion().toString() );
+    }
+
     public void testOrder0()
     {
         // assertTrue( new DefaultArtifactVersion( "1.0-alpha10" ).compareTo( new DefaultArtifactVersion( "1.0-alpha1" ) ) > 0 );
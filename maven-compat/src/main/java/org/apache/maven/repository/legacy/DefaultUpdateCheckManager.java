@@ -28,8 +28,15 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
@@ -40,16 +47,62 @@
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
 import org.codehaus.plexus.util.IOUtil;
 
+/**
+ * Tracks the last update checks in resolution tracking files. The contents of these files are cached in memory so
+ * that repeated lookups, in particular for artifacts and metadata known to be missing, are answered without opening
+ * and locking the files again. Updates are applied to the cache immediately and written back to disk in batches,
+ * the remaining ones when the component is disposed.
+ */
 @Component( role = UpdateCheckManager.class )
 public class DefaultUpdateCheckManager
     extends AbstractLogEnabled
-    implements UpdateCheckManager
+    implements UpdateCheckManager, Disposable
 {
 
     private static final String ERROR_KEY_SUFFIX = ".error";
 
+    private static final int BATCH_SIZE = 64;
+
+    private final Object[] stripes = newStripes( 32 );
+
+    private final ConcurrentMap<File, TrackingFile> trackingFiles = new ConcurrentHashMap<File, TrackingFile>();
+
+    private final Set<File> dirtyFiles = Collections.newSetFromMap( new ConcurrentHashMap<File, Boolean>() );
+
+    /**
+     * The in-memory state of a resolution tracking file. All changes are made while holding the stripe of the file
+     * and are also recorded as pending until they are written back, a {@code null} value denoting a removed key.
+     */
+    static final class TrackingFile
+    {
+
+        final Properties props;
+
+        final Map<String, String> changes = new HashMap<String, String>();
+
+        final long lastModified;
+
+        final long length;
+
+        volatile boolean dirty;
+
+        TrackingFile( File touchfile, Properties props )
+        {
+            this.props = props;
+            this.lastModified = touchfile.lastModified();
+            this.length = touchfile.length();
+        }
+
+        boolean isCurrent( File touchfile )
+        {
+            return dirty || ( lastModified == touchfile.lastModified() && length == touchfile.length() );
+        }
+
+    }
+
     public DefaultUpdateCheckManager()
     {
 
@@ -173,7 +226,12 @@ public void touch( Artifact artifact, ArtifactRepository repository, String erro
 
         if ( file.exists() )
         {
-            touchfile.delete();
+            synchronized ( getStripe( touchfile ) )
+            {
+                touchfile.delete();
+                trackingFiles.remove( touchfile );
+                dirtyFiles.remove( touchfile );
+            }
         }
         else
         {
@@ -226,91 +284,162 @@ String getRepositoryKey( ArtifactRepository repository )
 
     private void writeLastUpdated( File touchfile, String key, String error )
     {
-        synchronized ( touchfile.getAbsolutePath().intern() )
+        synchronized ( getStripe( touchfile ) )
         {
-            if ( !touchfile.getParentFile().exists() && !touchfile.getParentFile().mkdirs() )
+            TrackingFile tracking = getTrackingFile( touchfile );
+
+            String timestamp = Long.toString( System.currentTimeMillis() );
+            tracking.props.setProperty( key, timestamp );
+            tracking.changes.put( key, timestamp );
+
+            if ( error != null )
             {
-                getLogger().debug( "Failed to create directory: " + touchfile.getParent()
-                                       + " for tracking artifact metadata resolution." );
-                return;
+                tracking.props.setProperty( key + ERROR_KEY_SUFFIX, error );
             }
-
-            FileChannel channel = null;
-            FileLock lock = null;
-            try
+            else
             {
-                Properties props = new Properties();
+                tracking.props.remove( key + ERROR_KEY_SUFFIX );
+            }
+            tracking.changes.put( key + ERROR_KEY_SUFFIX, error );
 
-                channel = new RandomAccessFile( touchfile, "rw" ).getChannel();
-                lock = channel.lock( 0, channel.size(), false );
+            tracking.dirty = true;
+            dirtyFiles.add( touchfile );
+        }
 
-                if ( touchfile.canRead() )
-                {
-                    getLogger().debug( "Reading resolution-state from: " + touchfile );
-                    ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() );
+        if ( dirtyFiles.size() >= BATCH_SIZE )
+        {
+            flush();
+        }
+    }
 
-                    channel.read( buffer );
-                    buffer.flip();
+    /**
+     * Writes the pending changes of all resolution tracking files back to disk.
+     */
+    void flush()
+    {
+        for ( Iterator<File> it = dirtyFiles.iterator(); it.hasNext(); )
+        {
+            File touchfile = it.next();
+            it.remove();
 
-                    ByteArrayInputStream stream = new ByteArrayInputStream( buffer.array() );
-                    props.load( stream );
+            synchronized ( getStripe( touchfile ) )
+            {
+                TrackingFile tracking = trackingFiles.get( touchfile );
+                if ( tracking == null || !tracking.dirty )
+                {
+                    continue;
                 }
 
-                props.setProperty( key, Long.toString( System.currentTimeMillis() ) );
+                Properties props = store( touchfile, tracking.changes );
 
-                if ( error != null )
+                if ( props != null )
                 {
-                    props.setProperty( key + ERROR_KEY_SUFFIX, error );
+                    trackingFiles.put( touchfile, new TrackingFile( touchfile, props ) );
                 }
                 else
                 {
-                    props.remove( key + ERROR_KEY_SUFFIX );
+                    // keep the in-memory state for this session, disk stays authoritative for the next one
+                    tracking.changes.clear();
+                    tracking.dirty = false;
                 }
+            }
+        }
+    }
+
+    public void dispose()
+    {
+        flush();
+    }
+
+    private Properties store( File touchfile, Map<String, String> changes )
+    {
+        if ( !touchfile.getParentFile().exists() && !touchfile.getParentFile().mkdirs() )
+        {
+            getLogger().debug( "Failed to create directory: " + touchfile.getParent()
+                                   + " for tracking artifact metadata resolution." );
+            return null;
+        }
+
+        FileChannel channel = null;
+        FileLock lock = null;
+        try
+        {
+            Properties props = new Properties();
 
-                ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            channel = new RandomAccessFile( touchfile, "rw" ).getChannel();
+            lock = channel.lock( 0, channel.size(), false );
 
-                getLogger().debug( "Writing resolution-state to: " + touchfile );
-                props.store( stream, "Last modified on: " + new Date() );
+            if ( touchfile.canRead() )
+            {
+                getLogger().debug( "Reading resolution-state from: " + touchfile );
+                ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() );
 
-                byte[] data = stream.toByteArray();
-                ByteBuffer buffer = ByteBuffer.allocate( data.length );
-                buffer.put( data );
+                channel.read( buffer );
                 buffer.flip();
 
-                channel.position( 0 );
-                channel.write( buffer );
+                ByteArrayInputStream stream = new ByteArrayInputStream( buffer.array() );
+                props.load( stream );
             }
-            catch ( IOException e )
+
+            for ( Map.Entry<String, String> change : changes.entrySet() )
             {
-                getLogger().debug( "Failed to record lastUpdated information for resolution.\nFile: "
-                                       + touchfile.toString() + "; key: " + key, e );
+                if ( change.getValue() != null )
+                {
+                    props.setProperty( change.getKey(), change.getValue() );
+                }
+                else
+                {
+                    props.remove( change.getKey() );
+                }
             }
-            finally
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+            getLogger().debug( "Writing resolution-state to: " + touchfile );
+            props.store( stream, "Last modified on: " + new Date() );
+
+            byte[] data = stream.toByteArray();
+            ByteBuffer buffer = ByteBuffer.allocate( data.length );
+            buffer.put( data );
+            buffer.flip();
+
+            channel.position( 0 );
+            channel.write( buffer );
+            channel.truncate( data.length );
+
+            return props;
+        }
+        catch ( IOException e )
+        {
+            getLogger().debug( "Failed to record lastUpdated information for resolution.\nFile: "
+                                   + touchfile.toString() + "; keys: " + changes.keySet(), e );
+            return null;
+        }
+        finally
+        {
+            if ( lock != null )
             {
-                if ( lock != null )
+                try
                 {
-                    try
-                    {
-                        lock.release();
-                    }
-                    catch ( IOException e )
-                    {
-                        getLogger().debug( "Error releasing exclusive lock for resolution tracking file: "
-                                               + touchfile, e );
-                    }
+                    lock.release();
                 }
+                catch ( IOException e )
+                {
+                    getLogger().debug( "Error releasing exclusive lock for resolution tracking file: "
+                                           + touchfile, e );
+                }
+            }
 
-                if ( channel != null )
+            if ( channel != null )
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch ( IOException e )
                 {
-                    try
-                    {
-                        channel.close();
-                    }
-                    catch ( IOException e )
-                    {
-                        getLogger().debug( "Error closing FileChannel for resolution tracking file: "
-                                               + touchfile, e );
-                    }
+                    getLogger().debug( "Error closing FileChannel for resolution tracking file: "
+                                           + touchfile, e );
                 }
             }
         }
@@ -350,6 +479,35 @@ private String getError( File touchFile, String key )
     }
 
     private Properties read( File touchfile )
+    {
+        TrackingFile tracking = trackingFiles.get( touchfile );
+
+        if ( tracking == null || !tracking.isCurrent( touchfile ) )
+        {
+            synchronized ( getStripe( touchfile ) )
+            {
+                tracking = getTrackingFile( touchfile );
+            }
+        }
+
+        return tracking.props;
+    }
+
+    private TrackingFile getTrackingFile( File touchfile )
+    {
+        TrackingFile tracking = trackingFiles.get( touchfile );
+
+        if ( tracking == null || !tracking.isCurrent( touchfile ) )
+        {
+            Properties props = load( touchfile );
+            tracking = new TrackingFile( touchfile, ( props != null ) ? props : new Properties() );
+            trackingFiles.put( touchfile, tracking );
+        }
+
+        return tracking;
+    }
+
+    private Properties load( File touchfile )
     {
         if ( !touchfile.canRead() )
         {
@@ -357,66 +515,78 @@ private Properties read( File touchfile )
             return null;
         }
 
-        synchronized ( touchfile.getAbsolutePath().intern() )
+        FileLock lock = null;
+        FileChannel channel = null;
+        try
         {
-            FileLock lock = null;
-            FileChannel channel = null;
+            Properties props = new Properties();
+
+            FileInputStream stream = new FileInputStream( touchfile );
             try
             {
-                Properties props = new Properties();
+                channel = stream.getChannel();
+                lock = channel.lock( 0, channel.size(), true );
 
-                FileInputStream stream = new FileInputStream( touchfile );
-                try
-                {
-                    channel = stream.getChannel();
-                    lock = channel.lock( 0, channel.size(), true );
+                getLogger().debug( "Reading resolution-state from: " + touchfile );
+                props.load( stream );
 
-                    getLogger().debug( "Reading resolution-state from: " + touchfile );
-                    props.load( stream );
+                return props;
+            }
+            finally
+            {
+                IOUtil.close( stream );
+            }
+        }
+        catch ( IOException e )
+        {
+            getLogger().debug( "Failed to read resolution tracking file " + touchfile, e );
 
-                    return props;
+            return null;
+        }
+        finally
+        {
+            if ( lock != null )
+            {
+                try
+                {
+                    lock.release();
                 }
-                finally
+                catch ( IOException e )
                 {
-                    IOUtil.close( stream );
+                    getLogger().debug( "Error releasing shared lock for resolution tracking file: " + touchfile,
+                                       e );
                 }
             }
-            catch ( IOException e )
-            {
-                getLogger().debug( "Failed to read resolution tracking file " + touchfile, e );
 
-                return null;
-            }
-            finally
+            if ( channel != null )
             {
-                if ( lock != null )
+                try
                 {
-                    try
-                    {
-                        lock.release();
-                    }
-                    catch ( IOException e )
-                    {
-                        getLogger().debug( "Error releasing shared lock for resolution tracking file: " + touchfile,
-                                           e );
-                    }
+                    channel.close();
                 }
-
-                if ( channel != null )
+                catch ( IOException e )
                 {
-                    try
-                    {
-                        channel.close();
-                    }
-                    catch ( IOException e )
-                    {
-                        getLogger().debug( "Error closing FileChannel for resolution tracking file: " + touchfile, e );
-                    }
+                    getLogger().debug( "Error closing FileChannel for resolution tracking file: " + touchfile, e );
                 }
             }
         }
     }
 
+    private static Object[] newStripes( int count )
+    {
+        Object[] stripes = new Object[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            stripes[i] = new Object();
+        }
+        return stripes;
+    }
+
+    private Object getStripe( File touchfile )
+    {
+        return stripes[( touchfile.hashCode() & Integer.MAX_VALUE ) % stripes.length];
+    }
+
     File getTouchfile( Artifact artifact )
     {
         StringBuilder sb = new StringBuilder( 128 );
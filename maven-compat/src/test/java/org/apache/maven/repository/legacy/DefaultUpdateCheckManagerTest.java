@@ -216,6 +216,42 @@ public void testMissingMetadata() throws Exception
         assertNotNull( updateCheckManager.readLastUpdated( touchFile, updateCheckManager.getMetadataKey( remoteRepository, file ) ) );
     }
 
+    public void testMissingArtifactWrittenBackOnFlush()
+        throws Exception
+    {
+        ArtifactRepository remoteRepository = remoteRepository();
+
+        ArtifactRepository localRepository = localRepository();
+
+        Artifact a = createArtifact( "a", "0.0.2", "pom" );
+        File file = new File( localRepository.getBasedir(),
+                              localRepository.pathOf( a ) );
+        file.delete();
+        a.setFile( file );
+
+        File touchFile = updateCheckManager.getTouchfile( a );
+        touchFile.delete();
+
+        updateCheckManager.touch( a, remoteRepository, "not found" );
+
+        assertFalse( touchFile.exists() );
+        assertFalse( updateCheckManager.isUpdateRequired( a, remoteRepository ) );
+        assertEquals( "not found", updateCheckManager.getError( a, remoteRepository ) );
+
+        updateCheckManager.dispose();
+
+        assertTrue( touchFile.exists() );
+
+        DefaultUpdateCheckManager nextBuild =
+            new DefaultUpdateCheckManager( new ConsoleLogger( Logger.LEVEL_DEBUG, "test" ) );
+        assertFalse( nextBuild.isUpdateRequired( a, remoteRepository ) );
+        assertEquals( "not found", nextBuild.getError( a, remoteRepository ) );
+
+        touchFile.delete();
+
+        assertTrue( nextBuild.isUpdateRequired( a, remoteRepository ) );
+    }
+
     public void testArtifactTouchFileName() throws Exception
     {
         ArtifactFactory artifactFactory = (ArtifactFactory) lookup( ArtifactFactory.ROLE );
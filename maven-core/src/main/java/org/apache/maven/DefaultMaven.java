@@ -54,6 +54,7 @@
 import org.apache.maven.model.building.ModelSource;
 import org.apache.maven.model.building.UrlModelSource;
 import org.apache.maven.plugin.LegacySupport;
+import org.apache.maven.plugin.MojoInstancePool;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
@@ -146,6 +147,9 @@
     @Requirement
     private SessionScope sessionScope;
 
+    @Requirement
+    private MojoInstancePool mojoInstancePool;
+
     public MavenExecutionResult execute( MavenExecutionRequest request )
     {
         MavenExecutionResult result;
@@ -373,6 +377,8 @@ private MavenExecutionResult doExecute( MavenExecutionRequest request )
             }
             finally
             {
+                mojoInstancePool.flush();
+
                 sessionScope.exit();
             }
         }
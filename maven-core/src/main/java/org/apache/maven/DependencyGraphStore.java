@@ -0,0 +1,774 @@
+package org.apache.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.LocalArtifactRequest;
+import org.eclipse.aether.repository.LocalRepositoryManager;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.VersionConstraint;
+import org.eclipse.aether.version.VersionScheme;
+
+/**
+ * Persists collected dependency graphs below the local repository such that unchanged graphs need not be collected
+ * again by later builds. Only graphs made up of release versions without version ranges or system paths are stored,
+ * these can't change once published. Besides the dependencies, the version constraints and the bits of dependency
+ * management are persisted, graphs with relocations, aliases or custom node data (e.g. the premanaged versions and
+ * conflict winners of verbose graphs) are not stored because their consumers would see a different graph. Neither
+ * are graphs which refer to projects of the workspace, see {@link #hasWorkspaceArtifacts(RepositorySystemSession,
+ * DependencyNode)}.
+ * <strong>Warning:</strong> This is an internal utility class that is only public for technical reasons, it is not
+ * part of the public API. In particular, this class can be changed or deleted without prior notice.
+ *
+ * @since 3.2.6
+ */
+public class DependencyGraphStore
+{
+
+    private static final String FORMAT = "# maven dependency graph 2";
+
+    private static final VersionScheme VERSION_SCHEME = new GenericVersionScheme();
+
+    private final File directory;
+
+    public DependencyGraphStore( File directory )
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the store for the specified graph kind in the local repository of the given session.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @param name The name of the store, must not be {@code null}.
+     * @return The graph store, never {@code null}.
+     */
+    public static DependencyGraphStore newInstance( RepositorySystemSession session, String name )
+    {
+        File basedir = session.getLocalRepository().getBasedir();
+        return new DependencyGraphStore( new File( basedir, ".cache/" + name ) );
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Calculates the content address for the specified key material.
+     *
+     * @param key The key material, must not be {@code null}.
+     * @return The hex-encoded SHA-1 hash of the key, never {@code null}.
+     */
+    public static String hash( CharSequence key )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-1" );
+            byte[] bytes = digest.digest( key.toString().getBytes( "UTF-8" ) );
+
+            StringBuilder buffer = new StringBuilder( bytes.length * 2 );
+            for ( byte b : bytes )
+            {
+                buffer.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+                buffer.append( Character.forDigit( b & 0x0F, 16 ) );
+            }
+            return buffer.toString();
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Calculates the content address for the graph collected by the specified request, i.e. the hash of the root, the
+     * direct dependencies and the {@link #appendContext(StringBuilder, RepositorySystemSession, CollectRequest)
+     * collection context}.
+     *
+     * @param session The repository session used for the collection, must not be {@code null}.
+     * @param collect The collection request, must not be {@code null}.
+     * @return The content address of the graph, never {@code null}.
+     */
+    public static String getKey( RepositorySystemSession session, CollectRequest collect )
+    {
+        StringBuilder buffer = new StringBuilder( 4096 );
+        if ( collect.getRoot() != null )
+        {
+            appendKey( buffer, collect.getRoot() );
+        }
+        else
+        {
+            appendKey( buffer, collect.getRootArtifact() ).append( '\n' );
+        }
+        for ( Dependency dependency : collect.getDependencies() )
+        {
+            appendKey( buffer, dependency );
+        }
+        appendContext( buffer, session, collect );
+        return hash( buffer );
+    }
+
+    /**
+     * Appends the key material for everything besides the root and the direct dependencies that determines the
+     * outcome of the collection, i.e. the request context, the managed dependencies, the repositories, the properties
+     * that drive the interpolation and profile activation of the POMs (the Java version, the {@code os.*} system
+     * properties and the user properties) and the state of the collection strategy of the session. Profiles activated
+     * by other system properties or environment variables are not covered.
+     */
+    public static StringBuilder appendContext( StringBuilder buffer, RepositorySystemSession session,
+                                               CollectRequest collect )
+    {
+        buffer.append( collect.getRequestContext() ).append( '\n' );
+        buffer.append( "managed\n" );
+        for ( Dependency dependency : collect.getManagedDependencies() )
+        {
+            appendKey( buffer, dependency );
+        }
+        appendKey( buffer, collect.getRepositories() );
+
+        buffer.append( "properties\n" );
+        for ( Map.Entry<String, String> prop : new TreeMap<String, String>( session.getSystemProperties() ).entrySet() )
+        {
+            if ( "java.version".equals( prop.getKey() ) || prop.getKey().startsWith( "os." ) )
+            {
+                buffer.append( prop.getKey() ).append( '=' ).append( prop.getValue() ).append( '\n' );
+            }
+        }
+        for ( Map.Entry<String, String> prop : new TreeMap<String, String>( session.getUserProperties() ).entrySet() )
+        {
+            buffer.append( '-' ).append( prop.getKey() ).append( '=' ).append( prop.getValue() ).append( '\n' );
+        }
+
+        // the collection strategy is part of the session configuration which may be customized by decorators
+        buffer.append( "strategy\n" );
+        appendState( buffer, session.getDependencySelector() );
+        appendState( buffer, session.getDependencyManager() );
+        appendState( buffer, session.getDependencyTraverser() );
+        appendState( buffer, session.getVersionFilter() );
+        appendState( buffer, session.getDependencyGraphTransformer() );
+        return buffer;
+    }
+
+    /**
+     * Appends the state of the specified component, i.e. its class and the values of its instance fields. Unlike their
+     * hash codes, this is stable across JVMs. Cached hash codes are skipped for the same reason.
+     */
+    private static void appendState( StringBuilder buffer, Object component )
+    {
+        appendState( buffer, component, 0, new IdentityHashMap<Object, Object>() );
+        buffer.append( '\n' );
+    }
+
+    private static void appendState( StringBuilder buffer, Object value, int depth, Map<Object, Object> visited )
+    {
+        if ( value == null )
+        {
+            buffer.append( "null" );
+        }
+        else if ( value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+            || value instanceof Character || value instanceof Enum )
+        {
+            buffer.append( value );
+        }
+        else if ( value instanceof Class )
+        {
+            buffer.append( ( (Class<?>) value ).getName() );
+        }
+        else if ( depth > 8 || visited.put( value, Boolean.TRUE ) != null )
+        {
+            buffer.append( value.getClass().getName() );
+        }
+        else if ( value instanceof Collection )
+        {
+            List<String> elements = new ArrayList<String>();
+            for ( Object element : (Collection<?>) value )
+            {
+                elements.add( toState( element, depth, visited ) );
+            }
+            if ( value instanceof Set )
+            {
+                Collections.sort( elements );
+            }
+            buffer.append( elements );
+        }
+        else if ( value instanceof Map )
+        {
+            List<String> entries = new ArrayList<String>();
+            for ( Map.Entry<?, ?> entry : ( (Map<?, ?>) value ).entrySet() )
+            {
+                entries.add( toState( entry.getKey(), depth, visited ) + '='
+                    + toState( entry.getValue(), depth, visited ) );
+            }
+            Collections.sort( entries );
+            buffer.append( entries );
+        }
+        else if ( value.getClass().isArray() )
+        {
+            buffer.append( '[' );
+            for ( int i = 0, n = Array.getLength( value ); i < n; i++ )
+            {
+                buffer.append( ( i > 0 ) ? ", " : "" ).append( toState( Array.get( value, i ), depth, visited ) );
+            }
+            buffer.append( ']' );
+        }
+        else
+        {
+            buffer.append( value.getClass().getName() ).append( '{' );
+            if ( !value.getClass().getName().startsWith( "java." ) )
+            {
+                appendFields( buffer, value, value.getClass(), depth, visited );
+            }
+            buffer.append( '}' );
+        }
+    }
+
+    private static void appendFields( StringBuilder buffer, Object value, Class<?> type, int depth,
+                                      Map<Object, Object> visited )
+    {
+        if ( type == null || type == Object.class )
+        {
+            return;
+        }
+        appendFields( buffer, value, type.getSuperclass(), depth, visited );
+        for ( Field field : type.getDeclaredFields() )
+        {
+            int modifiers = field.getModifiers();
+            if ( Modifier.isStatic( modifiers ) || Modifier.isTransient( modifiers ) || field.isSynthetic()
+                || "hashCode".equals( field.getName() ) )
+            {
+                continue;
+            }
+            buffer.append( field.getName() ).append( '=' );
+            try
+            {
+                field.setAccessible( true );
+                appendState( buffer, field.get( value ), depth + 1, visited );
+            }
+            catch ( Exception e )
+            {
+                // inaccessible state, keep the component distinguishable from one that has no such field
+                buffer.append( '?' );
+            }
+            buffer.append( ';' );
+        }
+    }
+
+    private static String toState( Object value, int depth, Map<Object, Object> visited )
+    {
+        StringBuilder buffer = new StringBuilder( 64 );
+        appendState( buffer, value, depth + 1, visited );
+        return buffer.toString();
+    }
+
+    /**
+     * Appends the key material for the specified dependency, i.e. its coordinates, scope, optional flag and
+     * exclusions.
+     */
+    public static StringBuilder appendKey( StringBuilder buffer, Dependency dependency )
+    {
+        appendKey( buffer, dependency.getArtifact() );
+        buffer.append( ' ' ).append( dependency.getScope() ).append( ' ' ).append( dependency.getOptional() );
+        for ( Exclusion exclusion : dependency.getExclusions() )
+        {
+            buffer.append( " -" ).append( exclusion.getGroupId() ).append( ':' ).append( exclusion.getArtifactId() );
+            buffer.append( ':' ).append( exclusion.getExtension() ).append( ':' ).append( exclusion.getClassifier() );
+        }
+        return buffer.append( '\n' );
+    }
+
+    public static StringBuilder appendKey( StringBuilder buffer, Artifact artifact )
+    {
+        buffer.append( artifact.getGroupId() ).append( ':' ).append( artifact.getArtifactId() );
+        buffer.append( ':' ).append( artifact.getExtension() ).append( ':' ).append( artifact.getClassifier() );
+        buffer.append( ':' ).append( artifact.getVersion() );
+        buffer.append( ':' ).append( artifact.getProperty( ArtifactProperties.TYPE, "" ) );
+        return buffer;
+    }
+
+    /**
+     * Appends the key material for the specified repositories. Repository managers are expanded into the repositories
+     * they mirror, i.e. the key reflects the effective repositories.
+     */
+    public static StringBuilder appendKey( StringBuilder buffer, Collection<RemoteRepository> repositories )
+    {
+        for ( RemoteRepository repository : repositories )
+        {
+            if ( repository.isRepositoryManager() )
+            {
+                appendKey( buffer, repository.getMirroredRepositories() );
+            }
+            else
+            {
+                buffer.append( repository.getId() ).append( ' ' ).append( repository.getUrl() ).append( ' ' );
+                buffer.append( repository.getContentType() ).append( '\n' );
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Indicates whether the specified graph can be stored, i.e. consists only of release versions which can't change
+     * later and has no information that the store does not persist.
+     *
+     * @param root The root of the graph, must not be {@code null}.
+     * @return {@code true} if the graph is storable, {@code false} otherwise.
+     */
+    public static boolean isStorable( DependencyNode root )
+    {
+        return isStorable( root, new IdentityHashMap<DependencyNode, Object>() );
+    }
+
+    private static boolean isStorable( DependencyNode node, Map<DependencyNode, Object> path )
+    {
+        if ( path.put( node, Boolean.TRUE ) != null )
+        {
+            return false;
+        }
+
+        Artifact artifact = node.getArtifact();
+        if ( artifact != null )
+        {
+            if ( artifact.isSnapshot() || artifact.getProperty( ArtifactProperties.LOCAL_PATH, null ) != null )
+            {
+                return false;
+            }
+            if ( node.getVersionConstraint() != null && node.getVersionConstraint().getRange() != null )
+            {
+                return false;
+            }
+        }
+
+        if ( !node.getRelocations().isEmpty() || !node.getAliases().isEmpty() || !node.getData().isEmpty() )
+        {
+            return false;
+        }
+
+        for ( DependencyNode child : node.getChildren() )
+        {
+            if ( !isStorable( child, path ) )
+            {
+                return false;
+            }
+        }
+
+        path.remove( node );
+
+        return true;
+    }
+
+    /**
+     * Indicates whether the specified graph refers to artifacts of the workspace, e.g. other projects of the reactor.
+     * The dependencies of those come from the current project models and not from published POMs, so the graph can
+     * change without any change to the coordinates of its nodes and must neither be stored nor reused.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @param root The root of the graph, must not be {@code null}.
+     * @return {@code true} if some artifact of the graph is resolved from the workspace, {@code false} otherwise.
+     */
+    public static boolean hasWorkspaceArtifacts( RepositorySystemSession session, DependencyNode root )
+    {
+        WorkspaceReader workspace = session.getWorkspaceReader();
+
+        return workspace != null
+            && hasWorkspaceArtifacts( workspace, root, new IdentityHashMap<DependencyNode, Object>() );
+    }
+
+    private static boolean hasWorkspaceArtifacts( WorkspaceReader workspace, DependencyNode node,
+                                                  Map<DependencyNode, Object> visited )
+    {
+        if ( visited.put( node, Boolean.TRUE ) != null )
+        {
+            return false;
+        }
+
+        for ( DependencyNode child : node.getChildren() )
+        {
+            Artifact artifact = child.getArtifact();
+
+            Artifact pom = new DefaultArtifact( artifact.getGroupId(), artifact.getArtifactId(), "", "pom",
+                                                artifact.getBaseVersion() );
+
+            if ( workspace.findArtifact( pom ) != null || hasWorkspaceArtifacts( workspace, child, visited ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Indicates whether the artifacts of the specified graph are still present in the local repository of the given
+     * session. The root of the graph itself is not checked.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @param root The root of the graph, must not be {@code null}.
+     * @return {@code true} if all artifacts of the graph are locally present, {@code false} otherwise.
+     */
+    public static boolean isLocallyAvailable( RepositorySystemSession session, DependencyNode root )
+    {
+        LocalRepositoryManager lrm = session.getLocalRepositoryManager();
+
+        for ( DependencyNode child : root.getChildren() )
+        {
+            LocalArtifactRequest request =
+                new LocalArtifactRequest( child.getArtifact(), child.getRepositories(), child.getRequestContext() );
+            if ( lrm.find( session, request ).getFile() == null || !isLocallyAvailable( session, child ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads the graph with the specified key.
+     *
+     * @param key The content address of the graph, must not be {@code null}.
+     * @param repositories The repositories the graph was collected from, must not be {@code null}.
+     * @return The root node of the graph or {@code null} if the graph is not stored or can't be read.
+     */
+    public DependencyNode load( String key, List<RemoteRepository> repositories )
+    {
+        File file = getFile( key );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        Map<String, RemoteRepository> repos = new HashMap<String, RemoteRepository>();
+        collectRepositories( repos, repositories );
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( file ), "UTF-8" ) );
+
+            if ( !FORMAT.equals( reader.readLine() ) )
+            {
+                return null;
+            }
+
+            List<DefaultDependencyNode> parents = new ArrayList<DefaultDependencyNode>();
+
+            for ( String line = reader.readLine(); line != null; line = reader.readLine() )
+            {
+                String[] fields = line.split( "\t", -1 );
+                int depth = Integer.parseInt( fields[0] );
+
+                DefaultDependencyNode node = parseNode( fields, repos );
+                if ( node == null || depth > parents.size() || ( depth == 0 ) != parents.isEmpty() )
+                {
+                    return null;
+                }
+
+                while ( parents.size() > depth )
+                {
+                    parents.remove( parents.size() - 1 );
+                }
+                if ( depth > 0 )
+                {
+                    parents.get( depth - 1 ).getChildren().add( node );
+                }
+                parents.add( node );
+            }
+
+            return parents.isEmpty() ? null : parents.get( 0 );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        catch ( RuntimeException e )
+        {
+            // corrupted file, e.g. invalid depth or truncated line
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    private static void collectRepositories( Map<String, RemoteRepository> repos, List<RemoteRepository> repositories )
+    {
+        for ( RemoteRepository repository : repositories )
+        {
+            repos.put( repository.getId(), repository );
+            collectRepositories( repos, repository.getMirroredRepositories() );
+        }
+    }
+
+    private static DefaultDependencyNode parseNode( String[] fields, Map<String, RemoteRepository> repos )
+    {
+        // depth, coords, scope, optional, request context, repositories, version constraint, managed bits, props...
+        String[] coords = fields[1].split( ":", -1 );
+        if ( coords.length != 5 || fields.length < 8 )
+        {
+            return null;
+        }
+
+        Map<String, String> props = new LinkedHashMap<String, String>();
+        for ( int i = 8; i < fields.length; i++ )
+        {
+            int eq = fields[i].indexOf( '=' );
+            props.put( fields[i].substring( 0, eq ), fields[i].substring( eq + 1 ) );
+        }
+
+        Artifact artifact =
+            new DefaultArtifact( coords[0], coords[1], coords[3], coords[2], coords[4], props, (File) null );
+
+        Boolean optional = ( fields[3].length() > 0 ) ? Boolean.valueOf( fields[3] ) : null;
+
+        DefaultDependencyNode node = new DefaultDependencyNode( new Dependency( artifact, fields[2], optional ) );
+        node.setChildren( new ArrayList<DependencyNode>() );
+        node.setRequestContext( fields[4] );
+
+        List<RemoteRepository> nodeRepos = new ArrayList<RemoteRepository>();
+        if ( fields[5].length() > 0 )
+        {
+            for ( String id : fields[5].split( "," ) )
+            {
+                RemoteRepository repository = repos.get( id );
+                if ( repository == null )
+                {
+                    return null;
+                }
+                nodeRepos.add( repository );
+            }
+        }
+        node.setRepositories( nodeRepos );
+
+        if ( fields[6].length() > 0 )
+        {
+            try
+            {
+                VersionConstraint constraint = VERSION_SCHEME.parseVersionConstraint( fields[6] );
+                node.setVersionConstraint( constraint );
+                node.setVersion( VERSION_SCHEME.parseVersion( artifact.getVersion() ) );
+            }
+            catch ( InvalidVersionSpecificationException e )
+            {
+                return null;
+            }
+        }
+        node.setManagedBits( Integer.parseInt( fields[7] ) );
+
+        return node;
+    }
+
+    /**
+     * Loads the graph with the specified key if it can be reused by the given session, i.e. its artifacts are still
+     * locally available and none of them is provided by the workspace.
+     *
+     * @param key The content address of the graph, must not be {@code null}.
+     * @param session The repository session, must not be {@code null}.
+     * @param repositories The repositories the graph was collected from, must not be {@code null}.
+     * @return The root node of the graph or {@code null} if the graph is not stored or can't be reused.
+     */
+    public DependencyNode load( String key, RepositorySystemSession session, List<RemoteRepository> repositories )
+    {
+        DependencyNode root = load( key, repositories );
+
+        if ( root == null || !isLocallyAvailable( session, root ) || hasWorkspaceArtifacts( session, root ) )
+        {
+            return null;
+        }
+
+        return root;
+    }
+
+    /**
+     * Stores the specified graph under the given key unless it refers to artifacts of the workspace of the given
+     * session.
+     *
+     * @param key The content address of the graph, must not be {@code null}.
+     * @param session The repository session, must not be {@code null}.
+     * @param root The root node of the graph, must not be {@code null}.
+     * @return {@code true} if the graph was stored, {@code false} otherwise.
+     */
+    public boolean store( String key, RepositorySystemSession session, DependencyNode root )
+    {
+        return !hasWorkspaceArtifacts( session, root ) && store( key, root );
+    }
+
+    /**
+     * Stores the specified graph under the given key. Graphs which are not {@link #isStorable(DependencyNode)
+     * storable} are silently skipped. A root node that only has an artifact, like the root of a project graph, is
+     * loaded back as a root dependency with an empty scope.
+     *
+     * @param key The content address of the graph, must not be {@code null}.
+     * @param root The root node of the graph, must not be {@code null}.
+     * @return {@code true} if the graph was stored, {@code false} otherwise.
+     */
+    public boolean store( String key, DependencyNode root )
+    {
+        if ( !isStorable( root ) )
+        {
+            return false;
+        }
+
+        StringBuilder buffer = new StringBuilder( 4096 );
+        buffer.append( FORMAT ).append( '\n' );
+        if ( !format( buffer, root, 0 ) )
+        {
+            return false;
+        }
+
+        File file = getFile( key );
+        File tmp = null;
+
+        Writer writer = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+
+            tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+
+            writer = new OutputStreamWriter( new FileOutputStream( tmp ), "UTF-8" );
+            writer.write( buffer.toString() );
+            writer.close();
+            writer = null;
+
+            file.delete();
+            return tmp.renameTo( file );
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+        finally
+        {
+            IOUtil.close( writer );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static boolean format( StringBuilder buffer, DependencyNode node, int depth )
+    {
+        Dependency dependency = node.getDependency();
+        if ( dependency == null )
+        {
+            if ( depth > 0 || node.getArtifact() == null )
+            {
+                return false;
+            }
+            // root artifact of a project graph, written like a root dependency without scope
+            dependency = new Dependency( node.getArtifact(), "" );
+        }
+
+        Artifact artifact = dependency.getArtifact();
+
+        int start = buffer.length();
+
+        buffer.append( depth ).append( '\t' );
+        buffer.append( artifact.getGroupId() ).append( ':' ).append( artifact.getArtifactId() ).append( ':' );
+        buffer.append( artifact.getExtension() ).append( ':' ).append( artifact.getClassifier() ).append( ':' );
+        buffer.append( artifact.getVersion() ).append( '\t' );
+        buffer.append( dependency.getScope() ).append( '\t' );
+        buffer.append( ( dependency.getOptional() != null ) ? dependency.getOptional().toString() : "" ).append( '\t' );
+        buffer.append( ( node.getRequestContext() != null ) ? node.getRequestContext() : "" ).append( '\t' );
+        for ( int i = 0; i < node.getRepositories().size(); i++ )
+        {
+            buffer.append( ( i > 0 ) ? "," : "" ).append( node.getRepositories().get( i ).getId() );
+        }
+        buffer.append( '\t' );
+        if ( node.getVersionConstraint() != null )
+        {
+            buffer.append( node.getVersionConstraint() );
+        }
+        buffer.append( '\t' ).append( node.getManagedBits() );
+        for ( Map.Entry<String, String> prop : artifact.getProperties().entrySet() )
+        {
+            buffer.append( '\t' ).append( prop.getKey() ).append( '=' ).append( prop.getValue() );
+        }
+
+        for ( int i = start; i < buffer.length(); i++ )
+        {
+            char c = buffer.charAt( i );
+            if ( c == '\n' || c == '\r' )
+            {
+                return false;
+            }
+        }
+        buffer.append( '\n' );
+
+        for ( DependencyNode child : node.getChildren() )
+        {
+            if ( !format( buffer, child, depth + 1 ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private File getFile( String key )
+    {
+        return new File( directory, key + ".graph" );
+    }
+
+}
@@ -28,6 +28,9 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -61,6 +64,13 @@
 
     private WorkspaceRepository repository;
 
+    private final ConcurrentMap<MavenProject, ProjectArtifacts> artifactsByProject =
+        new ConcurrentHashMap<MavenProject, ProjectArtifacts>();
+
+    // execution projects are equal to their projects, hence need their own index
+    private final ConcurrentMap<MavenProject, ProjectArtifacts> artifactsByExecutionProject =
+        new ConcurrentHashMap<MavenProject, ProjectArtifacts>();
+
     @Inject
     public ReactorReader( MavenSession session )
     {
@@ -102,10 +112,10 @@ public File findArtifact( Artifact artifact )
 
         if ( project != null )
         {
-            File file = find( project, artifact );
+            File file = find( project, artifact, artifactsByProject );
             if ( file == null && project != project.getExecutionProject() )
             {
-                file = find( project.getExecutionProject(), artifact );
+                file = find( project.getExecutionProject(), artifact, artifactsByExecutionProject );
             }
             return file;
         }
@@ -127,7 +137,7 @@ public List<String> findVersions( Artifact artifact )
 
         for ( MavenProject project : projects )
         {
-            if ( find( project, artifact ) != null )
+            if ( find( project, artifact, artifactsByProject ) != null )
             {
                 versions.add( project.getVersion() );
             }
@@ -140,16 +150,18 @@ public List<String> findVersions( Artifact artifact )
     // Implementation
     //
 
-    private File find( MavenProject project, Artifact artifact )
+    private File find( MavenProject project, Artifact artifact, ConcurrentMap<MavenProject, ProjectArtifacts> index )
     {
         if ( "pom".equals( artifact.getExtension() ) )
         {
             return project.getFile();
         }
 
-        Artifact projectArtifact = findMatchingArtifact( project, artifact );
+        ProjectArtifacts artifacts = getProjectArtifacts( project, index );
 
-        if ( hasArtifactFileFromPackagePhase( projectArtifact ) )
+        org.apache.maven.artifact.Artifact projectArtifact = findMatchingArtifact( artifacts, artifact );
+
+        if ( hasArtifactFileFromPackagePhase( artifacts, projectArtifact ) )
         {
             return projectArtifact.getFile();
         }
@@ -180,9 +192,27 @@ else if ( !hasBeenPackaged( project ) )
         return null;
     }
 
-    private boolean hasArtifactFileFromPackagePhase( Artifact projectArtifact )
+    private boolean hasArtifactFileFromPackagePhase( ProjectArtifacts artifacts,
+                                                     org.apache.maven.artifact.Artifact projectArtifact )
     {
-        return projectArtifact != null && projectArtifact.getFile() != null && projectArtifact.getFile().exists();
+        if ( projectArtifact == null || projectArtifact.getFile() == null )
+        {
+            return false;
+        }
+
+        // a packaged file is not expected to vanish while the project's artifacts stay the same, so its existence is
+        // remembered until the index is rebuilt, a missing file is checked again as it might be created any time
+        File file = projectArtifact.getFile();
+        if ( artifacts.existingFiles.contains( file ) )
+        {
+            return true;
+        }
+        if ( file.exists() )
+        {
+            artifacts.existingFiles.add( file );
+            return true;
+        }
+        return false;
     }
 
     private boolean hasBeenPackaged( MavenProject project )
@@ -194,42 +224,115 @@ private boolean hasBeenPackaged( MavenProject project )
     /**
      * Tries to resolve the specified artifact from the artifacts of the given project.
      *
-     * @param project The project to try to resolve the artifact from, must not be <code>null</code>.
+     * @param artifacts The artifacts of the project to try to resolve the artifact from, must not be <code>null</code>.
      * @param requestedArtifact The artifact to resolve, must not be <code>null</code>.
      * @return The matching artifact from the project or <code>null</code> if not found. Note that this
      */
-    private Artifact findMatchingArtifact( MavenProject project, Artifact requestedArtifact )
+    private org.apache.maven.artifact.Artifact findMatchingArtifact( ProjectArtifacts artifacts,
+                                                                     Artifact requestedArtifact )
+    {
+        if ( artifacts.mainArtifactId != null
+            && artifacts.mainArtifactId.equals( ArtifactIdUtils.toVersionlessId( requestedArtifact ) ) )
+        {
+            return artifacts.mainArtifact;
+        }
+
+        return artifacts.attachedArtifacts.get( ArtifactIdUtils.toId( requestedArtifact ) );
+    }
+
+    /**
+     * Gets the index of the artifacts of the given project, updating it with the artifacts attached since the last
+     * lookup. The index refers to the project's artifacts (and not their files) so files set later on are seen, too.
+     * The index is stamped with the attached artifacts it was built from, it is rebuilt when any of those got removed
+     * or replaced and only extended when further artifacts were appended.
+     */
+    private ProjectArtifacts getProjectArtifacts( MavenProject project,
+                                                  ConcurrentMap<MavenProject, ProjectArtifacts> index )
     {
-        String requestedRepositoryConflictId = ArtifactIdUtils.toVersionlessId( requestedArtifact );
+        org.apache.maven.artifact.Artifact mainArtifact = project.getArtifact();
+        // take a snapshot of the list, it can be appended to concurrently by the owning project's build
+        Object[] attached = project.getAttachedArtifacts().toArray();
+
+        ProjectArtifacts artifacts = index.get( project );
 
-        Artifact mainArtifact = RepositoryUtils.toArtifact( project.getArtifact() );
-        if ( requestedRepositoryConflictId.equals( ArtifactIdUtils.toVersionlessId( mainArtifact ) ) )
+        if ( artifacts == null || artifacts.mainArtifact != mainArtifact || !artifacts.isPrefixOf( attached ) )
         {
-            return mainArtifact;
+            artifacts = new ProjectArtifacts( mainArtifact, attached, null );
+            index.put( project, artifacts );
         }
+        else if ( artifacts.attached.length < attached.length )
+        {
+            artifacts = new ProjectArtifacts( mainArtifact, attached, artifacts );
+            index.put( project, artifacts );
+        }
+
+        return artifacts;
+    }
+
+    /**
+     * An immutable index of the main and attached artifacts of a project.
+     */
+    private static final class ProjectArtifacts
+    {
+
+        final org.apache.maven.artifact.Artifact mainArtifact;
+
+        final String mainArtifactId;
+
+        final Object[] attached;
 
-        for ( Artifact attachedArtifact : RepositoryUtils.toArtifacts( project.getAttachedArtifacts() ) )
+        final Map<String, org.apache.maven.artifact.Artifact> attachedArtifacts;
+
+        final Set<File> existingFiles = Collections.newSetFromMap( new ConcurrentHashMap<File, Boolean>() );
+
+        ProjectArtifacts( org.apache.maven.artifact.Artifact mainArtifact, Object[] attached,
+                          ProjectArtifacts previous )
         {
-            if ( attachedArtifactComparison( requestedArtifact, attachedArtifact ) )
+            this.mainArtifact = mainArtifact;
+            this.attached = attached;
+
+            if ( previous != null )
+            {
+                mainArtifactId = previous.mainArtifactId;
+                attachedArtifacts =
+                    new HashMap<String, org.apache.maven.artifact.Artifact>( previous.attachedArtifacts );
+                existingFiles.addAll( previous.existingFiles );
+            }
+            else
+            {
+                Artifact artifact = RepositoryUtils.toArtifactView( mainArtifact );
+                mainArtifactId = ( artifact != null ) ? ArtifactIdUtils.toVersionlessId( artifact ) : null;
+                attachedArtifacts = new HashMap<String, org.apache.maven.artifact.Artifact>();
+            }
+
+            for ( int i = ( previous != null ) ? previous.attached.length : 0; i < attached.length; i++ )
             {
-                return attachedArtifact;
+                org.apache.maven.artifact.Artifact attachedArtifact = (org.apache.maven.artifact.Artifact) attached[i];
+                String id = ArtifactIdUtils.toId( RepositoryUtils.toArtifactView( attachedArtifact ) );
+                // the first attached artifact wins, like with the former linear search
+                if ( !attachedArtifacts.containsKey( id ) )
+                {
+                    attachedArtifacts.put( id, attachedArtifact );
+                }
             }
         }
 
-        return null;
-    }
+        boolean isPrefixOf( Object[] artifacts )
+        {
+            if ( attached.length > artifacts.length )
+            {
+                return false;
+            }
+            for ( int i = 0; i < attached.length; i++ )
+            {
+                if ( attached[i] != artifacts[i] )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-    private boolean attachedArtifactComparison( Artifact requested, Artifact attached )
-    {
-        //
-        // We are taking as much as we can from the DefaultArtifact.equals(). The requested artifact has no file so
-        // we want to remove that from the comparison.
-        //
-        return requested.getArtifactId().equals( attached.getArtifactId() )
-            && requested.getGroupId().equals( attached.getGroupId() )
-            && requested.getVersion().equals( attached.getVersion() )
-            && requested.getExtension().equals( attached.getExtension() )
-            && requested.getClassifier().equals( attached.getClassifier() );
     }
 
     /**
@@ -19,17 +19,22 @@
  * under the License.
  */
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.handler.ArtifactHandler;
 import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.eclipse.aether.artifact.AbstractArtifact;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.ArtifactProperties;
 import org.eclipse.aether.artifact.ArtifactType;
@@ -55,6 +60,17 @@
 public class RepositoryUtils
 {
 
+    /*
+     * The handlers and types only depend on a handful of type properties, the number of distinct combinations is
+     * bounded by the artifact types in use, so they are shared instead of being created for every artifact. The shared
+     * handlers are immutable, unlike the ones handed out by newHandler().
+     */
+
+    private static final ConcurrentMap<String, ArtifactHandler> HANDLERS =
+        new ConcurrentHashMap<String, ArtifactHandler>();
+
+    private static final ConcurrentMap<String, ArtifactType> TYPES = new ConcurrentHashMap<String, ArtifactType>();
+
     private static String nullify( String string )
     {
         return ( string == null || string.length() <= 0 ) ? null : string;
@@ -67,7 +83,7 @@ private static org.apache.maven.artifact.Artifact toArtifact( Dependency depende
             return null;
         }
 
-        org.apache.maven.artifact.Artifact result = toArtifact( dependency.getArtifact() );
+        org.apache.maven.artifact.Artifact result = newArtifact( dependency.getArtifact() );
         result.setScope( dependency.getScope() );
         result.setOptional( dependency.isOptional() );
 
@@ -81,7 +97,18 @@ public static org.apache.maven.artifact.Artifact toArtifact( Artifact artifact )
             return null;
         }
 
-        ArtifactHandler handler = newHandler( artifact );
+        org.apache.maven.artifact.Artifact result = newArtifact( artifact );
+
+        List<String> trail = new ArrayList<String>( 1 );
+        trail.add( result.getId() );
+        result.setDependencyTrail( trail );
+
+        return result;
+    }
+
+    private static org.apache.maven.artifact.Artifact newArtifact( Artifact artifact )
+    {
+        ArtifactHandler handler = getSharedHandler( artifact );
 
         /*
          * NOTE: From Artifact.hasClassifier(), an empty string and a null both denote "no classifier". However, some
@@ -97,10 +124,6 @@ public static org.apache.maven.artifact.Artifact toArtifact( Artifact artifact )
         result.setFile( artifact.getFile() );
         result.setResolved( artifact.getFile() != null );
 
-        List<String> trail = new ArrayList<String>( 1 );
-        trail.add( result.getId() );
-        result.setDependencyTrail( trail );
-
         return result;
     }
 
@@ -155,6 +178,25 @@ public static Artifact toArtifact( org.apache.maven.artifact.Artifact artifact )
         return result;
     }
 
+    /**
+     * Gets a view of the specified Maven artifact as a repository artifact. Unlike
+     * {@link #toArtifact(org.apache.maven.artifact.Artifact)}, nothing is copied, the view reads through to the Maven
+     * artifact and as such reflects later changes to it. It is meant for short-lived uses like the calculation of
+     * identifiers or repository paths, the view must not be retained in collections or caches that rely on the
+     * immutability of repository artifacts.
+     *
+     * @param artifact The Maven artifact to view, may be {@code null}.
+     * @return The view of the artifact or {@code null} if the input was {@code null}.
+     */
+    public static Artifact toArtifactView( org.apache.maven.artifact.Artifact artifact )
+    {
+        if ( artifact == null )
+        {
+            return null;
+        }
+        return new ArtifactView( artifact );
+    }
+
     public static Dependency toDependency( org.apache.maven.artifact.Artifact artifact,
                                            Collection<org.apache.maven.model.Exclusion> exclusions )
     {
@@ -273,20 +315,74 @@ private static Proxy toProxy( org.apache.maven.repository.Proxy proxy )
     public static ArtifactHandler newHandler( Artifact artifact )
     {
         String type = artifact.getProperty( ArtifactProperties.TYPE, artifact.getExtension() );
+        String language = artifact.getProperty( ArtifactProperties.LANGUAGE, null );
+        boolean addedToClasspath =
+            Boolean.parseBoolean( artifact.getProperty( ArtifactProperties.CONSTITUTES_BUILD_PATH, "" ) );
+        boolean includesDependencies =
+            Boolean.parseBoolean( artifact.getProperty( ArtifactProperties.INCLUDES_DEPENDENCIES, "" ) );
+
+        return newHandler( type, artifact.getExtension(), language, addedToClasspath, includesDependencies );
+    }
+
+    private static DefaultArtifactHandler newHandler( String type, String extension, String language,
+                                                      boolean addedToClasspath, boolean includesDependencies )
+    {
         DefaultArtifactHandler handler = new DefaultArtifactHandler( type );
-        handler.setExtension( artifact.getExtension() );
-        handler.setLanguage( artifact.getProperty( ArtifactProperties.LANGUAGE, null ) );
-        String addedToClasspath = artifact.getProperty( ArtifactProperties.CONSTITUTES_BUILD_PATH, "" );
-        handler.setAddedToClasspath( Boolean.parseBoolean( addedToClasspath ) );
-        String includesDependencies = artifact.getProperty( ArtifactProperties.INCLUDES_DEPENDENCIES, "" );
-        handler.setIncludesDependencies( Boolean.parseBoolean( includesDependencies ) );
+        handler.setExtension( extension );
+        handler.setLanguage( language );
+        handler.setAddedToClasspath( addedToClasspath );
+        handler.setIncludesDependencies( includesDependencies );
+        return handler;
+    }
+
+    private static ArtifactHandler getSharedHandler( Artifact artifact )
+    {
+        String type = artifact.getProperty( ArtifactProperties.TYPE, artifact.getExtension() );
+        String extension = artifact.getExtension();
+        String language = artifact.getProperty( ArtifactProperties.LANGUAGE, null );
+        boolean addedToClasspath =
+            Boolean.parseBoolean( artifact.getProperty( ArtifactProperties.CONSTITUTES_BUILD_PATH, "" ) );
+        boolean includesDependencies =
+            Boolean.parseBoolean( artifact.getProperty( ArtifactProperties.INCLUDES_DEPENDENCIES, "" ) );
+
+        String key = type + ':' + extension + ':' + language + ':' + addedToClasspath + ':' + includesDependencies;
+
+        ArtifactHandler handler = HANDLERS.get( key );
+        if ( handler == null )
+        {
+            ArtifactHandler newHandler =
+                new SharedArtifactHandler( newHandler( type, extension, language, addedToClasspath,
+                                                       includesDependencies ) );
+
+            handler = HANDLERS.putIfAbsent( key, newHandler );
+            if ( handler == null )
+            {
+                handler = newHandler;
+            }
+        }
         return handler;
     }
 
     public static ArtifactType newArtifactType( String id, ArtifactHandler handler )
     {
-        return new DefaultArtifactType( id, handler.getExtension(), handler.getClassifier(), handler.getLanguage(),
-                                        handler.isAddedToClasspath(), handler.isIncludesDependencies() );
+        String key =
+            id + ':' + handler.getExtension() + ':' + handler.getClassifier() + ':' + handler.getLanguage() + ':'
+                + handler.isAddedToClasspath() + ':' + handler.isIncludesDependencies();
+
+        ArtifactType type = TYPES.get( key );
+        if ( type == null )
+        {
+            ArtifactType newType =
+                new DefaultArtifactType( id, handler.getExtension(), handler.getClassifier(), handler.getLanguage(),
+                                         handler.isAddedToClasspath(), handler.isIncludesDependencies() );
+
+            type = TYPES.putIfAbsent( key, newType );
+            if ( type == null )
+            {
+                type = newType;
+            }
+        }
+        return type;
     }
 
     public static Dependency toDependency( org.apache.maven.model.Dependency dependency,
@@ -359,4 +455,151 @@ public static Collection<Artifact> toArtifacts( Collection<org.apache.maven.arti
         }
         return artifacts;
     }
+
+    /**
+     * An artifact handler that is shared among artifacts and hence can't be modified.
+     */
+    static final class SharedArtifactHandler
+        implements ArtifactHandler
+    {
+
+        private final ArtifactHandler handler;
+
+        SharedArtifactHandler( ArtifactHandler handler )
+        {
+            this.handler = handler;
+        }
+
+        public String getExtension()
+        {
+            return handler.getExtension();
+        }
+
+        public String getDirectory()
+        {
+            return handler.getDirectory();
+        }
+
+        public String getClassifier()
+        {
+            return handler.getClassifier();
+        }
+
+        public String getPackaging()
+        {
+            return handler.getPackaging();
+        }
+
+        public boolean isIncludesDependencies()
+        {
+            return handler.isIncludesDependencies();
+        }
+
+        public String getLanguage()
+        {
+            return handler.getLanguage();
+        }
+
+        public boolean isAddedToClasspath()
+        {
+            return handler.isAddedToClasspath();
+        }
+
+    }
+
+    /**
+     * A read-through view of a Maven artifact as a repository artifact. The type properties are determined once per
+     * view.
+     */
+    static class ArtifactView
+        extends AbstractArtifact
+    {
+
+        private final org.apache.maven.artifact.Artifact artifact;
+
+        private Map<String, String> typeProperties;
+
+        ArtifactView( org.apache.maven.artifact.Artifact artifact )
+        {
+            this.artifact = artifact;
+        }
+
+        private static String emptify( String string )
+        {
+            return ( string == null ) ? "" : string;
+        }
+
+        public String getGroupId()
+        {
+            return emptify( artifact.getGroupId() );
+        }
+
+        public String getArtifactId()
+        {
+            return emptify( artifact.getArtifactId() );
+        }
+
+        public String getVersion()
+        {
+            String version = artifact.getVersion();
+            if ( version == null && artifact.getVersionRange() != null )
+            {
+                version = artifact.getVersionRange().toString();
+            }
+            return emptify( version );
+        }
+
+        public String getClassifier()
+        {
+            return emptify( artifact.getClassifier() );
+        }
+
+        public String getExtension()
+        {
+            return emptify( artifact.getArtifactHandler().getExtension() );
+        }
+
+        public File getFile()
+        {
+            return artifact.getFile();
+        }
+
+        private boolean isSystem()
+        {
+            return org.apache.maven.artifact.Artifact.SCOPE_SYSTEM.equals( artifact.getScope() );
+        }
+
+        private Map<String, String> getTypeProperties()
+        {
+            if ( typeProperties == null )
+            {
+                typeProperties = newArtifactType( artifact.getType(), artifact.getArtifactHandler() ).getProperties();
+            }
+            return typeProperties;
+        }
+
+        @Override
+        public String getProperty( String key, String defaultValue )
+        {
+            if ( isSystem() && ArtifactProperties.LOCAL_PATH.equals( key ) )
+            {
+                return ( artifact.getFile() != null ) ? artifact.getFile().getPath() : "";
+            }
+            String value = getTypeProperties().get( key );
+            return ( value != null ) ? value : defaultValue;
+        }
+
+        public Map<String, String> getProperties()
+        {
+            if ( !isSystem() )
+            {
+                return getTypeProperties();
+            }
+            Map<String, String> props = new HashMap<String, String>( getTypeProperties() );
+            props.put( ArtifactProperties.LOCAL_PATH, getProperty( ArtifactProperties.LOCAL_PATH, "" ) );
+            return Collections.unmodifiableMap( props );
+        }
+
+    }
+
 }
@@ -0,0 +1,248 @@
+package org.apache.maven.classrealm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * An index of the resource directories (i.e. packages) provided by the JARs of a class realm. The index is
+ * conservative: it only ever answers "definitely not here" for names whose directory is not provided by any JAR, all
+ * other lookups still go through the regular class loader. Constituents that cannot be indexed (directories, JARs
+ * with a manifest class path, unreadable files) make the index incomplete, which disables the negative answers.
+ */
+class ClassRealmIndex
+{
+
+    /**
+     * The directories provided by a single JAR, shared among all realms using the same file. The contents are stamped
+     * with the size and timestamp of the indexed file to detect a rebuilt JAR.
+     */
+    static final class JarContents
+    {
+
+        final Set<String> directories;
+
+        final boolean complete;
+
+        final long length;
+
+        final long lastModified;
+
+        JarContents( Set<String> directories, boolean complete, File file )
+        {
+            this.directories = directories;
+            this.complete = complete;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        boolean isCurrent( File file )
+        {
+            return length == file.length() && lastModified == file.lastModified();
+        }
+
+    }
+
+    private final ConcurrentMap<String, JarContents> jarCache;
+
+    private final Set<String> directories = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    private volatile boolean complete = true;
+
+    /**
+     * Creates a new empty index.
+     *
+     * @param jarCache The cache of already indexed JARs to share with other realms, must not be {@code null}.
+     */
+    ClassRealmIndex( ConcurrentMap<String, JarContents> jarCache )
+    {
+        this.jarCache = jarCache;
+    }
+
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * Adds the specified class path element to the index.
+     *
+     * @param url The URL of the class path element, must not be {@code null}.
+     */
+    public void add( URL url )
+    {
+        File file = toFile( url );
+
+        if ( file == null || !file.isFile() )
+        {
+            complete = false;
+            return;
+        }
+
+        JarContents contents = getContents( file );
+
+        directories.addAll( contents.directories );
+
+        if ( !contents.complete )
+        {
+            complete = false;
+        }
+    }
+
+    /**
+     * Indicates whether the indexed JARs might provide the specified class.
+     *
+     * @param className The binary name of the class, must not be {@code null}.
+     * @return {@code false} if the class is definitely not provided by the indexed JARs, {@code true} otherwise.
+     */
+    public boolean mayContainClass( String className )
+    {
+        if ( !complete )
+        {
+            return true;
+        }
+
+        int index = className.lastIndexOf( '.' );
+
+        return directories.contains( ( index > 0 ) ? className.substring( 0, index ).replace( '.', '/' ) : "" );
+    }
+
+    /**
+     * Indicates whether the indexed JARs might provide the specified resource.
+     *
+     * @param name The name of the resource, must not be {@code null}.
+     * @return {@code false} if the resource is definitely not provided by the indexed JARs, {@code true} otherwise.
+     */
+    public boolean mayContainResource( String name )
+    {
+        return !complete || directories.contains( getDirectory( name ) );
+    }
+
+    private JarContents getContents( File file )
+    {
+        // keyed by path only, the contents of a rebuilt JAR replace the stale ones rather than pile up
+        String key = file.getAbsolutePath();
+
+        JarContents contents = jarCache.get( key );
+
+        if ( contents == null || !contents.isCurrent( file ) )
+        {
+            JarContents stale = contents;
+
+            contents = index( file );
+
+            if ( stale == null )
+            {
+                JarContents existing = jarCache.putIfAbsent( key, contents );
+                if ( existing != null && existing.isCurrent( file ) )
+                {
+                    contents = existing;
+                }
+            }
+            else
+            {
+                jarCache.replace( key, stale, contents );
+            }
+        }
+
+        return contents;
+    }
+
+    static JarContents index( File file )
+    {
+        Set<String> dirs = new HashSet<String>();
+
+        JarFile jar = null;
+        try
+        {
+            jar = new JarFile( file, false );
+
+            for ( Enumeration<? extends ZipEntry> en = jar.entries(); en.hasMoreElements(); )
+            {
+                dirs.add( getDirectory( en.nextElement().getName() ) );
+            }
+
+            Manifest mf = jar.getManifest();
+            boolean classPath = mf != null && mf.getMainAttributes().getValue( Attributes.Name.CLASS_PATH ) != null;
+
+            return new JarContents( Collections.unmodifiableSet( dirs ), !classPath, file );
+        }
+        catch ( IOException e )
+        {
+            return new JarContents( Collections.<String>emptySet(), false, file );
+        }
+        finally
+        {
+            if ( jar != null )
+            {
+                try
+                {
+                    jar.close();
+                }
+                catch ( IOException e )
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    static String getDirectory( String name )
+    {
+        int index = name.lastIndexOf( '/' );
+
+        return ( index > 0 ) ? name.substring( 0, index ) : "";
+    }
+
+    private static File toFile( URL url )
+    {
+        if ( !"file".equals( url.getProtocol() ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            return new File( url.toURI() );
+        }
+        catch ( URISyntaxException e )
+        {
+            return null;
+        }
+        catch ( IllegalArgumentException e )
+        {
+            return null;
+        }
+    }
+
+}
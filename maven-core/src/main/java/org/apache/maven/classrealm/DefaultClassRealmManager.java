@@ -30,11 +30,14 @@
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.classrealm.ClassRealmRequest.RealmType;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.LegacySupport;
 import org.codehaus.plexus.MutablePlexusContainer;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.classworlds.ClassWorld;
@@ -45,7 +48,9 @@
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.StringUtils;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  * Manages the class realms used by Maven. <strong>Warning:</strong> This is an internal utility class that is only
@@ -59,14 +64,25 @@
     implements ClassRealmManager
 {
 
+    /**
+     * The name of the configuration property that enables indexed class lookup for plugin and extension realms.
+     */
+    public static final String CONFIG_PROP_INDEXED_REALMS = "maven.classrealm.indexed";
+
     @Requirement
     private Logger logger;
 
     @Requirement
     protected PlexusContainer container;
 
+    @Requirement
+    private LegacySupport legacySupport;
+
     private ClassRealm mavenRealm;
 
+    private final ConcurrentMap<String, ClassRealmIndex.JarContents> jarIndexCache =
+        new ConcurrentHashMap<String, ClassRealmIndex.JarContents>();
+
     private ClassWorld getClassWorld()
     {
         return ( (MutablePlexusContainer) container ).getClassWorld();
@@ -103,6 +119,44 @@ private ClassRealm newRealm( String id )
         }
     }
 
+    private ClassRealm newIndexedRealm( String id )
+    {
+        ClassWorld world = getClassWorld();
+
+        synchronized ( world )
+        {
+            ClassRealm classRealm = newRealm( id );
+
+            ClassRealm indexedRealm =
+                IndexedClassRealm.replace( world, classRealm, new ClassRealmIndex( jarIndexCache ) );
+
+            if ( indexedRealm == null )
+            {
+                logger.debug( "Indexed class lookup not supported by class world, using regular class realm" );
+                return classRealm;
+            }
+
+            if ( logger.isDebugEnabled() )
+            {
+                logger.debug( "Using indexed class lookup for class realm " + indexedRealm.getId() );
+            }
+
+            return indexedRealm;
+        }
+    }
+
+    private boolean isIndexed( RealmType type )
+    {
+        if ( type != RealmType.Plugin && type != RealmType.Extension )
+        {
+            return false;
+        }
+
+        RepositorySystemSession session = legacySupport.getRepositorySession();
+
+        return session != null && ConfigUtils.getBoolean( session, false, CONFIG_PROP_INDEXED_REALMS );
+    }
+
     public synchronized ClassRealm getMavenApiRealm()
     {
         if ( mavenRealm == null )
@@ -274,7 +328,7 @@ private ClassRealm createRealm( String baseRealmId, RealmType type, ClassLoader
             foreignImports = new TreeMap<String, ClassLoader>();
         }
 
-        ClassRealm classRealm = newRealm( baseRealmId );
+        ClassRealm classRealm = isIndexed( type ) ? newIndexedRealm( baseRealmId ) : newRealm( baseRealmId );
 
         if ( parent != null )
         {
@@ -0,0 +1,165 @@
+package org.apache.maven.classrealm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.ClassWorldListener;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+
+/**
+ * A class realm that consults an index of its JARs before searching them, so that lookups for classes and resources
+ * from packages the realm does not provide are answered without scanning the class path. The class world offers no
+ * means to create custom realm implementations, so an indexed realm takes over the registration of a plain realm with
+ * the same id, see {@link #replace(ClassWorld, ClassRealm, ClassRealmIndex)}. This relies on the private fields
+ * {@code realms} and {@code listeners} of {@link ClassWorld} as found in plexus-classworlds 2.5.x, with other versions
+ * the plain realms are used.
+ */
+class IndexedClassRealm
+    extends ClassRealm
+{
+
+    private final ClassRealmIndex index;
+
+    IndexedClassRealm( ClassWorld world, String id, ClassRealmIndex index )
+    {
+        super( world, id, null );
+        this.index = index;
+    }
+
+    /**
+     * Replaces the specified realm in its class world with a new indexed realm of the same id. Afterwards, the world
+     * hands out and disposes the indexed realm, i.e. disposal closes its JARs and releases its components. The
+     * listeners of the world are told about the replacement as if the plain realm was disposed and the indexed realm
+     * created. The caller must hold the lock of the world.
+     *
+     * @param world The class world of the realm, must not be {@code null}.
+     * @param realm The freshly created plain realm to replace, must not be {@code null}.
+     * @param index The index for the new realm, must not be {@code null}.
+     * @return The indexed realm or {@code null} if the world does not allow to replace its realms.
+     */
+    static IndexedClassRealm replace( ClassWorld world, ClassRealm realm, ClassRealmIndex index )
+    {
+        Map<String, ClassRealm> realms = getField( world, "realms", Map.class );
+        List<ClassWorldListener> listeners = getField( world, "listeners", List.class );
+        if ( realms == null || listeners == null || realms.get( realm.getId() ) != realm )
+        {
+            return null;
+        }
+
+        IndexedClassRealm indexedRealm = new IndexedClassRealm( world, realm.getId(), index );
+        realms.put( realm.getId(), indexedRealm );
+
+        for ( ClassWorldListener listener : listeners )
+        {
+            listener.realmDisposed( realm );
+            listener.realmCreated( indexedRealm );
+        }
+
+        return indexedRealm;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static <T> T getField( ClassWorld world, String name, Class<?> type )
+    {
+        try
+        {
+            Field field = ClassWorld.class.getDeclaredField( name );
+            field.setAccessible( true );
+            Object value = field.get( world );
+            return type.isInstance( value ) ? (T) value : null;
+        }
+        catch ( Exception e )
+        {
+            return null;
+        }
+    }
+
+    ClassRealmIndex getIndex()
+    {
+        return index;
+    }
+
+    @Override
+    public void addURL( URL url )
+    {
+        index.add( url );
+        super.addURL( url );
+    }
+
+    @Override
+    public Class<?> loadClassFromSelf( String name )
+    {
+        if ( !index.mayContainClass( name ) )
+        {
+            return null;
+        }
+        return super.loadClassFromSelf( name );
+    }
+
+    @Override
+    public URL loadResourceFromSelf( String name )
+    {
+        if ( !index.mayContainResource( name ) )
+        {
+            return null;
+        }
+        return super.loadResourceFromSelf( name );
+    }
+
+    @Override
+    public Enumeration<URL> loadResourcesFromSelf( String name )
+    {
+        if ( !index.mayContainResource( name ) )
+        {
+            return Collections.enumeration( Collections.<URL>emptySet() );
+        }
+        return super.loadResourcesFromSelf( name );
+    }
+
+    @Override
+    public URL findResource( String name )
+    {
+        if ( !index.mayContainResource( name ) )
+        {
+            return null;
+        }
+        return super.findResource( name );
+    }
+
+    @Override
+    public Enumeration<URL> findResources( String name )
+        throws IOException
+    {
+        if ( !index.mayContainResource( name ) )
+        {
+            return Collections.enumeration( Collections.<URL>emptySet() );
+        }
+        return super.findResources( name );
+    }
+
+}
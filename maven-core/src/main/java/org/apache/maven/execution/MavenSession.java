@@ -26,6 +26,7 @@
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.RepositoryCache;
@@ -77,8 +78,9 @@
 
     private boolean parallel;
 
-    private final Map<String, Map<String, Map<String, Object>>> pluginContextsByProjectAndPluginKey =
-        new ConcurrentHashMap<String, Map<String, Map<String, Object>>>();
+    private final ConcurrentMap<MavenProject, ConcurrentMap<String, Map<String, Object>>>
+        pluginContextsByProjectAndPluginKey =
+            new ConcurrentHashMap<MavenProject, ConcurrentMap<String, Map<String, Object>>>();
 
     @Deprecated
     public MavenSession( PlexusContainer container, MavenExecutionRequest request, MavenExecutionResult result,
@@ -311,15 +313,20 @@ public MavenExecutionResult getResult()
 
     public Map<String, Object> getPluginContext( PluginDescriptor plugin, MavenProject project )
     {
-        String projectKey = project.getId();
-
-        Map<String, Map<String, Object>> pluginContextsByKey = pluginContextsByProjectAndPluginKey.get( projectKey );
+        // projects are equal to their forked clones, which thus share the context (just like the project ids did)
+        ConcurrentMap<String, Map<String, Object>> pluginContextsByKey =
+            pluginContextsByProjectAndPluginKey.get( project );
 
         if ( pluginContextsByKey == null )
         {
             pluginContextsByKey = new ConcurrentHashMap<String, Map<String, Object>>();
 
-            pluginContextsByProjectAndPluginKey.put( projectKey, pluginContextsByKey );
+            ConcurrentMap<String, Map<String, Object>> existing =
+                pluginContextsByProjectAndPluginKey.putIfAbsent( project, pluginContextsByKey );
+            if ( existing != null )
+            {
+                pluginContextsByKey = existing;
+            }
         }
 
         String pluginKey = plugin.getPluginLookupKey();
@@ -330,7 +337,11 @@ public Map<String, Object> getPluginContext( PluginDescriptor plugin, MavenProje
         {
             pluginContext = new ConcurrentHashMap<String, Object>();
 
-            pluginContextsByKey.put( pluginKey, pluginContext );
+            Map<String, Object> existing = pluginContextsByKey.putIfAbsent( pluginKey, pluginContext );
+            if ( existing != null )
+            {
+                pluginContext = existing;
+            }
         }
 
         return pluginContext;
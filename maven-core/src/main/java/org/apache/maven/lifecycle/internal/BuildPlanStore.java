@@ -0,0 +1,537 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.DependencyGraphStore;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.DefaultLifecycles;
+import org.apache.maven.lifecycle.Lifecycle;
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.InvalidPluginDescriptorException;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoNotFoundException;
+import org.apache.maven.plugin.PluginDescriptorParsingException;
+import org.apache.maven.plugin.PluginNotFoundException;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Persists the finalized mojo executions of a project's build plan below the local repository such that later builds
+ * can skip the lifecycle mapping and the merging of the mojo configurations. Plans are addressed by the project's
+ * effective build section, its packaging, the lifecycle definitions and the requested phases. Only plans for lifecycle
+ * phases whose mojos stem from release versions of the project's build plugins are stored, the stored size and
+ * timestamp of each plugin JAR guard against locally reinstalled plugins. Each plan file ends with a checksum of its
+ * contents, truncated or otherwise corrupted files are treated like missing plans.
+ *
+ * @since 3.2.6
+ */
+class BuildPlanStore
+{
+
+    private static final String FORMAT = "# maven build plan 1";
+
+    private static final String END = "# end ";
+
+    private final File directory;
+
+    BuildPlanStore( File directory )
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the store in the local repository of the given session.
+     *
+     * @param session The Maven session, must not be {@code null}.
+     * @return The plan store, never {@code null}.
+     */
+    static BuildPlanStore newInstance( MavenSession session )
+    {
+        File basedir = session.getRepositorySession().getLocalRepository().getBasedir();
+        return new BuildPlanStore( new File( basedir, ".cache/build-plans" ) );
+    }
+
+    /**
+     * Calculates the content address of the build plan for the specified tasks.
+     *
+     * @param project The project to calculate the plan for, must not be {@code null}.
+     * @param tasks The tasks to calculate the plan for, must not be {@code null}.
+     * @param lifecycles The available lifecycles, must not be {@code null}.
+     * @return The content address or {@code null} if the plan for the tasks cannot be stored.
+     */
+    static String getKey( MavenProject project, List<Object> tasks, DefaultLifecycles lifecycles )
+    {
+        StringBuilder buffer = new StringBuilder( 8192 );
+        buffer.append( FORMAT ).append( '\n' );
+        buffer.append( BuilderCommon.getKey( project ) ).append( '\n' );
+        buffer.append( project.getPackaging() ).append( '\n' );
+
+        for ( Object task : tasks )
+        {
+            if ( !( task instanceof LifecycleTask ) )
+            {
+                return null;
+            }
+            String phase = ( (LifecycleTask) task ).getLifecyclePhase();
+            Lifecycle lifecycle = lifecycles.get( phase );
+            if ( lifecycle == null
+                || !Arrays.asList( DefaultLifecycles.STANDARD_LIFECYCLES ).contains( lifecycle.getId() ) )
+            {
+                return null;
+            }
+            buffer.append( "task " ).append( phase ).append( '\n' );
+        }
+
+        for ( Lifecycle lifecycle : lifecycles.getLifeCycles() )
+        {
+            buffer.append( "lifecycle " ).append( lifecycle.getId() ).append( ' ' ).append( lifecycle.getPhases() );
+            buffer.append( ' ' ).append( lifecycle.getDefaultPhases() ).append( '\n' );
+        }
+
+        Model model = new Model();
+        model.setBuild( project.getBuild() );
+
+        StringWriter writer = new StringWriter( 4096 );
+        try
+        {
+            new MavenXpp3Writer().write( writer, model );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        buffer.append( writer.getBuffer() );
+
+        return DependencyGraphStore.hash( buffer );
+    }
+
+    /**
+     * Indicates whether the specified plan can be stored, i.e. all its mojo executions, including forked ones, refer
+     * to release versions of the project's build plugins and forks stay within the project.
+     *
+     * @param project The project the plan was calculated for, must not be {@code null}.
+     * @param executions The finalized mojo executions of the plan, must not be {@code null}.
+     * @return {@code true} if the plan is storable, {@code false} otherwise.
+     */
+    static boolean isStorable( MavenProject project, List<MojoExecution> executions )
+    {
+        String projectKey = BuilderCommon.getKey( project );
+
+        for ( MojoExecution execution : executions )
+        {
+            Plugin plugin = findPlugin( project, execution.getGroupId(), execution.getArtifactId() );
+            if ( plugin == null || !execution.getVersion().equals( plugin.getVersion() )
+                || ArtifactUtils.isSnapshot( plugin.getVersion() ) )
+            {
+                return false;
+            }
+            for ( Map.Entry<String, List<MojoExecution>> fork : execution.getForkedExecutions().entrySet() )
+            {
+                if ( !projectKey.equals( fork.getKey() ) || !isStorable( project, fork.getValue() ) )
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static Plugin findPlugin( MavenProject project, String groupId, String artifactId )
+    {
+        for ( Plugin plugin : project.getBuildPlugins() )
+        {
+            if ( artifactId.equals( plugin.getArtifactId() ) && groupId.equals( plugin.getGroupId() ) )
+            {
+                return plugin;
+            }
+        }
+        return null;
+    }
+
+    private static String getChecksum( MojoDescriptor mojoDescriptor )
+    {
+        Artifact artifact = mojoDescriptor.getPluginDescriptor().getPluginArtifact();
+        File file = ( artifact != null ) ? artifact.getFile() : null;
+        return ( file != null ) ? file.length() + "@" + file.lastModified() : "";
+    }
+
+    /**
+     * Loads the plan with the specified key. The mojo descriptors of the plan are looked up again, i.e. the plugins
+     * get resolved just like for a freshly calculated plan.
+     *
+     * @param key The content address of the plan, must not be {@code null}.
+     * @param session The Maven session, must not be {@code null}.
+     * @param project The project the plan is for, must not be {@code null}.
+     * @param pluginManager The plugin manager used to look up the mojo descriptors, must not be {@code null}.
+     * @return The finalized mojo executions or {@code null} if the plan is not stored, can't be read, is incomplete or
+     *         is stale.
+     */
+    List<MojoExecution> load( String key, MavenSession session, MavenProject project,
+                              BuildPluginManager pluginManager )
+        throws PluginNotFoundException, PluginResolutionException, PluginDescriptorParsingException,
+        MojoNotFoundException, InvalidPluginDescriptorException
+    {
+        File file = getFile( key );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        String projectKey = BuilderCommon.getKey( project );
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( file ), "UTF-8" ) );
+
+            // the plan is only used if its trailing checksum matches, i.e. it was completely written
+            List<String> lines = new ArrayList<String>();
+            StringBuilder contents = new StringBuilder( 8192 );
+            String trailer = null;
+            for ( String line = reader.readLine(); line != null; line = reader.readLine() )
+            {
+                if ( line.startsWith( END ) )
+                {
+                    trailer = line;
+                    break;
+                }
+                lines.add( line );
+                contents.append( line ).append( '\n' );
+            }
+
+            if ( !( END + DependencyGraphStore.hash( contents ) ).equals( trailer ) || lines.isEmpty()
+                || !FORMAT.equals( lines.get( 0 ) ) )
+            {
+                return null;
+            }
+
+            List<MojoExecution> executions = new ArrayList<MojoExecution>();
+
+            // the lists to add executions to and the last execution per depth
+            List<List<MojoExecution>> lists = new ArrayList<List<MojoExecution>>();
+            List<MojoExecution> parents = new ArrayList<MojoExecution>();
+            lists.add( executions );
+
+            for ( String line : lines.subList( 1, lines.size() ) )
+            {
+                String[] fields = line.split( "\t", -1 );
+                int depth = Integer.parseInt( fields[1] );
+
+                if ( "F".equals( fields[0] ) )
+                {
+                    // fork, depth, i.e. the forked executions of the last execution at the preceding depth
+                    if ( depth < 1 || depth > parents.size() )
+                    {
+                        return null;
+                    }
+                    truncate( lists, depth );
+                    truncate( parents, depth );
+                    List<MojoExecution> forkedExecutions = new ArrayList<MojoExecution>();
+                    parents.get( depth - 1 ).setForkedExecutions( projectKey, forkedExecutions );
+                    lists.add( forkedExecutions );
+                    continue;
+                }
+
+                // execution, depth, plugin, checksum, goal, execution id, source, phase, configuration tokens
+                if ( depth >= lists.size() )
+                {
+                    return null;
+                }
+
+                String[] coords = fields[2].split( ":" );
+                Plugin plugin = findPlugin( project, coords[0], coords[1] );
+                if ( plugin == null || !coords[2].equals( plugin.getVersion() ) )
+                {
+                    return null;
+                }
+
+                MojoDescriptor mojoDescriptor =
+                    pluginManager.getMojoDescriptor( plugin, fields[4], project.getRemotePluginRepositories(),
+                                                     session.getRepositorySession() );
+                if ( !fields[3].equals( getChecksum( mojoDescriptor ) ) )
+                {
+                    return null;
+                }
+
+                MojoExecution.Source source = MojoExecution.Source.valueOf( fields[6] );
+                MojoExecution execution = new MojoExecution( mojoDescriptor, emptyToNull( fields[5] ), source );
+                execution.setLifecyclePhase( emptyToNull( fields[7] ) );
+                if ( fields[8].length() > 0 )
+                {
+                    execution.setConfiguration( parse( fields[8].split( " ", -1 ), new int[1] ) );
+                }
+
+                truncate( lists, depth + 1 );
+                truncate( parents, depth );
+                lists.get( depth ).add( execution );
+                parents.add( execution );
+            }
+
+            return executions;
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        catch ( RuntimeException e )
+        {
+            // corrupted file, e.g. invalid depth or truncated line
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    private static void truncate( List<?> list, int size )
+    {
+        while ( list.size() > size )
+        {
+            list.remove( list.size() - 1 );
+        }
+    }
+
+    /**
+     * Stores the specified plan under the given key. Plans which are not {@link #isStorable(MavenProject, List)
+     * storable} are silently skipped.
+     *
+     * @param key The content address of the plan, must not be {@code null}.
+     * @param project The project the plan was calculated for, must not be {@code null}.
+     * @param executions The finalized mojo executions of the plan, must not be {@code null}.
+     * @return {@code true} if the plan was stored, {@code false} otherwise.
+     */
+    boolean store( String key, MavenProject project, List<MojoExecution> executions )
+    {
+        if ( !isStorable( project, executions ) )
+        {
+            return false;
+        }
+
+        StringBuilder buffer = new StringBuilder( 8192 );
+        buffer.append( FORMAT ).append( '\n' );
+        format( buffer, executions, 0 );
+        String checksum = DependencyGraphStore.hash( buffer );
+        buffer.append( END ).append( checksum ).append( '\n' );
+
+        File file = getFile( key );
+        File tmp = null;
+
+        Writer writer = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+            tmp = File.createTempFile( file.getName(), ".tmp", file.getParentFile() );
+
+            writer = new OutputStreamWriter( new FileOutputStream( tmp ), "UTF-8" );
+            writer.write( buffer.toString() );
+            writer.close();
+            writer = null;
+
+            file.delete();
+            return tmp.renameTo( file );
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+        finally
+        {
+            IOUtil.close( writer );
+            if ( tmp != null )
+            {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static void format( StringBuilder buffer, List<MojoExecution> executions, int depth )
+    {
+        for ( MojoExecution execution : executions )
+        {
+            buffer.append( 'E' ).append( '\t' ).append( depth );
+            buffer.append( '\t' ).append( execution.getGroupId() ).append( ':' ).append( execution.getArtifactId() );
+            buffer.append( ':' ).append( execution.getVersion() );
+            buffer.append( '\t' ).append( getChecksum( execution.getMojoDescriptor() ) );
+            buffer.append( '\t' ).append( execution.getGoal() );
+            buffer.append( '\t' ).append( nullToEmpty( execution.getExecutionId() ) );
+            buffer.append( '\t' ).append( execution.getSource().name() );
+            buffer.append( '\t' ).append( nullToEmpty( execution.getLifecyclePhase() ) );
+            buffer.append( '\t' );
+            if ( execution.getConfiguration() != null )
+            {
+                format( buffer, execution.getConfiguration() );
+            }
+            buffer.append( '\n' );
+
+            for ( List<MojoExecution> forkedExecutions : execution.getForkedExecutions().values() )
+            {
+                buffer.append( 'F' ).append( '\t' ).append( depth + 1 ).append( '\n' );
+                format( buffer, forkedExecutions, depth + 1 );
+            }
+        }
+    }
+
+    /**
+     * Appends the specified configuration as space-separated tokens in pre-order: name, value, attribute count,
+     * attribute names and values, child count and children.
+     */
+    private static void format( StringBuilder buffer, Xpp3Dom dom )
+    {
+        appendToken( buffer, dom.getName() ).append( ' ' );
+        appendToken( buffer, dom.getValue() ).append( ' ' );
+        String[] attributes = dom.getAttributeNames();
+        buffer.append( attributes.length );
+        for ( String attribute : attributes )
+        {
+            appendToken( buffer.append( ' ' ), attribute ).append( ' ' );
+            appendToken( buffer, dom.getAttribute( attribute ) );
+        }
+        buffer.append( ' ' ).append( dom.getChildCount() );
+        for ( Xpp3Dom child : dom.getChildren() )
+        {
+            format( buffer.append( ' ' ), child );
+        }
+    }
+
+    private static Xpp3Dom parse( String[] tokens, int[] index )
+    {
+        Xpp3Dom dom = new Xpp3Dom( parseToken( tokens[index[0]++] ) );
+        dom.setValue( parseToken( tokens[index[0]++] ) );
+        for ( int i = Integer.parseInt( tokens[index[0]++] ); i > 0; i-- )
+        {
+            String name = parseToken( tokens[index[0]++] );
+            dom.setAttribute( name, parseToken( tokens[index[0]++] ) );
+        }
+        for ( int i = Integer.parseInt( tokens[index[0]++] ); i > 0; i-- )
+        {
+            dom.addChild( parse( tokens, index ) );
+        }
+        return dom;
+    }
+
+    private static StringBuilder appendToken( StringBuilder buffer, String value )
+    {
+        if ( value == null )
+        {
+            return buffer.append( "\\0" );
+        }
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+                case '\\':
+                    buffer.append( "\\\\" );
+                    break;
+                case ' ':
+                    buffer.append( "\\s" );
+                    break;
+                case '\t':
+                    buffer.append( "\\t" );
+                    break;
+                case '\n':
+                    buffer.append( "\\n" );
+                    break;
+                case '\r':
+                    buffer.append( "\\r" );
+                    break;
+                default:
+                    buffer.append( c );
+            }
+        }
+        return buffer;
+    }
+
+    private static String parseToken( String token )
+    {
+        if ( "\\0".equals( token ) )
+        {
+            return null;
+        }
+        StringBuilder buffer = new StringBuilder( token.length() );
+        for ( int i = 0; i < token.length(); i++ )
+        {
+            char c = token.charAt( i );
+            if ( c == '\\' )
+            {
+                c = token.charAt( ++i );
+                if ( c == 's' )
+                {
+                    c = ' ';
+                }
+                else if ( c == 't' )
+                {
+                    c = '\t';
+                }
+                else if ( c == 'n' )
+                {
+                    c = '\n';
+                }
+                else if ( c == 'r' )
+                {
+                    c = '\r';
+                }
+            }
+            buffer.append( c );
+        }
+        return buffer.toString();
+    }
+
+    private static String nullToEmpty( String value )
+    {
+        return ( value != null ) ? value : "";
+    }
+
+    private static String emptyToNull( String value )
+    {
+        return ( value.length() > 0 ) ? value : null;
+    }
+
+    private File getFile( String key )
+    {
+        return new File( directory, key + ".plan" );
+    }
+
+}
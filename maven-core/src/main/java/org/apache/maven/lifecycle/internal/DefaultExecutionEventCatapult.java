@@ -24,6 +24,7 @@
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
 import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
 
 /**
  * Assists in firing execution events. <strong>Warning:</strong> This is an internal utility class that is only public
@@ -37,6 +38,9 @@
     implements ExecutionEventCatapult
 {
 
+    @Requirement
+    private MojoExecutionProfiler profiler;
+
     public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecution mojoExecution )
     {
         fire( eventType, session, mojoExecution, null );
@@ -45,6 +49,8 @@ public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecu
     public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecution mojoExecution,
                       Exception exception )
     {
+        profile( eventType, session );
+
         ExecutionListener listener = session.getRequest().getExecutionListener();
 
         if ( listener != null )
@@ -116,4 +122,33 @@ public void fire( ExecutionEvent.Type eventType, MavenSession session, MojoExecu
         }
     }
 
+    private void profile( ExecutionEvent.Type eventType, MavenSession session )
+    {
+        MojoExecutionProfile profile;
+
+        switch ( eventType )
+        {
+            case MojoStarted:
+                profile = profiler.getCurrentProfile();
+                if ( profile != null )
+                {
+                    profile.executionStarted();
+                }
+                break;
+            case MojoSucceeded:
+            case MojoFailed:
+                profile = profiler.getCurrentProfile();
+                if ( profile != null )
+                {
+                    profile.executionEnded( eventType == ExecutionEvent.Type.MojoFailed );
+                }
+                break;
+            case SessionEnded:
+                profiler.report( session );
+                break;
+            default:
+                break;
+        }
+    }
+
 }
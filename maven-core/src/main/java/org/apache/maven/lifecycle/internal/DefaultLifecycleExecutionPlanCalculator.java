@@ -59,6 +59,7 @@
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  * @since 3.0
@@ -71,6 +72,16 @@
 public class DefaultLifecycleExecutionPlanCalculator
     implements LifecycleExecutionPlanCalculator
 {
+    /**
+     * The name of the configuration property that enables the persistent cache of build plans. When enabled, the
+     * finalized mojo executions of lifecycle builds are stored below the local repository and reused by later builds
+     * as long as the project's effective build section, its packaging, the lifecycles and the plugin JARs are
+     * unchanged. The default value is {@code false}.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_PLAN_CACHE = "maven.lifecycle.planCache";
+
     @Requirement
     private PluginVersionResolver pluginVersionResolver;
 
@@ -115,11 +126,33 @@ public MavenExecutionPlan calculateExecutionPlan( MavenSession session, MavenPro
     {
         lifecyclePluginResolver.resolveMissingPluginVersions( project, session );
 
-        final List<MojoExecution> executions = calculateMojoExecutions( session, project, tasks );
+        BuildPlanStore planStore = null;
+        String planKey = null;
+        List<MojoExecution> executions = null;
+
+        if ( setup && isPlanCache( session ) )
+        {
+            planKey = BuildPlanStore.getKey( project, tasks, defaultLifeCycles );
+            if ( planKey != null )
+            {
+                planStore = BuildPlanStore.newInstance( session );
+                executions = planStore.load( planKey, session, project, pluginManager );
+            }
+        }
 
-        if ( setup )
+        if ( executions == null )
         {
-            setupMojoExecutions( session, project, executions );
+            executions = calculateMojoExecutions( session, project, tasks );
+
+            if ( setup )
+            {
+                setupMojoExecutions( session, project, executions );
+            }
+
+            if ( planStore != null )
+            {
+                planStore.store( planKey, project, executions );
+            }
         }
 
         final List<ExecutionPlanItem> planItem = ExecutionPlanItem.createExecutionPlanItems( project, executions );
@@ -135,6 +168,12 @@ public MavenExecutionPlan calculateExecutionPlan( MavenSession session, MavenPro
         return calculateExecutionPlan( session, project, tasks, true );
     }
 
+    private static boolean isPlanCache( MavenSession session )
+    {
+        return session.getRepositorySession() != null
+            && ConfigUtils.getBoolean( session.getRepositorySession(), false, CONFIG_PROP_PLAN_CACHE );
+    }
+
     private void setupMojoExecutions( MavenSession session, MavenProject project, List<MojoExecution> mojoExecutions )
         throws PluginNotFoundException, PluginResolutionException, PluginDescriptorParsingException,
         MojoNotFoundException, InvalidPluginDescriptorException, NoPluginFoundForPrefixException,
@@ -0,0 +1,244 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.WriterFactory;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Default mojo execution profiler. The profiles are written as tab-separated values to the file given by the user
+ * property {@code maven.mojo.profile.report} (defaulting to {@code mojo-profile.txt} in the build directory of the
+ * top-level project) and the slowest executions are logged, their number given by {@code maven.mojo.profile.top}.
+ *
+ * @since 3.2.6
+ */
+@Component( role = MojoExecutionProfiler.class )
+public class DefaultMojoExecutionProfiler
+    implements MojoExecutionProfiler
+{
+
+    static final String CONFIG_PROP_PROFILE = "maven.mojo.profile";
+
+    static final String CONFIG_PROP_REPORT = "maven.mojo.profile.report";
+
+    static final String CONFIG_PROP_TOP = "maven.mojo.profile.top";
+
+    static final String REPORT_HEADER = "# maven mojo profile 1";
+
+    @Requirement
+    private Logger logger;
+
+    private final ThreadLocal<MojoExecutionProfile> current = new ThreadLocal<MojoExecutionProfile>();
+
+    private final Queue<MojoExecutionProfile> profiles = new ConcurrentLinkedQueue<MojoExecutionProfile>();
+
+    public boolean isEnabled( MavenSession session )
+    {
+        return session.getRepositorySession() != null
+            && ConfigUtils.getBoolean( session.getRepositorySession(), false, CONFIG_PROP_PROFILE );
+    }
+
+    public MojoExecutionProfile start( MavenSession session, MojoExecution mojoExecution )
+    {
+        if ( !isEnabled( session ) )
+        {
+            return null;
+        }
+
+        MavenProject project = session.getCurrentProject();
+
+        MojoExecutionProfile profile =
+            new MojoExecutionProfile( ( project != null ) ? project.getId() : "", mojoExecution, current.get() );
+
+        current.set( profile );
+
+        return profile;
+    }
+
+    public MojoExecutionProfile getCurrentProfile()
+    {
+        return current.get();
+    }
+
+    public void stop( MojoExecutionProfile profile )
+    {
+        if ( profile == null )
+        {
+            return;
+        }
+
+        if ( profile.parent != null )
+        {
+            current.set( profile.parent );
+        }
+        else
+        {
+            current.remove();
+        }
+
+        profiles.add( profile );
+    }
+
+    public void report( MavenSession session )
+    {
+        if ( profiles.isEmpty() )
+        {
+            return;
+        }
+
+        List<MojoExecutionProfile> results = new ArrayList<MojoExecutionProfile>( profiles );
+        profiles.clear();
+
+        File file = getReportFile( session );
+
+        try
+        {
+            write( file, results );
+        }
+        catch ( IOException e )
+        {
+            logger.warn( "Failed to write mojo execution profile to " + file + ": " + e.getMessage() );
+            file = null;
+        }
+
+        Collections.sort( results, new Comparator<MojoExecutionProfile>()
+        {
+            public int compare( MojoExecutionProfile p1, MojoExecutionProfile p2 )
+            {
+                long t1 = p1.getWallTime();
+                long t2 = p2.getWallTime();
+                return ( t1 > t2 ) ? -1 : ( ( t1 < t2 ) ? 1 : 0 );
+            }
+        } );
+
+        int top = ConfigUtils.getInteger( session.getRepositorySession(), 10, CONFIG_PROP_TOP );
+
+        logger.info( "Mojo execution profile (slowest " + Math.min( top, results.size() ) + " of " + results.size()
+            + " executions" + ( ( file != null ) ? ", full report in " + file : "" ) + "):" );
+
+        for ( MojoExecutionProfile profile : results.subList( 0, Math.min( top, results.size() ) ) )
+        {
+            StringBuilder buffer = new StringBuilder( 256 );
+
+            buffer.append( "  " ).append( toMillis( profile.getWallTime() ) ).append( " ms" );
+            buffer.append( " (cpu " ).append( toMillis( profile.getCpuTime() ) ).append( " ms" );
+            buffer.append( ", setup " ).append( toMillis( profile.getSetupTime() ) ).append( " ms" );
+            buffer.append( ", dependencies " ).append( toMillis( profile.getDependencyResolutionTime() ) );
+            buffer.append( " ms, fork " ).append( toMillis( profile.getForkTime() ) ).append( " ms" );
+            if ( profile.getAllocatedBytes() >= 0 )
+            {
+                buffer.append( ", " ).append( profile.getAllocatedBytes() / 1024 / 1024 ).append( " MB allocated" );
+            }
+            buffer.append( ") " );
+            appendExecution( buffer, profile.getMojoExecution() );
+            buffer.append( " @ " ).append( profile.getProjectId() );
+
+            logger.info( buffer.toString() );
+        }
+    }
+
+    private File getReportFile( MavenSession session )
+    {
+        String path = ConfigUtils.getString( session.getRepositorySession(), null, CONFIG_PROP_REPORT );
+
+        if ( path != null && path.length() > 0 )
+        {
+            return new File( path ).getAbsoluteFile();
+        }
+
+        MavenProject project = session.getTopLevelProject();
+
+        if ( project != null && project.getBuild() != null && project.getBuild().getDirectory() != null )
+        {
+            return new File( project.getBuild().getDirectory(), "mojo-profile.txt" );
+        }
+
+        return new File( new File( session.getExecutionRootDirectory(), "target" ), "mojo-profile.txt" );
+    }
+
+    static void write( File file, List<MojoExecutionProfile> profiles )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+
+        Writer writer = WriterFactory.newWriter( file, "UTF-8" );
+        try
+        {
+            writer.write( REPORT_HEADER );
+            writer.write( '\n' );
+            writer.write( "# project\tmojo\tresult\twall\tcpu\tsetup\tdependencies\tfork\tallocated\n" );
+
+            for ( MojoExecutionProfile profile : profiles )
+            {
+                StringBuilder buffer = new StringBuilder( 256 );
+
+                buffer.append( profile.getProjectId() ).append( '\t' );
+                appendExecution( buffer, profile.getMojoExecution() );
+                buffer.append( '\t' ).append( profile.isFailed() ? "failed" : "succeeded" );
+                buffer.append( '\t' ).append( profile.getWallTime() );
+                buffer.append( '\t' ).append( profile.getCpuTime() );
+                buffer.append( '\t' ).append( profile.getSetupTime() );
+                buffer.append( '\t' ).append( profile.getDependencyResolutionTime() );
+                buffer.append( '\t' ).append( profile.getForkTime() );
+                buffer.append( '\t' ).append( profile.getAllocatedBytes() );
+                buffer.append( '\n' );
+
+                writer.write( buffer.toString() );
+            }
+
+            writer.close();
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    private static void appendExecution( StringBuilder buffer, MojoExecution mojoExecution )
+    {
+        buffer.append( mojoExecution.getGroupId() ).append( ':' ).append( mojoExecution.getArtifactId() );
+        buffer.append( ':' ).append( mojoExecution.getVersion() ).append( ':' ).append( mojoExecution.getGoal() );
+        buffer.append( " (" ).append( mojoExecution.getExecutionId() ).append( ')' );
+    }
+
+    private static long toMillis( long nanos )
+    {
+        return ( nanos < 0 ) ? -1 : TimeUnit.NANOSECONDS.toMillis( nanos );
+    }
+
+}
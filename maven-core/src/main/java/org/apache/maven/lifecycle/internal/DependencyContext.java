@@ -23,8 +23,7 @@
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Context of dependency artifacts for a particular project.
@@ -43,13 +42,13 @@
 
     private final MavenProject project;
 
-    private final Collection<String> scopesToCollectForCurrentProject;
+    private final DependencyScopes scopesToCollectForCurrentProject;
 
-    private final Collection<String> scopesToResolveForCurrentProject;
+    private final DependencyScopes scopesToResolveForCurrentProject;
 
-    private final Collection<String> scopesToCollectForAggregatedProjects;
+    private final AtomicReference<DependencyScopes> scopesToCollectForAggregatedProjects;
 
-    private final Collection<String> scopesToResolveForAggregatedProjects;
+    private final AtomicReference<DependencyScopes> scopesToResolveForAggregatedProjects;
 
     private volatile Collection<?> lastDependencyArtifacts = UNRESOLVED;
 
@@ -57,12 +56,18 @@
 
     public DependencyContext( MavenProject project, Collection<String> scopesToCollect,
                               Collection<String> scopesToResolve )
+    {
+        this( project, DependencyScopes.of( scopesToCollect ), DependencyScopes.of( scopesToResolve ) );
+    }
+
+    public DependencyContext( MavenProject project, DependencyScopes scopesToCollect,
+                              DependencyScopes scopesToResolve )
     {
         this.project = project;
         scopesToCollectForCurrentProject = scopesToCollect;
         scopesToResolveForCurrentProject = scopesToResolve;
-        scopesToCollectForAggregatedProjects = Collections.synchronizedSet( new TreeSet<String>() );
-        scopesToResolveForAggregatedProjects = Collections.synchronizedSet( new TreeSet<String>() );
+        scopesToCollectForAggregatedProjects = new AtomicReference<DependencyScopes>( DependencyScopes.NONE );
+        scopesToResolveForAggregatedProjects = new AtomicReference<DependencyScopes>( DependencyScopes.NONE );
     }
 
     public MavenProject getProject()
@@ -72,22 +77,22 @@ public MavenProject getProject()
 
     public Collection<String> getScopesToCollectForCurrentProject()
     {
-        return scopesToCollectForCurrentProject;
+        return scopesToCollectForCurrentProject.getScopes();
     }
 
     public Collection<String> getScopesToResolveForCurrentProject()
     {
-        return scopesToResolveForCurrentProject;
+        return scopesToResolveForCurrentProject.getScopes();
     }
 
     public Collection<String> getScopesToCollectForAggregatedProjects()
     {
-        return scopesToCollectForAggregatedProjects;
+        return scopesToCollectForAggregatedProjects.get().getScopes();
     }
 
     public Collection<String> getScopesToResolveForAggregatedProjects()
     {
-        return scopesToResolveForAggregatedProjects;
+        return scopesToResolveForAggregatedProjects.get().getScopes();
     }
 
     public boolean isResolutionRequiredForCurrentProject()
@@ -98,13 +103,36 @@ public boolean isResolutionRequiredForCurrentProject()
 
     public boolean isResolutionRequiredForAggregatedProjects( Collection<String> scopesToCollect,
                                                               Collection<String> scopesToResolve )
+    {
+        return isResolutionRequiredForAggregatedProjects( DependencyScopes.of( scopesToCollect ),
+                                                          DependencyScopes.of( scopesToResolve ) );
+    }
+
+    public boolean isResolutionRequiredForAggregatedProjects( DependencyScopes scopesToCollect,
+                                                              DependencyScopes scopesToResolve )
     {
         boolean required =
-            scopesToCollectForAggregatedProjects.addAll( scopesToCollect )
-                || scopesToResolveForAggregatedProjects.addAll( scopesToResolve );
+            addAll( scopesToCollectForAggregatedProjects, scopesToCollect )
+                || addAll( scopesToResolveForAggregatedProjects, scopesToResolve );
         return required;
     }
 
+    private static boolean addAll( AtomicReference<DependencyScopes> target, DependencyScopes scopes )
+    {
+        while ( true )
+        {
+            DependencyScopes current = target.get();
+            if ( current.containsAll( scopes ) )
+            {
+                return false;
+            }
+            if ( target.compareAndSet( current, current.union( scopes ) ) )
+            {
+                return true;
+            }
+        }
+    }
+
     public void synchronizeWithProjectState()
     {
         lastDependencyArtifacts = project.getDependencyArtifacts();
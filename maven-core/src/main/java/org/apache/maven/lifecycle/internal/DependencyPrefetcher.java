@@ -0,0 +1,510 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.MavenExecutionPlan;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.ConfigUtils;
+import org.eclipse.aether.util.filter.AndDependencyFilter;
+
+/**
+ * Collects and downloads the dependencies of the reactor projects in the background, in the order the projects are
+ * scheduled for the build. The build plans of the projects are calculated upfront on the calling thread, before the
+ * builder starts and thus mutates the projects, and are handed over to the builder via
+ * {@link #takeBuildPlan(MavenSession, MavenProject, TaskSegment)} rather than calculated twice. The prefetch of a
+ * project only resolves the dependency scopes that the mojos of its plans require, projects whose plan needs no
+ * dependency resolution, e.g. for {@code mvn clean}, are skipped. So are projects that use plugins built by the
+ * reactor, their plans can't be calculated before the upstream projects are built. The resolution of a project's
+ * dependencies during its build first waits for the pending prefetch of that project, so the network latency overlaps
+ * with the build of the upstream modules and an artifact is not downloaded twice at the same time. Artifacts of
+ * reactor projects are not resolved by the prefetch, the resolution during the build picks them up from the reactor.
+ *
+ * @since 3.2.6
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+@Named
+@Singleton
+public class DependencyPrefetcher
+{
+
+    /**
+     * The name of the configuration property that enables the background prefetch of project dependencies, defaults
+     * to {@code false}.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_PREFETCH = "maven.lifecycle.dependencyPrefetch";
+
+    /**
+     * The name of the configuration property that specifies the number of prefetch threads, defaults to {@code 2}.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_PREFETCH_THREADS = CONFIG_PROP_PREFETCH + ".threads";
+
+    static final String KEY = DependencyPrefetcher.class.getName();
+
+    @Inject
+    private ProjectDependenciesResolver dependenciesResolver;
+
+    @Inject
+    private LifecycleExecutionPlanCalculator planCalculator;
+
+    @Inject
+    private Logger logger;
+
+    public DependencyPrefetcher()
+    {
+    }
+
+    public DependencyPrefetcher( ProjectDependenciesResolver dependenciesResolver,
+                                 LifecycleExecutionPlanCalculator planCalculator, Logger logger )
+    {
+        this.dependenciesResolver = dependenciesResolver;
+        this.planCalculator = planCalculator;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts the prefetch for the specified project builds unless disabled by the configuration of the session. This
+     * calculates the build plans of the projects and must be called before the build of the projects starts.
+     *
+     * @param session The session whose projects to prefetch, must not be {@code null}.
+     * @param projectBuilds The project builds in build order, must not be {@code null}.
+     */
+    public void start( MavenSession session, ProjectBuildList projectBuilds )
+    {
+        RepositorySystemSession repoSession = session.getRepositorySession();
+        if ( repoSession == null || !ConfigUtils.getBoolean( repoSession, false, CONFIG_PROP_PREFETCH ) )
+        {
+            return;
+        }
+
+        List<MavenProject> projects = session.getProjects();
+        if ( projects == null || projects.isEmpty() || projectBuilds.isEmpty() )
+        {
+            return;
+        }
+
+        // the segments of each project, a project is built once per task segment
+        Map<MavenProject, List<ProjectSegment>> segments = new LinkedHashMap<MavenProject, List<ProjectSegment>>();
+        for ( ProjectSegment projectBuild : projectBuilds )
+        {
+            List<ProjectSegment> projectSegments = segments.get( projectBuild.getProject() );
+            if ( projectSegments == null )
+            {
+                projectSegments = new ArrayList<ProjectSegment>( 2 );
+                segments.put( projectBuild.getProject(), projectSegments );
+            }
+            projectSegments.add( projectBuild );
+        }
+
+        int threads = Math.max( 1, ConfigUtils.getInteger( repoSession, 2, CONFIG_PROP_PREFETCH_THREADS ) );
+
+        Prefetch prefetch = new Prefetch( Math.min( threads, segments.size() ) );
+
+        Set<String> reactorKeys = new HashSet<String>( projects.size() * 2 );
+        Set<String> reactorPlugins = new HashSet<String>( projects.size() * 2 );
+        for ( MavenProject project : projects )
+        {
+            reactorKeys.add( getKey( project ) );
+            reactorPlugins.add( ArtifactUtils.versionlessKey( project.getGroupId(), project.getArtifactId() ) );
+        }
+        DependencyFilter filter = new NonReactorDependencyFilter( reactorKeys );
+
+        int submitted = 0;
+        for ( Map.Entry<MavenProject, List<ProjectSegment>> entry : segments.entrySet() )
+        {
+            MavenProject project = entry.getKey();
+            if ( usesPlugins( project.getBuildPlugins(), reactorPlugins ) )
+            {
+                continue;
+            }
+
+            DependencyScopes scopes = calculateBuildPlans( prefetch, project, entry.getValue(), reactorPlugins );
+            if ( scopes != null && !scopes.isEmpty() )
+            {
+                prefetch.submit( getKey( project ), newTask( project, scopes, repoSession, filter ) );
+                submitted++;
+            }
+        }
+
+        repoSession.getData().set( KEY, prefetch );
+
+        logger.debug( "Prefetching dependencies of " + submitted + " projects" );
+    }
+
+    /**
+     * Stops the prefetch for the specified session, pending project prefetches are cancelled.
+     *
+     * @param session The session whose prefetch to stop, must not be {@code null}.
+     */
+    public void stop( MavenSession session )
+    {
+        RepositorySystemSession repoSession = session.getRepositorySession();
+        if ( repoSession == null )
+        {
+            return;
+        }
+
+        Object prefetch = repoSession.getData().get( KEY );
+        if ( prefetch instanceof Prefetch && repoSession.getData().set( KEY, prefetch, null ) )
+        {
+            ( (Prefetch) prefetch ).close();
+        }
+    }
+
+    /**
+     * Takes the build plan that was calculated for the specified project and task segment when the prefetch started.
+     * Each plan is handed out only once.
+     *
+     * @param session The current session, must not be {@code null}.
+     * @param project The project to build, must not be {@code null}.
+     * @param taskSegment The task segment to build, must not be {@code null}.
+     * @return The build plan or {@code null} if the plan needs to be calculated by the caller.
+     */
+    public MavenExecutionPlan takeBuildPlan( MavenSession session, MavenProject project, TaskSegment taskSegment )
+    {
+        RepositorySystemSession repoSession = session.getRepositorySession();
+        if ( repoSession == null )
+        {
+            return null;
+        }
+
+        Object prefetch = repoSession.getData().get( KEY );
+        if ( !( prefetch instanceof Prefetch ) )
+        {
+            return null;
+        }
+
+        return ( (Prefetch) prefetch ).plans.remove( Arrays.<Object>asList( project, taskSegment ) );
+    }
+
+    /**
+     * Waits for the prefetch of the specified project. A prefetch that has not yet started is cancelled instead, the
+     * caller is about to resolve the dependencies itself. Failures of the prefetch are only logged at debug level, the
+     * resolution by the caller reports them.
+     *
+     * @param project The project whose dependencies are about to be resolved, must not be {@code null}.
+     * @param session The current session, must not be {@code null}.
+     */
+    public void await( MavenProject project, MavenSession session )
+    {
+        RepositorySystemSession repoSession = session.getRepositorySession();
+        if ( repoSession == null )
+        {
+            return;
+        }
+
+        Object prefetch = repoSession.getData().get( KEY );
+        if ( !( prefetch instanceof Prefetch ) )
+        {
+            return;
+        }
+
+        PrefetchTask future = ( (Prefetch) prefetch ).remove( getKey( project ) );
+        if ( future == null || future.cancelIfPending() )
+        {
+            return;
+        }
+
+        try
+        {
+            future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException e )
+        {
+            logger.debug( "Failed to prefetch dependencies of " + project.getId() + ": " + e.getCause() );
+        }
+    }
+
+    private PrefetchTask newTask( final MavenProject project, final DependencyScopes scopes,
+                                  final RepositorySystemSession repoSession, final DependencyFilter filter )
+    {
+        return new PrefetchTask( new Callable<DependencyResolutionResult>()
+        {
+            public DependencyResolutionResult call()
+            {
+                Thread thread = Thread.currentThread();
+                ClassLoader tccl = thread.getContextClassLoader();
+                try
+                {
+                    if ( project.getClassRealm() != null )
+                    {
+                        thread.setContextClassLoader( project.getClassRealm() );
+                    }
+
+                    DefaultDependencyResolutionRequest request =
+                        new DefaultDependencyResolutionRequest( project, repoSession );
+                    request.setResolutionFilter( AndDependencyFilter.newInstance( scopes, filter ) );
+
+                    return dependenciesResolver.resolve( request );
+                }
+                catch ( DependencyResolutionException e )
+                {
+                    logger.debug( "Failed to prefetch dependencies of " + project.getId() + ": " + e.getMessage() );
+                    return e.getResult();
+                }
+                finally
+                {
+                    thread.setContextClassLoader( tccl );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Calculates the build plans of the specified project like the builder does and keeps them for the builder. The
+     * plans are calculated with a session whose current project is the specified project.
+     *
+     * @return The scopes the plans require to be resolved, like
+     *         {@link MojoExecutor#newDependencyContext(MavenSession, List)} does for the build itself, or {@code null}
+     *         if a plan could not be calculated or uses plugins of the reactor.
+     */
+    private DependencyScopes calculateBuildPlans( Prefetch prefetch, MavenProject project,
+                                                  List<ProjectSegment> projectSegments, Set<String> reactorPlugins )
+    {
+        Thread thread = Thread.currentThread();
+        ClassLoader tccl = thread.getContextClassLoader();
+        try
+        {
+            if ( project.getClassRealm() != null )
+            {
+                thread.setContextClassLoader( project.getClassRealm() );
+            }
+
+            DependencyScopes scopes = DependencyScopes.NONE;
+            for ( ProjectSegment projectSegment : projectSegments )
+            {
+                MavenSession session = projectSegment.getSession().clone();
+                session.setCurrentProject( project );
+
+                TaskSegment taskSegment = projectSegment.getTaskSegment();
+                MavenExecutionPlan plan = planCalculator.calculateExecutionPlan( session, project,
+                                                                                 taskSegment.getTasks() );
+
+                for ( MojoExecution mojoExecution : plan.getMojoExecutions() )
+                {
+                    String pluginKey =
+                        ArtifactUtils.versionlessKey( mojoExecution.getGroupId(), mojoExecution.getArtifactId() );
+                    if ( reactorPlugins.contains( pluginKey ) )
+                    {
+                        return null;
+                    }
+                    scopes = scopes.union( DependencyScopes.forClasspath(
+                        mojoExecution.getMojoDescriptor().getDependencyResolutionRequired() ) );
+                }
+
+                prefetch.plans.put( Arrays.<Object>asList( project, taskSegment ), plan );
+            }
+            return scopes;
+        }
+        catch ( Exception e )
+        {
+            logger.debug( "Failed to calculate build plan to prefetch dependencies of " + project.getId() + ": "
+                + e.getMessage() );
+            return null;
+        }
+        finally
+        {
+            thread.setContextClassLoader( tccl );
+        }
+    }
+
+    private static boolean usesPlugins( Collection<Plugin> plugins, Set<String> pluginKeys )
+    {
+        for ( Plugin plugin : plugins )
+        {
+            if ( pluginKeys.contains( plugin.getKey() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getKey( MavenProject project )
+    {
+        return ArtifactUtils.key( project.getGroupId(), project.getArtifactId(), project.getVersion() );
+    }
+
+    /**
+     * The pending project prefetches of a session.
+     */
+    static class Prefetch
+    {
+
+        private final ConcurrentMap<String, PrefetchTask> futures = new ConcurrentHashMap<String, PrefetchTask>();
+
+        final ConcurrentMap<List<Object>, MavenExecutionPlan> plans =
+            new ConcurrentHashMap<List<Object>, MavenExecutionPlan>();
+
+        private final ExecutorService executor;
+
+        Prefetch( int threads )
+        {
+            executor = Executors.newFixedThreadPool( threads, new PrefetchThreadFactory() );
+        }
+
+        void submit( String key, PrefetchTask task )
+        {
+            if ( futures.putIfAbsent( key, task ) == null )
+            {
+                executor.execute( task );
+            }
+        }
+
+        PrefetchTask remove( String key )
+        {
+            return futures.remove( key );
+        }
+
+        void close()
+        {
+            for ( PrefetchTask future : futures.values() )
+            {
+                future.cancelIfPending();
+            }
+            futures.clear();
+            plans.clear();
+            executor.shutdown();
+        }
+
+        boolean awaitTermination( long timeout, TimeUnit unit )
+            throws InterruptedException
+        {
+            return executor.awaitTermination( timeout, unit );
+        }
+
+    }
+
+    /**
+     * The prefetch of a single project. Unlike {@link FutureTask#cancel(boolean)}, cancelling only succeeds as long as
+     * the task has not yet started to run.
+     */
+    static class PrefetchTask
+        extends FutureTask<DependencyResolutionResult>
+    {
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        PrefetchTask( Callable<DependencyResolutionResult> callable )
+        {
+            super( callable );
+        }
+
+        @Override
+        public void run()
+        {
+            if ( started.compareAndSet( false, true ) )
+            {
+                super.run();
+            }
+        }
+
+        boolean cancelIfPending()
+        {
+            return started.compareAndSet( false, true ) && cancel( false );
+        }
+
+    }
+
+    static class PrefetchThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger id = new AtomicInteger();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "DependencyPrefetch " + id.getAndIncrement() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
+    static class NonReactorDependencyFilter
+        implements DependencyFilter
+    {
+
+        private final Collection<String> reactorKeys;
+
+        NonReactorDependencyFilter( Collection<String> reactorKeys )
+        {
+            this.reactorKeys = reactorKeys;
+        }
+
+        public boolean accept( DependencyNode node, List<DependencyNode> parents )
+        {
+            Dependency dependency = node.getDependency();
+            if ( dependency == null )
+            {
+                return false;
+            }
+            org.eclipse.aether.artifact.Artifact a = dependency.getArtifact();
+            return !reactorKeys.contains( ArtifactUtils.key( a.getGroupId(), a.getArtifactId(), a.getVersion() ) );
+        }
+
+    }
+
+}
@@ -0,0 +1,221 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.DependencyNode;
+
+/**
+ * An immutable set of the standard dependency scopes, represented as a bit mask. There is exactly one instance per
+ * combination of scopes, so instances can be compared by identity. As a dependency filter, an instance accepts the
+ * nodes whose scope is in the set, nodes without a dependency or with a non-standard scope are always accepted.
+ *
+ * @since 3.2.6
+ *        <p/>
+ *        NOTE: This class is not part of any public api and can be changed or deleted without prior notice.
+ */
+public final class DependencyScopes
+    implements DependencyFilter
+{
+
+    // sorted by name, the scope lists follow the bit order
+    private static final String[] NAMES = { Artifact.SCOPE_COMPILE, Artifact.SCOPE_PROVIDED, Artifact.SCOPE_RUNTIME,
+        Artifact.SCOPE_SYSTEM, Artifact.SCOPE_TEST };
+
+    private static final int COMPILE = 1;
+
+    private static final int PROVIDED = 1 << 1;
+
+    private static final int RUNTIME = 1 << 2;
+
+    private static final int SYSTEM = 1 << 3;
+
+    private static final int TEST = 1 << 4;
+
+    private static final int ALL = ( 1 << NAMES.length ) - 1;
+
+    private static final DependencyScopes[] INSTANCES = new DependencyScopes[ALL + 1];
+
+    static
+    {
+        for ( int mask = 0; mask <= ALL; mask++ )
+        {
+            INSTANCES[mask] = new DependencyScopes( mask );
+        }
+    }
+
+    public static final DependencyScopes NONE = INSTANCES[0];
+
+    private final int mask;
+
+    private final Collection<String> scopes;
+
+    private DependencyScopes( int mask )
+    {
+        this.mask = mask;
+
+        List<String> names = new ArrayList<String>( Integer.bitCount( mask ) );
+        for ( int i = 0; i < NAMES.length; i++ )
+        {
+            if ( ( mask & ( 1 << i ) ) != 0 )
+            {
+                names.add( NAMES[i] );
+            }
+        }
+        this.scopes = Collections.unmodifiableList( names );
+    }
+
+    /**
+     * Gets the scopes that make up the specified class path, as given by the dependency requirements of a mojo.
+     *
+     * @param classpath The class path, e.g. {@code compile} or {@code runtime+system}, may be {@code null}.
+     * @return The scopes of the class path, never {@code null}.
+     */
+    public static DependencyScopes forClasspath( String classpath )
+    {
+        if ( Artifact.SCOPE_COMPILE.equals( classpath ) )
+        {
+            return INSTANCES[COMPILE | SYSTEM | PROVIDED];
+        }
+        else if ( Artifact.SCOPE_RUNTIME.equals( classpath ) )
+        {
+            return INSTANCES[COMPILE | RUNTIME];
+        }
+        else if ( Artifact.SCOPE_COMPILE_PLUS_RUNTIME.equals( classpath ) )
+        {
+            return INSTANCES[COMPILE | SYSTEM | PROVIDED | RUNTIME];
+        }
+        else if ( Artifact.SCOPE_RUNTIME_PLUS_SYSTEM.equals( classpath ) )
+        {
+            return INSTANCES[COMPILE | SYSTEM | RUNTIME];
+        }
+        else if ( Artifact.SCOPE_TEST.equals( classpath ) )
+        {
+            return INSTANCES[ALL];
+        }
+        return NONE;
+    }
+
+    /**
+     * Gets the union of the class paths named by the specified strings. Note that this interprets {@code compile} and
+     * {@code runtime} as class paths, not as single scopes, and ignores the other scope names.
+     *
+     * @param classpaths The class paths, may be {@code null}.
+     * @return The scopes of the class paths, never {@code null}.
+     */
+    public static DependencyScopes forClasspaths( Collection<String> classpaths )
+    {
+        int mask = 0;
+        if ( classpaths != null )
+        {
+            for ( String classpath : classpaths )
+            {
+                mask |= forClasspath( classpath ).mask;
+            }
+        }
+        return INSTANCES[mask];
+    }
+
+    /**
+     * Gets the set of the specified scope names, non-standard scopes are ignored.
+     *
+     * @param scopes The scope names, may be {@code null}.
+     * @return The scopes, never {@code null}.
+     */
+    public static DependencyScopes of( Collection<String> scopes )
+    {
+        int mask = 0;
+        if ( scopes != null )
+        {
+            for ( String scope : scopes )
+            {
+                mask |= bit( scope );
+            }
+        }
+        return INSTANCES[mask];
+    }
+
+    private static int bit( String scope )
+    {
+        for ( int i = 0; i < NAMES.length; i++ )
+        {
+            if ( NAMES[i].equals( scope ) )
+            {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    public DependencyScopes union( DependencyScopes other )
+    {
+        return INSTANCES[mask | other.mask];
+    }
+
+    public boolean containsAll( DependencyScopes other )
+    {
+        return ( mask & other.mask ) == other.mask;
+    }
+
+    public boolean contains( String scope )
+    {
+        return ( mask & bit( scope ) ) != 0;
+    }
+
+    public boolean isEmpty()
+    {
+        return mask == 0;
+    }
+
+    /**
+     * Gets the names of the scopes in this set.
+     *
+     * @return The sorted and unmodifiable scope names, never {@code null}.
+     */
+    public Collection<String> getScopes()
+    {
+        return scopes;
+    }
+
+    public boolean accept( DependencyNode node, List<DependencyNode> parents )
+    {
+        Dependency dependency = node.getDependency();
+        if ( dependency == null )
+        {
+            return true;
+        }
+        int bit = bit( dependency.getScope() );
+        return bit == 0 || ( mask & bit ) != 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return scopes.toString();
+    }
+
+}
@@ -47,8 +47,6 @@
 import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
-import org.eclipse.aether.util.filter.AndDependencyFilter;
-import org.eclipse.aether.util.filter.ScopeDependencyFilter;
 
 /**
  * Resolves dependencies for the artifacts in context of the lifecycle build
@@ -76,6 +74,9 @@
     @Inject
     private EventSpyDispatcher eventSpyDispatcher;
 
+    @Inject
+    private DependencyPrefetcher dependencyPrefetcher;
+
     public LifecycleDependencyResolver()
     {
     }
@@ -174,14 +175,14 @@ private Set<Artifact> getDependencies( MavenProject project, Collection<String>
             return new LinkedHashSet<Artifact>();
         }
 
-        scopesToCollect = new HashSet<String>( scopesToCollect );
-        scopesToCollect.addAll( scopesToResolve );
+        DependencyScopes resolutionScopes = DependencyScopes.forClasspaths( scopesToResolve );
+        DependencyScopes collectionFilter = DependencyScopes.forClasspaths( scopesToCollect ).union( resolutionScopes );
+        DependencyFilter resolutionFilter = new ReactorDependencyFilter( projectArtifacts, resolutionScopes );
 
-        DependencyFilter collectionFilter = new ScopeDependencyFilter( null, negate( scopesToCollect ) );
-        DependencyFilter resolutionFilter = new ScopeDependencyFilter( null, negate( scopesToResolve ) );
-        resolutionFilter = AndDependencyFilter.newInstance( collectionFilter, resolutionFilter );
-        resolutionFilter =
-            AndDependencyFilter.newInstance( resolutionFilter, new ReactorDependencyFilter( projectArtifacts ) );
+        if ( dependencyPrefetcher != null )
+        {
+            dependencyPrefetcher.await( project, session );
+        }
 
         DependencyResolutionResult result;
         try
@@ -260,66 +261,33 @@ private Set<String> getReactorProjectKeys( Collection<MavenProject> projects )
         return projectKeys;
     }
 
-    private Collection<String> negate( Collection<String> scopes )
-    {
-        Collection<String> result = new HashSet<String>();
-        Collections.addAll( result, "system", "compile", "provided", "runtime", "test" );
-
-        for ( String scope : scopes )
-        {
-            if ( "compile".equals( scope ) )
-            {
-                result.remove( "compile" );
-                result.remove( "system" );
-                result.remove( "provided" );
-            }
-            else if ( "runtime".equals( scope ) )
-            {
-                result.remove( "compile" );
-                result.remove( "runtime" );
-            }
-            else if ( "compile+runtime".equals( scope ) )
-            {
-                result.remove( "compile" );
-                result.remove( "system" );
-                result.remove( "provided" );
-                result.remove( "runtime" );
-            }
-            else if ( "runtime+system".equals( scope ) )
-            {
-                result.remove( "compile" );
-                result.remove( "system" );
-                result.remove( "runtime" );
-            }
-            else if ( "test".equals( scope ) )
-            {
-                result.clear();
-            }
-        }
-
-        return result;
-    }
-
     private static class ReactorDependencyFilter
         implements DependencyFilter
     {
 
         private Set<String> keys = new HashSet<String>();
 
-        public ReactorDependencyFilter( Collection<Artifact> artifacts )
+        private final DependencyScopes scopes;
+
+        public ReactorDependencyFilter( Collection<Artifact> artifacts, DependencyScopes scopes )
         {
             for ( Artifact artifact : artifacts )
             {
                 String key = ArtifactUtils.key( artifact );
                 keys.add( key );
             }
+            this.scopes = scopes;
         }
 
         public boolean accept( DependencyNode node, List<DependencyNode> parents )
         {
             Dependency dependency = node.getDependency();
-            if ( dependency != null )
+            if ( dependency != null && scopes.accept( node, parents ) )
             {
+                if ( keys.isEmpty() )
+                {
+                    return true;
+                }
                 org.eclipse.aether.artifact.Artifact a = dependency.getArtifact();
                 String key = ArtifactUtils.key( a.getGroupId(), a.getArtifactId(), a.getVersion() );
                 return !keys.contains( key );
@@ -19,15 +19,21 @@
  * under the License.
  */
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
+import org.apache.maven.artifact.resolver.filter.CumulativeScopeArtifactFilter;
 import org.apache.maven.execution.BuildSuccess;
 import org.apache.maven.execution.ExecutionEvent;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.execution.ProjectExecutionEvent;
 import org.apache.maven.execution.ProjectExecutionListener;
+import org.apache.maven.lifecycle.DefaultLifecycles;
+import org.apache.maven.lifecycle.Lifecycle;
+import org.apache.maven.lifecycle.LifecycleExecutionException;
 import org.apache.maven.lifecycle.MavenExecutionPlan;
 import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
 import org.apache.maven.plugin.MojoExecution;
@@ -35,6 +41,8 @@
 import org.apache.maven.session.scope.internal.SessionScope;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  * Builds one or more lifecycles for a full module
@@ -50,9 +58,43 @@
 public class LifecycleModuleBuilder
 {
 
+    /**
+     * The name of the configuration property that enables build avoidance. When enabled, the outputs of successfully
+     * built projects are recorded below the local repository and a later build of a project with the same inputs
+     * restores them instead of executing the mojos bound to the phases of the default lifecycle before
+     * {@code install}. The mojos of later phases and other lifecycles are still executed, e.g. to install the restored
+     * artifacts. Effects of the skipped mojos beyond the recorded artifacts and output directories, like modified
+     * project properties, are not restored. Only the source roots and resource directories of a project are hashed,
+     * projects whose mojos read further inputs, like {@code src/main/webapp}, should not enable build avoidance. The
+     * default value is {@code false}.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_BUILD_AVOIDANCE = "maven.lifecycle.buildAvoidance";
+
+    /**
+     * The name of the configuration property that limits the number of project builds recorded for build avoidance,
+     * the least recently used builds are deleted beyond this limit. The default value is {@code 256}.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_BUILD_AVOIDANCE_ENTRIES = "maven.lifecycle.buildAvoidance.maxEntries";
+
     @Requirement
     private MojoExecutor mojoExecutor;
 
+    @Requirement
+    private LifecycleDependencyResolver lifeCycleDependencyResolver;
+
+    @Requirement
+    private DefaultLifecycles defaultLifeCycles;
+
+    @Requirement
+    private ArtifactHandlerManager artifactHandlerManager;
+
+    @Requirement
+    private Logger logger;
+
     @Requirement
     private BuilderCommon builderCommon;
 
@@ -113,7 +155,7 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
             projectExecutionListener.beforeProjectLifecycleExecution( new ProjectExecutionEvent( session,
                                                                                                  currentProject,
                                                                                                  mojoExecutions ) );
-            mojoExecutor.execute( session, mojoExecutions, reactorContext.getProjectIndex() );
+            execute( session, currentProject, mojoExecutions, reactorContext.getProjectIndex() );
 
             long buildEndTime = System.currentTimeMillis();
 
@@ -140,4 +182,94 @@ public void buildProject( MavenSession session, MavenSession rootSession, Reacto
             Thread.currentThread().setContextClassLoader( reactorContext.getOriginalContextClassLoader() );
         }
     }
+
+    private void execute( MavenSession session, MavenProject project, List<MojoExecution> mojoExecutions,
+                          ProjectIndex projectIndex )
+        throws LifecycleExecutionException
+    {
+        if ( !isBuildAvoidance( session ) || !hasAvoidableExecutions( mojoExecutions ) )
+        {
+            mojoExecutor.execute( session, mojoExecutions, projectIndex );
+            return;
+        }
+
+        DependencyContext dependencyContext = mojoExecutor.newDependencyContext( session, mojoExecutions );
+
+        // the fingerprint covers the dependencies, so resolve them upfront rather than on demand of the first mojo
+        lifeCycleDependencyResolver.resolveProjectDependencies( project,
+                                                                dependencyContext.getScopesToCollectForCurrentProject(),
+                                                                dependencyContext.getScopesToResolveForCurrentProject(),
+                                                                session, false, Collections.<Artifact>emptySet() );
+        dependencyContext.synchronizeWithProjectState();
+        project.setArtifactFilter(
+            new CumulativeScopeArtifactFilter( dependencyContext.getScopesToResolveForCurrentProject() ) );
+
+        ProjectBuildCache buildCache = ProjectBuildCache.newInstance( session );
+        String fingerprint = buildCache.getFingerprint( session, project, mojoExecutions );
+
+        boolean hit = fingerprint != null && buildCache.contains( fingerprint );
+        boolean restored = false;
+
+        PhaseRecorder phaseRecorder = new PhaseRecorder( project );
+
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            if ( hit && isAvoidable( mojoExecution ) )
+            {
+                if ( !restored )
+                {
+                    // restore lazily, i.e. after the clean lifecycle
+                    restored = buildCache.restore( fingerprint, project, artifactHandlerManager );
+                    hit = restored;
+                    if ( restored )
+                    {
+                        logger.info( "Restored outputs of " + project.getId() + " from build cache" );
+                    }
+                }
+                if ( hit )
+                {
+                    phaseRecorder.observeExecution( mojoExecution );
+                    continue;
+                }
+            }
+
+            mojoExecutor.execute( session, mojoExecution, projectIndex, dependencyContext, phaseRecorder );
+        }
+
+        if ( fingerprint != null && !restored )
+        {
+            buildCache.store( fingerprint, project );
+        }
+    }
+
+    private static boolean isBuildAvoidance( MavenSession session )
+    {
+        return session.getRepositorySession() != null
+            && ConfigUtils.getBoolean( session.getRepositorySession(), false, CONFIG_PROP_BUILD_AVOIDANCE );
+    }
+
+    private boolean hasAvoidableExecutions( List<MojoExecution> mojoExecutions )
+    {
+        for ( MojoExecution mojoExecution : mojoExecutions )
+        {
+            if ( isAvoidable( mojoExecution ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAvoidable( MojoExecution mojoExecution )
+    {
+        String phase = mojoExecution.getLifecyclePhase();
+        Lifecycle lifecycle = ( phase != null ) ? defaultLifeCycles.get( phase ) : null;
+        if ( lifecycle == null || !"default".equals( lifecycle.getId() ) )
+        {
+            return false;
+        }
+        int install = lifecycle.getPhases().indexOf( "install" );
+        return install < 0 || lifecycle.getPhases().indexOf( phase ) < install;
+    }
+
 }
@@ -65,6 +65,9 @@
     @Requirement
     private Map<String, Builder> builders;
 
+    @Requirement
+    private DependencyPrefetcher dependencyPrefetcher;
+
     public void execute( MavenSession session )
     {
         eventCatapult.fire( ExecutionEvent.Type.SessionStarted, session, null );
@@ -117,6 +120,7 @@ public void execute( MavenSession session )
                 logger.info( "" );
                 logger.info( String.format( "Using the %s implementation with a thread count of %d", builder.getClass().getSimpleName(), degreeOfConcurrency ) );
             }
+            dependencyPrefetcher.start( session, projectBuilds );
             builder.build( session, reactorContext, projectBuilds, taskSegments, reactorBuildStatus );
 
         }
@@ -126,6 +130,7 @@ public void execute( MavenSession session )
         }
         finally
         {
+            dependencyPrefetcher.stop( session );
             eventCatapult.fire( ExecutionEvent.Type.SessionEnded, session, null );
         }
     }
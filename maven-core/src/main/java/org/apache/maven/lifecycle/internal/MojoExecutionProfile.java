@@ -0,0 +1,230 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import org.apache.maven.plugin.MojoExecution;
+
+/**
+ * The timings collected for a single mojo execution. All times are in nanoseconds, the CPU time and allocated bytes are
+ * {@code -1} if the JVM cannot measure them. <strong>Warning:</strong> This is an internal utility class that is only
+ * public for technical reasons, it is not part of the public API. In particular, this class can be changed or deleted
+ * without prior notice.
+ *
+ * @since 3.2.6
+ */
+public class MojoExecutionProfile
+{
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final Method GET_ALLOCATED_BYTES = getAllocatedBytesMethod();
+
+    private final String projectId;
+
+    private final MojoExecution mojoExecution;
+
+    final MojoExecutionProfile parent;
+
+    private boolean started;
+
+    private boolean failed = true;
+
+    private long forkTime;
+
+    private long dependencyResolutionTime;
+
+    private long setupTime;
+
+    private long wallTime;
+
+    private long cpuTime = -1;
+
+    private long allocatedBytes = -1;
+
+    private long startWall;
+
+    private long startCpu;
+
+    private long startAllocated;
+
+    MojoExecutionProfile( String projectId, MojoExecution mojoExecution, MojoExecutionProfile parent )
+    {
+        this.projectId = projectId;
+        this.mojoExecution = mojoExecution;
+        this.parent = parent;
+    }
+
+    public String getProjectId()
+    {
+        return projectId;
+    }
+
+    public MojoExecution getMojoExecution()
+    {
+        return mojoExecution;
+    }
+
+    /**
+     * Tells whether the mojo execution failed. An execution that never got to the start of the mojo itself, e.g.
+     * because a forked execution or the dependency resolution failed, is considered failed as well.
+     *
+     * @return {@code true} if the mojo execution failed or never started, {@code false} if it succeeded.
+     */
+    public boolean isFailed()
+    {
+        return failed;
+    }
+
+    /**
+     * Gets the time spent executing the mojo itself, i.e. excluding forked executions and dependency resolution but
+     * including the {@link #getSetupTime() setup}.
+     *
+     * @return The wall time of the mojo execution.
+     */
+    public long getWallTime()
+    {
+        return wallTime;
+    }
+
+    public long getCpuTime()
+    {
+        return cpuTime;
+    }
+
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    public long getForkTime()
+    {
+        return forkTime;
+    }
+
+    public long getDependencyResolutionTime()
+    {
+        return dependencyResolutionTime;
+    }
+
+    /**
+     * Gets the time spent waiting for the plugin realm and the configured mojo instance.
+     *
+     * @return The setup time of the mojo execution.
+     */
+    public long getSetupTime()
+    {
+        return setupTime;
+    }
+
+    public void addForkTime( long nanos )
+    {
+        forkTime += nanos;
+    }
+
+    public void addDependencyResolutionTime( long nanos )
+    {
+        dependencyResolutionTime += nanos;
+    }
+
+    public void addSetupTime( long nanos )
+    {
+        setupTime += nanos;
+    }
+
+    void executionStarted()
+    {
+        started = true;
+        startCpu = getCpuTimeOfCurrentThread();
+        startAllocated = getAllocatedBytesOfCurrentThread();
+        startWall = System.nanoTime();
+    }
+
+    void executionEnded( boolean failed )
+    {
+        if ( !started )
+        {
+            return;
+        }
+
+        wallTime = System.nanoTime() - startWall;
+
+        long cpu = getCpuTimeOfCurrentThread();
+        if ( cpu >= 0 && startCpu >= 0 )
+        {
+            cpuTime = cpu - startCpu;
+        }
+
+        long allocated = getAllocatedBytesOfCurrentThread();
+        if ( allocated >= 0 && startAllocated >= 0 )
+        {
+            allocatedBytes = allocated - startAllocated;
+        }
+
+        this.failed = failed;
+    }
+
+    private static long getCpuTimeOfCurrentThread()
+    {
+        try
+        {
+            return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            return -1;
+        }
+    }
+
+    private static long getAllocatedBytesOfCurrentThread()
+    {
+        if ( GET_ALLOCATED_BYTES == null )
+        {
+            return -1;
+        }
+
+        try
+        {
+            return (Long) GET_ALLOCATED_BYTES.invoke( THREADS, Thread.currentThread().getId() );
+        }
+        catch ( Exception e )
+        {
+            return -1;
+        }
+    }
+
+    private static Method getAllocatedBytesMethod()
+    {
+        // only available from the com.sun.management extension of the thread bean
+        try
+        {
+            Class<?> type = Class.forName( "com.sun.management.ThreadMXBean" );
+            return type.isInstance( THREADS ) ? type.getMethod( "getThreadAllocatedBytes", long.class ) : null;
+        }
+        catch ( Exception e )
+        {
+            return null;
+        }
+    }
+
+}
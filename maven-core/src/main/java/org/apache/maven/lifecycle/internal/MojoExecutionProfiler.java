@@ -0,0 +1,69 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+
+/**
+ * Collects the {@link MojoExecutionProfile timings} of the mojo executions of a build and reports them at the end of
+ * the session. Profiling is enabled by the user property {@code maven.mojo.profile}. <strong>Warning:</strong> This is
+ * an internal utility interface that is only public for technical reasons, it is not part of the public API. In
+ * particular, this interface can be changed or deleted without prior notice.
+ *
+ * @since 3.2.6
+ */
+public interface MojoExecutionProfiler
+{
+
+    boolean isEnabled( MavenSession session );
+
+    /**
+     * Starts the profile for the specified mojo execution and makes it the current profile of the calling thread.
+     *
+     * @param session The current build session, must not be {@code null}.
+     * @param mojoExecution The mojo execution to profile, must not be {@code null}.
+     * @return The new profile or {@code null} if profiling is disabled.
+     */
+    MojoExecutionProfile start( MavenSession session, MojoExecution mojoExecution );
+
+    /**
+     * Gets the profile of the mojo execution currently running on the calling thread.
+     *
+     * @return The current profile or {@code null} if none.
+     */
+    MojoExecutionProfile getCurrentProfile();
+
+    /**
+     * Stops the specified profile and restores the profile of the enclosing mojo execution (if any) as the current
+     * profile of the calling thread.
+     *
+     * @param profile The profile to stop, may be {@code null}.
+     */
+    void stop( MojoExecutionProfile profile );
+
+    /**
+     * Writes the report for the collected profiles and discards them.
+     *
+     * @param session The build session that ended, must not be {@code null}.
+     */
+    void report( MavenSession session );
+
+}
@@ -38,16 +38,15 @@
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.StringUtils;
+import org.eclipse.aether.util.ConfigUtils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Executes an individual mojo
@@ -63,6 +62,16 @@
 public class MojoExecutor
 {
 
+    /**
+     * The name of the configuration property that enables the cache of mojo outputs. When enabled, the outputs of
+     * mojos that declare themselves cacheable in their descriptor are stored below the local repository and restored
+     * instead of executing the mojo again when its inputs are unchanged. Outputs are only stored for executions that
+     * start with an empty output directory and leave the project unchanged. The default value is {@code false}.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_MOJO_CACHE = "maven.mojo.cache";
+
     @Requirement
     private BuildPluginManager pluginManager;
 
@@ -75,61 +84,36 @@
     @Requirement
     private ExecutionEventCatapult eventCatapult;
 
+    @Requirement
+    private MojoExecutionProfiler profiler;
+
+    @Requirement
+    private Logger logger;
+
     public MojoExecutor()
     {
     }
 
     public DependencyContext newDependencyContext( MavenSession session, List<MojoExecution> mojoExecutions )
     {
-        Set<String> scopesToCollect = new TreeSet<String>();
-        Set<String> scopesToResolve = new TreeSet<String>();
-
-        collectDependencyRequirements( scopesToResolve, scopesToCollect, mojoExecutions );
+        DependencyScopes scopesToCollect = DependencyScopes.NONE;
+        DependencyScopes scopesToResolve = DependencyScopes.NONE;
 
-        return new DependencyContext( session.getCurrentProject(), scopesToCollect, scopesToResolve );
-    }
-
-    private void collectDependencyRequirements( Set<String> scopesToResolve, Set<String> scopesToCollect,
-                                                Collection<MojoExecution> mojoExecutions )
-    {
         for ( MojoExecution mojoExecution : mojoExecutions )
         {
             MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
 
-            scopesToResolve.addAll( toScopes( mojoDescriptor.getDependencyResolutionRequired() ) );
+            scopesToResolve = scopesToResolve.union( toScopes( mojoDescriptor.getDependencyResolutionRequired() ) );
 
-            scopesToCollect.addAll( toScopes( mojoDescriptor.getDependencyCollectionRequired() ) );
+            scopesToCollect = scopesToCollect.union( toScopes( mojoDescriptor.getDependencyCollectionRequired() ) );
         }
+
+        return new DependencyContext( session.getCurrentProject(), scopesToCollect, scopesToResolve );
     }
 
-    private Collection<String> toScopes( String classpath )
+    private DependencyScopes toScopes( String classpath )
     {
-        if ( StringUtils.isNotEmpty( classpath ) )
-        {
-            if ( Artifact.SCOPE_COMPILE.equals( classpath ) )
-            {
-                return Arrays.asList( Artifact.SCOPE_COMPILE, Artifact.SCOPE_SYSTEM, Artifact.SCOPE_PROVIDED );
-            }
-            else if ( Artifact.SCOPE_RUNTIME.equals( classpath ) )
-            {
-                return Arrays.asList( Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME );
-            }
-            else if ( Artifact.SCOPE_COMPILE_PLUS_RUNTIME.equals( classpath ) )
-            {
-                return Arrays.asList( Artifact.SCOPE_COMPILE, Artifact.SCOPE_SYSTEM, Artifact.SCOPE_PROVIDED,
-                                      Artifact.SCOPE_RUNTIME );
-            }
-            else if ( Artifact.SCOPE_RUNTIME_PLUS_SYSTEM.equals( classpath ) )
-            {
-                return Arrays.asList( Artifact.SCOPE_COMPILE, Artifact.SCOPE_SYSTEM, Artifact.SCOPE_RUNTIME );
-            }
-            else if ( Artifact.SCOPE_TEST.equals( classpath ) )
-            {
-                return Arrays.asList( Artifact.SCOPE_COMPILE, Artifact.SCOPE_SYSTEM, Artifact.SCOPE_PROVIDED,
-                                      Artifact.SCOPE_RUNTIME, Artifact.SCOPE_TEST );
-            }
-        }
-        return Collections.emptyList();
+        return DependencyScopes.forClasspath( classpath );
     }
 
     public void execute( MavenSession session, List<MojoExecution> mojoExecutions, ProjectIndex projectIndex )
@@ -195,17 +179,66 @@ private void execute( MavenSession session, MojoExecution mojoExecution, Project
             }
         }
 
+        MojoExecutionProfile profile = profiler.start( session, mojoExecution );
+
+        try
+        {
+            execute( session, mojoExecution, projectIndex, dependencyContext, profile );
+        }
+        finally
+        {
+            profiler.stop( profile );
+        }
+    }
+
+    private void execute( MavenSession session, MojoExecution mojoExecution, ProjectIndex projectIndex,
+                          DependencyContext dependencyContext, MojoExecutionProfile profile )
+        throws LifecycleExecutionException
+    {
+        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+
+        long start = System.nanoTime();
+
         List<MavenProject> forkedProjects = executeForkedExecutions( mojoExecution, session, projectIndex );
 
+        if ( profile != null )
+        {
+            profile.addForkTime( System.nanoTime() - start );
+            start = System.nanoTime();
+        }
+
         ensureDependenciesAreResolved( mojoDescriptor, session, dependencyContext );
 
+        if ( profile != null )
+        {
+            profile.addDependencyResolutionTime( System.nanoTime() - start );
+        }
+
+        MojoOutputCache.Entry cacheEntry = null;
+        if ( MojoOutputCache.isCacheable( mojoDescriptor ) && isMojoCache( session ) )
+        {
+            cacheEntry = MojoOutputCache.newInstance( session ).newEntry( session, mojoExecution );
+        }
+
         eventCatapult.fire( ExecutionEvent.Type.MojoStarted, session, mojoExecution );
 
         try
         {
             try
             {
-                pluginManager.executeMojo( session, mojoExecution );
+                if ( cacheEntry != null && cacheEntry.restore() )
+                {
+                    logger.info( "Restored " + cacheEntry.getOutputDirectory() + " from mojo cache" );
+                }
+                else
+                {
+                    pluginManager.executeMojo( session, mojoExecution );
+
+                    if ( cacheEntry != null )
+                    {
+                        cacheEntry.store();
+                    }
+                }
             }
             catch ( MojoFailureException e )
             {
@@ -241,6 +274,12 @@ private void execute( MavenSession session, MojoExecution mojoExecution, Project
         }
     }
 
+    private static boolean isMojoCache( MavenSession session )
+    {
+        return session.getRepositorySession() != null
+            && ConfigUtils.getBoolean( session.getRepositorySession(), false, CONFIG_PROP_MOJO_CACHE );
+    }
+
     public void ensureDependenciesAreResolved( MojoDescriptor mojoDescriptor, MavenSession session,
                                                 DependencyContext dependencyContext )
         throws LifecycleExecutionException
@@ -262,8 +301,8 @@ public void ensureDependenciesAreResolved( MojoDescriptor mojoDescriptor, MavenS
 
         if ( aggregating )
         {
-            Collection<String> scopesToCollect = toScopes( mojoDescriptor.getDependencyCollectionRequired() );
-            Collection<String> scopesToResolve = toScopes( mojoDescriptor.getDependencyResolutionRequired() );
+            DependencyScopes scopesToCollect = toScopes( mojoDescriptor.getDependencyCollectionRequired() );
+            DependencyScopes scopesToResolve = toScopes( mojoDescriptor.getDependencyResolutionRequired() );
 
             if ( dependencyContext.isResolutionRequiredForAggregatedProjects( scopesToCollect, scopesToResolve ) )
             {
@@ -271,8 +310,10 @@ public void ensureDependenciesAreResolved( MojoDescriptor mojoDescriptor, MavenS
                 {
                     if ( aggregatedProject != project )
                     {
-                        lifeCycleDependencyResolver.resolveProjectDependencies( aggregatedProject, scopesToCollect,
-                                                                                scopesToResolve, session, aggregating,
+                        lifeCycleDependencyResolver.resolveProjectDependencies( aggregatedProject,
+                                                                                scopesToCollect.getScopes(),
+                                                                                scopesToResolve.getScopes(), session,
+                                                                                aggregating,
                                                                                 Collections.<Artifact>emptySet() );
                     }
                 }
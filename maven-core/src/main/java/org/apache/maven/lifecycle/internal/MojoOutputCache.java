@@ -0,0 +1,463 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.maven.DependencyGraphStore;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Caches the outputs of deterministic mojos below the local repository, addressed by the inputs of the mojo
+ * executions. A mojo opts in via its descriptor by declaring itself {@link MojoDescriptor#isCacheable() cacheable}
+ * along with the parameters denoting its {@link MojoDescriptor#getCacheInputs() input files} and its
+ * {@link MojoDescriptor#getCacheOutput() output directory}. The inputs of an execution comprise the evaluated
+ * configuration, the contents of the input files, the class path of the project and the plugin JAR. The cached outputs
+ * are the complete contents of the output directory after the execution, hence outputs are only cached for executions
+ * that started with an empty output directory, i.e. whose output directory holds nothing but the mojo's outputs. A
+ * restored execution does not run the mojo, so outputs are neither cached for executions that changed the project,
+ * e.g. added a source root, see {@link #getProjectState(MavenProject)}.
+ *
+ * @since 3.2.6
+ */
+class MojoOutputCache
+{
+
+    private static final String FORMAT = "# maven mojo outputs 1";
+
+    private static final String FILES = "files";
+
+    private final File directory;
+
+    private final File localRepository;
+
+    MojoOutputCache( File directory, File localRepository )
+    {
+        this.directory = directory;
+        this.localRepository = localRepository;
+    }
+
+    /**
+     * Gets the cache in the local repository of the given session.
+     *
+     * @param session The Maven session, must not be {@code null}.
+     * @return The output cache, never {@code null}.
+     */
+    static MojoOutputCache newInstance( MavenSession session )
+    {
+        File basedir = session.getRepositorySession().getLocalRepository().getBasedir();
+        return new MojoOutputCache( new File( basedir, ".cache/mojo-outputs" ), basedir );
+    }
+
+    /**
+     * Indicates whether the outputs of the specified mojo can be cached.
+     *
+     * @param mojoDescriptor The descriptor of the mojo, must not be {@code null}.
+     * @return {@code true} if the mojo opted in to caching and declares its output directory, {@code false} otherwise.
+     */
+    static boolean isCacheable( MojoDescriptor mojoDescriptor )
+    {
+        return mojoDescriptor.isCacheable() && StringUtils.isNotEmpty( mojoDescriptor.getCacheOutput() );
+    }
+
+    /**
+     * Prepares the cache entry for the specified mojo execution, i.e. fingerprints its inputs and records the state of
+     * its output directory. The dependencies of the current project must have been resolved for the mojo.
+     *
+     * @param session The Maven session, must not be {@code null}.
+     * @param mojoExecution The mojo execution to prepare, must not be {@code null}.
+     * @return The cache entry or {@code null} if the inputs or the output directory could not be determined.
+     */
+    Entry newEntry( MavenSession session, MojoExecution mojoExecution )
+    {
+        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
+        Xpp3Dom configuration = mojoExecution.getConfiguration();
+        MavenProject project = session.getCurrentProject();
+        if ( configuration == null || project == null )
+        {
+            return null;
+        }
+
+        PluginParameterExpressionEvaluator evaluator = new PluginParameterExpressionEvaluator( session, mojoExecution );
+
+        StringBuilder buffer = new StringBuilder( 16 * 1024 );
+        buffer.append( FORMAT ).append( '\n' );
+        buffer.append( mojoExecution.getGroupId() ).append( ':' ).append( mojoExecution.getArtifactId() );
+        buffer.append( ':' ).append( mojoExecution.getVersion() ).append( ':' ).append( mojoExecution.getGoal() );
+        buffer.append( '\n' );
+
+        try
+        {
+            Artifact pluginArtifact = mojoDescriptor.getPluginDescriptor().getPluginArtifact();
+            buffer.append( "plugin " );
+            ProjectBuildCache.appendFile( buffer, ( pluginArtifact != null ) ? pluginArtifact.getFile() : null,
+                                          localRepository );
+            buffer.append( '\n' );
+
+            for ( Xpp3Dom parameter : configuration.getChildren() )
+            {
+                appendParameter( buffer, parameter, evaluator );
+            }
+
+            List<File> outputs = new ArrayList<File>();
+            collectFiles( outputs, configuration.getChild( mojoDescriptor.getCacheOutput() ), evaluator );
+            if ( outputs.size() != 1 )
+            {
+                return null;
+            }
+
+            if ( mojoDescriptor.getCacheInputs() != null )
+            {
+                for ( String input : mojoDescriptor.getCacheInputs().split( "," ) )
+                {
+                    List<File> files = new ArrayList<File>();
+                    collectFiles( files, configuration.getChild( input.trim() ), evaluator );
+                    for ( File file : files )
+                    {
+                        buffer.append( "input " ).append( file.getAbsolutePath() ).append( '\n' );
+                        if ( file.isDirectory() )
+                        {
+                            ProjectBuildCache.appendTree( buffer, file, "" );
+                        }
+                        else if ( file.isFile() )
+                        {
+                            buffer.append( "  " ).append( ProjectBuildCache.digest( file ) ).append( '\n' );
+                        }
+                    }
+                }
+            }
+
+            for ( Artifact artifact : project.getArtifacts() )
+            {
+                buffer.append( "dependency " ).append( artifact.getId() ).append( ' ' ).append( artifact.getScope() );
+                buffer.append( ' ' );
+                ProjectBuildCache.appendFile( buffer, artifact.getFile(), localRepository );
+                buffer.append( '\n' );
+            }
+
+            return new Entry( DependencyGraphStore.hash( buffer ), outputs.get( 0 ), project );
+        }
+        catch ( ExpressionEvaluationException e )
+        {
+            return null;
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+    }
+
+    private static void appendParameter( StringBuilder buffer, Xpp3Dom parameter,
+                                         PluginParameterExpressionEvaluator evaluator )
+        throws ExpressionEvaluationException
+    {
+        buffer.append( '<' ).append( parameter.getName() );
+        for ( String attribute : parameter.getAttributeNames() )
+        {
+            buffer.append( ' ' ).append( attribute ).append( "=\"" ).append( parameter.getAttribute( attribute ) );
+            buffer.append( '"' );
+        }
+        buffer.append( '>' );
+
+        if ( parameter.getChildCount() > 0 )
+        {
+            for ( Xpp3Dom child : parameter.getChildren() )
+            {
+                appendParameter( buffer, child, evaluator );
+            }
+        }
+        else
+        {
+            String expression = getExpression( parameter );
+            Object value = ( expression != null ) ? evaluator.evaluate( expression ) : null;
+            if ( isDeterministic( value ) )
+            {
+                buffer.append( value );
+            }
+            else
+            {
+                // objects like the session, keep the expression as their string form is not stable across builds
+                buffer.append( expression );
+            }
+        }
+
+        buffer.append( "</" ).append( parameter.getName() ).append( ">\n" );
+    }
+
+    private static String getExpression( Xpp3Dom parameter )
+    {
+        String expression = parameter.getValue();
+        if ( expression == null )
+        {
+            expression = parameter.getAttribute( "default-value" );
+        }
+        return expression;
+    }
+
+    private static boolean isDeterministic( Object value )
+    {
+        if ( value == null || value instanceof String || value instanceof File || value instanceof Number
+            || value instanceof Boolean || value instanceof Character )
+        {
+            return true;
+        }
+        if ( value instanceof Collection )
+        {
+            for ( Object element : (Collection<?>) value )
+            {
+                if ( !isDeterministic( element ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void collectFiles( List<File> files, Xpp3Dom parameter,
+                                      PluginParameterExpressionEvaluator evaluator )
+        throws ExpressionEvaluationException
+    {
+        if ( parameter == null )
+        {
+            return;
+        }
+
+        if ( parameter.getChildCount() > 0 )
+        {
+            for ( Xpp3Dom child : parameter.getChildren() )
+            {
+                collectFiles( files, child, evaluator );
+            }
+            return;
+        }
+
+        String expression = getExpression( parameter );
+        if ( expression != null )
+        {
+            collectFiles( files, evaluator.evaluate( expression ), evaluator );
+        }
+    }
+
+    private static void collectFiles( List<File> files, Object value, PluginParameterExpressionEvaluator evaluator )
+    {
+        if ( value instanceof File )
+        {
+            files.add( evaluator.alignToBaseDirectory( (File) value ) );
+        }
+        else if ( value instanceof String && ( (String) value ).length() > 0 )
+        {
+            files.add( evaluator.alignToBaseDirectory( new File( (String) value ) ) );
+        }
+        else if ( value instanceof Collection )
+        {
+            for ( Object element : (Collection<?>) value )
+            {
+                collectFiles( files, element, evaluator );
+            }
+        }
+        else if ( value instanceof Object[] )
+        {
+            collectFiles( files, Arrays.asList( (Object[]) value ), evaluator );
+        }
+    }
+
+    /**
+     * Describes the parts of the specified project that mojos commonly change, i.e. the source roots, the resources,
+     * the main and attached artifacts and the properties.
+     */
+    static String getProjectState( MavenProject project )
+    {
+        StringBuilder buffer = new StringBuilder( 1024 );
+        buffer.append( "sources " ).append( project.getCompileSourceRoots() ).append( '\n' );
+        buffer.append( "test sources " ).append( project.getTestCompileSourceRoots() ).append( '\n' );
+        appendResources( buffer.append( "resources" ), project.getResources() );
+        appendResources( buffer.append( "test resources" ), project.getTestResources() );
+        Artifact artifact = project.getArtifact();
+        buffer.append( "artifact " ).append( ( artifact != null ) ? artifact.getFile() : null ).append( '\n' );
+        for ( Artifact attached : project.getAttachedArtifacts() )
+        {
+            buffer.append( "attached " ).append( attached.getId() ).append( ' ' ).append( attached.getFile() );
+            buffer.append( '\n' );
+        }
+        for ( String name : new TreeSet<String>( project.getProperties().stringPropertyNames() ) )
+        {
+            buffer.append( '-' ).append( name ).append( '=' ).append( project.getProperties().getProperty( name ) );
+            buffer.append( '\n' );
+        }
+        return buffer.toString();
+    }
+
+    private static void appendResources( StringBuilder buffer, List<Resource> resources )
+    {
+        for ( Resource resource : resources )
+        {
+            buffer.append( ' ' ).append( resource.getDirectory() ).append( ':' ).append( resource.getTargetPath() );
+            buffer.append( ':' ).append( resource.getFiltering() ).append( ':' ).append( resource.getIncludes() );
+            buffer.append( ':' ).append( resource.getExcludes() );
+        }
+        buffer.append( '\n' );
+    }
+
+    /**
+     * Indicates whether the specified directory is missing or contains no files, empty subdirectories are ignored.
+     */
+    static boolean isEmpty( File dir )
+    {
+        File[] children = dir.listFiles();
+        if ( children == null )
+        {
+            return true;
+        }
+        for ( File child : children )
+        {
+            if ( !child.isDirectory() || !isEmpty( child ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The cache entry of a single mojo execution.
+     */
+    final class Entry
+    {
+
+        private final String key;
+
+        private final File outputDirectory;
+
+        private final boolean initiallyEmpty;
+
+        private final MavenProject project;
+
+        private final String projectState;
+
+        Entry( String key, File outputDirectory, MavenProject project )
+        {
+            this.key = key;
+            this.outputDirectory = outputDirectory;
+            this.initiallyEmpty = isEmpty( outputDirectory );
+            this.project = project;
+            this.projectState = getProjectState( project );
+        }
+
+        File getOutputDirectory()
+        {
+            return outputDirectory;
+        }
+
+        /**
+         * Restores the cached outputs into the output directory.
+         *
+         * @return {@code true} if the outputs were restored, {@code false} if no outputs are cached or they could not
+         *         be copied.
+         */
+        boolean restore()
+        {
+            // an entry without files is incomplete, executions without outputs are never stored
+            File files = new File( new File( directory, key ), FILES );
+            if ( isEmpty( files ) )
+            {
+                return false;
+            }
+
+            try
+            {
+                FileUtils.copyDirectoryStructure( files, outputDirectory );
+                return true;
+            }
+            catch ( IOException e )
+            {
+                return false;
+            }
+        }
+
+        /**
+         * Caches the contents of the output directory. Executions whose output directory already contained files
+         * before, which produced no files or which changed the project are not cached.
+         *
+         * @return {@code true} if the outputs were cached, {@code false} otherwise.
+         */
+        boolean store()
+        {
+            if ( !initiallyEmpty || isEmpty( outputDirectory ) || !projectState.equals( getProjectState( project ) ) )
+            {
+                return false;
+            }
+
+            File entry = new File( directory, key );
+            File tmp = null;
+            try
+            {
+                directory.mkdirs();
+                tmp = File.createTempFile( key, ".tmp", directory );
+                if ( !tmp.delete() || !tmp.mkdir() )
+                {
+                    return false;
+                }
+
+                FileUtils.copyDirectoryStructure( outputDirectory, new File( tmp, FILES ) );
+
+                FileUtils.deleteDirectory( entry );
+                return tmp.renameTo( entry );
+            }
+            catch ( IOException e )
+            {
+                return false;
+            }
+            finally
+            {
+                if ( tmp != null )
+                {
+                    try
+                    {
+                        FileUtils.deleteDirectory( tmp );
+                    }
+                    catch ( IOException e )
+                    {
+                        // ignore
+                    }
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,600 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.DependencyGraphStore;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.model.Resource;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.artifact.AttachedArtifact;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * Records the outputs of successful project builds below the local repository such that later builds with the same
+ * inputs can restore them instead of executing the mojos again. The inputs of a project are summarized by a
+ * fingerprint over its effective POM, its execution plan, the user properties of the session, the Java version, the
+ * contents of its source and resource directories and its resolved dependencies, i.e. the outputs of upstream reactor
+ * projects are covered by content. Only the compile source roots, the test compile source roots, the resources and the
+ * test resources are inputs, files read by mojos from other locations like {@code src/main/webapp} or the grammar
+ * directories of code generators are not covered and must not change without any of the covered inputs changing, too.
+ * The recorded outputs are the main and attached artifacts of the project along with its output and test output
+ * directories. Only the most recently used entries are kept.
+ *
+ * @since 3.2.6
+ */
+class ProjectBuildCache
+{
+
+    private static final String FORMAT = "# maven project build 1";
+
+    private static final String OUTPUTS = "outputs.properties";
+
+    private static final String FILES = "files";
+
+    private static final String TMP = ".tmp";
+
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final File directory;
+
+    private final File localRepository;
+
+    private final int maxEntries;
+
+    ProjectBuildCache( File directory, File localRepository, int maxEntries )
+    {
+        this.directory = directory;
+        this.localRepository = localRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets the cache in the local repository of the given session.
+     *
+     * @param session The Maven session, must not be {@code null}.
+     * @return The build cache, never {@code null}.
+     */
+    static ProjectBuildCache newInstance( MavenSession session )
+    {
+        File basedir = session.getRepositorySession().getLocalRepository().getBasedir();
+        int maxEntries = ConfigUtils.getInteger( session.getRepositorySession(), DEFAULT_MAX_ENTRIES,
+                                                 LifecycleModuleBuilder.CONFIG_PROP_BUILD_AVOIDANCE_ENTRIES );
+        return new ProjectBuildCache( new File( basedir, ".cache/project-builds" ), basedir, maxEntries );
+    }
+
+    /**
+     * Calculates the fingerprint of the inputs of the specified project. The dependencies of the project must have
+     * been resolved for the scopes required by the mojo executions. The mojo configurations are not evaluated yet,
+     * so the user properties of the session and the Java version are part of the fingerprint to account for
+     * expressions like <code>${skipTests}</code> or defaults derived from the runtime.
+     *
+     * @param session The Maven session, must not be {@code null}.
+     * @param project The project to fingerprint, must not be {@code null}.
+     * @param mojoExecutions The mojo executions of the project's build, must not be {@code null}.
+     * @return The fingerprint or {@code null} if the inputs could not be read.
+     */
+    String getFingerprint( MavenSession session, MavenProject project, List<MojoExecution> mojoExecutions )
+    {
+        StringBuilder buffer = new StringBuilder( 16 * 1024 );
+        buffer.append( FORMAT ).append( '\n' );
+        buffer.append( BuilderCommon.getKey( project ) ).append( '\n' );
+
+        String javaVersion = session.getSystemProperties().getProperty( "java.version" );
+        if ( javaVersion == null )
+        {
+            javaVersion = System.getProperty( "java.version" );
+        }
+        buffer.append( "java " ).append( javaVersion ).append( '\n' );
+
+        Properties userProperties = session.getUserProperties();
+        List<String> names = new ArrayList<String>( userProperties.stringPropertyNames() );
+        Collections.sort( names );
+        for ( String name : names )
+        {
+            buffer.append( "property " ).append( name ).append( '=' );
+            buffer.append( userProperties.getProperty( name ) ).append( '\n' );
+        }
+
+        try
+        {
+            StringWriter writer = new StringWriter( 16 * 1024 );
+            new MavenXpp3Writer().write( writer, project.getModel() );
+            buffer.append( writer.getBuffer() ).append( '\n' );
+
+            for ( MojoExecution mojoExecution : mojoExecutions )
+            {
+                appendExecution( buffer, mojoExecution );
+            }
+
+            File basedir = project.getBasedir();
+            appendDirectories( buffer, basedir, "source", project.getCompileSourceRoots() );
+            appendDirectories( buffer, basedir, "test-source", project.getTestCompileSourceRoots() );
+            appendDirectories( buffer, basedir, "resource", getDirectories( project.getResources() ) );
+            appendDirectories( buffer, basedir, "test-resource", getDirectories( project.getTestResources() ) );
+
+            for ( Artifact artifact : project.getArtifacts() )
+            {
+                buffer.append( "dependency " ).append( artifact.getId() ).append( ' ' ).append( artifact.getScope() );
+                buffer.append( ' ' );
+                appendFile( buffer, artifact.getFile(), localRepository );
+                buffer.append( '\n' );
+            }
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+
+        return DependencyGraphStore.hash( buffer );
+    }
+
+    private static void appendExecution( StringBuilder buffer, MojoExecution mojoExecution )
+    {
+        buffer.append( "execution " ).append( mojoExecution.getGroupId() ).append( ':' );
+        buffer.append( mojoExecution.getArtifactId() ).append( ':' ).append( mojoExecution.getVersion() );
+        buffer.append( ':' ).append( mojoExecution.getGoal() ).append( " (" ).append( mojoExecution.getExecutionId() );
+        buffer.append( ") " ).append( mojoExecution.getLifecyclePhase() ).append( '\n' );
+        if ( mojoExecution.getConfiguration() != null )
+        {
+            buffer.append( mojoExecution.getConfiguration() ).append( '\n' );
+        }
+        for ( Map.Entry<String, List<MojoExecution>> fork : mojoExecution.getForkedExecutions().entrySet() )
+        {
+            buffer.append( "fork " ).append( fork.getKey() ).append( '\n' );
+            for ( MojoExecution forkedExecution : fork.getValue() )
+            {
+                appendExecution( buffer, forkedExecution );
+            }
+        }
+    }
+
+    private static List<String> getDirectories( List<Resource> resources )
+    {
+        List<String> directories = new ArrayList<String>( resources.size() );
+        for ( Resource resource : resources )
+        {
+            directories.add( resource.getDirectory() );
+        }
+        return directories;
+    }
+
+    private static void appendDirectories( StringBuilder buffer, File basedir, String kind,
+                                           Collection<String> directories )
+        throws IOException
+    {
+        for ( String directory : directories )
+        {
+            if ( directory == null )
+            {
+                continue;
+            }
+            File dir = new File( directory );
+            if ( !dir.isAbsolute() )
+            {
+                dir = new File( basedir, directory );
+            }
+            buffer.append( kind ).append( ' ' ).append( relativize( basedir, dir ) ).append( '\n' );
+            appendTree( buffer, dir, "" );
+        }
+    }
+
+    static void appendTree( StringBuilder buffer, File dir, String path )
+        throws IOException
+    {
+        String[] children = dir.list();
+        if ( children == null )
+        {
+            return;
+        }
+        Arrays.sort( children );
+        for ( String child : children )
+        {
+            File file = new File( dir, child );
+            if ( file.isDirectory() )
+            {
+                appendTree( buffer, file, path + child + '/' );
+            }
+            else
+            {
+                buffer.append( "  " ).append( path ).append( child ).append( ' ' ).append( digest( file ) );
+                buffer.append( '\n' );
+            }
+        }
+    }
+
+    static void appendFile( StringBuilder buffer, File file, File localRepository )
+        throws IOException
+    {
+        if ( file == null )
+        {
+            buffer.append( "-" );
+        }
+        else if ( file.isDirectory() )
+        {
+            // output directory of an upstream reactor project
+            buffer.append( "directory\n" );
+            appendTree( buffer, file, "" );
+        }
+        else if ( relativize( localRepository, file ) != null )
+        {
+            // artifacts in the local repository are only replaced along with their timestamp
+            buffer.append( file.length() ).append( '@' ).append( file.lastModified() );
+        }
+        else
+        {
+            buffer.append( digest( file ) );
+        }
+    }
+
+    static String digest( File file )
+        throws IOException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "SHA-1" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( e );
+        }
+
+        InputStream is = new FileInputStream( file );
+        try
+        {
+            byte[] buffer = new byte[8192];
+            for ( int n = is.read( buffer ); n >= 0; n = is.read( buffer ) )
+            {
+                digest.update( buffer, 0, n );
+            }
+        }
+        finally
+        {
+            is.close();
+        }
+
+        StringBuilder hex = new StringBuilder( 40 );
+        for ( byte b : digest.digest() )
+        {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0x0F, 16 ) );
+            hex.append( Character.forDigit( b & 0x0F, 16 ) );
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Gets the path of the specified file relative to the given base directory.
+     *
+     * @return The relative path using forward slashes or {@code null} if the file is not below the base directory.
+     */
+    static String relativize( File basedir, File file )
+    {
+        String base = basedir.getAbsolutePath() + File.separator;
+        String path = file.getAbsolutePath();
+        if ( path.equals( basedir.getAbsolutePath() ) )
+        {
+            return "";
+        }
+        if ( !path.startsWith( base ) )
+        {
+            return null;
+        }
+        return path.substring( base.length() ).replace( File.separatorChar, '/' );
+    }
+
+    /**
+     * Indicates whether the outputs of a build with the specified fingerprint have been recorded.
+     *
+     * @param fingerprint The fingerprint of the project's inputs, must not be {@code null}.
+     * @return {@code true} if the outputs can be restored, {@code false} otherwise.
+     */
+    boolean contains( String fingerprint )
+    {
+        return new File( getEntry( fingerprint ), OUTPUTS ).isFile();
+    }
+
+    /**
+     * Restores the recorded outputs into the specified project, i.e. copies the files back into the project's base
+     * directory and sets the main and attached artifacts as the skipped mojos would have done. The output and test
+     * output directories are emptied beforehand such that no stale files of an earlier build remain.
+     *
+     * @param fingerprint The fingerprint of the project's inputs, must not be {@code null}.
+     * @param project The project to restore the outputs for, must not be {@code null}.
+     * @param artifactHandlerManager The artifact handlers for the attached artifacts, must not be {@code null}.
+     * @return {@code true} if the outputs were restored, {@code false} if no outputs were recorded or they could not
+     *         be read.
+     */
+    boolean restore( String fingerprint, MavenProject project, ArtifactHandlerManager artifactHandlerManager )
+    {
+        File entry = getEntry( fingerprint );
+
+        Properties outputs = new Properties();
+        InputStream is = null;
+        try
+        {
+            is = new FileInputStream( new File( entry, OUTPUTS ) );
+            outputs.load( is );
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+        finally
+        {
+            IOUtil.close( is );
+        }
+
+        File basedir = project.getBasedir();
+        try
+        {
+            for ( String path : getOutputDirectories( project ) )
+            {
+                FileUtils.deleteDirectory( new File( basedir, path ) );
+            }
+
+            File files = new File( entry, FILES );
+            if ( files.isDirectory() )
+            {
+                FileUtils.copyDirectoryStructure( files, basedir );
+            }
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+
+        // the entry was used, keep it over the least recently used ones
+        entry.setLastModified( System.currentTimeMillis() );
+
+        String artifact = outputs.getProperty( "artifact" );
+        if ( artifact != null )
+        {
+            project.getArtifact().setFile( new File( basedir, artifact ) );
+        }
+
+        for ( int i = 0; outputs.getProperty( "attached." + i + ".file" ) != null; i++ )
+        {
+            String type = outputs.getProperty( "attached." + i + ".type" );
+            String classifier = outputs.getProperty( "attached." + i + ".classifier" );
+            Artifact attached =
+                new AttachedArtifact( project.getArtifact(), type, classifier,
+                                      artifactHandlerManager.getArtifactHandler( type ) );
+            attached.setFile( new File( basedir, outputs.getProperty( "attached." + i + ".file" ) ) );
+            project.addAttachedArtifact( attached );
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the outputs of the specified project. Projects whose artifacts reside outside of their base directory
+     * are silently skipped.
+     *
+     * @param fingerprint The fingerprint of the project's inputs, must not be {@code null}.
+     * @param project The successfully built project, must not be {@code null}.
+     * @return {@code true} if the outputs were recorded, {@code false} otherwise.
+     */
+    boolean store( String fingerprint, MavenProject project )
+    {
+        File basedir = project.getBasedir();
+
+        Properties outputs = new Properties();
+        List<String> paths = new ArrayList<String>();
+
+        File artifactFile = project.getArtifact().getFile();
+        if ( artifactFile != null && artifactFile.isFile() )
+        {
+            String path = relativize( basedir, artifactFile );
+            if ( path == null )
+            {
+                return false;
+            }
+            outputs.setProperty( "artifact", path );
+            if ( !artifactFile.equals( project.getFile() ) )
+            {
+                // the POM is an input rather than an output, e.g. for projects with packaging "pom"
+                paths.add( path );
+            }
+        }
+
+        int index = 0;
+        for ( Artifact attached : project.getAttachedArtifacts() )
+        {
+            String path = ( attached.getFile() != null ) ? relativize( basedir, attached.getFile() ) : null;
+            if ( path == null || !attached.getFile().isFile() )
+            {
+                return false;
+            }
+            outputs.setProperty( "attached." + index + ".type", attached.getType() );
+            if ( attached.getClassifier() != null )
+            {
+                outputs.setProperty( "attached." + index + ".classifier", attached.getClassifier() );
+            }
+            outputs.setProperty( "attached." + index + ".file", path );
+            paths.add( path );
+            index++;
+        }
+
+        for ( String path : getOutputDirectories( project ) )
+        {
+            if ( new File( basedir, path ).isDirectory() )
+            {
+                paths.add( path );
+            }
+        }
+
+        File entry = getEntry( fingerprint );
+        File tmp = null;
+        try
+        {
+            directory.mkdirs();
+            tmp = File.createTempFile( fingerprint, TMP, directory );
+            if ( !tmp.delete() || !tmp.mkdir() )
+            {
+                return false;
+            }
+
+            File files = new File( tmp, FILES );
+            for ( String path : paths )
+            {
+                File source = new File( basedir, path );
+                if ( source.isDirectory() )
+                {
+                    FileUtils.copyDirectoryStructure( source, new File( files, path ) );
+                }
+                else
+                {
+                    FileUtils.copyFile( source, new File( files, path ) );
+                }
+            }
+
+            OutputStream os = new FileOutputStream( new File( tmp, OUTPUTS ) );
+            try
+            {
+                outputs.store( os, FORMAT.substring( 2 ) );
+            }
+            finally
+            {
+                os.close();
+            }
+
+            FileUtils.deleteDirectory( entry );
+            if ( !tmp.renameTo( entry ) )
+            {
+                return false;
+            }
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+        finally
+        {
+            delete( tmp );
+        }
+
+        evict();
+
+        return true;
+    }
+
+    /**
+     * Gets the output and test output directories of the specified project relative to its base directory, output
+     * directories outside of the base directory are neither recorded nor restored.
+     */
+    private static List<String> getOutputDirectories( MavenProject project )
+    {
+        List<String> paths = new ArrayList<String>( 2 );
+        for ( String directory : Arrays.asList( project.getBuild().getOutputDirectory(),
+                                                project.getBuild().getTestOutputDirectory() ) )
+        {
+            String path = ( directory != null ) ? relativize( project.getBasedir(), new File( directory ) ) : null;
+            if ( path != null && path.length() > 0 )
+            {
+                paths.add( path );
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Deletes the least recently stored or restored entries beyond the maximum number of entries.
+     */
+    private void evict()
+    {
+        File[] entries = directory.listFiles();
+        if ( entries == null || entries.length <= maxEntries )
+        {
+            return;
+        }
+
+        List<File> candidates = new ArrayList<File>( entries.length );
+        for ( File entry : entries )
+        {
+            // skip the temporary directories of concurrent builds
+            if ( entry.isDirectory() && !entry.getName().endsWith( TMP ) )
+            {
+                candidates.add( entry );
+            }
+        }
+
+        Collections.sort( candidates, new Comparator<File>()
+        {
+            public int compare( File f1, File f2 )
+            {
+                long m1 = f1.lastModified();
+                long m2 = f2.lastModified();
+                return ( m1 < m2 ) ? -1 : ( ( m1 == m2 ) ? 0 : 1 );
+            }
+        } );
+
+        for ( int i = candidates.size() - maxEntries - 1; i >= 0; i-- )
+        {
+            delete( candidates.get( i ) );
+        }
+    }
+
+    private static void delete( File dir )
+    {
+        if ( dir == null )
+        {
+            return;
+        }
+        try
+        {
+            FileUtils.deleteDirectory( dir );
+        }
+        catch ( IOException e )
+        {
+            // ignore
+        }
+    }
+
+    private File getEntry( String fingerprint )
+    {
+        return new File( directory, fingerprint );
+    }
+
+}
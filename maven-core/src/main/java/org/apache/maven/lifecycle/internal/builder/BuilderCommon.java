@@ -29,6 +29,7 @@
 import org.apache.maven.lifecycle.LifecycleNotFoundException;
 import org.apache.maven.lifecycle.LifecyclePhaseNotFoundException;
 import org.apache.maven.lifecycle.MavenExecutionPlan;
+import org.apache.maven.lifecycle.internal.DependencyPrefetcher;
 import org.apache.maven.lifecycle.internal.ExecutionEventCatapult;
 import org.apache.maven.lifecycle.internal.LifecycleDebugLogger;
 import org.apache.maven.lifecycle.internal.LifecycleExecutionPlanCalculator;
@@ -74,6 +75,9 @@
     @Requirement
     private Logger logger;
 
+    @Requirement
+    private DependencyPrefetcher dependencyPrefetcher;
+
 
     public BuilderCommon()
     {
@@ -94,8 +98,19 @@ public MavenExecutionPlan resolveBuildPlan( MavenSession session, MavenProject p
         NoPluginFoundForPrefixException, LifecycleNotFoundException, PluginVersionResolutionException,
         LifecycleExecutionException
     {
-        MavenExecutionPlan executionPlan =
-            lifeCycleExecutionPlanCalculator.calculateExecutionPlan( session, project, taskSegment.getTasks() );
+        MavenExecutionPlan executionPlan = null;
+
+        if ( dependencyPrefetcher != null )
+        {
+            // reuse the plan calculated when the dependency prefetch started
+            executionPlan = dependencyPrefetcher.takeBuildPlan( session, project, taskSegment );
+        }
+
+        if ( executionPlan == null )
+        {
+            executionPlan =
+                lifeCycleExecutionPlanCalculator.calculateExecutionPlan( session, project, taskSegment.getTasks() );
+        }
 
         lifecycleDebugLogger.debugProjectPlan( project, executionPlan );
 
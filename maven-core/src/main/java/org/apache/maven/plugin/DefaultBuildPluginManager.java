@@ -27,6 +27,8 @@
 import org.apache.maven.execution.MojoExecutionEvent;
 import org.apache.maven.execution.MojoExecutionListener;
 import org.apache.maven.execution.scope.internal.MojoExecutionScope;
+import org.apache.maven.lifecycle.internal.MojoExecutionProfile;
+import org.apache.maven.lifecycle.internal.MojoExecutionProfiler;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
@@ -54,6 +56,9 @@
     @Requirement
     private MojoExecutionScope scope;
 
+    @Requirement
+    private MojoExecutionProfiler profiler;
+
     private MojoExecutionListener mojoExecutionListener;
 
     // this tricks plexus-component-metadata generate required metadata
@@ -94,6 +99,10 @@ public void executeMojo( MavenSession session, MojoExecution mojoExecution )
 
         Mojo mojo = null;
 
+        MojoExecutionProfile profile = profiler.getCurrentProfile();
+
+        long setupStart = System.nanoTime();
+
         ClassRealm pluginRealm;
         try
         {
@@ -118,6 +127,11 @@ public void executeMojo( MavenSession session, MojoExecution mojoExecution )
 
             mojo = mavenPluginManager.getConfiguredMojo( Mojo.class, session, mojoExecution );
 
+            if ( profile != null )
+            {
+                profile.addSetupTime( System.nanoTime() - setupStart );
+            }
+
             legacySupport.setSession( session );
 
             // NOTE: DuplicateArtifactAttachmentException is currently unchecked, so be careful removing this try/catch!
@@ -0,0 +1,240 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.component.repository.exception.ComponentLifecycleException;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.personality.plexus.lifecycle.phase.Disposable;
+
+/**
+ * Default mojo instance pool, keeps idle instances per plugin realm and goal.
+ *
+ * @since 3.2.6
+ */
+@Component( role = MojoInstancePool.class )
+public class DefaultMojoInstancePool
+    implements MojoInstancePool, Disposable
+{
+
+    protected static class CacheKey
+        implements Key
+    {
+
+        private final ClassRealm pluginRealm;
+
+        private final String roleHint;
+
+        private final int hashCode;
+
+        public CacheKey( MojoDescriptor mojoDescriptor, ClassRealm pluginRealm )
+        {
+            this.pluginRealm = pluginRealm;
+            this.roleHint = mojoDescriptor.getRoleHint();
+            this.hashCode = System.identityHashCode( pluginRealm ) * 31 + roleHint.hashCode();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( o == this )
+            {
+                return true;
+            }
+
+            if ( !( o instanceof CacheKey ) )
+            {
+                return false;
+            }
+
+            CacheKey that = (CacheKey) o;
+
+            return pluginRealm == that.pluginRealm && roleHint.equals( that.roleHint );
+        }
+
+        @Override
+        public String toString()
+        {
+            return roleHint;
+        }
+
+    }
+
+    @Requirement
+    private Logger logger;
+
+    @Requirement
+    private PlexusContainer container;
+
+    protected final ConcurrentMap<Key, Queue<Object>> idle = new ConcurrentHashMap<Key, Queue<Object>>();
+
+    protected final Map<Object, Key> owners = new IdentityHashMap<Object, Key>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public Key createKey( MojoDescriptor mojoDescriptor, ClassRealm pluginRealm )
+    {
+        return new CacheKey( mojoDescriptor, pluginRealm );
+    }
+
+    public Object acquire( Key key )
+    {
+        Queue<Object> instances = idle.get( key );
+
+        Object mojo = ( instances != null ) ? instances.poll() : null;
+
+        if ( mojo != null )
+        {
+            hits.incrementAndGet();
+        }
+        else
+        {
+            misses.incrementAndGet();
+        }
+
+        return mojo;
+    }
+
+    public void register( Key key, Object mojo )
+    {
+        if ( key == null || mojo == null )
+        {
+            throw new IllegalArgumentException();
+        }
+
+        synchronized ( owners )
+        {
+            owners.put( mojo, key );
+        }
+    }
+
+    public void unregister( Object mojo )
+    {
+        if ( mojo != null )
+        {
+            synchronized ( owners )
+            {
+                owners.remove( mojo );
+            }
+        }
+    }
+
+    public boolean release( Object mojo )
+    {
+        if ( mojo == null )
+        {
+            return false;
+        }
+
+        Key key;
+        synchronized ( owners )
+        {
+            key = owners.get( mojo );
+        }
+
+        if ( key == null )
+        {
+            return false;
+        }
+
+        Queue<Object> instances = idle.get( key );
+        if ( instances == null )
+        {
+            instances = new ConcurrentLinkedQueue<Object>();
+            Queue<Object> existing = idle.putIfAbsent( key, instances );
+            if ( existing != null )
+            {
+                instances = existing;
+            }
+        }
+
+        instances.add( mojo );
+
+        return true;
+    }
+
+    public int getHits()
+    {
+        return hits.get();
+    }
+
+    public int getMisses()
+    {
+        return misses.get();
+    }
+
+    public void flush()
+    {
+        int hitCount = hits.getAndSet( 0 );
+        int missCount = misses.getAndSet( 0 );
+
+        if ( hitCount + missCount > 0 && logger.isInfoEnabled() )
+        {
+            logger.info( "Mojo instance pool: " + hitCount + " hits, " + missCount + " misses" );
+        }
+
+        for ( Queue<Object> instances : idle.values() )
+        {
+            for ( Object mojo; ( mojo = instances.poll() ) != null; )
+            {
+                try
+                {
+                    container.release( mojo );
+                }
+                catch ( ComponentLifecycleException e )
+                {
+                    logger.debug( "Error releasing pooled mojo " + mojo.getClass().getName(), e );
+                }
+            }
+        }
+        idle.clear();
+
+        synchronized ( owners )
+        {
+            owners.clear();
+        }
+    }
+
+    public void dispose()
+    {
+        flush();
+    }
+
+}
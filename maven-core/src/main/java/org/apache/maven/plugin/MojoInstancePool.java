@@ -0,0 +1,92 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+
+/**
+ * Pools instances of reusable mojos so that repeated executions of the same goal from the same plugin realm can skip
+ * the component lookup. Only mojos that are thread-safe, use the per-lookup instantiation strategy and declare
+ * themselves reusable are eligible, callers remain responsible for reconfiguring an acquired instance. <strong>Warning:
+ * </strong> This is an internal utility interface that is only public for technical reasons, it is not part of the
+ * public API. In particular, this interface can be changed or deleted without prior notice.
+ *
+ * @since 3.2.6
+ */
+public interface MojoInstancePool
+{
+
+    /**
+     * A cache key.
+     */
+    interface Key
+    {
+        // marker interface for cache keys
+    }
+
+    Key createKey( MojoDescriptor mojoDescriptor, ClassRealm pluginRealm );
+
+    /**
+     * Takes an idle mojo instance from the pool.
+     *
+     * @param key The key of the pooled instances, must not be {@code null}.
+     * @return The idle mojo instance or {@code null} if the pool has none, in which case the caller should look up a
+     *         new instance and {@link #register(Key, Object) register} it once it has been configured.
+     */
+    Object acquire( Key key );
+
+    /**
+     * Registers a newly looked up and successfully configured mojo instance with the pool such that it can later be
+     * {@link #release(Object) released} into the pool. Only instances whose parameter fields were all assigned by the
+     * configuration should be registered, a reused instance would otherwise keep values from a previous execution.
+     *
+     * @param key The key of the pooled instances, must not be {@code null}.
+     * @param mojo The mojo instance, must not be {@code null}.
+     */
+    void register( Key key, Object mojo );
+
+    /**
+     * Removes a registered mojo instance from the pool, e.g. because its configuration failed. The instance will not be
+     * {@link #release(Object) released} into the pool anymore.
+     *
+     * @param mojo The mojo instance, may be {@code null}.
+     */
+    void unregister( Object mojo );
+
+    /**
+     * Returns a mojo instance to the pool.
+     *
+     * @param mojo The mojo instance, may be {@code null}.
+     * @return {@code true} if the instance belongs to the pool and is now idle, {@code false} if the instance is not
+     *         managed by the pool and must be released to the container by the caller.
+     */
+    boolean release( Object mojo );
+
+    int getHits();
+
+    int getMisses();
+
+    /**
+     * Releases all idle instances to the container and reports the pool statistics.
+     */
+    void flush();
+
+}
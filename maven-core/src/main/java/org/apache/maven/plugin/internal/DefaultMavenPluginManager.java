@@ -52,6 +52,7 @@
 import org.apache.maven.plugin.MavenPluginValidator;
 import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoInstancePool;
 import org.apache.maven.plugin.MojoNotFoundException;
 import org.apache.maven.plugin.PluginArtifactsCache;
 import org.apache.maven.plugin.PluginConfigurationException;
@@ -104,6 +105,7 @@
 import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.filter.AndDependencyFilter;
 import org.eclipse.aether.util.graph.visitor.PreorderNodeListGenerator;
 
@@ -129,6 +131,13 @@
      */
     public static final String KEY_EXTENSIONS_REALMS = DefaultMavenPluginManager.class.getName() + "/extensionsRealms";
 
+    /**
+     * The name of the configuration property that enables pooling of reusable mojo instances.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_MOJO_POOLING = "maven.mojo.pooling";
+
     @Requirement
     private Logger logger;
 
@@ -162,6 +171,9 @@
     @Requirement
     private PluginArtifactsCache pluginArtifactsCache;
 
+    @Requirement
+    private MojoInstancePool mojoInstancePool;
+
     private ExtensionDescriptorBuilder extensionDescriptorBuilder = new ExtensionDescriptorBuilder();
 
     private PluginDescriptorBuilder builder = new PluginDescriptorBuilder();
@@ -536,98 +548,184 @@ public <T> T getConfiguredMojo( Class<T> mojoInterface, MavenSession session, Mo
 
         try
         {
-            T mojo;
+            MojoInstancePool.Key poolKey = null;
 
-            try
+            if ( isPoolable( session, mojoDescriptor ) )
             {
-                mojo = container.lookup( mojoInterface, mojoDescriptor.getRoleHint() );
-            }
-            catch ( ComponentLookupException e )
-            {
-                Throwable cause = e.getCause();
-                while ( cause != null && !( cause instanceof LinkageError )
-                    && !( cause instanceof ClassNotFoundException ) )
-                {
-                    cause = cause.getCause();
-                }
+                poolKey = mojoInstancePool.createKey( mojoDescriptor, pluginRealm );
 
-                if ( ( cause instanceof NoClassDefFoundError ) || ( cause instanceof ClassNotFoundException ) )
-                {
-                    ByteArrayOutputStream os = new ByteArrayOutputStream( 1024 );
-                    PrintStream ps = new PrintStream( os );
-                    ps.println( "Unable to load the mojo '" + mojoDescriptor.getGoal() + "' in the plugin '"
-                        + pluginDescriptor.getId() + "'. A required class is missing: " + cause.getMessage() );
-                    pluginRealm.display( ps );
+                T mojo = mojoInterface.cast( mojoInstancePool.acquire( poolKey ) );
 
-                    throw new PluginContainerException( mojoDescriptor, pluginRealm, os.toString(), cause );
-                }
-                else if ( cause instanceof LinkageError )
+                if ( mojo != null )
                 {
-                    ByteArrayOutputStream os = new ByteArrayOutputStream( 1024 );
-                    PrintStream ps = new PrintStream( os );
-                    ps.println( "Unable to load the mojo '" + mojoDescriptor.getGoal() + "' in the plugin '"
-                        + pluginDescriptor.getId() + "' due to an API incompatibility: " + e.getClass().getName()
-                        + ": " + cause.getMessage() );
-                    pluginRealm.display( ps );
-
-                    throw new PluginContainerException( mojoDescriptor, pluginRealm, os.toString(), cause );
-                }
+                    if ( logger.isDebugEnabled() )
+                    {
+                        logger.debug( "Reusing pooled instance of mojo " + mojoDescriptor.getId() );
+                    }
+
+                    boolean configured = false;
+                    try
+                    {
+                        configured = configureMojo( mojo, session, mojoExecution, pluginRealm );
+                    }
+                    finally
+                    {
+                        if ( !configured )
+                        {
+                            mojoInstancePool.unregister( mojo );
+                        }
+                    }
 
-                throw new PluginContainerException( mojoDescriptor, pluginRealm, "Unable to load the mojo '"
-                    + mojoDescriptor.getGoal() + "' (or one of its required components) from the plugin '"
-                    + pluginDescriptor.getId() + "'", e );
+                    if ( configured )
+                    {
+                        return mojo;
+                    }
+
+                    // some field could still hold a value from the previous execution, start over with a new instance
+                    logger.debug( "Discarding pooled instance of mojo " + mojoDescriptor.getId()
+                        + ", not all parameters were configured" );
+                    releaseQuietly( mojo );
+                }
             }
 
-            if ( mojo instanceof ContextEnabled )
+            T mojo = lookupMojo( mojoInterface, mojoDescriptor, pluginRealm );
+
+            boolean configured = configureMojo( mojo, session, mojoExecution, pluginRealm );
+
+            if ( poolKey != null && configured )
             {
-                MavenProject project = session.getCurrentProject();
+                mojoInstancePool.register( poolKey, mojo );
+            }
+
+            return mojo;
+        }
+        finally
+        {
+            Thread.currentThread().setContextClassLoader( oldClassLoader );
+            container.setLookupRealm( oldLookupRealm );
+        }
+    }
 
-                Map<String, Object> pluginContext = session.getPluginContext( pluginDescriptor, project );
+    /**
+     * Configures the specified mojo for the given execution.
+     *
+     * @return {@code true} if every parameter of the mojo was assigned a value, {@code false} otherwise.
+     */
+    private boolean configureMojo( Object mojo, MavenSession session, MojoExecution mojoExecution,
+                                   ClassRealm pluginRealm )
+        throws PluginConfigurationException
+    {
+        MojoDescriptor mojoDescriptor = mojoExecution.getMojoDescriptor();
 
-                if ( pluginContext != null )
-                {
-                    pluginContext.put( "project", project );
+        PluginDescriptor pluginDescriptor = mojoDescriptor.getPluginDescriptor();
 
-                    pluginContext.put( "pluginDescriptor", pluginDescriptor );
+        if ( mojo instanceof ContextEnabled )
+        {
+            MavenProject project = session.getCurrentProject();
 
-                    ( (ContextEnabled) mojo ).setPluginContext( pluginContext );
-                }
-            }
+            Map<String, Object> pluginContext = session.getPluginContext( pluginDescriptor, project );
 
-            if ( mojo instanceof Mojo )
+            if ( pluginContext != null )
             {
-                Logger mojoLogger = loggerManager.getLoggerForComponent( mojoDescriptor.getImplementation() );
-                ( (Mojo) mojo ).setLog( new DefaultLog( mojoLogger ) );
+                pluginContext.put( "project", project );
+
+                pluginContext.put( "pluginDescriptor", pluginDescriptor );
+
+                ( (ContextEnabled) mojo ).setPluginContext( pluginContext );
             }
+        }
 
-            Xpp3Dom dom = mojoExecution.getConfiguration();
+        if ( mojo instanceof Mojo )
+        {
+            Logger mojoLogger = loggerManager.getLoggerForComponent( mojoDescriptor.getImplementation() );
+            ( (Mojo) mojo ).setLog( new DefaultLog( mojoLogger ) );
+        }
 
-            PlexusConfiguration pomConfiguration;
+        Xpp3Dom dom = mojoExecution.getConfiguration();
 
-            if ( dom == null )
-            {
-                pomConfiguration = new XmlPlexusConfiguration( "configuration" );
-            }
-            else
-            {
-                pomConfiguration = new XmlPlexusConfiguration( dom );
-            }
+        PlexusConfiguration pomConfiguration;
 
-            ExpressionEvaluator expressionEvaluator = new PluginParameterExpressionEvaluator( session, mojoExecution );
+        if ( dom == null )
+        {
+            pomConfiguration = new XmlPlexusConfiguration( "configuration" );
+        }
+        else
+        {
+            pomConfiguration = new XmlPlexusConfiguration( dom );
+        }
 
-            populatePluginFields( mojo, mojoDescriptor, pluginRealm, pomConfiguration, expressionEvaluator );
+        ExpressionEvaluator expressionEvaluator = new PluginParameterExpressionEvaluator( session, mojoExecution );
 
-            return mojo;
+        return populatePluginFields( mojo, mojoDescriptor, pluginRealm, pomConfiguration, expressionEvaluator );
+    }
+
+    private void releaseQuietly( Object mojo )
+    {
+        try
+        {
+            container.release( mojo );
         }
-        finally
+        catch ( ComponentLifecycleException e )
         {
-            Thread.currentThread().setContextClassLoader( oldClassLoader );
-            container.setLookupRealm( oldLookupRealm );
+            logger.debug( "Error releasing mojo " + mojo.getClass().getName(), e );
         }
     }
 
-    private void populatePluginFields( Object mojo, MojoDescriptor mojoDescriptor, ClassRealm pluginRealm,
-                                       PlexusConfiguration configuration, ExpressionEvaluator expressionEvaluator )
+    private <T> T lookupMojo( Class<T> mojoInterface, MojoDescriptor mojoDescriptor, ClassRealm pluginRealm )
+        throws PluginContainerException
+    {
+        PluginDescriptor pluginDescriptor = mojoDescriptor.getPluginDescriptor();
+
+        try
+        {
+            return container.lookup( mojoInterface, mojoDescriptor.getRoleHint() );
+        }
+        catch ( ComponentLookupException e )
+        {
+            Throwable cause = e.getCause();
+            while ( cause != null && !( cause instanceof LinkageError )
+                && !( cause instanceof ClassNotFoundException ) )
+            {
+                cause = cause.getCause();
+            }
+
+            if ( ( cause instanceof NoClassDefFoundError ) || ( cause instanceof ClassNotFoundException ) )
+            {
+                ByteArrayOutputStream os = new ByteArrayOutputStream( 1024 );
+                PrintStream ps = new PrintStream( os );
+                ps.println( "Unable to load the mojo '" + mojoDescriptor.getGoal() + "' in the plugin '"
+                    + pluginDescriptor.getId() + "'. A required class is missing: " + cause.getMessage() );
+                pluginRealm.display( ps );
+
+                throw new PluginContainerException( mojoDescriptor, pluginRealm, os.toString(), cause );
+            }
+            else if ( cause instanceof LinkageError )
+            {
+                ByteArrayOutputStream os = new ByteArrayOutputStream( 1024 );
+                PrintStream ps = new PrintStream( os );
+                ps.println( "Unable to load the mojo '" + mojoDescriptor.getGoal() + "' in the plugin '"
+                    + pluginDescriptor.getId() + "' due to an API incompatibility: " + e.getClass().getName()
+                    + ": " + cause.getMessage() );
+                pluginRealm.display( ps );
+
+                throw new PluginContainerException( mojoDescriptor, pluginRealm, os.toString(), cause );
+            }
+
+            throw new PluginContainerException( mojoDescriptor, pluginRealm, "Unable to load the mojo '"
+                + mojoDescriptor.getGoal() + "' (or one of its required components) from the plugin '"
+                + pluginDescriptor.getId() + "'", e );
+        }
+    }
+
+    private boolean isPoolable( MavenSession session, MojoDescriptor mojoDescriptor )
+    {
+        return mojoDescriptor.isThreadSafe() && mojoDescriptor.isReusable()
+            && "per-lookup".equals( mojoDescriptor.getInstantiationStrategy() )
+            && ConfigUtils.getBoolean( session.getRepositorySession(), false, CONFIG_PROP_MOJO_POOLING );
+    }
+
+    private boolean populatePluginFields( Object mojo, MojoDescriptor mojoDescriptor, ClassRealm pluginRealm,
+                                          PlexusConfiguration configuration, ExpressionEvaluator expressionEvaluator )
         throws PluginConfigurationException
     {
         ComponentConfigurator configurator = null;
@@ -673,6 +771,8 @@ private void populatePluginFields( Object mojo, MojoDescriptor mojoDescriptor, C
                     validateParameters( mojoDescriptor, configuration, expressionEvaluator );
                 }
             }
+
+            return validator.getUnconfiguredParameters().isEmpty();
         }
         catch ( ComponentConfigurationException e )
         {
@@ -784,7 +884,7 @@ private void validateParameters( MojoDescriptor mojoDescriptor, PlexusConfigurat
 
     public void releaseMojo( Object mojo, MojoExecution mojoExecution )
     {
-        if ( mojo != null )
+        if ( mojo != null && !mojoInstancePool.release( mojo ) )
         {
             try
             {
@@ -24,6 +24,7 @@
 import java.util.Map;
 
 import org.apache.maven.ArtifactFilterManager;
+import org.apache.maven.DependencyGraphStore;
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Plugin;
@@ -52,6 +53,7 @@
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.DependencyRequest;
 import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.artifact.JavaScopes;
 import org.eclipse.aether.util.filter.AndDependencyFilter;
 import org.eclipse.aether.util.filter.ExclusionsDependencyFilter;
@@ -75,6 +77,15 @@
 
     private static final String REPOSITORY_CONTEXT = "plugin";
 
+    /**
+     * The name of the configuration property that enables the persistent cache of collected plugin dependency graphs.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_GRAPH_CACHE = "maven.plugin.graphCache";
+
+    private static final String GRAPH_CACHE_NAME = "plugin-graphs";
+
     @Requirement
     private Logger logger;
 
@@ -189,7 +200,36 @@ public DependencyNode resolve( Plugin plugin, Artifact pluginArtifact, Dependenc
 
             request.setTrace( RequestTrace.newChild( trace, depRequest ) );
 
-            node = repoSystem.collectDependencies( pluginSession, request ).getRoot();
+            DependencyGraphStore graphStore = null;
+            String graphKey = null;
+            node = null;
+
+            if ( ConfigUtils.getBoolean( session, false, CONFIG_PROP_GRAPH_CACHE ) )
+            {
+                graphStore = DependencyGraphStore.newInstance( session, GRAPH_CACHE_NAME );
+                graphKey = DependencyGraphStore.getKey( pluginSession, request );
+                node = graphStore.load( graphKey, session, repositories );
+
+                if ( node != null )
+                {
+                    node.setArtifact( pluginArtifact );
+
+                    if ( logger.isDebugEnabled() )
+                    {
+                        logger.debug( "Using cached dependency graph " + graphKey + " for plugin " + plugin.getId() );
+                    }
+                }
+            }
+
+            if ( node == null )
+            {
+                node = repoSystem.collectDependencies( pluginSession, request ).getRoot();
+
+                if ( graphStore != null )
+                {
+                    graphStore.store( graphKey, session, node );
+                }
+            }
 
             if ( logger.isDebugEnabled() )
             {
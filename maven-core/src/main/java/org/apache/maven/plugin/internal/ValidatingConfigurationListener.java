@@ -21,7 +21,9 @@
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.Parameter;
@@ -43,11 +45,14 @@
 
     private final Map<String, Parameter> missingParameters;
 
+    private final Set<String> unconfiguredParameters;
+
     public ValidatingConfigurationListener( Object mojo, MojoDescriptor mojoDescriptor, ConfigurationListener delegate )
     {
         this.mojo = mojo;
         this.delegate = delegate;
         this.missingParameters = new HashMap<String, Parameter>();
+        this.unconfiguredParameters = new HashSet<String>();
 
         if ( mojoDescriptor.getParameters() != null )
         {
@@ -57,6 +62,7 @@ public ValidatingConfigurationListener( Object mojo, MojoDescriptor mojoDescript
                 {
                     missingParameters.put( param.getName(), param );
                 }
+                unconfiguredParameters.add( param.getName() );
             }
         }
     }
@@ -66,6 +72,16 @@ public Collection<Parameter> getMissingParameters()
         return missingParameters.values();
     }
 
+    /**
+     * Gets the names of the parameters, required or not, whose fields were not assigned a value.
+     *
+     * @return The names of the unconfigured parameters, never {@code null}.
+     */
+    public Collection<String> getUnconfiguredParameters()
+    {
+        return unconfiguredParameters;
+    }
+
     public void notifyFieldChangeUsingSetter( String fieldName, Object value, Object target )
     {
         delegate.notifyFieldChangeUsingSetter( fieldName, value, target );
@@ -91,6 +107,7 @@ private void notify( String fieldName, Object value )
         if ( value != null )
         {
             missingParameters.remove( fieldName );
+            unconfiguredParameters.remove( fieldName );
         }
     }
 
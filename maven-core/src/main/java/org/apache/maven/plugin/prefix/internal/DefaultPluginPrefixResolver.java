@@ -21,12 +21,9 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
-import org.apache.maven.artifact.repository.metadata.io.MetadataReader;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.BuildPluginManager;
@@ -35,6 +32,7 @@
 import org.apache.maven.plugin.prefix.PluginPrefixRequest;
 import org.apache.maven.plugin.prefix.PluginPrefixResolver;
 import org.apache.maven.plugin.prefix.PluginPrefixResult;
+import org.apache.maven.repository.internal.ParsedMetadataCache;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
@@ -74,9 +72,6 @@
     @Requirement
     private RepositorySystem repositorySystem;
 
-    @Requirement
-    private MetadataReader metadataReader;
-
     public PluginPrefixResult resolve( PluginPrefixRequest request )
         throws NoPluginFoundForPrefixException
     {
@@ -182,6 +177,7 @@ private PluginPrefixResult resolveFromRepository( PluginPrefixRequest request )
         // initial try, use locally cached metadata
 
         List<MetadataResult> results = repositorySystem.resolveMetadata( request.getRepositorySession(), requests );
+        ParsedMetadataCache.invalidate( request.getRepositorySession(), results );
         requests.clear();
 
         PluginPrefixResult result = processResults( request, trace, results, requests );
@@ -200,6 +196,7 @@ private PluginPrefixResult resolveFromRepository( PluginPrefixRequest request )
             session.setUpdatePolicy( RepositoryPolicy.UPDATE_POLICY_ALWAYS );
 
             results = repositorySystem.resolveMetadata( session, requests );
+            ParsedMetadataCache.invalidate( session, results );
 
             return processResults( request, trace, results, null );
         }
@@ -249,9 +246,8 @@ private PluginPrefixResult resolveFromRepository( PluginPrefixRequest request, R
         {
             try
             {
-                Map<String, ?> options = Collections.singletonMap( MetadataReader.IS_STRICT, Boolean.FALSE );
-
-                Metadata pluginGroupMetadata = metadataReader.read( metadata.getFile(), options );
+                Metadata pluginGroupMetadata =
+                    ParsedMetadataCache.read( request.getRepositorySession(), metadata.getFile() );
 
                 List<org.apache.maven.artifact.repository.metadata.Plugin> plugins = pluginGroupMetadata.getPlugins();
 
@@ -29,7 +29,6 @@
 
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.apache.maven.artifact.repository.metadata.Versioning;
-import org.apache.maven.artifact.repository.metadata.io.MetadataReader;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.MavenPluginManager;
@@ -39,6 +38,7 @@
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 import org.apache.maven.plugin.version.PluginVersionResolver;
 import org.apache.maven.plugin.version.PluginVersionResult;
+import org.apache.maven.repository.internal.ParsedMetadataCache;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
@@ -78,9 +78,6 @@
     @Requirement
     private RepositorySystem repositorySystem;
 
-    @Requirement
-    private MetadataReader metadataReader;
-
     @Requirement
     private MavenPluginManager pluginManager;
 
@@ -131,6 +128,7 @@ private PluginVersionResult resolveFromRepository( PluginVersionRequest request
         }
 
         List<MetadataResult> results = repositorySystem.resolveMetadata( request.getRepositorySession(), requests );
+        ParsedMetadataCache.invalidate( request.getRepositorySession(), results );
 
         Versions versions = new Versions();
 
@@ -285,9 +283,7 @@ private void mergeMetadata( RepositorySystemSession session, RequestTrace trace,
         {
             try
             {
-                Map<String, ?> options = Collections.singletonMap( MetadataReader.IS_STRICT, Boolean.FALSE );
-
-                Metadata repoMetadata = metadataReader.read( metadata.getFile(), options );
+                Metadata repoMetadata = ParsedMetadataCache.read( session, metadata.getFile() );
 
                 mergeMetadata( versions, repoMetadata, repository );
             }
@@ -76,6 +76,7 @@
 import org.eclipse.aether.resolution.VersionRangeRequest;
 import org.eclipse.aether.resolution.VersionRangeResolutionException;
 import org.eclipse.aether.resolution.VersionRangeResult;
+import org.eclipse.aether.util.ConfigUtils;
 
 /**
  */
@@ -84,6 +85,16 @@
     implements ProjectBuilder
 {
 
+    /**
+     * The name of the configuration property that enables the memory-lean mode for large reactors. In this mode, the
+     * effective models of the projects share structurally identical plugin configurations, managed dependencies and
+     * repositories, which must thus not be modified by plugins. Input locations are not tracked unless the projects
+     * fail to build, in which case the projects are built again to report the problems with their line numbers.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_COMPACT = "maven.project.compact";
+
     @Requirement
     private Logger logger;
 
@@ -151,7 +162,7 @@ private ProjectBuildingResult build( File pomFile, ModelSource modelSource, Inte
 
                 request.setPomFile( pomFile );
                 request.setModelSource( modelSource );
-                request.setLocationTracking( true );
+                request.setLocationTracking( config.locationTracking );
 
                 ModelBuildingResult result;
                 try
@@ -160,6 +171,13 @@ private ProjectBuildingResult build( File pomFile, ModelSource modelSource, Inte
                 }
                 catch ( ModelBuildingException e )
                 {
+                    if ( !config.locationTracking )
+                    {
+                        // the problems are worth another build to report them along with their line numbers
+                        return build( pomFile, modelSource,
+                                      new InternalConfig( projectBuildingRequest, config.modelPool, false ) );
+                    }
+
                     result = e.getResult();
                     if ( result == null || result.getEffectiveModel() == null )
                     {
@@ -172,7 +190,7 @@ private ProjectBuildingResult build( File pomFile, ModelSource modelSource, Inte
                 modelProblems = result.getProblems();
 
                 initProject( project, Collections.<String, MavenProject>emptyMap(), result,
-                             new HashMap<File, Boolean>(), projectBuildingRequest );
+                             new HashMap<File, Boolean>(), config );
             }
             else if ( projectBuildingRequest.isResolveDependencies() )
             {
@@ -229,7 +247,7 @@ private DependencyResolutionResult resolveDependencies( MavenProject project, Re
             {
                 if ( !artifact.isResolved() )
                 {
-                    String path = lrm.getPathForLocalArtifact( RepositoryUtils.toArtifact( artifact ) );
+                    String path = lrm.getPathForLocalArtifact( RepositoryUtils.toArtifactView( artifact ) );
                     artifact.setFile( new File( lrm.getRepository().getBasedir(), path ) );
                 }
             }
@@ -252,6 +270,12 @@ private List<String> getProfileIds( List<Profile> profiles )
         return ids;
     }
 
+    private static boolean isCompact( ProjectBuildingRequest request )
+    {
+        RepositorySystemSession session = request.getRepositorySession();
+        return session != null && ConfigUtils.getBoolean( session, false, CONFIG_PROP_COMPACT );
+    }
+
     private ModelBuildingRequest getModelBuildingRequest( InternalConfig config )
     {
         ProjectBuildingRequest configuration = config.request;
@@ -382,6 +406,13 @@ private ModelSource createStubModelSource( Artifact artifact )
 
     public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive, ProjectBuildingRequest request )
         throws ProjectBuildingException
+    {
+        return build( pomFiles, recursive, request, isCompact( request ) );
+    }
+
+    private List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive, ProjectBuildingRequest request,
+                                               boolean compact )
+        throws ProjectBuildingException
     {
         List<ProjectBuildingResult> results = new ArrayList<ProjectBuildingResult>();
 
@@ -389,7 +420,7 @@ public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive
 
         ReactorModelPool modelPool = new ReactorModelPool();
 
-        InternalConfig config = new InternalConfig( request, modelPool );
+        InternalConfig config = new InternalConfig( request, modelPool, compact );
 
         Map<String, MavenProject> projectIndex = new HashMap<String, MavenProject>( 256 );
 
@@ -403,7 +434,7 @@ public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive
         try
         {
             noErrors =
-                build( results, new ArrayList<MavenProject>(), projectIndex, interimResults, request,
+                build( results, new ArrayList<MavenProject>(), projectIndex, interimResults, config,
                        new HashMap<File, Boolean>() ) && noErrors;
         }
         finally
@@ -413,6 +444,12 @@ public List<ProjectBuildingResult> build( List<File> pomFiles, boolean recursive
 
         if ( !noErrors )
         {
+            if ( compact )
+            {
+                // the build fails anyway so report the problems along with their line numbers
+                return build( pomFiles, recursive, request, false );
+            }
+
             throw new ProjectBuildingException( results );
         }
 
@@ -452,7 +489,7 @@ private boolean build( List<ProjectBuildingResult> results, List<InterimResult>
 
         request.setPomFile( pomFile );
         request.setTwoPhaseBuilding( true );
-        request.setLocationTracking( true );
+        request.setLocationTracking( config.locationTracking );
 
         DefaultModelBuildingListener listener =
             new DefaultModelBuildingListener( project, projectBuildingHelper, config.request );
@@ -603,7 +640,7 @@ private void populateReactorModelPool( ReactorModelPool reactorModelPool, List<I
 
     private boolean build( List<ProjectBuildingResult> results, List<MavenProject> projects,
                            Map<String, MavenProject> projectIndex, List<InterimResult> interimResults,
-                           ProjectBuildingRequest request, Map<File, Boolean> profilesXmls )
+                           InternalConfig config, Map<File, Boolean> profilesXmls )
     {
         boolean noErrors = true;
 
@@ -614,11 +651,11 @@ private boolean build( List<ProjectBuildingResult> results, List<MavenProject> p
                 ModelBuildingResult result = modelBuilder.build( interimResult.request, interimResult.result );
 
                 MavenProject project = interimResult.listener.getProject();
-                initProject( project, projectIndex, result, profilesXmls, request );
+                initProject( project, projectIndex, result, profilesXmls, config );
 
                 List<MavenProject> modules = new ArrayList<MavenProject>();
                 noErrors =
-                    build( results, modules, projectIndex, interimResult.modules, request, profilesXmls ) && noErrors;
+                    build( results, modules, projectIndex, interimResult.modules, config, profilesXmls ) && noErrors;
 
                 projects.addAll( modules );
                 projects.add( project );
@@ -640,10 +677,17 @@ private boolean build( List<ProjectBuildingResult> results, List<MavenProject> p
     }
 
     private void initProject( MavenProject project, Map<String, MavenProject> projects, ModelBuildingResult result,
-                              Map<File, Boolean> profilesXmls, ProjectBuildingRequest projectBuildingRequest )
+                              Map<File, Boolean> profilesXmls, InternalConfig config )
     {
+        ProjectBuildingRequest projectBuildingRequest = config.request;
+
         Model model = result.getEffectiveModel();
 
+        if ( config.interner != null )
+        {
+            config.interner.intern( model );
+        }
+
         project.setModel( model );
         project.setOriginalModel( result.getRawModel() );
         project.setFile( model.getPomFile() );
@@ -904,7 +948,16 @@ private String findProfilesXml( ModelBuildingResult result, Map<File, Boolean> p
 
         public final ReactorModelPool modelPool;
 
+        public final boolean locationTracking;
+
+        public final ModelInterner interner;
+
         InternalConfig( ProjectBuildingRequest request, ReactorModelPool modelPool )
+        {
+            this( request, modelPool, isCompact( request ) );
+        }
+
+        InternalConfig( ProjectBuildingRequest request, ReactorModelPool modelPool, boolean compact )
         {
             this.request = request;
             this.modelPool = modelPool;
@@ -912,6 +965,8 @@ private String findProfilesXml( ModelBuildingResult result, Map<File, Boolean> p
                 LegacyLocalRepositoryManager.overlay( request.getLocalRepository(), request.getRepositorySession(),
                                                       repoSystem );
             repositories = RepositoryUtils.toRepos( request.getRemoteRepositories() );
+            locationTracking = !compact;
+            interner = compact ? ModelInterner.getInstance( request.getRepositorySession() ) : null;
         }
 
     }
@@ -19,11 +19,14 @@
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.apache.maven.DependencyGraphStore;
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Dependency;
@@ -31,6 +34,7 @@
 import org.apache.maven.model.Exclusion;
 import org.apache.maven.model.InputLocation;
 import org.apache.maven.model.InputSource;
+import org.apache.maven.repository.internal.DefaultVersionRangeResolver;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
@@ -44,11 +48,15 @@
 import org.eclipse.aether.artifact.ArtifactTypeRegistry;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.graph.DefaultDependencyNode;
 import org.eclipse.aether.graph.DependencyFilter;
 import org.eclipse.aether.graph.DependencyNode;
 import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.impl.VersionRangeResolver;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.VersionRangeRequest;
+import org.eclipse.aether.util.ConfigUtils;
 import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 import org.eclipse.aether.util.artifact.JavaScopes;
 import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
@@ -70,6 +78,40 @@
     @Requirement
     private List<RepositorySessionDecorator> decorators;
 
+    @Requirement
+    private VersionRangeResolver versionRangeResolver;
+
+    /**
+     * Enables resolving the version ranges of the direct dependencies in one batch before the graph collection.
+     */
+    static final String CONFIG_PROP_PREFETCH_RANGES = "maven.versionRange.prefetch";
+
+    /**
+     * The name of the configuration property that enables the persistent cache of collected project dependency graphs.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_GRAPH_CACHE = "maven.project.graphCache";
+
+    private static final String GRAPH_CACHE_NAME = "project-graphs";
+
+    /**
+     * The name of the configuration property that enables sharing the collected subgraphs of direct dependencies
+     * among the projects of the reactor.
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_SHARED_COLLECTION = "maven.project.sharedCollection";
+
+    /**
+     * The name of the configuration property that enables the concurrent resolution of the dependency artifacts. The
+     * total number of resolver threads and the maximum number of requests per repository can be configured via the
+     * properties of the same name suffixed with {@code .threads} (default 8) and {@code .connections} (default 4).
+     *
+     * @since 3.2.6
+     */
+    public static final String CONFIG_PROP_PARALLEL_RESOLUTION = "maven.artifact.parallelResolution";
+
     public DependencyResolutionResult resolve( DependencyResolutionRequest request )
         throws DependencyResolutionException
     {
@@ -165,54 +207,125 @@ public DependencyResolutionResult resolve( DependencyResolutionRequest request )
         DependencyRequest depRequest = new DependencyRequest( collect, filter );
         depRequest.setTrace( trace );
 
-        DependencyNode node;
-        try
+        DefaultVersionRangeResolver rangePrefetcher = getRangePrefetcher( session );
+
+        ParallelDependencyResolver parallelResolver = getParallelResolver( session, filter );
+        if ( parallelResolver != null )
         {
-            collect.setTrace( RequestTrace.newChild( trace, depRequest ) );
-            node = repoSystem.collectDependencies( session, collect ).getRoot();
-            result.setDependencyGraph( node );
+            session = parallelResolver.getSession();
         }
-        catch ( DependencyCollectionException e )
+
+        try
         {
-            result.setDependencyGraph( e.getResult().getRoot() );
-            result.setCollectionErrors( e.getResult().getExceptions() );
+            DependencyNode node;
+            try
+            {
+                collect.setTrace( RequestTrace.newChild( trace, depRequest ) );
+                if ( rangePrefetcher != null )
+                {
+                    prefetchVersionRanges( rangePrefetcher, session, collect );
+                }
 
-            throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
-                + project.getId() + ": " + e.getMessage(), e );
-        }
+                DependencyGraphStore graphStore = null;
+                String graphKey = null;
+                node = null;
 
-        depRequest.setRoot( node );
+                if ( isGraphCacheEnabled( session ) )
+                {
+                    graphStore = DependencyGraphStore.newInstance( session, GRAPH_CACHE_NAME );
+                    graphKey = DependencyGraphStore.getKey( session, collect );
+                    node = loadGraph( graphStore, graphKey, session, collect );
 
-        if ( logger.isWarnEnabled() )
-        {
-            for ( DependencyNode child : node.getChildren() )
+                    if ( node != null && logger.isDebugEnabled() )
+                    {
+                        logger.debug( "Using cached dependency graph " + graphKey + " for project " + project.getId() );
+                    }
+                }
+
+                if ( node == null )
+                {
+                    if ( ConfigUtils.getBoolean( session, false, CONFIG_PROP_SHARED_COLLECTION ) )
+                    {
+                        node = new SharedDependencyCollector( repoSystem ).collectDependencies( session, collect );
+                    }
+
+                    if ( node == null )
+                    {
+                        node = repoSystem.collectDependencies( session, collect ).getRoot();
+                    }
+
+                    if ( graphStore != null )
+                    {
+                        graphStore.store( graphKey, session, node );
+                    }
+                }
+
+                result.setDependencyGraph( node );
+            }
+            catch ( DependencyCollectionException e )
+            {
+                result.setDependencyGraph( e.getResult().getRoot() );
+                result.setCollectionErrors( e.getResult().getExceptions() );
+
+                throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
+                    + project.getId() + ": " + e.getMessage(), e );
+            }
+            finally
             {
-                if ( !child.getRelocations().isEmpty() )
+                if ( rangePrefetcher != null )
                 {
-                    logger.warn( "The artifact " + child.getRelocations().get( 0 ) + " has been relocated to "
-                        + child.getDependency().getArtifact() );
+                    rangePrefetcher.discardPrefetched( session );
                 }
             }
-        }
 
-        if ( logger.isDebugEnabled() )
-        {
-            node.accept( new GraphLogger( project ) );
-        }
+            depRequest.setRoot( node );
 
-        try
-        {
-            process( result, repoSystem.resolveDependencies( session, depRequest ).getArtifactResults() );
+            if ( logger.isWarnEnabled() )
+            {
+                for ( DependencyNode child : node.getChildren() )
+                {
+                    if ( !child.getRelocations().isEmpty() )
+                    {
+                        logger.warn( "The artifact " + child.getRelocations().get( 0 ) + " has been relocated to "
+                            + child.getDependency().getArtifact() );
+                    }
+                }
+            }
+
+            if ( logger.isDebugEnabled() )
+            {
+                node.accept( new GraphLogger( project ) );
+            }
+
+            try
+            {
+                if ( parallelResolver != null )
+                {
+                    process( result, parallelResolver.resolveDependencies( depRequest ).getArtifactResults() );
+                }
+                else
+                {
+                    process( result, repoSystem.resolveDependencies( session, depRequest ).getArtifactResults() );
+                }
+            }
+            catch ( org.eclipse.aether.resolution.DependencyResolutionException e )
+            {
+                process( result, e.getResult().getArtifactResults() );
+
+                throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
+                    + project.getId() + ": " + e.getMessage(), e );
+            }
+
+            return result;
         }
-        catch ( org.eclipse.aether.resolution.DependencyResolutionException e )
+        finally
         {
-            process( result, e.getResult().getArtifactResults() );
-
-            throw new DependencyResolutionException( result, "Could not resolve dependencies for project "
-                + project.getId() + ": " + e.getMessage(), e );
+            if ( parallelResolver != null )
+            {
+                parallelResolver.close();
+                logThroughput( parallelResolver, project );
+            }
         }
-
-        return result;
     }
 
     private void process( DefaultDependencyResolutionResult result, Collection<ArtifactResult> results )
@@ -231,6 +344,86 @@ private void process( DefaultDependencyResolutionResult result, Collection<Artif
         }
     }
 
+    private static boolean isGraphCacheEnabled( RepositorySystemSession session )
+    {
+        // the cached graph lacks the dependency management details logged by the verbose mode
+        return ConfigUtils.getBoolean( session, false, CONFIG_PROP_GRAPH_CACHE )
+            && !ConfigUtils.getBoolean( session, false, DependencyManagerUtils.CONFIG_PROP_VERBOSE );
+    }
+
+    private static DependencyNode loadGraph( DependencyGraphStore graphStore, String graphKey,
+                                             RepositorySystemSession session, CollectRequest collect )
+    {
+        DependencyNode cached = graphStore.load( graphKey, session, collect.getRepositories() );
+
+        if ( cached == null )
+        {
+            return null;
+        }
+
+        DefaultDependencyNode node = new DefaultDependencyNode( collect.getRootArtifact() );
+        node.setChildren( cached.getChildren() );
+        node.setRepositories( collect.getRepositories() );
+        node.setRequestContext( collect.getRequestContext() );
+        return node;
+    }
+
+    private ParallelDependencyResolver getParallelResolver( RepositorySystemSession session, DependencyFilter filter )
+    {
+        if ( ConfigUtils.getBoolean( session, false, CONFIG_PROP_PARALLEL_RESOLUTION ) )
+        {
+            int threads = ConfigUtils.getInteger( session, 8, CONFIG_PROP_PARALLEL_RESOLUTION + ".threads" );
+            int connections = ConfigUtils.getInteger( session, 4, CONFIG_PROP_PARALLEL_RESOLUTION + ".connections" );
+            return new ParallelDependencyResolver( repoSystem, session, Math.max( 1, threads ),
+                                                   Math.max( 1, connections ), filter );
+        }
+        return null;
+    }
+
+    private void logThroughput( ParallelDependencyResolver parallelResolver, MavenProject project )
+    {
+        int downloads = parallelResolver.getDownloads();
+        if ( downloads > 0 && logger.isInfoEnabled() )
+        {
+            long bytes = parallelResolver.getDownloadedBytes();
+            long millis = Math.max( 1, parallelResolver.getElapsedTime() );
+            String msg = "Downloaded %d artifacts (%.1f KB) for %s in %.1f s (%.1f KB/s)";
+            logger.info( String.format( Locale.ENGLISH, msg, downloads, bytes / 1024.0, project.getId(),
+                                        millis / 1000.0, bytes / 1024.0 * 1000.0 / millis ) );
+        }
+    }
+
+    private DefaultVersionRangeResolver getRangePrefetcher( RepositorySystemSession session )
+    {
+        if ( versionRangeResolver instanceof DefaultVersionRangeResolver
+            && ConfigUtils.getBoolean( session, false, CONFIG_PROP_PREFETCH_RANGES ) )
+        {
+            return (DefaultVersionRangeResolver) versionRangeResolver;
+        }
+        return null;
+    }
+
+    private void prefetchVersionRanges( DefaultVersionRangeResolver rangePrefetcher, RepositorySystemSession session,
+                                        CollectRequest collect )
+    {
+        List<VersionRangeRequest> requests = new ArrayList<VersionRangeRequest>();
+
+        for ( org.eclipse.aether.graph.Dependency dependency : collect.getDependencies() )
+        {
+            String version = dependency.getArtifact().getVersion();
+            if ( version.startsWith( "[" ) || version.startsWith( "(" ) )
+            {
+                VersionRangeRequest request =
+                    new VersionRangeRequest( dependency.getArtifact(), collect.getRepositories(),
+                                             collect.getRequestContext() );
+                request.setTrace( collect.getTrace() );
+                requests.add( request );
+            }
+        }
+
+        rangePrefetcher.prefetchVersionRanges( session, requests );
+    }
+
     class GraphLogger
         implements DependencyVisitor
     {
@@ -31,6 +31,7 @@
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.artifact.Artifact;
@@ -97,6 +98,12 @@
 
     private Model model;
 
+    /**
+     * The model of the project this project was cloned from, shared until the model of this project is accessed for the
+     * first time (copy-on-write).
+     */
+    private volatile Model sharedModel;
+
     private MavenProject parent;
 
     private File file;
@@ -174,7 +181,7 @@
 
     private DependencyFilter extensionDependencyFilter;
 
-    private final Set<String> lifecyclePhases = Collections.synchronizedSet( new LinkedHashSet<String>() );
+    private final Set<String> lifecyclePhases = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
 
     public MavenProject()
     {
@@ -224,9 +231,29 @@ public void setArtifact( Artifact artifact )
     // @todo I would like to get rid of this. jvz.
     public Model getModel()
     {
+        if ( sharedModel != null )
+        {
+            synchronized ( this )
+            {
+                if ( sharedModel != null )
+                {
+                    model = sharedModel.clone();
+                    sharedModel = null;
+                }
+            }
+        }
         return model;
     }
 
+    /**
+     * Gets the model for reading immutable values only, without copying a shared model.
+     */
+    private Model readModel()
+    {
+        Model shared = sharedModel;
+        return ( shared != null ) ? shared : model;
+    }
+
     /**
      * Returns the project corresponding to a declared parent.
      *
@@ -428,12 +455,12 @@ public void setModelVersion( String pomVersion )
 
     public String getModelVersion()
     {
-        return getModel().getModelVersion();
+        return readModel().getModelVersion();
     }
 
     public String getId()
     {
-        return getModel().getId();
+        return readModel().getId();
     }
 
     public void setGroupId( String groupId )
@@ -443,11 +470,13 @@ public void setGroupId( String groupId )
 
     public String getGroupId()
     {
-        String groupId = getModel().getGroupId();
+        Model model = readModel();
 
-        if ( ( groupId == null ) && ( getModel().getParent() != null ) )
+        String groupId = model.getGroupId();
+
+        if ( ( groupId == null ) && ( model.getParent() != null ) )
         {
-            groupId = getModel().getParent().getGroupId();
+            groupId = model.getParent().getGroupId();
         }
 
         return groupId;
@@ -460,7 +489,7 @@ public void setArtifactId( String artifactId )
 
     public String getArtifactId()
     {
-        return getModel().getArtifactId();
+        return readModel().getArtifactId();
     }
 
     public void setName( String name )
@@ -488,11 +517,13 @@ public void setVersion( String version )
 
     public String getVersion()
     {
-        String version = getModel().getVersion();
+        Model model = readModel();
+
+        String version = model.getVersion();
 
-        if ( ( version == null ) && ( getModel().getParent() != null ) )
+        if ( ( version == null ) && ( model.getParent() != null ) )
         {
-            version = getModel().getParent().getVersion();
+            version = model.getParent().getVersion();
         }
 
         return version;
@@ -500,7 +531,7 @@ public String getVersion()
 
     public String getPackaging()
     {
-        return getModel().getPackaging();
+        return readModel().getPackaging();
     }
 
     public void setPackaging( String packaging )
@@ -515,7 +546,7 @@ public void setInceptionYear( String inceptionYear )
 
     public String getInceptionYear()
     {
-        return getModel().getInceptionYear();
+        return readModel().getInceptionYear();
     }
 
     public void setUrl( String url )
@@ -525,7 +556,7 @@ public void setUrl( String url )
 
     public String getUrl()
     {
-        return getModel().getUrl();
+        return readModel().getUrl();
     }
 
     public Prerequisites getPrerequisites()
@@ -570,7 +601,7 @@ public void setDescription( String description )
 
     public String getDescription()
     {
-        return getModel().getDescription();
+        return readModel().getDescription();
     }
 
     public void setOrganization( Organization organization )
@@ -1174,6 +1205,7 @@ public MavenProject clone()
     protected void setModel( Model model )
     {
         this.model = model;
+        this.sharedModel = null;
     }
 
     protected void setAttachedArtifacts( List<Artifact> attachedArtifacts )
@@ -1279,9 +1311,12 @@ private void deepCopy( MavenProject project )
             setScriptSourceRoots( ( new ArrayList<String>( project.getScriptSourceRoots() ) ) );
         }
 
-        if ( project.getModel() != null )
+        // the model is only copied once this project accesses it, forks often leave it alone
+        Model model = project.readModel();
+        if ( model != null )
         {
-            setModel( project.getModel().clone() );
+            this.model = null;
+            this.sharedModel = model;
         }
 
         if ( project.getOriginalModel() != null )
@@ -0,0 +1,201 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.ConfigurationContainer;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.ReportPlugin;
+import org.apache.maven.model.ReportSet;
+import org.apache.maven.model.Reporting;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.RepositoryPolicy;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.RepositorySystemSession;
+
+/**
+ * Shares structurally identical parts of the effective models of the projects built during a session. Large reactors
+ * usually inherit the same plugin configurations, managed dependencies and repositories from a few parents, yet each
+ * project holds its own copies of them. The interned objects are shared among projects, so they must not be modified.
+ */
+class ModelInterner
+{
+
+    private static final String KEY = ModelInterner.class.getName();
+
+    private final ConcurrentMap<Xpp3Dom, Xpp3Dom> configurations = new ConcurrentHashMap<Xpp3Dom, Xpp3Dom>();
+
+    private final ConcurrentMap<String, Dependency> dependencies = new ConcurrentHashMap<String, Dependency>();
+
+    private final ConcurrentMap<String, Repository> repositories = new ConcurrentHashMap<String, Repository>();
+
+    /**
+     * Gets the interner of the specified session.
+     *
+     * @param session The repository session to get the interner for, may be {@code null}.
+     * @return The interner, never {@code null}.
+     */
+    static ModelInterner getInstance( RepositorySystemSession session )
+    {
+        if ( session == null )
+        {
+            return new ModelInterner();
+        }
+
+        Object interner = session.getData().get( KEY );
+        if ( !( interner instanceof ModelInterner ) )
+        {
+            interner = new ModelInterner();
+            if ( !session.getData().set( KEY, null, interner ) )
+            {
+                interner = session.getData().get( KEY );
+            }
+        }
+        return (ModelInterner) interner;
+    }
+
+    /**
+     * Replaces the parts of the specified model with their shared instances.
+     *
+     * @param model The effective model to intern, must not be {@code null}.
+     */
+    public void intern( Model model )
+    {
+        Build build = model.getBuild();
+        if ( build != null )
+        {
+            internPlugins( build.getPlugins() );
+
+            PluginManagement pluginManagement = build.getPluginManagement();
+            if ( pluginManagement != null )
+            {
+                internPlugins( pluginManagement.getPlugins() );
+            }
+        }
+
+        Reporting reporting = model.getReporting();
+        if ( reporting != null )
+        {
+            for ( ReportPlugin plugin : reporting.getPlugins() )
+            {
+                internConfiguration( plugin );
+                for ( ReportSet reportSet : plugin.getReportSets() )
+                {
+                    internConfiguration( reportSet );
+                }
+            }
+        }
+
+        DependencyManagement dependencyManagement = model.getDependencyManagement();
+        if ( dependencyManagement != null )
+        {
+            for ( ListIterator<Dependency> it = dependencyManagement.getDependencies().listIterator(); it.hasNext(); )
+            {
+                Dependency dependency = it.next();
+                it.set( intern( dependencies, getKey( dependency ), dependency ) );
+            }
+        }
+
+        internRepositories( model.getRepositories() );
+        internRepositories( model.getPluginRepositories() );
+    }
+
+    private void internPlugins( List<Plugin> plugins )
+    {
+        for ( Plugin plugin : plugins )
+        {
+            internConfiguration( plugin );
+            for ( PluginExecution execution : plugin.getExecutions() )
+            {
+                internConfiguration( execution );
+            }
+        }
+    }
+
+    private void internConfiguration( ConfigurationContainer container )
+    {
+        if ( container.getConfiguration() instanceof Xpp3Dom )
+        {
+            Xpp3Dom configuration = (Xpp3Dom) container.getConfiguration();
+            container.setConfiguration( intern( configurations, configuration, configuration ) );
+        }
+    }
+
+    private void internRepositories( List<Repository> repos )
+    {
+        for ( ListIterator<Repository> it = repos.listIterator(); it.hasNext(); )
+        {
+            Repository repository = it.next();
+            it.set( intern( repositories, getKey( repository ), repository ) );
+        }
+    }
+
+    private static <K, V> V intern( ConcurrentMap<K, V> instances, K key, V value )
+    {
+        V instance = instances.putIfAbsent( key, value );
+        return ( instance != null ) ? instance : value;
+    }
+
+    static String getKey( Dependency dependency )
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        buffer.append( dependency.getGroupId() ).append( ':' ).append( dependency.getArtifactId() );
+        buffer.append( ':' ).append( dependency.getVersion() ).append( ':' ).append( dependency.getType() );
+        buffer.append( ':' ).append( dependency.getClassifier() ).append( ':' ).append( dependency.getScope() );
+        buffer.append( ':' ).append( dependency.getOptional() ).append( ':' ).append( dependency.getSystemPath() );
+        for ( Exclusion exclusion : dependency.getExclusions() )
+        {
+            buffer.append( '/' ).append( exclusion.getGroupId() ).append( ':' ).append( exclusion.getArtifactId() );
+        }
+        return buffer.toString();
+    }
+
+    static String getKey( Repository repository )
+    {
+        StringBuilder buffer = new StringBuilder( 128 );
+        buffer.append( repository.getId() ).append( ':' ).append( repository.getName() );
+        buffer.append( ':' ).append( repository.getUrl() ).append( ':' ).append( repository.getLayout() );
+        appendKey( buffer, repository.getReleases() );
+        appendKey( buffer, repository.getSnapshots() );
+        return buffer.toString();
+    }
+
+    private static void appendKey( StringBuilder buffer, RepositoryPolicy policy )
+    {
+        buffer.append( '/' );
+        if ( policy != null )
+        {
+            buffer.append( policy.getEnabled() ).append( ':' ).append( policy.getUpdatePolicy() );
+            buffer.append( ':' ).append( policy.getChecksumPolicy() );
+        }
+    }
+
+}
@@ -0,0 +1,536 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.DependencyVisitor;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.resolution.DependencyResult;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.eclipse.aether.util.graph.visitor.FilteringDependencyVisitor;
+import org.eclipse.aether.util.graph.visitor.TreeDependencyVisitor;
+import org.eclipse.aether.util.listener.ChainedRepositoryListener;
+
+/**
+ * Resolves the artifacts of a dependency graph concurrently. Each artifact is resolved by its own request, the number
+ * of requests in flight per repository is limited to protect the remote servers. While the graph is still being
+ * collected, the artifact of each dependency whose descriptor was read is already fetched in the background, i.e. the
+ * downloads overlap with the graph walk. Dependencies that the resolution filter will reject given the scope derived
+ * from their path are not prefetched. This may still fetch a few artifacts that the conflict resolution drops or whose
+ * scope it changes later on.
+ */
+class ParallelDependencyResolver
+    extends AbstractRepositoryListener
+{
+
+    private final RepositorySystem repoSystem;
+
+    private final DefaultRepositorySystemSession session;
+
+    private final ExecutorService executor;
+
+    private final int connections;
+
+    private final DependencyFilter filter;
+
+    private final ConcurrentMap<String, Set<String>> scopes = new ConcurrentHashMap<String, Set<String>>();
+
+    private final ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<String, Semaphore>();
+
+    private final ConcurrentMap<String, Future<?>> prefetches = new ConcurrentHashMap<String, Future<?>>();
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private final AtomicLong downloadedBytes = new AtomicLong();
+
+    private final long start = System.currentTimeMillis();
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param repoSystem The repository system to resolve the individual artifacts with, must not be {@code null}.
+     * @param session The repository session, must not be {@code null}.
+     * @param threads The total number of resolver threads, must be positive.
+     * @param connections The maximum number of requests in flight per repository, must be positive.
+     * @param filter The filter that the final resolution will apply to the graph, may be {@code null} to accept all
+     *            dependencies. Used to skip prefetching dependencies of unwanted scopes.
+     */
+    ParallelDependencyResolver( RepositorySystem repoSystem, RepositorySystemSession session, int threads,
+                                int connections, DependencyFilter filter )
+    {
+        this.repoSystem = repoSystem;
+        this.session = new DefaultRepositorySystemSession( session );
+        this.session.setRepositoryListener( ChainedRepositoryListener.newInstance( session.getRepositoryListener(),
+                                                                                   this ) );
+        if ( filter != null && session.getDependencySelector() != null )
+        {
+            this.session.setDependencySelector( new ScopeTracker( session.getDependencySelector(), null ) );
+        }
+        this.executor = Executors.newFixedThreadPool( threads, new ResolverThreadFactory() );
+        this.connections = connections;
+        this.filter = filter;
+    }
+
+    /**
+     * Gets the session to use for the collection and resolution, it reports artifact descriptors and downloads back to
+     * this resolver.
+     *
+     * @return The repository session, never {@code null}.
+     */
+    public RepositorySystemSession getSession()
+    {
+        return session;
+    }
+
+    public int getDownloads()
+    {
+        return downloads.get();
+    }
+
+    public long getDownloadedBytes()
+    {
+        return downloadedBytes.get();
+    }
+
+    public long getElapsedTime()
+    {
+        return System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Resolves the artifacts of the dependency graph given by the specified request. Like
+     * {@link RepositorySystem#resolveDependencies(RepositorySystemSession, DependencyRequest)}, the nodes of the graph
+     * are updated with the resolved artifacts.
+     *
+     * @param request The dependency request with the root of the collected graph, must not be {@code null}.
+     * @return The resolution result, never {@code null}.
+     * @throws DependencyResolutionException If any artifact could not be resolved.
+     */
+    public DependencyResult resolveDependencies( DependencyRequest request )
+        throws DependencyResolutionException
+    {
+        RequestTrace trace = RequestTrace.newChild( request.getTrace(), request );
+
+        List<ArtifactRequest> requests = getArtifactRequests( request.getRoot(), request.getFilter(), trace );
+
+        List<Future<ArtifactResult>> futures = new ArrayList<Future<ArtifactResult>>( requests.size() );
+        for ( final ArtifactRequest artifactRequest : requests )
+        {
+            futures.add( executor.submit( new Callable<ArtifactResult>()
+            {
+                public ArtifactResult call()
+                {
+                    awaitPrefetch( artifactRequest.getArtifact() );
+                    return resolve( artifactRequest );
+                }
+            } ) );
+        }
+
+        List<ArtifactResult> results = new ArrayList<ArtifactResult>( futures.size() );
+        boolean failures = false;
+        for ( Future<ArtifactResult> future : futures )
+        {
+            ArtifactResult result = get( future );
+            results.add( result );
+
+            DependencyNode node = result.getRequest().getDependencyNode();
+            if ( result.isResolved() )
+            {
+                node.setArtifact( result.getArtifact() );
+            }
+            else
+            {
+                failures = true;
+            }
+        }
+
+        DependencyResult result = new DependencyResult( request );
+        result.setRoot( request.getRoot() );
+        result.setArtifactResults( results );
+
+        if ( failures )
+        {
+            throw new DependencyResolutionException( result, new ArtifactResolutionException( results ) );
+        }
+
+        return result;
+    }
+
+    /**
+     * Stops the background threads. Any pending prefetches are cancelled.
+     */
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+
+    static List<ArtifactRequest> getArtifactRequests( DependencyNode root, DependencyFilter filter,
+                                                      final RequestTrace trace )
+    {
+        final List<ArtifactRequest> requests = new ArrayList<ArtifactRequest>();
+
+        DependencyVisitor visitor = new DependencyVisitor()
+        {
+            public boolean visitEnter( DependencyNode node )
+            {
+                if ( node.getDependency() != null )
+                {
+                    ArtifactRequest request = new ArtifactRequest( node );
+                    request.setTrace( trace );
+                    requests.add( request );
+                }
+                return true;
+            }
+
+            public boolean visitLeave( DependencyNode node )
+            {
+                return true;
+            }
+        };
+        if ( filter != null )
+        {
+            visitor = new FilteringDependencyVisitor( visitor, filter );
+        }
+        root.accept( new TreeDependencyVisitor( visitor ) );
+
+        return requests;
+    }
+
+    private ArtifactResult resolve( ArtifactRequest request )
+    {
+        Semaphore semaphore = getPermits( request.getRepositories() );
+        semaphore.acquireUninterruptibly();
+        try
+        {
+            return repoSystem.resolveArtifact( session, request );
+        }
+        catch ( ArtifactResolutionException e )
+        {
+            return e.getResult();
+        }
+        finally
+        {
+            semaphore.release();
+        }
+    }
+
+    private Semaphore getPermits( List<RemoteRepository> repositories )
+    {
+        // the first repository is the one serving the bulk of the requests, especially with a mirror in place
+        String key = repositories.isEmpty() ? "" : repositories.get( 0 ).getId();
+
+        Semaphore semaphore = permits.get( key );
+        if ( semaphore == null )
+        {
+            semaphore = new Semaphore( connections );
+            Semaphore existing = permits.putIfAbsent( key, semaphore );
+            if ( existing != null )
+            {
+                semaphore = existing;
+            }
+        }
+        return semaphore;
+    }
+
+    private void awaitPrefetch( Artifact artifact )
+    {
+        Future<?> prefetch = prefetches.get( ArtifactIdUtils.toId( artifact ) );
+        if ( prefetch != null )
+        {
+            try
+            {
+                prefetch.get();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch ( ExecutionException e )
+            {
+                // the regular resolution reports the problem
+            }
+            catch ( CancellationException e )
+            {
+                // the regular resolution fetches the artifact
+            }
+        }
+    }
+
+    private static ArtifactResult get( Future<ArtifactResult> future )
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Artifact resolution was interrupted", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException( cause );
+        }
+    }
+
+    @Override
+    public void artifactResolved( RepositoryEvent event )
+    {
+        // the POM of a dependency was read during collection, fetch the actual artifact right away
+        for ( RequestTrace trace = event.getTrace(); trace != null; trace = trace.getParent() )
+        {
+            if ( trace.getData() instanceof ArtifactDescriptorRequest )
+            {
+                prefetch( (ArtifactDescriptorRequest) trace.getData() );
+                break;
+            }
+        }
+    }
+
+    private void prefetch( ArtifactDescriptorRequest descriptorRequest )
+    {
+        Artifact artifact = descriptorRequest.getArtifact();
+        if ( "pom".equals( artifact.getExtension() )
+            || artifact.getProperty( ArtifactProperties.LOCAL_PATH, null ) != null || !isAccepted( artifact ) )
+        {
+            return;
+        }
+
+        final ArtifactRequest request =
+            new ArtifactRequest( artifact, descriptorRequest.getRepositories(), descriptorRequest.getRequestContext() );
+        request.setTrace( descriptorRequest.getTrace() );
+
+        String key = ArtifactIdUtils.toId( artifact );
+        if ( prefetches.containsKey( key ) || executor.isShutdown() )
+        {
+            return;
+        }
+
+        Future<?> future = executor.submit( new Runnable()
+        {
+            public void run()
+            {
+                resolve( request );
+            }
+        } );
+        if ( prefetches.putIfAbsent( key, future ) != null )
+        {
+            future.cancel( false );
+        }
+    }
+
+    private boolean isAccepted( Artifact artifact )
+    {
+        if ( filter == null )
+        {
+            return true;
+        }
+
+        Set<String> derivedScopes = scopes.get( ArtifactIdUtils.toVersionlessId( artifact ) );
+        if ( derivedScopes == null )
+        {
+            // not seen by the selector, e.g. if the graph is collected without it
+            return true;
+        }
+
+        List<DependencyNode> parents = Collections.emptyList();
+        for ( String scope : derivedScopes )
+        {
+            if ( filter.accept( new DefaultDependencyNode( new Dependency( artifact, scope ) ), parents ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the scope a dependency gets in the graph from the scope of its path, like the conflict resolution does.
+     */
+    static String deriveScope( String parentScope, String scope )
+    {
+        if ( JavaScopes.SYSTEM.equals( scope ) || JavaScopes.TEST.equals( scope ) || parentScope == null
+            || parentScope.length() <= 0 || JavaScopes.COMPILE.equals( parentScope ) )
+        {
+            return scope;
+        }
+        if ( JavaScopes.TEST.equals( parentScope ) || JavaScopes.RUNTIME.equals( parentScope ) )
+        {
+            return parentScope;
+        }
+        if ( JavaScopes.SYSTEM.equals( parentScope ) || JavaScopes.PROVIDED.equals( parentScope ) )
+        {
+            return JavaScopes.PROVIDED;
+        }
+        return JavaScopes.RUNTIME;
+    }
+
+    /**
+     * Records the scopes the selected dependencies get from their path in the graph. The collector selects a
+     * dependency before it reads its descriptor, so the scopes are known when the prefetch for the artifact starts.
+     * Dependency management may still change the scope afterwards, the prefetch is just a best effort.
+     */
+    class ScopeTracker
+        implements DependencySelector
+    {
+
+        private final DependencySelector delegate;
+
+        private final String parentScope;
+
+        ScopeTracker( DependencySelector delegate, String parentScope )
+        {
+            this.delegate = delegate;
+            this.parentScope = parentScope;
+        }
+
+        public boolean selectDependency( Dependency dependency )
+        {
+            if ( !delegate.selectDependency( dependency ) )
+            {
+                return false;
+            }
+
+            String key = ArtifactIdUtils.toVersionlessId( dependency.getArtifact() );
+            Set<String> derivedScopes = scopes.get( key );
+            if ( derivedScopes == null )
+            {
+                derivedScopes = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+                Set<String> existing = scopes.putIfAbsent( key, derivedScopes );
+                if ( existing != null )
+                {
+                    derivedScopes = existing;
+                }
+            }
+            derivedScopes.add( deriveScope( parentScope, dependency.getScope() ) );
+
+            return true;
+        }
+
+        public DependencySelector deriveChildSelector( DependencyCollectionContext context )
+        {
+            DependencySelector child = delegate.deriveChildSelector( context );
+            if ( child == null )
+            {
+                return null;
+            }
+
+            Dependency dependency = context.getDependency();
+            String scope = ( dependency != null ) ? deriveScope( parentScope, dependency.getScope() ) : null;
+
+            return new ScopeTracker( child, scope );
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof ScopeTracker ) )
+            {
+                return false;
+            }
+            ScopeTracker that = (ScopeTracker) obj;
+            return delegate.equals( that.delegate )
+                && ( parentScope == null ? that.parentScope == null : parentScope.equals( that.parentScope ) );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return delegate.hashCode() * 31 + ( ( parentScope != null ) ? parentScope.hashCode() : 0 );
+        }
+
+    }
+
+    static class ResolverThreadFactory
+        implements ThreadFactory
+    {
+
+        private final AtomicInteger id = new AtomicInteger();
+
+        public Thread newThread( Runnable r )
+        {
+            Thread thread = new Thread( r, "dependency-resolver-" + id.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
+    @Override
+    public void artifactDownloaded( RepositoryEvent event )
+    {
+        if ( event.getException() == null && event.getFile() != null )
+        {
+            downloads.incrementAndGet();
+            downloadedBytes.addAndGet( event.getFile().length() );
+        }
+    }
+
+}
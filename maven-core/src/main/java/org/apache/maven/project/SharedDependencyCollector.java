@@ -0,0 +1,298 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.DependencyGraphStore;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.collection.DependencyGraphTransformationContext;
+import org.eclipse.aether.collection.DependencyGraphTransformer;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+
+/**
+ * Collects the dependency graph of a project from subgraphs that are shared among the projects of the reactor. The
+ * untransformed subgraph below a direct dependency only depends on the dependency itself and the collection context
+ * (managed dependencies, repositories, collection strategy), so projects declaring the same dependencies under the
+ * same dependency management can reuse the subgraphs collected for another project. Only the dependencies not yet
+ * collected in the session are sent to the collector, the conflict resolution is then run on a private copy of the
+ * assembled graph.
+ */
+class SharedDependencyCollector
+{
+
+    private static final Object KEY = SharedDependencyCollector.class.getName() + ".subgraphs";
+
+    private final RepositorySystem repoSystem;
+
+    SharedDependencyCollector( RepositorySystem repoSystem )
+    {
+        this.repoSystem = repoSystem;
+    }
+
+    /**
+     * Collects the dependency graph for the specified request.
+     *
+     * @param session The repository session, must not be {@code null}.
+     * @param collect The collection request, must not be {@code null}.
+     * @return The transformed dependency graph or {@code null} if the graph could not be assembled from subgraphs and
+     *         needs to be collected as a whole, e.g. to properly report collection errors.
+     */
+    public DependencyNode collectDependencies( RepositorySystemSession session, CollectRequest collect )
+    {
+        ConcurrentMap<String, DependencyNode> subgraphs = getSubgraphs( session );
+
+        String rootId = ArtifactIdUtils.toVersionlessId( collect.getRootArtifact() );
+
+        String context =
+            DependencyGraphStore.appendContext( new StringBuilder( 4096 ), session, collect ).toString();
+
+        List<Dependency> dependencies = collect.getDependencies();
+        String[] keys = new String[dependencies.size()];
+        DependencyNode[] nodes = new DependencyNode[dependencies.size()];
+        List<Integer> missing = new ArrayList<Integer>();
+
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            StringBuilder buffer = new StringBuilder( context );
+            keys[i] = DependencyGraphStore.hash( DependencyGraphStore.appendKey( buffer, dependencies.get( i ) ) );
+            nodes[i] = subgraphs.get( keys[i] );
+            if ( nodes[i] == null )
+            {
+                missing.add( i );
+            }
+        }
+
+        if ( !missing.isEmpty() )
+        {
+            List<Dependency> request = new ArrayList<Dependency>( missing.size() );
+            for ( Integer index : missing )
+            {
+                request.add( dependencies.get( index ) );
+            }
+
+            DependencyNode root = collectUntransformed( session, collect, request );
+            if ( root == null || root.getChildren().size() != missing.size() )
+            {
+                // failed or some dependency didn't map to exactly one node (e.g. a version range)
+                return null;
+            }
+
+            for ( int i = 0; i < missing.size(); i++ )
+            {
+                int index = missing.get( i );
+                nodes[index] = root.getChildren().get( i );
+                if ( !new GraphCopier( rootId ).contains( nodes[index] ) )
+                {
+                    subgraphs.putIfAbsent( keys[index], nodes[index] );
+                }
+            }
+        }
+
+        DefaultDependencyNode node = new DefaultDependencyNode( collect.getRootArtifact() );
+        node.setRepositories( collect.getRepositories() );
+        node.setRequestContext( collect.getRequestContext() );
+
+        // the transformation modifies the graph, so it must not see the shared subgraphs
+        GraphCopier copier = new GraphCopier( rootId );
+        List<DependencyNode> children = new ArrayList<DependencyNode>( nodes.length );
+        for ( DependencyNode child : nodes )
+        {
+            children.add( copier.copy( child ) );
+        }
+        if ( copier.found )
+        {
+            // the subgraph was collected for another project and misses the cycle back to this project
+            return null;
+        }
+        node.setChildren( children );
+
+        DependencyGraphTransformer transformer = session.getDependencyGraphTransformer();
+        if ( transformer == null )
+        {
+            return node;
+        }
+
+        try
+        {
+            return transformer.transformGraph( node, new TransformationContext( session ) );
+        }
+        catch ( RepositoryException e )
+        {
+            return null;
+        }
+    }
+
+    private DependencyNode collectUntransformed( RepositorySystemSession session, CollectRequest collect,
+                                                 List<Dependency> dependencies )
+    {
+        CollectRequest request =
+            new CollectRequest( dependencies, collect.getManagedDependencies(), collect.getRepositories() );
+        request.setRootArtifact( collect.getRootArtifact() );
+        request.setRequestContext( collect.getRequestContext() );
+        request.setTrace( collect.getTrace() );
+
+        DefaultRepositorySystemSession untransformed = new DefaultRepositorySystemSession( session );
+        untransformed.setDependencyGraphTransformer( null );
+
+        try
+        {
+            return repoSystem.collectDependencies( untransformed, request ).getRoot();
+        }
+        catch ( DependencyCollectionException e )
+        {
+            return null;
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static ConcurrentMap<String, DependencyNode> getSubgraphs( RepositorySystemSession session )
+    {
+        SessionData data = session.getData();
+
+        ConcurrentMap<String, DependencyNode> subgraphs = (ConcurrentMap<String, DependencyNode>) data.get( KEY );
+
+        if ( subgraphs == null )
+        {
+            data.set( KEY, null, new ConcurrentHashMap<String, DependencyNode>() );
+            subgraphs = (ConcurrentMap<String, DependencyNode>) data.get( KEY );
+        }
+
+        return subgraphs;
+    }
+
+    /**
+     * Deep copies a possibly cyclic graph, preserving nodes and child lists shared among several parents, and looks
+     * out for the artifact of the project.
+     */
+    static class GraphCopier
+    {
+
+        private final String rootId;
+
+        private final Map<DependencyNode, DependencyNode> nodes = new IdentityHashMap<DependencyNode, DependencyNode>();
+
+        private final Map<List<DependencyNode>, List<DependencyNode>> lists =
+            new IdentityHashMap<List<DependencyNode>, List<DependencyNode>>();
+
+        boolean found;
+
+        GraphCopier( String rootId )
+        {
+            this.rootId = rootId;
+        }
+
+        boolean contains( DependencyNode node )
+        {
+            copy( node );
+            return found;
+        }
+
+        DependencyNode copy( DependencyNode node )
+        {
+            DependencyNode copy = nodes.get( node );
+
+            if ( copy == null )
+            {
+                Artifact artifact = node.getArtifact();
+                if ( artifact != null && rootId.equals( ArtifactIdUtils.toVersionlessId( artifact ) ) )
+                {
+                    found = true;
+                }
+
+                DefaultDependencyNode clone = new DefaultDependencyNode( node );
+                if ( !node.getData().isEmpty() )
+                {
+                    clone.setData( new HashMap<Object, Object>( node.getData() ) );
+                }
+                nodes.put( node, clone );
+                clone.setChildren( copy( node.getChildren() ) );
+                copy = clone;
+            }
+
+            return copy;
+        }
+
+        private List<DependencyNode> copy( List<DependencyNode> children )
+        {
+            List<DependencyNode> copy = lists.get( children );
+
+            if ( copy == null )
+            {
+                copy = new ArrayList<DependencyNode>( children.size() );
+                lists.put( children, copy );
+                for ( DependencyNode child : children )
+                {
+                    copy.add( copy( child ) );
+                }
+            }
+
+            return copy;
+        }
+
+    }
+
+    static class TransformationContext
+        implements DependencyGraphTransformationContext
+    {
+
+        private final RepositorySystemSession session;
+
+        private final Map<Object, Object> map = new HashMap<Object, Object>();
+
+        TransformationContext( RepositorySystemSession session )
+        {
+            this.session = session;
+        }
+
+        public RepositorySystemSession getSession()
+        {
+            return session;
+        }
+
+        public Object get( Object key )
+        {
+            return map.get( key );
+        }
+
+        public Object put( Object key, Object value )
+        {
+            return map.put( key, value );
+        }
+
+    }
+
+}
@@ -0,0 +1,293 @@
+package org.apache.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
+import org.eclipse.aether.util.graph.manager.ClassicDependencyManager;
+import org.eclipse.aether.util.graph.selector.AndDependencySelector;
+import org.eclipse.aether.util.graph.selector.OptionalDependencySelector;
+import org.eclipse.aether.util.graph.selector.ScopeDependencySelector;
+import org.eclipse.aether.util.graph.traverser.FatArtifactTraverser;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+
+public class DependencyGraphStoreTest
+    extends TestCase
+{
+
+    private File directory;
+
+    private RemoteRepository central;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        directory = new File( "target/dependency-graph-store" );
+        FileUtils.deleteDirectory( directory );
+        central = new RemoteRepository.Builder( "central", "default", "http://repo.maven.apache.org/maven2" ).build();
+    }
+
+    private DefaultDependencyNode newNode( String coords, String scope )
+    {
+        DefaultDependencyNode node = new DefaultDependencyNode( new Dependency( new DefaultArtifact( coords ), scope ) );
+        node.setChildren( new ArrayList<DependencyNode>() );
+        node.setRepositories( Collections.singletonList( central ) );
+        node.setRequestContext( "plugin" );
+        return node;
+    }
+
+    public void testRoundTrip()
+    {
+        DefaultDependencyNode root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        DefaultDependencyNode archiver = newNode( "org.apache.maven:maven-archiver:2.5", "compile" );
+        archiver.getChildren().add( newNode( "org.codehaus.plexus:plexus-archiver:jar:2.1", "runtime" ) );
+        root.getChildren().add( archiver );
+        root.getChildren().add( newNode( "org.codehaus.plexus:plexus-utils:3.0", "compile" ) );
+
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertTrue( store.store( "abc", root ) );
+
+        DependencyNode loaded = store.load( "abc", Arrays.asList( central ) );
+        assertNotNull( loaded );
+        assertEquals( root.getArtifact(), loaded.getArtifact() );
+        assertEquals( 2, loaded.getChildren().size() );
+        assertEquals( archiver.getDependency(), loaded.getChildren().get( 0 ).getDependency() );
+        assertEquals( "plugin", loaded.getChildren().get( 0 ).getRequestContext() );
+        assertSame( central, loaded.getChildren().get( 0 ).getRepositories().get( 0 ) );
+        assertEquals( "runtime", loaded.getChildren().get( 0 ).getChildren().get( 0 ).getDependency().getScope() );
+        assertEquals( "plexus-utils", loaded.getChildren().get( 1 ).getArtifact().getArtifactId() );
+    }
+
+    public void testSnapshotGraphsAreNotStored()
+    {
+        DefaultDependencyNode root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        root.getChildren().add( newNode( "org.apache.maven:maven-archiver:2.5-SNAPSHOT", "compile" ) );
+
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertFalse( store.store( "abc", root ) );
+        assertNull( store.load( "abc", Arrays.asList( central ) ) );
+    }
+
+    public void testUnknownRepositoryIsCacheMiss()
+    {
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertTrue( store.store( "abc", newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" ) ) );
+
+        List<RemoteRepository> none = Collections.emptyList();
+        assertNull( store.load( "abc", none ) );
+    }
+
+    public void testRoundTripOfProjectGraph()
+    {
+        DefaultDependencyNode root = new DefaultDependencyNode( new DefaultArtifact( "org.test:project:1.0" ) );
+        root.setChildren( new ArrayList<DependencyNode>() );
+        root.getChildren().add( newNode( "org.codehaus.plexus:plexus-utils:3.0", "compile" ) );
+
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertTrue( store.store( "abc", root ) );
+
+        DependencyNode loaded = store.load( "abc", Arrays.asList( central ) );
+        assertNotNull( loaded );
+        assertEquals( root.getArtifact(), loaded.getArtifact() );
+        assertEquals( "", loaded.getDependency().getScope() );
+        assertEquals( "plexus-utils", loaded.getChildren().get( 0 ).getArtifact().getArtifactId() );
+    }
+
+    public void testVersionConstraintsAndManagedBitsAreRestored()
+        throws Exception
+    {
+        GenericVersionScheme versionScheme = new GenericVersionScheme();
+
+        DefaultDependencyNode root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        DefaultDependencyNode utils = newNode( "org.codehaus.plexus:plexus-utils:3.0", "compile" );
+        utils.setVersionConstraint( versionScheme.parseVersionConstraint( "3.0" ) );
+        utils.setVersion( versionScheme.parseVersion( "3.0" ) );
+        utils.setManagedBits( DependencyNode.MANAGED_VERSION );
+        root.getChildren().add( utils );
+
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertTrue( store.store( "abc", root ) );
+
+        DependencyNode loaded = store.load( "abc", Arrays.asList( central ) ).getChildren().get( 0 );
+        assertEquals( utils.getVersionConstraint(), loaded.getVersionConstraint() );
+        assertEquals( utils.getVersion(), loaded.getVersion() );
+        assertEquals( DependencyNode.MANAGED_VERSION, loaded.getManagedBits() );
+        // no temporary files are left behind
+        assertEquals( 1, store.getDirectory().list().length );
+    }
+
+    public void testGraphsWithUnpersistedDataAreNotStored()
+    {
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+
+        DefaultDependencyNode root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        DefaultDependencyNode child = newNode( "org.codehaus.plexus:plexus-utils:3.0", "compile" );
+        child.setRelocations( Arrays.<org.eclipse.aether.artifact.Artifact>asList( new DefaultArtifact( "a:b:1" ) ) );
+        root.getChildren().add( child );
+        assertFalse( store.store( "relocated", root ) );
+
+        root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        child = newNode( "org.codehaus.plexus:plexus-utils:3.0", "compile" );
+        child.setData( "premanaged.version", "2.0" );
+        root.getChildren().add( child );
+        assertFalse( store.store( "premanaged", root ) );
+
+        root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        root.setAliases( Arrays.<org.eclipse.aether.artifact.Artifact>asList( new DefaultArtifact( "a:b:1" ) ) );
+        assertFalse( store.store( "aliased", root ) );
+    }
+
+    public void testWorkspaceArtifactsAreDetected()
+    {
+        DefaultDependencyNode root = new DefaultDependencyNode( new DefaultArtifact( "org.test:project:1.0" ) );
+        root.setChildren( new ArrayList<DependencyNode>() );
+        DefaultDependencyNode utils = newNode( "org.codehaus.plexus:plexus-utils:3.0", "compile" );
+        root.getChildren().add( utils );
+
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        assertFalse( DependencyGraphStore.hasWorkspaceArtifacts( session, root ) );
+
+        session.setWorkspaceReader( newWorkspace() );
+        assertFalse( DependencyGraphStore.hasWorkspaceArtifacts( session, root ) );
+
+        utils.getChildren().add( newNode( "org.test:sibling:1.0", "compile" ) );
+        assertTrue( DependencyGraphStore.hasWorkspaceArtifacts( session, root ) );
+    }
+
+    private static WorkspaceReader newWorkspace()
+    {
+        return new WorkspaceReader()
+        {
+            public WorkspaceRepository getRepository()
+            {
+                return new WorkspaceRepository();
+            }
+
+            public File findArtifact( Artifact artifact )
+            {
+                boolean sibling = "sibling".equals( artifact.getArtifactId() ) && "pom".equals( artifact.getExtension() );
+                return sibling ? new File( "pom.xml" ) : null;
+            }
+
+            public List<String> findVersions( Artifact artifact )
+            {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    public void testWorkspaceGraphsAreNeitherStoredNorReused()
+        throws Exception
+    {
+        File localRepo = new File( directory, "repo" );
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        LocalRepository repository = new LocalRepository( localRepo );
+        SimpleLocalRepositoryManagerFactory factory = new SimpleLocalRepositoryManagerFactory();
+        session.setLocalRepositoryManager( factory.newInstance( session, repository ) );
+
+        DefaultDependencyNode root = newNode( "org.apache.maven.plugins:maven-jar-plugin:2.4", "" );
+        root.getChildren().add( newNode( "org.test:sibling:1.0", "compile" ) );
+        File jar = new File( localRepo, "org/test/sibling/1.0/sibling-1.0.jar" );
+        jar.getParentFile().mkdirs();
+        jar.createNewFile();
+
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertTrue( store.store( "abc", session, root ) );
+        assertNotNull( store.load( "abc", session, Arrays.asList( central ) ) );
+
+        jar.delete();
+        assertNull( store.load( "abc", session, Arrays.asList( central ) ) );
+        jar.createNewFile();
+
+        session.setWorkspaceReader( newWorkspace() );
+        assertNull( store.load( "abc", session, Arrays.asList( central ) ) );
+        assertFalse( store.store( "def", session, root ) );
+    }
+
+    public void testKeyCoversSessionProperties()
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        CollectRequest collect = new CollectRequest( new Dependency( new DefaultArtifact( "org.test:test:1.0" ), "" ),
+                                                     Arrays.asList( central ) );
+        String key = DependencyGraphStore.getKey( session, collect );
+
+        session.setSystemProperty( "user.dir", "/tmp" );
+        assertEquals( key, DependencyGraphStore.getKey( session, collect ) );
+
+        session.setSystemProperty( "os.name", "Linux" );
+        String osKey = DependencyGraphStore.getKey( session, collect );
+        assertFalse( key.equals( osKey ) );
+
+        session.setSystemProperty( "java.version", "1.7.0" );
+        String javaKey = DependencyGraphStore.getKey( session, collect );
+        assertFalse( osKey.equals( javaKey ) );
+
+        session.setUserProperty( "skipTests", "true" );
+        assertFalse( javaKey.equals( DependencyGraphStore.getKey( session, collect ) ) );
+    }
+
+    public void testKeyCoversStateOfCollectionStrategy()
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        CollectRequest collect = new CollectRequest( new Dependency( new DefaultArtifact( "org.test:test:1.0" ), "" ),
+                                                     Arrays.asList( central ) );
+        session.setDependencyTraverser( new FatArtifactTraverser() );
+        session.setDependencyManager( new ClassicDependencyManager() );
+
+        session.setDependencySelector( new AndDependencySelector( new ScopeDependencySelector( "test", "provided" ),
+                                                                  new OptionalDependencySelector() ) );
+        String key = DependencyGraphStore.getKey( session, collect );
+
+        session.setDependencySelector( new AndDependencySelector( new ScopeDependencySelector( "test", "provided" ),
+                                                                  new OptionalDependencySelector() ) );
+        assertEquals( key, DependencyGraphStore.getKey( session, collect ) );
+
+        session.setDependencySelector( new AndDependencySelector( new ScopeDependencySelector( "test" ),
+                                                                  new OptionalDependencySelector() ) );
+        assertFalse( key.equals( DependencyGraphStore.getKey( session, collect ) ) );
+    }
+
+    public void testHashIsStable()
+    {
+        assertEquals( "a9993e364706816aba3e25717850c26c9cd0d89d", DependencyGraphStore.hash( "abc" ) );
+    }
+
+}
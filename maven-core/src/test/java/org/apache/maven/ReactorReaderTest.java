@@ -0,0 +1,149 @@
+package org.apache.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+public class ReactorReaderTest
+    extends TestCase
+{
+
+    private File jar;
+
+    private MavenProject project;
+
+    private ReactorReader reader;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        jar = File.createTempFile( "reactor-reader", ".jar" );
+        jar.deleteOnExit();
+
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( "a" );
+        model.setVersion( "1.0" );
+        project = new MavenProject( model );
+        project.setFile( new File( "pom.xml" ) );
+        project.setArtifact( newArtifact( null ) );
+
+        MavenSession session = new MavenSession( null, new DefaultMavenExecutionRequest(),
+                                                 new DefaultMavenExecutionResult(), Arrays.asList( project ) );
+        session.setProjectMap( Collections.singletonMap( "org.apache.maven.its:a:1.0", project ) );
+        reader = new ReactorReader( session );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        jar.delete();
+        super.tearDown();
+    }
+
+    private org.apache.maven.artifact.Artifact newArtifact( String classifier )
+    {
+        return new org.apache.maven.artifact.DefaultArtifact( "org.apache.maven.its", "a", "1.0", null, "jar",
+                                                              classifier, new DefaultArtifactHandler( "jar" ) );
+    }
+
+    private Artifact request( String classifier )
+    {
+        return new DefaultArtifact( "org.apache.maven.its", "a", classifier, "jar", "1.0" );
+    }
+
+    public void testFindMainArtifact()
+    {
+        assertNull( reader.findArtifact( request( "" ) ) );
+
+        project.getArtifact().setFile( jar );
+
+        assertEquals( jar, reader.findArtifact( request( "" ) ) );
+        assertEquals( Arrays.asList( "1.0" ), reader.findVersions( request( "" ) ) );
+        assertEquals( project.getFile(), reader.findArtifact( new DefaultArtifact( "org.apache.maven.its:a:pom:1.0" ) ) );
+    }
+
+    public void testFindArtifactsAttachedLater()
+    {
+        assertNull( reader.findArtifact( request( "sources" ) ) );
+
+        org.apache.maven.artifact.Artifact sources = newArtifact( "sources" );
+        sources.setFile( jar );
+        project.addAttachedArtifact( sources );
+
+        assertEquals( jar, reader.findArtifact( request( "sources" ) ) );
+        assertNull( reader.findArtifact( request( "javadoc" ) ) );
+
+        org.apache.maven.artifact.Artifact javadoc = newArtifact( "javadoc" );
+        javadoc.setFile( jar );
+        project.addAttachedArtifact( javadoc );
+
+        assertEquals( jar, reader.findArtifact( request( "javadoc" ) ) );
+        assertEquals( jar, reader.findArtifact( request( "sources" ) ) );
+    }
+
+    public void testFindArtifactReplacedInPlace()
+    {
+        org.apache.maven.artifact.Artifact sources = newArtifact( "sources" );
+        sources.setFile( jar );
+        project.addAttachedArtifact( sources );
+
+        assertEquals( jar, reader.findArtifact( request( "sources" ) ) );
+        assertNull( reader.findArtifact( request( "javadoc" ) ) );
+
+        org.apache.maven.artifact.Artifact javadoc = newArtifact( "javadoc" );
+        javadoc.setFile( jar );
+        project.getAttachedArtifacts().set( 0, javadoc );
+
+        assertEquals( jar, reader.findArtifact( request( "javadoc" ) ) );
+        assertNull( reader.findArtifact( request( "sources" ) ) );
+    }
+
+    public void testFindArtifactFileCreatedAfterMiss()
+        throws Exception
+    {
+        assertTrue( jar.delete() );
+        project.getArtifact().setFile( jar );
+
+        assertNull( reader.findArtifact( request( "" ) ) );
+
+        assertTrue( jar.createNewFile() );
+
+        assertEquals( jar, reader.findArtifact( request( "" ) ) );
+    }
+
+}
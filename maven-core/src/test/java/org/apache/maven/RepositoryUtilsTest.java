@@ -0,0 +1,96 @@
+package org.apache.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+public class RepositoryUtilsTest
+    extends TestCase
+{
+
+    private static org.apache.maven.artifact.Artifact newMavenArtifact( String type, String scope )
+    {
+        DefaultArtifactHandler handler = new DefaultArtifactHandler( type );
+        handler.setExtension( "jar" );
+        handler.setAddedToClasspath( true );
+        return new org.apache.maven.artifact.DefaultArtifact( "org.apache.maven.its", "a", "1.0-SNAPSHOT", scope,
+                                                              type, null, handler );
+    }
+
+    public void testArtifactViewEqualsCopy()
+    {
+        org.apache.maven.artifact.Artifact artifact = newMavenArtifact( "test-jar", "compile" );
+        artifact.setFile( new File( "a.jar" ) );
+
+        Artifact copy = RepositoryUtils.toArtifact( artifact );
+        Artifact view = RepositoryUtils.toArtifactView( artifact );
+
+        assertEquals( copy, view );
+        assertEquals( copy.hashCode(), view.hashCode() );
+        assertEquals( copy.toString(), view.toString() );
+        assertEquals( copy.getProperties(), view.getProperties() );
+        assertEquals( "1.0-SNAPSHOT", view.getBaseVersion() );
+    }
+
+    public void testArtifactViewReadsThrough()
+    {
+        org.apache.maven.artifact.Artifact artifact = newMavenArtifact( "jar", "system" );
+
+        Artifact view = RepositoryUtils.toArtifactView( artifact );
+        assertNull( view.getFile() );
+        assertEquals( "", view.getProperty( ArtifactProperties.LOCAL_PATH, null ) );
+
+        File file = new File( "a.jar" );
+        artifact.setFile( file );
+        assertEquals( file, view.getFile() );
+        assertEquals( file.getPath(), view.getProperty( ArtifactProperties.LOCAL_PATH, null ) );
+        assertEquals( RepositoryUtils.toArtifact( artifact ), view );
+    }
+
+    public void testHandlersAndTypesAreShared()
+    {
+        Artifact a = new DefaultArtifact( "org.apache.maven.its:a:1.0" );
+        Artifact b = new DefaultArtifact( "org.apache.maven.its:b:2.0" );
+        Artifact c = new DefaultArtifact( "org.apache.maven.its:c:pom:1.0" );
+
+        ArtifactHandler handler = RepositoryUtils.toArtifact( a ).getArtifactHandler();
+        assertSame( handler, RepositoryUtils.toArtifact( b ).getArtifactHandler() );
+        assertNotSame( handler, RepositoryUtils.toArtifact( c ).getArtifactHandler() );
+        assertEquals( "pom", RepositoryUtils.toArtifact( c ).getArtifactHandler().getExtension() );
+        assertFalse( handler instanceof DefaultArtifactHandler );
+
+        // the public factory hands out mutable handlers, these are not shared
+        assertNotSame( RepositoryUtils.newHandler( a ), RepositoryUtils.newHandler( b ) );
+        assertTrue( RepositoryUtils.newHandler( a ) instanceof DefaultArtifactHandler );
+        assertEquals( "jar", RepositoryUtils.newHandler( a ).getExtension() );
+
+        assertSame( RepositoryUtils.newArtifactType( "jar", RepositoryUtils.newHandler( a ) ),
+                    RepositoryUtils.newArtifactType( "jar", RepositoryUtils.newHandler( b ) ) );
+    }
+
+}
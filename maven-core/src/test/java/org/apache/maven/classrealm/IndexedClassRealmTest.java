@@ -0,0 +1,225 @@
+package org.apache.maven.classrealm;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.ClassWorldListener;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+
+public class IndexedClassRealmTest
+    extends TestCase
+{
+
+    private File jar;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        jar = File.createTempFile( "indexed-realm", ".jar" );
+        jar.deleteOnExit();
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        jar.delete();
+        super.tearDown();
+    }
+
+    private void writeJar( Manifest mf, String... entries )
+        throws IOException
+    {
+        JarOutputStream os = ( mf != null ) ? new JarOutputStream( new FileOutputStream( jar ), mf )
+                        : new JarOutputStream( new FileOutputStream( jar ) );
+        try
+        {
+            for ( String entry : entries )
+            {
+                os.putNextEntry( new ZipEntry( entry ) );
+                os.write( entry.getBytes( "UTF-8" ) );
+                os.closeEntry();
+            }
+        }
+        finally
+        {
+            os.close();
+        }
+    }
+
+    private IndexedClassRealm newRealm()
+        throws Exception
+    {
+        ClassRealmIndex index = new ClassRealmIndex( new ConcurrentHashMap<String, ClassRealmIndex.JarContents>() );
+        IndexedClassRealm realm = new IndexedClassRealm( new ClassWorld(), "test", index );
+        realm.addURL( jar.toURI().toURL() );
+        return realm;
+    }
+
+    public void testLookupOfIndexedResources()
+        throws Exception
+    {
+        writeJar( null, "org/test/data.txt", "META-INF/plexus/components.xml", "root.properties" );
+
+        IndexedClassRealm realm = newRealm();
+
+        assertTrue( realm.getIndex().isComplete() );
+        assertNotNull( realm.loadResourceFromSelf( "org/test/data.txt" ) );
+        assertNotNull( realm.findResource( "root.properties" ) );
+        assertEquals( 1, Collections.list( realm.findResources( "META-INF/plexus/components.xml" ) ).size() );
+    }
+
+    public void testLookupOfMissingPackagesSkipsClassPath()
+        throws Exception
+    {
+        writeJar( null, "org/test/data.txt" );
+
+        IndexedClassRealm realm = newRealm();
+
+        assertFalse( realm.getIndex().mayContainClass( "org.other.Missing" ) );
+        assertTrue( realm.getIndex().mayContainClass( "org.test.Missing" ) );
+        assertNull( realm.loadClassFromSelf( "org.other.Missing" ) );
+        assertNull( realm.loadResourceFromSelf( "org/other/data.txt" ) );
+        assertFalse( realm.loadResourcesFromSelf( "org/other/data.txt" ).hasMoreElements() );
+    }
+
+    public void testManifestClassPathDisablesIndex()
+        throws Exception
+    {
+        Manifest mf = new Manifest();
+        mf.getMainAttributes().put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+        mf.getMainAttributes().put( Attributes.Name.CLASS_PATH, "other.jar" );
+        writeJar( mf, "org/test/data.txt" );
+
+        IndexedClassRealm realm = newRealm();
+
+        assertFalse( realm.getIndex().isComplete() );
+        assertTrue( realm.getIndex().mayContainClass( "org.other.Missing" ) );
+    }
+
+    public void testDirectoryDisablesIndex()
+        throws Exception
+    {
+        writeJar( null, "org/test/data.txt" );
+
+        IndexedClassRealm realm = newRealm();
+        realm.addURL( jar.getParentFile().toURI().toURL() );
+
+        assertFalse( realm.getIndex().isComplete() );
+        assertTrue( realm.getIndex().mayContainResource( "org/other/data.txt" ) );
+    }
+
+    public void testRegisteredInWorldAndClosedOnDisposal()
+        throws Exception
+    {
+        writeJar( null, "org/test/data.txt" );
+
+        ClassWorld world = new ClassWorld();
+        ClassRealm placeholder = world.newRealm( "test" );
+        ClassRealmIndex index = new ClassRealmIndex( new ConcurrentHashMap<String, ClassRealmIndex.JarContents>() );
+
+        IndexedClassRealm realm = IndexedClassRealm.replace( world, placeholder, index );
+        assertNotNull( realm );
+        assertSame( realm, world.getRealm( "test" ) );
+
+        realm.addURL( jar.toURI().toURL() );
+        assertNotNull( realm.findResource( "org/test/data.txt" ) );
+
+        world.disposeRealm( "test" );
+
+        assertNull( world.getClassRealm( "test" ) );
+        // the JARs of a closed class loader are no longer searched
+        assertNull( realm.findResource( "org/test/data.txt" ) );
+    }
+
+    public void testReplaceRequiresRegisteredRealm()
+        throws Exception
+    {
+        ClassWorld world = new ClassWorld();
+        ClassRealmIndex index = new ClassRealmIndex( new ConcurrentHashMap<String, ClassRealmIndex.JarContents>() );
+
+        assertNull( IndexedClassRealm.replace( world, new ClassRealm( world, "test", null ), index ) );
+    }
+
+    public void testListenersSeeReplacement()
+        throws Exception
+    {
+        final List<String> events = new ArrayList<String>();
+
+        ClassWorld world = new ClassWorld();
+        world.addListener( new ClassWorldListener()
+        {
+            public void realmCreated( ClassRealm realm )
+            {
+                events.add( "created " + realm.getClass().getSimpleName() );
+            }
+
+            public void realmDisposed( ClassRealm realm )
+            {
+                events.add( "disposed " + realm.getClass().getSimpleName() );
+            }
+        } );
+
+        ClassRealm placeholder = world.newRealm( "test" );
+        ClassRealmIndex index = new ClassRealmIndex( new ConcurrentHashMap<String, ClassRealmIndex.JarContents>() );
+        IndexedClassRealm.replace( world, placeholder, index );
+
+        assertEquals( "[created ClassRealm, disposed ClassRealm, created IndexedClassRealm]", events.toString() );
+    }
+
+    public void testRebuiltJarReplacesCachedContents()
+        throws Exception
+    {
+        writeJar( null, "org/test/data.txt" );
+
+        ConcurrentMap<String, ClassRealmIndex.JarContents> cache =
+            new ConcurrentHashMap<String, ClassRealmIndex.JarContents>();
+
+        ClassRealmIndex index = new ClassRealmIndex( cache );
+        index.add( jar.toURI().toURL() );
+        assertFalse( index.mayContainClass( "org.other.Missing" ) );
+
+        writeJar( null, "org/test/data.txt", "org/other/data.txt" );
+        jar.setLastModified( jar.lastModified() + 2000 );
+
+        index = new ClassRealmIndex( cache );
+        index.add( jar.toURI().toURL() );
+        assertTrue( index.mayContainClass( "org.other.Missing" ) );
+        assertEquals( 1, cache.size() );
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.apache.maven.execution;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+
+public class MavenSessionTest
+    extends TestCase
+{
+
+    private static MavenProject newProject( String artifactId )
+    {
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        return new MavenProject( model );
+    }
+
+    private static PluginDescriptor newPlugin( String artifactId )
+    {
+        PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setGroupId( "org.apache.maven.plugins" );
+        plugin.setArtifactId( artifactId );
+        return plugin;
+    }
+
+    public void testPluginContextIsSharedWithForkedProject()
+    {
+        MavenProject project = newProject( "a" );
+        MavenSession session =
+            new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(),
+                              Arrays.asList( project ) );
+
+        Map<String, Object> context = session.getPluginContext( newPlugin( "p" ), project );
+        context.put( "key", "value" );
+
+        assertSame( context, session.getPluginContext( newPlugin( "p" ), project.clone() ) );
+        assertNotSame( context, session.getPluginContext( newPlugin( "q" ), project ) );
+        assertNotSame( context, session.getPluginContext( newPlugin( "p" ), newProject( "b" ) ) );
+    }
+
+    public void testConcurrentLookupsYieldSamePluginContext()
+        throws Exception
+    {
+        final MavenProject project = newProject( "a" );
+        final MavenSession session =
+            new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(),
+                              Arrays.asList( project ) );
+        final PluginDescriptor plugin = newPlugin( "p" );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        try
+        {
+            List<Future<Map<String, Object>>> contexts = new ArrayList<Future<Map<String, Object>>>();
+            for ( int i = 0; i < 64; i++ )
+            {
+                contexts.add( executor.submit( new Callable<Map<String, Object>>()
+                {
+                    public Map<String, Object> call()
+                    {
+                        return session.getPluginContext( plugin, project );
+                    }
+                } ) );
+            }
+
+            for ( Future<Map<String, Object>> context : contexts )
+            {
+                assertSame( contexts.get( 0 ).get(), context.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+}
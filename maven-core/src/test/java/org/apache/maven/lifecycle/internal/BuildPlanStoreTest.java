@@ -0,0 +1,313 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.DefaultLifecycles;
+import org.apache.maven.lifecycle.MavenExecutionPlan;
+import org.apache.maven.lifecycle.internal.builder.BuilderCommon;
+import org.apache.maven.lifecycle.internal.stub.BuildPluginManagerStub;
+import org.apache.maven.lifecycle.internal.stub.DefaultLifecyclesStub;
+import org.apache.maven.lifecycle.internal.stub.PluginVersionResolverStub;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.DuplicateParameterException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+
+public class BuildPlanStoreTest
+    extends TestCase
+{
+
+    private File directory;
+
+    private File pluginJar;
+
+    private MavenProject project;
+
+    private MavenSession session;
+
+    private BuildPluginManagerStub pluginManager;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        directory = new File( "target/build-plans-" + getName() );
+        FileUtils.deleteDirectory( directory );
+        pluginJar = new File( directory, "plugin.jar" );
+        writeJar( "jar" );
+
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.apache.maven.plugins" );
+        plugin.setArtifactId( "maven-test-plugin" );
+        plugin.setVersion( "1.0" );
+
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( "a" );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        model.getBuild().addPlugin( plugin );
+        project = new MavenProject( model );
+
+        session =
+            new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(),
+                              Arrays.asList( project ) );
+
+        pluginManager = new BuildPluginManagerStub()
+        {
+            @Override
+            public MojoDescriptor getMojoDescriptor( Plugin plugin, String goal, List<RemoteRepository> repositories,
+                                                     RepositorySystemSession session )
+            {
+                return newMojoDescriptor( plugin, goal );
+            }
+        };
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    private void writeJar( String contents )
+        throws IOException
+    {
+        pluginJar.getParentFile().mkdirs();
+        FileOutputStream os = new FileOutputStream( pluginJar );
+        try
+        {
+            os.write( contents.getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            os.close();
+        }
+    }
+
+    private MojoDescriptor newMojoDescriptor( Plugin plugin, String goal )
+    {
+        DefaultArtifact artifact =
+            new DefaultArtifact( plugin.getGroupId(), plugin.getArtifactId(), plugin.getVersion(), null,
+                                 "maven-plugin", null, new DefaultArtifactHandler( "maven-plugin" ) );
+        artifact.setFile( pluginJar );
+
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( plugin.getGroupId() );
+        pluginDescriptor.setArtifactId( plugin.getArtifactId() );
+        pluginDescriptor.setVersion( plugin.getVersion() );
+        pluginDescriptor.setPlugin( plugin );
+        pluginDescriptor.setPluginArtifact( artifact );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( goal );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        Parameter parameter = new Parameter();
+        parameter.setName( "debug" );
+        try
+        {
+            mojoDescriptor.addParameter( parameter );
+        }
+        catch ( DuplicateParameterException e )
+        {
+            throw new IllegalStateException( e );
+        }
+        return mojoDescriptor;
+    }
+
+    private MojoExecution newExecution( String goal, String phase )
+    {
+        Plugin plugin = project.getBuildPlugins().get( 0 );
+        MojoExecution execution = new MojoExecution( newMojoDescriptor( plugin, goal ), "default-" + goal );
+        execution.setLifecyclePhase( phase );
+        return execution;
+    }
+
+    public void testStoredPlanIsLoadedBack()
+        throws Exception
+    {
+        Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        Xpp3Dom parameter = new Xpp3Dom( "message" );
+        parameter.setValue( "tab\there\nnew line \\ <escaped> & done" );
+        parameter.setAttribute( "implementation", "java.lang.String" );
+        configuration.addChild( parameter );
+
+        MojoExecution compile = newExecution( "compile", "compile" );
+        compile.setConfiguration( configuration );
+        MojoExecution report = newExecution( "report", "package" );
+        report.setForkedExecutions( BuilderCommon.getKey( project ),
+                                    Arrays.asList( newExecution( "prepare", "validate" ) ) );
+
+        BuildPlanStore store = new BuildPlanStore( directory );
+        assertTrue( store.store( "key", project, Arrays.asList( compile, report ) ) );
+
+        List<MojoExecution> executions = store.load( "key", session, project, pluginManager );
+        assertNotNull( executions );
+        assertEquals( 2, executions.size() );
+
+        MojoExecution loaded = executions.get( 0 );
+        assertEquals( "compile", loaded.getGoal() );
+        assertEquals( "default-compile", loaded.getExecutionId() );
+        assertEquals( "compile", loaded.getLifecyclePhase() );
+        assertEquals( MojoExecution.Source.LIFECYCLE, loaded.getSource() );
+        assertEquals( configuration, loaded.getConfiguration() );
+        assertSame( project.getBuildPlugins().get( 0 ), loaded.getPlugin() );
+
+        List<MojoExecution> forked = executions.get( 1 ).getForkedExecutions().get( BuilderCommon.getKey( project ) );
+        assertEquals( 1, forked.size() );
+        assertEquals( "prepare", forked.get( 0 ).getGoal() );
+        assertNull( forked.get( 0 ).getConfiguration() );
+    }
+
+    public void testChangedPluginInvalidatesPlan()
+        throws Exception
+    {
+        BuildPlanStore store = new BuildPlanStore( directory );
+        assertTrue( store.store( "key", project, Collections.singletonList( newExecution( "compile", "compile" ) ) ) );
+
+        writeJar( "changed jar" );
+
+        assertNull( store.load( "key", session, project, pluginManager ) );
+    }
+
+    public void testPlanWithSnapshotPluginIsNotStored()
+    {
+        project.getBuildPlugins().get( 0 ).setVersion( "1.0-SNAPSHOT" );
+
+        BuildPlanStore store = new BuildPlanStore( directory );
+        assertFalse( store.store( "key", project, Collections.singletonList( newExecution( "compile", "compile" ) ) ) );
+    }
+
+    public void testKeyReflectsTasksAndBuild()
+    {
+        DefaultLifecycles lifecycles = DefaultLifecyclesStub.createDefaultLifecycles();
+        List<Object> tasks = Collections.<Object>singletonList( new LifecycleTask( "compile" ) );
+
+        String key = BuildPlanStore.getKey( project, tasks, lifecycles );
+        assertNotNull( key );
+        assertEquals( key, BuildPlanStore.getKey( project, tasks, lifecycles ) );
+        assertFalse( key.equals( BuildPlanStore.getKey( project, Collections.<Object>singletonList(
+            new LifecycleTask( "test" ) ), lifecycles ) ) );
+
+        project.getBuildPlugins().get( 0 ).setConfiguration( new Xpp3Dom( "configuration" ) );
+        assertFalse( key.equals( BuildPlanStore.getKey( project, tasks, lifecycles ) ) );
+
+        assertNull( BuildPlanStore.getKey( project, Collections.<Object>singletonList( new GoalTask( "test:run" ) ),
+                                           lifecycles ) );
+    }
+
+    public void testTruncatedPlanIsIgnored()
+        throws Exception
+    {
+        BuildPlanStore store = new BuildPlanStore( directory );
+        assertTrue( store.store( "key", project, Collections.singletonList( newExecution( "compile", "compile" ) ) ) );
+
+        File file = new File( directory, "key.plan" );
+        String plan = FileUtils.fileRead( file, "UTF-8" );
+        FileUtils.fileWrite( file, "UTF-8", plan.substring( 0, plan.lastIndexOf( "# end " ) ) );
+
+        assertNull( store.load( "key", session, project, pluginManager ) );
+    }
+
+    public void testCalculatorReusesStoredPlan()
+        throws Exception
+    {
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DefaultLifecycleExecutionPlanCalculator.CONFIG_PROP_PLAN_CACHE, "true" );
+        repoSession.setLocalRepositoryManager( new SimpleLocalRepositoryManagerFactory().newInstance(
+            repoSession, new LocalRepository( new File( directory, "repo" ) ) ) );
+        session = new MavenSession( null, repoSession, new DefaultMavenExecutionRequest(),
+                                    new DefaultMavenExecutionResult() );
+
+        final int[] calculations = new int[1];
+        DefaultLifecycleExecutionPlanCalculator calculator =
+            new DefaultLifecycleExecutionPlanCalculator( pluginManager,
+                                                         DefaultLifecyclesStub.createDefaultLifecycles(), null,
+                                                         new LifecyclePluginResolver(
+                                                             new PluginVersionResolverStub() ) )
+            {
+                @Override
+                public List<MojoExecution> calculateMojoExecutions( MavenSession session, MavenProject project,
+                                                                     List<Object> tasks )
+                    {
+                    calculations[0]++;
+                    return Collections.singletonList( newExecution( "compile", "compile" ) );
+                }
+            };
+
+        Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        configuration.addChild( new Xpp3Dom( "debug" ) );
+        PluginExecution pluginExecution = new PluginExecution();
+        pluginExecution.setId( "default-compile" );
+        pluginExecution.setConfiguration( configuration );
+        project.getBuildPlugins().get( 0 ).addExecution( pluginExecution );
+
+        List<Object> tasks = Collections.<Object>singletonList( new LifecycleTask( "compile" ) );
+
+        MavenExecutionPlan calculated = calculator.calculateExecutionPlan( session, project, tasks );
+        assertEquals( 1, calculations[0] );
+
+        MavenExecutionPlan loaded = calculator.calculateExecutionPlan( session, project, tasks );
+        assertEquals( 1, calculations[0] );
+
+        assertEquals( 1, loaded.size() );
+        MojoExecution execution = loaded.getMojoExecutions().get( 0 );
+        assertEquals( "compile", execution.getGoal() );
+        assertEquals( "compile", execution.getLifecyclePhase() );
+        assertNotNull( execution.getConfiguration().getChild( "debug" ) );
+        assertEquals( calculated.getMojoExecutions().get( 0 ).getConfiguration(), execution.getConfiguration() );
+
+        writeJar( "changed jar" );
+
+        calculator.calculateExecutionPlan( session, project, tasks );
+        assertEquals( 2, calculations[0] );
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+
+public class DefaultMojoExecutionProfilerTest
+    extends PlexusTestCase
+{
+
+    private File report;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        report = File.createTempFile( "mojo-profile", ".txt" );
+        report.deleteOnExit();
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        report.delete();
+        super.tearDown();
+    }
+
+    private MavenSession newSession( boolean enabled )
+    {
+        DefaultRepositorySystemSession repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DefaultMojoExecutionProfiler.CONFIG_PROP_PROFILE, Boolean.toString( enabled ) );
+        repoSession.setConfigProperty( DefaultMojoExecutionProfiler.CONFIG_PROP_REPORT, report.getAbsolutePath() );
+        return new MavenSession( getContainer(), repoSession, new DefaultMavenExecutionRequest(),
+                                 new DefaultMavenExecutionResult() );
+    }
+
+    private MojoExecution newMojoExecution( String goal )
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( "org.apache.maven.plugins" );
+        pluginDescriptor.setArtifactId( "maven-test-plugin" );
+        pluginDescriptor.setVersion( "1.0" );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( goal );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        return new MojoExecution( mojoDescriptor, "default-" + goal );
+    }
+
+    public void testDisabledByDefault()
+        throws Exception
+    {
+        MojoExecutionProfiler profiler = lookup( MojoExecutionProfiler.class );
+
+        assertNull( profiler.start( newSession( false ), newMojoExecution( "compile" ) ) );
+        assertNull( profiler.getCurrentProfile() );
+    }
+
+    public void testNestedProfilesAndReport()
+        throws Exception
+    {
+        MojoExecutionProfiler profiler = lookup( MojoExecutionProfiler.class );
+        MavenSession session = newSession( true );
+
+        MojoExecutionProfile outer = profiler.start( session, newMojoExecution( "site" ) );
+        assertSame( outer, profiler.getCurrentProfile() );
+
+        MojoExecutionProfile forked = profiler.start( session, newMojoExecution( "compile" ) );
+        assertSame( forked, profiler.getCurrentProfile() );
+        forked.executionStarted();
+        forked.executionEnded( false );
+        profiler.stop( forked );
+
+        assertSame( outer, profiler.getCurrentProfile() );
+        outer.addForkTime( 5 );
+        outer.executionStarted();
+        outer.executionEnded( true );
+        profiler.stop( outer );
+
+        assertNull( profiler.getCurrentProfile() );
+        assertTrue( outer.getWallTime() >= 0 );
+        assertEquals( 5, outer.getForkTime() );
+
+        profiler.report( session );
+
+        String[] lines = FileUtils.fileRead( report, "UTF-8" ).split( "\n" );
+        assertEquals( DefaultMojoExecutionProfiler.REPORT_HEADER, lines[0] );
+        assertEquals( 4, lines.length );
+        assertTrue( lines[2].contains( "maven-test-plugin:1.0:compile (default-compile)\tsucceeded" ) );
+        assertTrue( lines[3].contains( "maven-test-plugin:1.0:site (default-site)\tfailed" ) );
+    }
+
+    public void testExecutionFailingBeforeStartIsReportedAsFailed()
+        throws Exception
+    {
+        MojoExecutionProfiler profiler = lookup( MojoExecutionProfiler.class );
+        MavenSession session = newSession( true );
+
+        MojoExecutionProfile profile = profiler.start( session, newMojoExecution( "test" ) );
+        profile.addDependencyResolutionTime( 5 );
+        profile.executionEnded( false );
+        profiler.stop( profile );
+
+        assertTrue( profile.isFailed() );
+        assertEquals( 0, profile.getWallTime() );
+
+        profiler.report( session );
+
+        String[] lines = FileUtils.fileRead( report, "UTF-8" ).split( "\n" );
+        assertEquals( 3, lines.length );
+        assertTrue( lines[2].contains( "maven-test-plugin:1.0:test (default-test)\tfailed" ) );
+    }
+
+}
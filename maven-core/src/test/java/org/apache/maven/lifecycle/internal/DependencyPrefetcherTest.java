@@ -0,0 +1,373 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.lifecycle.MavenExecutionPlan;
+import org.apache.maven.lifecycle.internal.stub.LoggerStub;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.DependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+
+public class DependencyPrefetcherTest
+    extends TestCase
+{
+
+    private final List<String> resolved = Collections.synchronizedList( new ArrayList<String>() );
+
+    private final List<Boolean> reactorAccepted = Collections.synchronizedList( new ArrayList<Boolean>() );
+
+    private final List<Boolean> testScopeAccepted = Collections.synchronizedList( new ArrayList<Boolean>() );
+
+    private final CountDownLatch started = new CountDownLatch( 1 );
+
+    private final CountDownLatch release = new CountDownLatch( 1 );
+
+    private CountDownLatch plans;
+
+    private CountDownLatch calls;
+
+    private volatile boolean blocking;
+
+    private volatile String requiredScope = "compile";
+
+    private volatile String pluginGroupId = "org.apache.maven.plugins";
+
+    private final List<String> currentProjects = Collections.synchronizedList( new ArrayList<String>() );
+
+    private TaskSegment taskSegment;
+
+    private DefaultRepositorySystemSession repoSession;
+
+    private MavenSession session;
+
+    private ProjectBuildList projectBuilds;
+
+    private DependencyPrefetcher prefetcher;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        repoSession = new DefaultRepositorySystemSession();
+        repoSession.setConfigProperty( DependencyPrefetcher.CONFIG_PROP_PREFETCH, "true" );
+        repoSession.setConfigProperty( DependencyPrefetcher.CONFIG_PROP_PREFETCH_THREADS, "1" );
+
+        final List<MavenProject> projects = new ArrayList<MavenProject>();
+        for ( String artifactId : new String[] { "a", "b", "c" } )
+        {
+            Model model = new Model();
+            model.setGroupId( "org.apache.maven.its" );
+            model.setArtifactId( artifactId );
+            model.setVersion( "1.0" );
+            model.setBuild( new Build() );
+            projects.add( new MavenProject( model ) );
+        }
+
+        session =
+            new MavenSession( null, repoSession, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult() );
+        session.setProjects( projects );
+        session.setProjectDependencyGraph( new ProjectDependencyGraph()
+        {
+            public List<MavenProject> getSortedProjects()
+            {
+                return projects;
+            }
+
+            public List<MavenProject> getDownstreamProjects( MavenProject project, boolean transitive )
+            {
+                return Collections.emptyList();
+            }
+
+            public List<MavenProject> getUpstreamProjects( MavenProject project, boolean transitive )
+            {
+                return Collections.emptyList();
+            }
+        } );
+
+        taskSegment = new TaskSegment( false, new LifecycleTask( "install" ) );
+        List<ProjectSegment> segments = new ArrayList<ProjectSegment>();
+        for ( MavenProject project : projects )
+        {
+            segments.add( new ProjectSegment( project, taskSegment, session ) );
+        }
+        projectBuilds = new ProjectBuildList( segments );
+
+        plans = new CountDownLatch( projects.size() );
+        calls = new CountDownLatch( projects.size() );
+
+        prefetcher = new DependencyPrefetcher( new ResolverStub(), new PlanCalculatorStub(), new LoggerStub() );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        release.countDown();
+        prefetcher.stop( session );
+        super.tearDown();
+    }
+
+    public void testDisabledByDefault()
+    {
+        repoSession.setConfigProperty( DependencyPrefetcher.CONFIG_PROP_PREFETCH, null );
+
+        prefetcher.start( session, projectBuilds );
+        prefetcher.await( session.getProjects().get( 0 ), session );
+
+        assertTrue( resolved.isEmpty() );
+        assertEquals( 3, plans.getCount() );
+    }
+
+    public void testProjectsArePrefetchedInBuildOrder()
+        throws Exception
+    {
+        prefetcher.start( session, projectBuilds );
+
+        assertTrue( calls.await( 10, TimeUnit.SECONDS ) );
+        assertEquals( "[a, b, c]", resolved.toString() );
+        assertEquals( "[a, b, c]", currentProjects.toString() );
+        assertEquals( "[false, false, false]", reactorAccepted.toString() );
+        assertEquals( "[false, false, false]", testScopeAccepted.toString() );
+    }
+
+    public void testProjectsWithoutResolutionAreSkipped()
+        throws Exception
+    {
+        requiredScope = null;
+
+        prefetcher.start( session, projectBuilds );
+
+        assertTrue( plans.await( 10, TimeUnit.SECONDS ) );
+        for ( MavenProject project : session.getProjects() )
+        {
+            prefetcher.await( project, session );
+        }
+
+        assertTrue( resolved.isEmpty() );
+    }
+
+    public void testAwaitWaitsForRunningPrefetch()
+        throws Exception
+    {
+        blocking = true;
+
+        prefetcher.start( session, projectBuilds );
+
+        assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+        final CountDownLatch awaited = new CountDownLatch( 1 );
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                prefetcher.await( session.getProjects().get( 0 ), session );
+                awaited.countDown();
+            }
+        };
+        thread.start();
+
+        assertFalse( awaited.await( 100, TimeUnit.MILLISECONDS ) );
+        assertTrue( resolved.isEmpty() );
+
+        release.countDown();
+
+        assertTrue( awaited.await( 10, TimeUnit.SECONDS ) );
+        assertEquals( "[a]", resolved.subList( 0, 1 ).toString() );
+        thread.join();
+    }
+
+    public void testStopCancelsPendingPrefetches()
+        throws Exception
+    {
+        blocking = true;
+
+        prefetcher.start( session, projectBuilds );
+        assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+        DependencyPrefetcher.Prefetch prefetch =
+            (DependencyPrefetcher.Prefetch) repoSession.getData().get( DependencyPrefetcher.KEY );
+        prefetcher.stop( session );
+        release.countDown();
+
+        assertTrue( prefetch.awaitTermination( 10, TimeUnit.SECONDS ) );
+        assertEquals( "[a]", resolved.toString() );
+        assertNull( prefetcher.takeBuildPlan( session, session.getProjects().get( 1 ), taskSegment ) );
+    }
+
+    public void testBuildPlansAreCalculatedOnceAndHandedOver()
+        throws Exception
+    {
+        requiredScope = null;
+
+        prefetcher.start( session, projectBuilds );
+
+        // calculated on the calling thread before the build starts
+        assertEquals( 0, plans.getCount() );
+
+        MavenProject project = session.getProjects().get( 1 );
+        assertNotNull( prefetcher.takeBuildPlan( session, project, taskSegment ) );
+        assertNull( prefetcher.takeBuildPlan( session, project, taskSegment ) );
+        assertNull( prefetcher.takeBuildPlan( session, project, new TaskSegment( false ) ) );
+    }
+
+    public void testProjectsUsingReactorPluginsAreSkipped()
+        throws Exception
+    {
+        Plugin plugin = new Plugin();
+        plugin.setGroupId( "org.apache.maven.its" );
+        plugin.setArtifactId( "c" );
+        session.getProjects().get( 0 ).getBuild().addPlugin( plugin );
+
+        prefetcher.start( session, projectBuilds );
+
+        // the plan of a is not calculated before c is built
+        assertEquals( 1, plans.getCount() );
+        assertNull( prefetcher.takeBuildPlan( session, session.getProjects().get( 0 ), taskSegment ) );
+        assertNotNull( prefetcher.takeBuildPlan( session, session.getProjects().get( 1 ), taskSegment ) );
+
+        assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+        prefetcher.await( session.getProjects().get( 1 ), session );
+        prefetcher.await( session.getProjects().get( 2 ), session );
+        assertFalse( resolved.contains( "a" ) );
+    }
+
+    public void testPlansUsingReactorPluginsAreNotHandedOver()
+        throws Exception
+    {
+        pluginGroupId = "org.apache.maven.its";
+
+        prefetcher.start( session, projectBuilds );
+
+        for ( MavenProject project : session.getProjects() )
+        {
+            prefetcher.await( project, session );
+            assertNull( prefetcher.takeBuildPlan( session, project, taskSegment ) );
+        }
+        assertTrue( resolved.isEmpty() );
+    }
+
+    class PlanCalculatorStub
+        implements LifecycleExecutionPlanCalculator
+    {
+
+        public MavenExecutionPlan calculateExecutionPlan( MavenSession session, MavenProject project,
+                                                          List<Object> tasks )
+        {
+            return calculateExecutionPlan( session, project, tasks, true );
+        }
+
+        public MavenExecutionPlan calculateExecutionPlan( MavenSession session, MavenProject project,
+                                                          List<Object> tasks, boolean setup )
+        {
+            plans.countDown();
+            currentProjects.add( session.getCurrentProject().getArtifactId() );
+
+            PluginDescriptor pluginDescriptor = new PluginDescriptor();
+            pluginDescriptor.setGroupId( pluginGroupId );
+            pluginDescriptor.setArtifactId( "b" );
+
+            MojoDescriptor mojoDescriptor = new MojoDescriptor();
+            mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+            mojoDescriptor.setDependencyResolutionRequired( requiredScope );
+            List<MojoExecution> executions = Collections.singletonList( new MojoExecution( mojoDescriptor ) );
+
+            return new MavenExecutionPlan( ExecutionPlanItem.createExecutionPlanItems( project, executions ), null );
+        }
+
+        public void calculateForkedExecutions( MojoExecution mojoExecution, MavenSession session )
+        {
+        }
+
+        public void setupMojoExecution( MavenSession session, MavenProject project, MojoExecution mojoExecution )
+        {
+        }
+
+    }
+
+    class ResolverStub
+        implements ProjectDependenciesResolver
+    {
+
+        public DependencyResolutionResult resolve( DependencyResolutionRequest request )
+            throws DependencyResolutionException
+        {
+            started.countDown();
+
+            DependencyNode reactorNode =
+                new DefaultDependencyNode( new Dependency( new DefaultArtifact( "org.apache.maven.its:c:1.0" ),
+                                                           "compile" ) );
+            reactorAccepted.add( request.getResolutionFilter().accept( reactorNode,
+                                                                       Collections.<DependencyNode>emptyList() ) );
+
+            DependencyNode testNode =
+                new DefaultDependencyNode( new Dependency( new DefaultArtifact( "org.apache.maven.its:x:1.0" ),
+                                                           "test" ) );
+            testScopeAccepted.add( request.getResolutionFilter().accept( testNode,
+                                                                         Collections.<DependencyNode>emptyList() ) );
+
+            if ( blocking )
+            {
+                try
+                {
+                    release.await();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            resolved.add( request.getMavenProject().getArtifactId() );
+            calls.countDown();
+
+            throw new DependencyResolutionException( null, "unresolved", null );
+        }
+
+    }
+
+}
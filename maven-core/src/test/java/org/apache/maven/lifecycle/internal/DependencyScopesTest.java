@@ -0,0 +1,84 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+
+public class DependencyScopesTest
+    extends TestCase
+{
+
+    private static boolean accept( DependencyScopes scopes, String scope )
+    {
+        DependencyNode node = new DefaultDependencyNode( new Dependency( new DefaultArtifact( "g:a:1" ), scope ) );
+        return scopes.accept( node, Collections.<DependencyNode>emptyList() );
+    }
+
+    public void testClasspaths()
+    {
+        assertEquals( "[compile, provided, system]", DependencyScopes.forClasspath( "compile" ).toString() );
+        assertEquals( "[compile, runtime]", DependencyScopes.forClasspath( "runtime" ).toString() );
+        assertEquals( "[compile, provided, runtime, system]",
+                      DependencyScopes.forClasspath( "compile+runtime" ).toString() );
+        assertEquals( "[compile, runtime, system]", DependencyScopes.forClasspath( "runtime+system" ).toString() );
+        assertEquals( "[compile, provided, runtime, system, test]",
+                      DependencyScopes.forClasspath( "test" ).toString() );
+        assertSame( DependencyScopes.NONE, DependencyScopes.forClasspath( null ) );
+    }
+
+    public void testClasspathsTreatScopeNamesAsClasspaths()
+    {
+        // the scopes of the runtime class path as listed by mojo requirements also include system and provided
+        DependencyScopes scopes = DependencyScopes.forClasspaths( Arrays.asList( "compile", "runtime" ) );
+        assertSame( DependencyScopes.forClasspath( "compile+runtime" ), scopes );
+
+        assertTrue( DependencyScopes.forClasspaths( Arrays.asList( "system", "provided" ) ).isEmpty() );
+    }
+
+    public void testInstancesAreShared()
+    {
+        DependencyScopes scopes = DependencyScopes.of( Arrays.asList( "runtime", "compile" ) );
+        assertSame( DependencyScopes.forClasspath( "runtime" ), scopes );
+        assertSame( scopes, scopes.union( DependencyScopes.NONE ) );
+        assertTrue( scopes.containsAll( DependencyScopes.of( Arrays.asList( "runtime" ) ) ) );
+        assertFalse( scopes.containsAll( DependencyScopes.forClasspath( "compile" ) ) );
+    }
+
+    public void testFilter()
+    {
+        DependencyScopes scopes = DependencyScopes.forClasspath( "runtime" );
+        assertTrue( accept( scopes, "compile" ) );
+        assertTrue( accept( scopes, "runtime" ) );
+        assertFalse( accept( scopes, "test" ) );
+        assertFalse( accept( scopes, "provided" ) );
+        assertTrue( accept( scopes, "custom" ) );
+        assertTrue( scopes.accept( new DefaultDependencyNode( (Dependency) null ),
+                                   Collections.<DependencyNode>emptyList() ) );
+    }
+
+}
@@ -0,0 +1,236 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+public class MojoOutputCacheTest
+    extends TestCase
+{
+
+    private File directory;
+
+    private File basedir;
+
+    private File outputDirectory;
+
+    private MavenProject project;
+
+    private MojoOutputCache cache;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        directory = new File( "target/mojo-outputs-" + getName() ).getAbsoluteFile();
+        FileUtils.deleteDirectory( directory );
+        basedir = new File( directory, "project" );
+        outputDirectory = new File( basedir, "target/generated" );
+
+        write( new File( basedir, "src/input.txt" ), "input" );
+
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( "a" );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        model.getBuild().setOutputDirectory( outputDirectory.getPath() );
+
+        project = new MavenProject( model );
+        project.setFile( new File( basedir, "pom.xml" ) );
+
+        cache = new MojoOutputCache( new File( directory, "cache" ), new File( directory, "repository" ) );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    private static void write( File file, String contents )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        FileOutputStream os = new FileOutputStream( file );
+        try
+        {
+            os.write( contents.getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            os.close();
+        }
+    }
+
+    private MojoOutputCache.Entry newEntry()
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( "org.apache.maven.plugins" );
+        pluginDescriptor.setArtifactId( "maven-test-plugin" );
+        pluginDescriptor.setVersion( "1.0" );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( "generate" );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        mojoDescriptor.setCacheable( true );
+        mojoDescriptor.setCacheInputs( "sourceDirectory" );
+        mojoDescriptor.setCacheOutput( "outputDirectory" );
+        assertTrue( MojoOutputCache.isCacheable( mojoDescriptor ) );
+
+        Xpp3Dom configuration = new Xpp3Dom( "configuration" );
+        Xpp3Dom sourceDirectory = new Xpp3Dom( "sourceDirectory" );
+        sourceDirectory.setValue( "${basedir}/src" );
+        configuration.addChild( sourceDirectory );
+        Xpp3Dom output = new Xpp3Dom( "outputDirectory" );
+        output.setAttribute( "default-value", "${project.build.outputDirectory}" );
+        configuration.addChild( output );
+        Xpp3Dom session = new Xpp3Dom( "session" );
+        session.setValue( "${session}" );
+        configuration.addChild( session );
+
+        MojoExecution mojoExecution = new MojoExecution( mojoDescriptor, configuration );
+
+        MavenSession mavenSession =
+            new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(),
+                              Arrays.asList( project ) );
+        mavenSession.setCurrentProject( project );
+
+        return cache.newEntry( mavenSession, mojoExecution );
+    }
+
+    public void testStoredOutputsAreRestored()
+        throws Exception
+    {
+        MojoOutputCache.Entry entry = newEntry();
+        assertNotNull( entry );
+        assertEquals( outputDirectory, entry.getOutputDirectory() );
+        assertFalse( entry.restore() );
+
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        write( new File( outputDirectory, "sub/generated.txt" ), "generated in sub" );
+        assertTrue( entry.store() );
+
+        FileUtils.deleteDirectory( outputDirectory );
+
+        entry = newEntry();
+        assertTrue( entry.restore() );
+        assertEquals( "generated", FileUtils.fileRead( new File( outputDirectory, "generated.txt" ), "UTF-8" ) );
+        assertEquals( "generated in sub",
+                      FileUtils.fileRead( new File( outputDirectory, "sub/generated.txt" ), "UTF-8" ) );
+    }
+
+    public void testOutputsAddedToNonEmptyDirectoryAreNotStored()
+        throws Exception
+    {
+        write( new File( outputDirectory, "stale.txt" ), "stale" );
+
+        MojoOutputCache.Entry entry = newEntry();
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        assertFalse( entry.store() );
+
+        FileUtils.deleteDirectory( outputDirectory );
+
+        assertFalse( newEntry().restore() );
+    }
+
+    public void testEmptyEntryMissesCache()
+        throws Exception
+    {
+        MojoOutputCache.Entry entry = newEntry();
+        new File( outputDirectory, "empty" ).mkdirs();
+        assertFalse( entry.store() );
+
+        File[] entries = new File( directory, "cache" ).listFiles();
+        assertTrue( entries == null || entries.length == 0 );
+
+        // entries without files, e.g. left behind by an interrupted build, are ignored
+        entry = newEntry();
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        assertTrue( entry.store() );
+        entries = new File( directory, "cache" ).listFiles();
+        assertEquals( 1, entries.length );
+        FileUtils.deleteDirectory( new File( entries[0], "files" ) );
+        new File( entries[0], "files" ).mkdirs();
+
+        FileUtils.deleteDirectory( outputDirectory );
+        assertFalse( newEntry().restore() );
+    }
+
+    public void testExecutionsChangingProjectAreNotStored()
+        throws Exception
+    {
+        MojoOutputCache.Entry entry = newEntry();
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        project.addCompileSourceRoot( outputDirectory.getPath() );
+        assertFalse( entry.store() );
+
+        FileUtils.deleteDirectory( outputDirectory );
+        entry = newEntry();
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        Resource resource = new Resource();
+        resource.setDirectory( outputDirectory.getPath() );
+        project.addResource( resource );
+        assertFalse( entry.store() );
+
+        FileUtils.deleteDirectory( outputDirectory );
+        entry = newEntry();
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        project.getProperties().setProperty( "generated", "true" );
+        assertFalse( entry.store() );
+
+        FileUtils.deleteDirectory( outputDirectory );
+        assertFalse( newEntry().restore() );
+    }
+
+    public void testChangedInputMissesCache()
+        throws Exception
+    {
+        MojoOutputCache.Entry entry = newEntry();
+        write( new File( outputDirectory, "generated.txt" ), "generated" );
+        assertTrue( entry.store() );
+
+        write( new File( basedir, "src/input.txt" ), "changed input" );
+
+        assertFalse( newEntry().restore() );
+    }
+
+}
@@ -0,0 +1,268 @@
+package org.apache.maven.lifecycle.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
+import org.apache.maven.artifact.resolver.filter.ScopeArtifactFilter;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+
+public class ProjectBuildCacheTest
+    extends TestCase
+{
+
+    private File directory;
+
+    private File basedir;
+
+    private File upstream;
+
+    private MavenProject project;
+
+    private MavenSession session;
+
+    private ProjectBuildCache cache;
+
+    private final ArtifactHandlerManager handlers = new ArtifactHandlerManager()
+    {
+        public ArtifactHandler getArtifactHandler( String type )
+        {
+            return new DefaultArtifactHandler( type );
+        }
+
+        public void addHandlers( Map<String, ArtifactHandler> handlers )
+        {
+        }
+    };
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+        directory = new File( "target/project-builds-" + getName() ).getAbsoluteFile();
+        FileUtils.deleteDirectory( directory );
+        basedir = new File( directory, "project" );
+        upstream = new File( directory, "upstream/target/classes" );
+
+        write( new File( basedir, "src/main/java/A.java" ), "class A {}" );
+        write( new File( upstream, "B.class" ), "B" );
+
+        Model model = new Model();
+        model.setGroupId( "org.apache.maven.its" );
+        model.setArtifactId( "a" );
+        model.setVersion( "1.0" );
+        model.setBuild( new Build() );
+        model.getBuild().setOutputDirectory( new File( basedir, "target/classes" ).getPath() );
+        model.getBuild().setTestOutputDirectory( new File( basedir, "target/test-classes" ).getPath() );
+
+        project = newProject( model );
+
+        session = new MavenSession( null, new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult(),
+                                    project );
+
+        cache = new ProjectBuildCache( new File( directory, "cache" ), new File( directory, "repository" ),
+                                       ProjectBuildCache.DEFAULT_MAX_ENTRIES );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( directory );
+        super.tearDown();
+    }
+
+    private MavenProject newProject( Model model )
+    {
+        MavenProject project = new MavenProject( model );
+        project.setFile( new File( basedir, "pom.xml" ) );
+        project.addCompileSourceRoot( new File( basedir, "src/main/java" ).getPath() );
+        project.setArtifact( new DefaultArtifact( "org.apache.maven.its", "a", "1.0", null, "jar", null,
+                                                  new DefaultArtifactHandler( "jar" ) ) );
+
+        Artifact dependency =
+            new DefaultArtifact( "org.apache.maven.its", "b", "1.0", "compile", "jar", null,
+                                 new DefaultArtifactHandler( "jar" ) );
+        dependency.setFile( upstream );
+        project.setResolvedArtifacts( Collections.singleton( dependency ) );
+        project.setArtifactFilter( new ScopeArtifactFilter( "compile" ) );
+        return project;
+    }
+
+    private static void write( File file, String contents )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        FileOutputStream os = new FileOutputStream( file );
+        try
+        {
+            os.write( contents.getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            os.close();
+        }
+    }
+
+    private String fingerprint()
+    {
+        return cache.getFingerprint( session, project, Collections.<MojoExecution>emptyList() );
+    }
+
+    public void testFingerprintReflectsSourcesAndUpstreamOutputs()
+        throws Exception
+    {
+        String fingerprint = fingerprint();
+        assertNotNull( fingerprint );
+        assertEquals( fingerprint, fingerprint() );
+
+        write( new File( basedir, "src/main/java/A.java" ), "class A { }" );
+        String changedSource = fingerprint();
+        assertFalse( fingerprint.equals( changedSource ) );
+
+        write( new File( upstream, "B.class" ), "B2" );
+        assertFalse( changedSource.equals( fingerprint() ) );
+    }
+
+    public void testFingerprintReflectsUserPropertiesAndJavaVersion()
+    {
+        String fingerprint = fingerprint();
+
+        session.getUserProperties().setProperty( "skipTests", "true" );
+        String skipTests = fingerprint();
+        assertFalse( fingerprint.equals( skipTests ) );
+
+        session.getSystemProperties().setProperty( "java.version", "0.0" );
+        assertFalse( skipTests.equals( fingerprint() ) );
+    }
+
+    public void testStoredOutputsAreRestored()
+        throws Exception
+    {
+        File jar = new File( basedir, "target/a-1.0.jar" );
+        File sources = new File( basedir, "target/a-1.0-sources.jar" );
+        write( jar, "jar" );
+        write( sources, "sources" );
+        write( new File( basedir, "target/classes/A.class" ), "A" );
+        project.getArtifact().setFile( jar );
+        Artifact attached =
+            new DefaultArtifact( "org.apache.maven.its", "a", "1.0", null, "java-source", "sources",
+                                 new DefaultArtifactHandler( "java-source" ) );
+        attached.setFile( sources );
+        project.addAttachedArtifact( attached );
+
+        String fingerprint = fingerprint();
+        assertFalse( cache.contains( fingerprint ) );
+        assertTrue( cache.store( fingerprint, project ) );
+        assertTrue( cache.contains( fingerprint ) );
+
+        FileUtils.deleteDirectory( new File( basedir, "target" ) );
+
+        MavenProject rebuilt = newProject( project.getModel().clone() );
+        assertTrue( cache.restore( fingerprint, rebuilt, handlers ) );
+
+        assertEquals( jar, rebuilt.getArtifact().getFile() );
+        assertTrue( jar.isFile() );
+        assertTrue( new File( basedir, "target/classes/A.class" ).isFile() );
+
+        List<Artifact> attachedArtifacts = rebuilt.getAttachedArtifacts();
+        assertEquals( 1, attachedArtifacts.size() );
+        assertEquals( "sources", attachedArtifacts.get( 0 ).getClassifier() );
+        assertEquals( "java-source", attachedArtifacts.get( 0 ).getType() );
+        assertEquals( sources, attachedArtifacts.get( 0 ).getFile() );
+        assertEquals( "sources", FileUtils.fileRead( sources, "UTF-8" ) );
+    }
+
+    public void testProjectPomIsNotRestored()
+        throws Exception
+    {
+        File pom = project.getFile();
+        write( pom, "<project/>" );
+        project.getArtifact().setFile( pom );
+
+        String fingerprint = fingerprint();
+        assertTrue( cache.store( fingerprint, project ) );
+
+        write( pom, "<project></project>" );
+
+        assertTrue( cache.restore( fingerprint, project, handlers ) );
+        assertEquals( pom, project.getArtifact().getFile() );
+        assertEquals( "<project></project>", FileUtils.fileRead( pom, "UTF-8" ) );
+    }
+
+    public void testStaleOutputsAreDeletedOnRestore()
+        throws Exception
+    {
+        write( new File( basedir, "target/classes/A.class" ), "A" );
+
+        String fingerprint = fingerprint();
+        assertTrue( cache.store( fingerprint, project ) );
+
+        File stale = new File( basedir, "target/classes/Stale.class" );
+        write( stale, "stale" );
+        File staleTest = new File( basedir, "target/test-classes/StaleTest.class" );
+        write( staleTest, "stale" );
+
+        assertTrue( cache.restore( fingerprint, project, handlers ) );
+        assertTrue( new File( basedir, "target/classes/A.class" ).isFile() );
+        assertFalse( stale.exists() );
+        assertFalse( staleTest.exists() );
+    }
+
+    public void testLeastRecentlyUsedEntriesAreEvicted()
+        throws Exception
+    {
+        cache = new ProjectBuildCache( new File( directory, "cache" ), new File( directory, "repository" ), 2 );
+
+        assertTrue( cache.store( "first", project ) );
+        assertTrue( cache.store( "second", project ) );
+        new File( directory, "cache/first" ).setLastModified( System.currentTimeMillis() - 20000 );
+        new File( directory, "cache/second" ).setLastModified( System.currentTimeMillis() - 10000 );
+
+        assertTrue( cache.restore( "first", project, handlers ) );
+        assertTrue( cache.store( "third", project ) );
+
+        assertTrue( cache.contains( "first" ) );
+        assertFalse( cache.contains( "second" ) );
+        assertTrue( cache.contains( "third" ) );
+        assertEquals( 2, new File( directory, "cache" ).list().length );
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.codehaus.plexus.PlexusTestCase;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+
+public class DefaultMojoInstancePoolTest
+    extends PlexusTestCase
+{
+
+    public static class TestMojo
+        extends AbstractMojo
+    {
+
+        public void execute()
+        {
+        }
+
+    }
+
+    private MojoDescriptor newMojoDescriptor( String goal )
+    {
+        PluginDescriptor pluginDescriptor = new PluginDescriptor();
+        pluginDescriptor.setGroupId( "org.apache.maven.plugins" );
+        pluginDescriptor.setArtifactId( "maven-test-plugin" );
+        pluginDescriptor.setVersion( "1.0" );
+
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setGoal( goal );
+        mojoDescriptor.setPluginDescriptor( pluginDescriptor );
+        return mojoDescriptor;
+    }
+
+    public void testReleasedInstancesAreReusedPerRealmAndGoal()
+        throws Exception
+    {
+        MojoInstancePool pool = lookup( MojoInstancePool.class );
+
+        ClassWorld world = new ClassWorld();
+        ClassRealm realm = world.newRealm( "realm-a" );
+        ClassRealm otherRealm = world.newRealm( "realm-b" );
+
+        MojoInstancePool.Key key = pool.createKey( newMojoDescriptor( "compile" ), realm );
+
+        assertNull( pool.acquire( key ) );
+
+        Mojo mojo = new TestMojo();
+        pool.register( key, mojo );
+        assertTrue( pool.release( mojo ) );
+
+        assertNull( pool.acquire( pool.createKey( newMojoDescriptor( "testCompile" ), realm ) ) );
+        assertNull( pool.acquire( pool.createKey( newMojoDescriptor( "compile" ), otherRealm ) ) );
+        assertSame( mojo, pool.acquire( pool.createKey( newMojoDescriptor( "compile" ), realm ) ) );
+        assertNull( pool.acquire( key ) );
+
+        assertEquals( 1, pool.getHits() );
+        assertEquals( 4, pool.getMisses() );
+
+        pool.flush();
+
+        assertEquals( 0, pool.getHits() );
+        assertFalse( pool.release( mojo ) );
+    }
+
+    public void testUnregisteredInstancesAreNotPooled()
+        throws Exception
+    {
+        MojoInstancePool pool = lookup( MojoInstancePool.class );
+
+        assertFalse( pool.release( new TestMojo() ) );
+        assertFalse( pool.release( null ) );
+    }
+
+    public void testUnregisteredInstancesAreNotReleasedIntoPool()
+        throws Exception
+    {
+        MojoInstancePool pool = lookup( MojoInstancePool.class );
+
+        ClassRealm realm = new ClassWorld().newRealm( "realm" );
+        MojoInstancePool.Key key = pool.createKey( newMojoDescriptor( "compile" ), realm );
+
+        Mojo mojo = new TestMojo();
+        pool.register( key, mojo );
+        pool.unregister( mojo );
+
+        assertFalse( pool.release( mojo ) );
+        assertNull( pool.acquire( key ) );
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.apache.maven.plugin.internal;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.codehaus.plexus.component.configurator.ConfigurationListener;
+
+public class ValidatingConfigurationListenerTest
+    extends TestCase
+{
+
+    static class TestMojo
+        extends AbstractMojo
+    {
+
+        public void execute()
+        {
+        }
+
+    }
+
+    private static Parameter newParameter( String name, boolean required )
+    {
+        Parameter parameter = new Parameter();
+        parameter.setName( name );
+        parameter.setRequired( required );
+        return parameter;
+    }
+
+    public void testUnconfiguredParameters()
+        throws Exception
+    {
+        MojoDescriptor mojoDescriptor = new MojoDescriptor();
+        mojoDescriptor.setParameters( Arrays.asList( newParameter( "source", true ),
+                                                     newParameter( "skip", false ),
+                                                     newParameter( "encoding", false ) ) );
+
+        TestMojo mojo = new TestMojo();
+        ConfigurationListener delegate = new ConfigurationListener()
+        {
+            public void notifyFieldChangeUsingSetter( String fieldName, Object value, Object target )
+            {
+            }
+
+            public void notifyFieldChangeUsingReflection( String fieldName, Object value, Object target )
+            {
+            }
+        };
+
+        ValidatingConfigurationListener listener =
+            new ValidatingConfigurationListener( mojo, mojoDescriptor, delegate );
+
+        listener.notifyFieldChangeUsingReflection( "source", "src", mojo );
+        listener.notifyFieldChangeUsingSetter( "skip", Boolean.FALSE, mojo );
+        // a null value leaves the field as it was
+        listener.notifyFieldChangeUsingReflection( "encoding", null, mojo );
+        // fields of nested objects don't count
+        listener.notifyFieldChangeUsingReflection( "encoding", "UTF-8", new Object() );
+
+        assertTrue( listener.getMissingParameters().isEmpty() );
+        assertEquals( Collections.singleton( "encoding" ), listener.getUnconfiguredParameters() );
+    }
+
+}
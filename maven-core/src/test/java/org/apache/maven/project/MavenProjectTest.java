@@ -179,6 +179,70 @@ public void testCloneWithActiveProfile()
                        activeProfilesClone );
     }
 
+    public void testCloneCannotModifyOriginalModel()
+        throws Exception
+    {
+        File f = getFileForClasspathResource( "canonical-pom.xml" );
+        MavenProject projectToClone = getProject( f );
+        String version = projectToClone.getVersion();
+        String directory = projectToClone.getBuild().getDirectory();
+        int dependencies = projectToClone.getDependencies().size();
+        int resources = projectToClone.getBuild().getResources().size();
+
+        MavenProject clonedProject = projectToClone.clone();
+
+        assertEquals( projectToClone.getId(), clonedProject.getId() );
+        assertEquals( projectToClone.getGroupId(), clonedProject.getGroupId() );
+        assertEquals( projectToClone.getPackaging(), clonedProject.getPackaging() );
+
+        clonedProject.setVersion( "forked" );
+        clonedProject.getBuild().setDirectory( "forked" );
+        clonedProject.getProperties().setProperty( "forked", "true" );
+        clonedProject.getDependencies().add( new org.apache.maven.model.Dependency() );
+        clonedProject.getBuild().addResource( new org.apache.maven.model.Resource() );
+        clonedProject.addCompileSourceRoot( "forked" );
+
+        assertNotSame( projectToClone.getModel(), clonedProject.getModel() );
+        assertEquals( version, projectToClone.getVersion() );
+        assertEquals( directory, projectToClone.getBuild().getDirectory() );
+        assertNull( projectToClone.getProperties().getProperty( "forked" ) );
+        assertEquals( dependencies, projectToClone.getDependencies().size() );
+        assertEquals( resources, projectToClone.getBuild().getResources().size() );
+        assertFalse( projectToClone.getCompileSourceRoots().contains( "forked" ) );
+    }
+
+    public void testCloneOfUnmodifiedCloneCannotModifyOriginalModel()
+        throws Exception
+    {
+        File f = getFileForClasspathResource( "canonical-pom.xml" );
+        MavenProject projectToClone = getProject( f );
+        String directory = projectToClone.getBuild().getDirectory();
+
+        MavenProject clonedProject = projectToClone.clone();
+        MavenProject clonedClone = clonedProject.clone();
+
+        clonedClone.getBuild().setDirectory( "forked" );
+
+        assertEquals( "forked", clonedClone.getBuild().getDirectory() );
+        assertEquals( directory, clonedProject.getBuild().getDirectory() );
+        assertEquals( directory, projectToClone.getBuild().getDirectory() );
+    }
+
+    public void testOriginalCannotModifyAccessedCloneModel()
+        throws Exception
+    {
+        File f = getFileForClasspathResource( "canonical-pom.xml" );
+        MavenProject projectToClone = getProject( f );
+        String directory = projectToClone.getBuild().getDirectory();
+
+        MavenProject clonedProject = projectToClone.clone();
+        assertEquals( directory, clonedProject.getBuild().getDirectory() );
+
+        projectToClone.getBuild().setDirectory( "original" );
+
+        assertEquals( directory, clonedProject.getBuild().getDirectory() );
+    }
+
     public void testUndefinedOutputDirectory()
         throws Exception
     {
@@ -0,0 +1,307 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.RequestTrace;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.DependencyCollectionContext;
+import org.eclipse.aether.collection.DependencySelector;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.resolution.DependencyResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.util.filter.ScopeDependencyFilter;
+import org.eclipse.aether.util.graph.selector.ScopeDependencySelector;
+
+public class ParallelDependencyResolverTest
+    extends TestCase
+{
+
+    private RemoteRepository central;
+
+    private RemoteRepository other;
+
+    private AtomicInteger inFlight;
+
+    private AtomicInteger maxInFlight;
+
+    private List<String> resolved;
+
+    private RepositorySystem repoSystem;
+
+    private ParallelDependencyResolver resolver;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        central = new RemoteRepository.Builder( "central", "default", "http://repo.maven.apache.org/maven2" ).build();
+        other = new RemoteRepository.Builder( "other", "default", "http://localhost/repo" ).build();
+
+        inFlight = new AtomicInteger();
+        maxInFlight = new AtomicInteger();
+        resolved = Collections.synchronizedList( new ArrayList<String>() );
+
+        repoSystem =
+            (RepositorySystem) Proxy.newProxyInstance( getClass().getClassLoader(),
+                                                       new Class<?>[] { RepositorySystem.class }, new Resolver() );
+
+        resolver = new ParallelDependencyResolver( repoSystem, new DefaultRepositorySystemSession(), 8, 2, null );
+    }
+
+    @Override
+    protected void tearDown()
+        throws Exception
+    {
+        resolver.close();
+        super.tearDown();
+    }
+
+    /**
+     * Simulates a remote repository with some latency.
+     */
+    class Resolver
+        implements InvocationHandler
+    {
+
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable
+        {
+            assertEquals( "resolveArtifact", method.getName() );
+            RepositorySystemSession session = (RepositorySystemSession) args[0];
+            ArtifactRequest request = (ArtifactRequest) args[1];
+            Artifact artifact = request.getArtifact();
+
+            int current = inFlight.incrementAndGet();
+            synchronized ( maxInFlight )
+            {
+                maxInFlight.set( Math.max( maxInFlight.get(), current ) );
+            }
+            try
+            {
+                Thread.sleep( 20 );
+            }
+            finally
+            {
+                inFlight.decrementAndGet();
+            }
+
+            resolved.add( artifact.getArtifactId() );
+
+            ArtifactResult result = new ArtifactResult( request );
+            if ( artifact.getArtifactId().startsWith( "missing" ) )
+            {
+                result.addException( new ArtifactNotFoundException( artifact, central ) );
+                throw new ArtifactResolutionException( Collections.singletonList( result ) );
+            }
+
+            File file = new File( "target/test-classes/" + artifact.getArtifactId() + ".jar" );
+            artifact = artifact.setFile( file );
+            RepositoryEvent.Builder event =
+                new RepositoryEvent.Builder( session, RepositoryEvent.EventType.ARTIFACT_DOWNLOADED );
+            session.getRepositoryListener().artifactDownloaded( event.setArtifact( artifact ).setFile( file ).build() );
+            return result.setArtifact( artifact ).setRepository( central );
+        }
+
+    }
+
+    private DefaultDependencyNode newNode( String coords, RemoteRepository repository )
+    {
+        Dependency dependency = new Dependency( new DefaultArtifact( coords ), "compile" );
+        DefaultDependencyNode node = new DefaultDependencyNode( dependency );
+        node.setRepositories( Collections.singletonList( repository ) );
+        node.setChildren( new ArrayList<DependencyNode>() );
+        return node;
+    }
+
+    private DependencyRequest newRequest( String... artifactIds )
+    {
+        DefaultDependencyNode root = new DefaultDependencyNode( new DefaultArtifact( "org.test:project:1.0" ) );
+        root.setChildren( new ArrayList<DependencyNode>() );
+        for ( String artifactId : artifactIds )
+        {
+            root.getChildren().add( newNode( "org.test:" + artifactId + ":1.0", central ) );
+        }
+        return new DependencyRequest( root, null );
+    }
+
+    public void testResolvesWithLimitedConnectionsPerRepository()
+        throws Exception
+    {
+        DependencyRequest request = newRequest( "a", "b", "c", "d", "e", "f" );
+
+        DependencyResult result = resolver.resolveDependencies( request );
+
+        assertEquals( 6, result.getArtifactResults().size() );
+        assertEquals( "a", result.getArtifactResults().get( 0 ).getArtifact().getArtifactId() );
+        assertEquals( "f", result.getArtifactResults().get( 5 ).getArtifact().getArtifactId() );
+        assertNotNull( request.getRoot().getChildren().get( 0 ).getArtifact().getFile() );
+        assertEquals( 2, maxInFlight.get() );
+        assertEquals( 6, resolver.getDownloads() );
+    }
+
+    public void testRepositoriesAreLimitedSeparately()
+        throws Exception
+    {
+        DependencyRequest request = newRequest( "a", "b", "c", "d" );
+        request.getRoot().getChildren().add( newNode( "org.test:x:1.0", other ) );
+        request.getRoot().getChildren().add( newNode( "org.test:y:1.0", other ) );
+
+        resolver.resolveDependencies( request );
+
+        assertTrue( String.valueOf( maxInFlight.get() ), maxInFlight.get() > 2 );
+        assertTrue( maxInFlight.get() <= 4 );
+    }
+
+    public void testFailureIsReportedWithAllResults()
+    {
+        try
+        {
+            resolver.resolveDependencies( newRequest( "a", "missing", "b" ) );
+            fail( "Missing artifact not reported" );
+        }
+        catch ( DependencyResolutionException e )
+        {
+            List<ArtifactResult> results = e.getResult().getArtifactResults();
+            assertEquals( 3, results.size() );
+            assertTrue( results.get( 0 ).isResolved() );
+            assertFalse( results.get( 1 ).isResolved() );
+            assertTrue( results.get( 2 ).isResolved() );
+        }
+    }
+
+    private void fireDescriptorRead( ParallelDependencyResolver resolver, String coords )
+    {
+        Artifact artifact = new DefaultArtifact( coords );
+        ArtifactDescriptorRequest descriptorRequest =
+            new ArtifactDescriptorRequest( artifact, Collections.singletonList( central ), "project" );
+        RequestTrace trace = RequestTrace.newChild( null, descriptorRequest ).newChild( "pom request" );
+
+        RepositorySystemSession session = resolver.getSession();
+        RepositoryEvent.Builder event =
+            new RepositoryEvent.Builder( session, RepositoryEvent.EventType.ARTIFACT_RESOLVED ).setTrace( trace );
+        event.setArtifact( new DefaultArtifact( artifact.getGroupId(), artifact.getArtifactId(), "pom",
+                                                artifact.getVersion() ) );
+        session.getRepositoryListener().artifactResolved( event.build() );
+    }
+
+    public void testArtifactsAreFetchedWhenDescriptorIsRead()
+        throws Exception
+    {
+        fireDescriptorRead( resolver, "org.test:early:1.0" );
+
+        resolver.resolveDependencies( newRequest( "early" ) );
+
+        assertEquals( 2, resolved.size() );
+        assertEquals( "early", resolved.get( 0 ) );
+    }
+
+    public void testDependenciesRejectedByFilterAreNotPrefetched()
+        throws Exception
+    {
+        DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+        session.setDependencySelector( new ScopeDependencySelector( "test", "provided" ) );
+        resolver.close();
+        resolver = new ParallelDependencyResolver( repoSystem, session, 8, 2, new ScopeDependencyFilter( "test" ) );
+
+        DependencyCollectionContext context = newContext( null );
+        DependencySelector selector = resolver.getSession().getDependencySelector().deriveChildSelector( context );
+        Dependency junit = new Dependency( new DefaultArtifact( "org.test:junit:1.0" ), "test" );
+        assertTrue( selector.selectDependency( junit ) );
+        Dependency lib = new Dependency( new DefaultArtifact( "org.test:lib:1.0" ), "compile" );
+        assertTrue( selector.selectDependency( lib ) );
+        selector = selector.deriveChildSelector( newContext( junit ) );
+        assertTrue( selector.selectDependency( new Dependency( new DefaultArtifact( "org.test:hamcrest:1.0" ),
+                                                               "compile" ) ) );
+
+        fireDescriptorRead( resolver, "org.test:junit:1.0" );
+        fireDescriptorRead( resolver, "org.test:hamcrest:1.0" );
+        fireDescriptorRead( resolver, "org.test:lib:1.0" );
+        fireDescriptorRead( resolver, "org.test:unknown:1.0" );
+
+        // waits for the prefetches of both artifacts
+        resolver.resolveDependencies( newRequest( "lib", "unknown" ) );
+
+        List<String> sorted = new ArrayList<String>( resolved );
+        Collections.sort( sorted );
+        assertEquals( Arrays.asList( "lib", "lib", "unknown", "unknown" ), sorted );
+    }
+
+    private DependencyCollectionContext newContext( final Dependency dependency )
+    {
+        return (DependencyCollectionContext) Proxy.newProxyInstance( getClass().getClassLoader(),
+            new Class<?>[] { DependencyCollectionContext.class }, new InvocationHandler()
+            {
+                public Object invoke( Object proxy, Method method, Object[] args )
+                {
+                    return "getDependency".equals( method.getName() ) ? dependency : null;
+                }
+            } );
+    }
+
+    public void testScopeDerivation()
+    {
+        assertEquals( "compile", ParallelDependencyResolver.deriveScope( null, "compile" ) );
+        assertEquals( "runtime", ParallelDependencyResolver.deriveScope( "compile", "runtime" ) );
+        assertEquals( "test", ParallelDependencyResolver.deriveScope( "test", "compile" ) );
+        assertEquals( "runtime", ParallelDependencyResolver.deriveScope( "runtime", "compile" ) );
+        assertEquals( "provided", ParallelDependencyResolver.deriveScope( "provided", "runtime" ) );
+        assertEquals( "system", ParallelDependencyResolver.deriveScope( "compile", "system" ) );
+    }
+
+    public void testResolverThreadsAreDaemons()
+    {
+        Thread thread = new ParallelDependencyResolver.ResolverThreadFactory().newThread( new Runnable()
+        {
+            public void run()
+            {
+            }
+        } );
+        assertTrue( thread.isDaemon() );
+    }
+
+}
@@ -20,12 +20,17 @@
  */
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.maven.AbstractCoreMavenComponentTestCase;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
 import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelProblem;
 import org.apache.maven.model.building.ModelSource;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 
 public class ProjectBuilderTest
     extends AbstractCoreMavenComponentTestCase
@@ -84,4 +89,59 @@ public void testVersionlessManagedDependency()
             // this is expected
         }
     }
+
+    public void testCompactModeSharesInheritedModelParts()
+        throws Exception
+    {
+        File pomFile = new File( "src/test/resources/projects/compact/pom.xml" );
+        MavenSession mavenSession = createMavenSession( null );
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( mavenSession.getRepositorySession() );
+        repoSession.setConfigProperty( DefaultProjectBuilder.CONFIG_PROP_COMPACT, "true" );
+        ProjectBuildingRequest configuration = new DefaultProjectBuildingRequest();
+        configuration.setRepositorySession( repoSession );
+
+        List<ProjectBuildingResult> results =
+            lookup( org.apache.maven.project.ProjectBuilder.class ).build( Collections.singletonList( pomFile ), true,
+                                                                           configuration );
+        assertEquals( 3, results.size() );
+
+        Model a = results.get( 0 ).getProject().getModel();
+        Model b = results.get( 1 ).getProject().getModel();
+        assertEquals( "a", a.getArtifactId() );
+        assertEquals( "b", b.getArtifactId() );
+
+        assertSame( a.getDependencyManagement().getDependencies().get( 0 ),
+                    b.getDependencyManagement().getDependencies().get( 0 ) );
+        assertSame( a.getRepositories().get( 0 ), b.getRepositories().get( 0 ) );
+        String pluginKey = "org.apache.maven.its.plugins:maven-it-plugin";
+        assertSame( a.getBuild().getPluginsAsMap().get( pluginKey ).getConfiguration(),
+                    b.getBuild().getPluginsAsMap().get( pluginKey ).getConfiguration() );
+        assertNull( a.getLocation( "artifactId" ) );
+    }
+
+    public void testCompactModeReportsProblemLocations()
+        throws Exception
+    {
+        File pomFile = new File( "src/test/resources/projects/versionless-managed-dependency.xml" );
+        MavenSession mavenSession = createMavenSession( null );
+        DefaultRepositorySystemSession repoSession =
+            new DefaultRepositorySystemSession( mavenSession.getRepositorySession() );
+        repoSession.setConfigProperty( DefaultProjectBuilder.CONFIG_PROP_COMPACT, "true" );
+        ProjectBuildingRequest configuration = new DefaultProjectBuildingRequest();
+        configuration.setRepositorySession( repoSession );
+
+        try
+        {
+            lookup( org.apache.maven.project.ProjectBuilder.class ).build( Collections.singletonList( pomFile ), false,
+                                                                           configuration );
+            fail();
+        }
+        catch ( ProjectBuildingException e )
+        {
+            List<ModelProblem> problems = e.getResults().get( 0 ).getProblems();
+            assertFalse( problems.isEmpty() );
+            assertTrue( problems.get( 0 ).getLineNumber() > 0 );
+        }
+    }
 }
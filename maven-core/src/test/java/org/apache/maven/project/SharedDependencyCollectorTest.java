@@ -0,0 +1,204 @@
+package org.apache.maven.project;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.DependencyGraphStore;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyGraphTransformationContext;
+import org.eclipse.aether.collection.DependencyGraphTransformer;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RemoteRepository;
+
+public class SharedDependencyCollectorTest
+    extends TestCase
+{
+
+    private List<CollectRequest> requests;
+
+    private DefaultRepositorySystemSession session;
+
+    private SharedDependencyCollector collector;
+
+    private List<Integer> transformed;
+
+    @Override
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        requests = new ArrayList<CollectRequest>();
+        transformed = new ArrayList<Integer>();
+
+        RepositorySystem repoSystem =
+            (RepositorySystem) Proxy.newProxyInstance( getClass().getClassLoader(),
+                                                       new Class<?>[] { RepositorySystem.class }, new Collector() );
+
+        session = new DefaultRepositorySystemSession();
+        // simulates the conflict resolution which modifies the graph
+        session.setDependencyGraphTransformer( new DependencyGraphTransformer()
+        {
+            public DependencyNode transformGraph( DependencyNode node, DependencyGraphTransformationContext context )
+            {
+                for ( DependencyNode child : node.getChildren() )
+                {
+                    transformed.add( child.getChildren().size() );
+                    child.getChildren().clear();
+                }
+                return node;
+            }
+        } );
+
+        collector = new SharedDependencyCollector( repoSystem );
+    }
+
+    class Collector
+        implements InvocationHandler
+    {
+
+        public Object invoke( Object proxy, Method method, Object[] args )
+        {
+            assertEquals( "collectDependencies", method.getName() );
+            assertNull( ( (DefaultRepositorySystemSession) args[0] ).getDependencyGraphTransformer() );
+            return collect( (CollectRequest) args[1] );
+        }
+
+    }
+
+    private CollectResult collect( CollectRequest request )
+    {
+        requests.add( request );
+
+        DefaultDependencyNode root = new DefaultDependencyNode( request.getRootArtifact() );
+        root.setChildren( new ArrayList<DependencyNode>() );
+        for ( Dependency dependency : request.getDependencies() )
+        {
+            DefaultDependencyNode node = new DefaultDependencyNode( dependency );
+            node.setChildren( new ArrayList<DependencyNode>() );
+            node.getChildren().add( new DefaultDependencyNode( newDependency( "org.test:transitive:1.0" ) ) );
+            root.getChildren().add( node );
+        }
+        return new CollectResult( request ).setRoot( root );
+    }
+
+    private static Dependency newDependency( String coords )
+    {
+        return new Dependency( new DefaultArtifact( coords ), "compile" );
+    }
+
+    private static CollectRequest newRequest( String project, String... dependencies )
+    {
+        CollectRequest request = new CollectRequest();
+        request.setRootArtifact( new DefaultArtifact( project ) );
+        request.setRequestContext( "project" );
+        for ( String dependency : dependencies )
+        {
+            request.addDependency( newDependency( dependency ) );
+        }
+        return request;
+    }
+
+    public void testSubgraphsAreSharedAmongProjects()
+    {
+        DependencyNode first = collector.collectDependencies( session, newRequest( "org.test:a:1.0", "org.test:x:1.0",
+                                                                                   "org.test:y:1.0" ) );
+        assertEquals( 2, first.getChildren().size() );
+        assertEquals( 1, requests.size() );
+
+        DependencyNode second = collector.collectDependencies( session, newRequest( "org.test:b:1.0", "org.test:y:1.0",
+                                                                                    "org.test:z:1.0" ) );
+        assertEquals( "org.test:b:jar:1.0", second.getArtifact().toString() );
+        assertEquals( 2, second.getChildren().size() );
+        assertEquals( "y", second.getChildren().get( 0 ).getArtifact().getArtifactId() );
+        assertEquals( "z", second.getChildren().get( 1 ).getArtifact().getArtifactId() );
+        assertEquals( 2, requests.size() );
+        assertEquals( Arrays.asList( newDependency( "org.test:z:1.0" ) ), requests.get( 1 ).getDependencies() );
+
+        collector.collectDependencies( session, newRequest( "org.test:c:1.0", "org.test:z:1.0", "org.test:x:1.0" ) );
+        assertEquals( 2, requests.size() );
+    }
+
+    public void testTransformationDoesNotAffectSharedSubgraphs()
+    {
+        collector.collectDependencies( session, newRequest( "org.test:a:1.0", "org.test:x:1.0" ) );
+        DependencyNode node =
+            collector.collectDependencies( session, newRequest( "org.test:b:1.0", "org.test:x:1.0" ) );
+
+        assertEquals( 1, requests.size() );
+        assertEquals( Arrays.asList( 1, 1 ), transformed );
+        assertEquals( 0, node.getChildren().get( 0 ).getChildren().size() );
+    }
+
+    public void testDifferentDependencyManagementIsNotShared()
+    {
+        collector.collectDependencies( session, newRequest( "org.test:a:1.0", "org.test:x:1.0" ) );
+
+        CollectRequest request = newRequest( "org.test:b:1.0", "org.test:x:1.0" );
+        request.addManagedDependency( newDependency( "org.test:transitive:2.0" ) );
+        collector.collectDependencies( session, request );
+
+        assertEquals( 2, requests.size() );
+    }
+
+    public void testSubgraphWithCycleToProjectIsNotShared()
+    {
+        collector.collectDependencies( session, newRequest( "org.test:transitive:1.0", "org.test:x:1.0" ) );
+
+        assertNotNull( collector.collectDependencies( session, newRequest( "org.test:b:1.0", "org.test:x:1.0" ) ) );
+        assertEquals( 2, requests.size() );
+    }
+
+    public void testAssembledGraphIsStorable()
+        throws Exception
+    {
+        DependencyNode node =
+            collector.collectDependencies( session, newRequest( "org.test:a:1.0", "org.test:x:1.0", "org.test:y:1.0" ) );
+
+        File directory = new File( "target/shared-dependency-graphs" );
+        FileUtils.deleteDirectory( directory );
+        DependencyGraphStore store = new DependencyGraphStore( directory );
+        assertTrue( store.store( "abc", node ) );
+
+        List<RemoteRepository> repositories = Collections.emptyList();
+        DependencyNode loaded = store.load( "abc", repositories );
+        assertNotNull( loaded );
+        assertEquals( 2, loaded.getChildren().size() );
+        assertEquals( "y", loaded.getChildren().get( 1 ).getArtifact().getArtifactId() );
+    }
+
+}
@@ -32,16 +32,22 @@
 
 import org.apache.maven.model.Activation;
 import org.apache.maven.model.Build;
+import org.apache.maven.model.Contributor;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Developer;
+import org.apache.maven.model.DistributionManagement;
+import org.apache.maven.model.Extension;
 import org.apache.maven.model.InputLocation;
 import org.apache.maven.model.InputSource;
+import org.apache.maven.model.MailingList;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.PluginManagement;
 import org.apache.maven.model.Profile;
 import org.apache.maven.model.Repository;
+import org.apache.maven.model.Resource;
 import org.apache.maven.model.building.ModelProblem.Severity;
 import org.apache.maven.model.building.ModelProblem.Version;
 import org.apache.maven.model.composition.DependencyManagementImporter;
@@ -356,6 +362,14 @@ else if ( !parentIds.add( parentData.getId() ) )
             }
         }
 
+        if ( request.isDescriptorMode() )
+        {
+            for ( ModelData currentData : lineage )
+            {
+                pruneToDescriptor( currentData.getModel() );
+            }
+        }
+
         problems.setSource( inputModel );
         checkPluginVersions( lineage, request, problems );
 
@@ -372,7 +386,10 @@ else if ( !parentIds.add( parentData.getId() ) )
         resultData.setModel( resultModel );
 
         // url normalization
-        modelUrlNormalizer.normalize( resultModel, request );
+        if ( !request.isDescriptorMode() )
+        {
+            modelUrlNormalizer.normalize( resultModel, request );
+        }
 
         // Now the fully interpolated model is available: reconfigure the resolver
         configureResolver( request.getModelResolver(), resultModel, problems , true );
@@ -417,11 +434,14 @@ private ModelBuildingResult build( ModelBuildingRequest request, ModelBuildingRe
         problems.setSource( resultModel );
         problems.setRootModel( resultModel );
 
-        // model path translation
-        modelPathTranslator.alignToBaseDirectory( resultModel, resultModel.getProjectDirectory(), request );
+        if ( !request.isDescriptorMode() )
+        {
+            // model path translation
+            modelPathTranslator.alignToBaseDirectory( resultModel, resultModel.getProjectDirectory(), request );
 
-        // plugin management injection
-        pluginManagementInjector.injectManagement( resultModel, request, problems );
+            // plugin management injection
+            pluginManagementInjector.injectManagement( resultModel, request, problems );
+        }
 
         fireEvent( resultModel, request, problems, ModelBuildingEventCatapult.BUILD_EXTENSIONS_ASSEMBLED );
 
@@ -680,6 +700,46 @@ private void checkPluginVersions( List<ModelData> lineage, ModelBuildingRequest
         }
     }
 
+    /**
+     * Drops the parts of the model that are irrelevant for an artifact descriptor, so that the remaining steps like
+     * inheritance assembly and interpolation need not process them. The build section keeps its directories and final
+     * name, these can still be referenced by expressions in the dependencies (e.g. system paths).
+     */
+    private void pruneToDescriptor( Model model )
+    {
+        Build build = model.getBuild();
+        if ( build != null )
+        {
+            build.setPlugins( new ArrayList<Plugin>() );
+            build.setPluginManagement( null );
+            build.setExtensions( new ArrayList<Extension>() );
+            build.setResources( new ArrayList<Resource>() );
+            build.setTestResources( new ArrayList<Resource>() );
+            build.setFilters( new ArrayList<String>() );
+        }
+
+        DistributionManagement distMngt = model.getDistributionManagement();
+        if ( distMngt != null )
+        {
+            distMngt.setRepository( null );
+            distMngt.setSnapshotRepository( null );
+            distMngt.setSite( null );
+        }
+
+        model.setReporting( null );
+        model.setReports( null );
+        model.setProfiles( new ArrayList<Profile>() );
+        model.setModules( new ArrayList<String>() );
+        model.setPluginRepositories( new ArrayList<Repository>() );
+        model.setDevelopers( new ArrayList<Developer>() );
+        model.setContributors( new ArrayList<Contributor>() );
+        model.setMailingLists( new ArrayList<MailingList>() );
+        model.setCiManagement( null );
+        model.setIssueManagement( null );
+        model.setScm( null );
+        model.setOrganization( null );
+    }
+
     private void assembleInheritance( List<ModelData> lineage, ModelBuildingRequest request,
                                       ModelProblemCollector problems )
     {
@@ -1114,6 +1174,7 @@ private void importDependencyManagement( Model model, ModelBuildingRequest reque
                     importRequest.setSystemProperties( request.getSystemProperties() );
                     importRequest.setUserProperties( request.getUserProperties() );
                     importRequest.setLocationTracking( request.isLocationTracking() );
+                    importRequest.setDescriptorMode( request.isDescriptorMode() );
                 }
 
                 importRequest.setModelSource( importSource );
@@ -45,6 +45,8 @@
 
     private boolean processPlugins;
 
+    private boolean descriptorMode;
+
     private boolean twoPhaseBuilding;
 
     private boolean locationTracking;
@@ -85,6 +87,7 @@ public DefaultModelBuildingRequest( ModelBuildingRequest request )
         setModelSource( request.getModelSource() );
         setValidationLevel( request.getValidationLevel() );
         setProcessPlugins( request.isProcessPlugins() );
+        setDescriptorMode( request.isDescriptorMode() );
         setTwoPhaseBuilding( request.isTwoPhaseBuilding() );
         setProfiles( request.getProfiles() );
         setActiveProfileIds( request.getActiveProfileIds() );
@@ -149,6 +152,18 @@ public DefaultModelBuildingRequest setProcessPlugins( boolean processPlugins )
         return this;
     }
 
+    public boolean isDescriptorMode()
+    {
+        return descriptorMode;
+    }
+
+    public DefaultModelBuildingRequest setDescriptorMode( boolean descriptorMode )
+    {
+        this.descriptorMode = descriptorMode;
+
+        return this;
+    }
+
     public boolean isTwoPhaseBuilding()
     {
         return twoPhaseBuilding;
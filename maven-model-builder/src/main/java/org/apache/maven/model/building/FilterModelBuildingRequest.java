@@ -92,6 +92,18 @@ public FilterModelBuildingRequest setProcessPlugins( boolean processPlugins )
         return this;
     }
 
+    public boolean isDescriptorMode()
+    {
+        return request.isDescriptorMode();
+    }
+
+    public FilterModelBuildingRequest setDescriptorMode( boolean descriptorMode )
+    {
+        request.setDescriptorMode( descriptorMode );
+
+        return this;
+    }
+
     public boolean isTwoPhaseBuilding()
     {
         return request.isTwoPhaseBuilding();
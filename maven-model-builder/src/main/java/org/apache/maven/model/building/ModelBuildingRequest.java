@@ -134,6 +134,26 @@
      */
     ModelBuildingRequest setProcessPlugins( boolean processPlugins );
 
+    /**
+     * Indicates whether the model is only built to read the dependency information of an artifact. If enabled, the
+     * model builder only processes the parts of the model relevant for an artifact descriptor, i.e. the coordinates,
+     * properties, dependencies, dependency management, repositories, licenses, prerequisites and the relocation. All
+     * other parts like the build, the reporting or the project infos are dropped from the effective model.
+     *
+     * @return {@code true} if only the artifact descriptor should be built, {@code false} otherwise.
+     * @since 3.2.6
+     */
+    boolean isDescriptorMode();
+
+    /**
+     * Controls whether the model is only built to read the dependency information of an artifact.
+     *
+     * @param descriptorMode {@code true} to only build the artifact descriptor, {@code false} otherwise.
+     * @return This request, never {@code null}.
+     * @since 3.2.6
+     */
+    ModelBuildingRequest setDescriptorMode( boolean descriptorMode );
+
     /**
      * Indicates whether the model building should happen in two phases. If enabled, the initial invocation of the model
      * builder will only produce an interim result which may be used to analyze inter-model dependencies before the
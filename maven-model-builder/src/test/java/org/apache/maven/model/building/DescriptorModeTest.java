@@ -0,0 +1,117 @@
+package org.apache.maven.model.building;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.License;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Repository;
+
+public class DescriptorModeTest
+    extends TestCase
+{
+
+    private Model build( boolean descriptorMode )
+        throws Exception
+    {
+        File pom = new File( "src/test/resources/poms/descriptor/child.xml" ).getAbsoluteFile();
+
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setValidationLevel( ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL );
+        request.setProcessPlugins( false );
+        request.setTwoPhaseBuilding( false );
+        request.setDescriptorMode( descriptorMode );
+        request.setModelSource( new FileModelSource( pom ) );
+
+        return new DefaultModelBuilderFactory().newInstance().build( request ).getEffectiveModel();
+    }
+
+    private static List<String> toStrings( List<Dependency> dependencies )
+    {
+        List<String> strings = new ArrayList<String>();
+        for ( Dependency dependency : dependencies )
+        {
+            strings.add( dependency.getManagementKey() + ':' + dependency.getVersion() + ':' + dependency.getScope()
+                + ':' + dependency.getSystemPath() + ':' + dependency.isOptional() );
+        }
+        return strings;
+    }
+
+    public void testDescriptorPartsMatchFullModel()
+        throws Exception
+    {
+        Model full = build( false );
+        Model descriptor = build( true );
+
+        assertEquals( full.getId(), descriptor.getId() );
+        assertEquals( full.getProperties(), descriptor.getProperties() );
+        assertEquals( toStrings( full.getDependencies() ), toStrings( descriptor.getDependencies() ) );
+        assertEquals( toStrings( full.getDependencyManagement().getDependencies() ),
+                      toStrings( descriptor.getDependencyManagement().getDependencies() ) );
+
+        assertEquals( full.getRepositories().size(), descriptor.getRepositories().size() );
+        for ( int i = 0; i < full.getRepositories().size(); i++ )
+        {
+            Repository expected = full.getRepositories().get( i );
+            Repository actual = descriptor.getRepositories().get( i );
+            assertEquals( expected.getId(), actual.getId() );
+            assertEquals( expected.getUrl(), actual.getUrl() );
+        }
+
+        assertEquals( full.getLicenses().size(), descriptor.getLicenses().size() );
+        for ( int i = 0; i < full.getLicenses().size(); i++ )
+        {
+            License expected = full.getLicenses().get( i );
+            License actual = descriptor.getLicenses().get( i );
+            assertEquals( expected.getName(), actual.getName() );
+            assertEquals( expected.getUrl(), actual.getUrl() );
+        }
+
+        assertEquals( "child-4.11", full.getDistributionManagement().getRelocation().getArtifactId() );
+        assertEquals( "child-4.11", descriptor.getDistributionManagement().getRelocation().getArtifactId() );
+        assertEquals( "junit", descriptor.getDependencies().get( 2 ).getArtifactId() );
+        assertEquals( "http://repo.example.org/child/", descriptor.getRepositories().get( 0 ).getUrl() );
+    }
+
+    public void testIrrelevantPartsAreDropped()
+        throws Exception
+    {
+        Model full = build( false );
+        Model descriptor = build( true );
+
+        assertFalse( full.getBuild().getPlugins().isEmpty() );
+        assertNotNull( full.getScm() );
+        assertNotNull( full.getReporting() );
+
+        assertTrue( descriptor.getBuild().getPlugins().isEmpty() );
+        assertNull( descriptor.getBuild().getPluginManagement() );
+        assertNull( descriptor.getReporting() );
+        assertNull( descriptor.getScm() );
+        assertNull( descriptor.getDistributionManagement().getRepository() );
+        assertTrue( descriptor.getProfiles().isEmpty() );
+    }
+
+}
@@ -56,9 +56,15 @@
 
     private static final String DEFAULT_LANGUAGE = "java";
 
-    private List<Parameter> parameters;
+    private volatile List<Parameter> parameters;
 
-    private Map<String, Parameter> parameterMap;
+    private volatile Map<String, Parameter> parameterMap;
+
+    /**
+     * The mojo element of the plugin descriptor from which the parameters are yet to be built, {@code null} once the
+     * parameters have been built.
+     */
+    private volatile PlexusConfiguration parameterSource;
 
     /** By default, the execution strategy is "once-per-session" */
     private String executionStrategy = SINGLE_PASS_EXEC_STRATEGY;
@@ -141,6 +147,30 @@
      */
     private boolean threadSafe = false;
 
+    /**
+     * By default, mojo instances are not reused across executions
+     * @since 3.2.6
+     */
+    private boolean reusable = false;
+
+    /**
+     * By default, the outputs of mojo executions are not cached
+     * @since 3.2.6
+     */
+    private boolean cacheable = false;
+
+    /**
+     * The names of the parameters denoting the input files and directories of a cacheable mojo
+     * @since 3.2.6
+     */
+    private String cacheInputs;
+
+    /**
+     * The name of the parameter denoting the output directory of a cacheable mojo
+     * @since 3.2.6
+     */
+    private String cacheOutput;
+
     /**
      * Default constructor.
      */
@@ -191,6 +221,8 @@ public void setDeprecated( String deprecated )
      */
     public List<Parameter> getParameters()
     {
+        resolveParameters();
+
         return parameters;
     }
 
@@ -214,6 +246,8 @@ public void setParameters( List<Parameter> parameters )
     public void addParameter( Parameter parameter )
         throws DuplicateParameterException
     {
+        resolveParameters();
+
         if ( parameters != null && parameters.contains( parameter ) )
         {
             throw new DuplicateParameterException( parameter.getName()
@@ -234,20 +268,59 @@ public void addParameter( Parameter parameter )
      */
     public Map<String, Parameter> getParameterMap()
     {
-        if ( parameterMap == null )
+        resolveParameters();
+
+        Map<String, Parameter> map = parameterMap;
+
+        if ( map == null )
         {
-            parameterMap = new HashMap<String, Parameter>();
+            map = new HashMap<String, Parameter>();
 
             if ( parameters != null )
             {
                 for ( Parameter pd : parameters )
                 {
-                    parameterMap.put( pd.getName(), pd );
+                    map.put( pd.getName(), pd );
                 }
             }
+
+            parameterMap = map;
         }
 
-        return parameterMap;
+        return map;
+    }
+
+    /**
+     * Defers the building of the parameters until they are first accessed. The plugin descriptor builder uses this to
+     * avoid the cost of building the parameters for goals that are never executed.
+     *
+     * @param source The mojo element of the plugin descriptor that declares the parameters, may be {@code null}.
+     */
+    void setParameterSource( PlexusConfiguration source )
+    {
+        parameters = null;
+        parameterMap = null;
+        parameterSource = source;
+    }
+
+    private void resolveParameters()
+    {
+        if ( parameterSource != null )
+        {
+            synchronized ( this )
+            {
+                PlexusConfiguration source = parameterSource;
+
+                if ( source != null )
+                {
+                    List<Parameter> params = PluginDescriptorBuilder.buildParameters( source );
+
+                    parameters = params.isEmpty() ? null : new LinkedList<Parameter>( params );
+                    parameterMap = null;
+                    parameterSource = null;
+                }
+            }
+        }
     }
 
     // ----------------------------------------------------------------------
@@ -691,6 +764,85 @@ public void setThreadSafe( boolean threadSafe )
         this.threadSafe = threadSafe;
     }
 
+    /**
+     * @return True if a configured instance of the <code>Mojo</code> can be reconfigured and executed again, i.e. the
+     *         mojo keeps no state between executions other than its configured parameters and singleton components
+     * @since 3.2.6
+     */
+    public boolean isReusable()
+    {
+        return reusable;
+    }
+
+    /**
+     * @param reusable indicates that an instance of the mojo can be reconfigured and reused for further executions
+     * @since 3.2.6
+     */
+    public void setReusable( boolean reusable )
+    {
+        this.reusable = reusable;
+    }
+
+    /**
+     * @return True if the <code>Mojo</code> is deterministic, i.e. its output directory only depends on its
+     *         configuration, its declared inputs and its class path, such that its outputs can be cached. A cacheable
+     *         <code>Mojo</code> must not change the project, e.g. its source roots, resources, attached artifacts or
+     *         properties, as the execution is skipped when its outputs are restored. Outputs of executions that
+     *         change the project are not cached.
+     * @since 3.2.6
+     */
+    public boolean isCacheable()
+    {
+        return cacheable;
+    }
+
+    /**
+     * @param cacheable indicates that the outputs of the mojo can be restored from a cache instead of executing it
+     * @since 3.2.6
+     */
+    public void setCacheable( boolean cacheable )
+    {
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * @return The comma-separated names of the parameters whose values denote the input files or directories of a
+     *         cacheable mojo, may be <code>null</code>
+     * @since 3.2.6
+     */
+    public String getCacheInputs()
+    {
+        return cacheInputs;
+    }
+
+    /**
+     * @param cacheInputs the comma-separated names of the parameters denoting the inputs of the mojo
+     * @since 3.2.6
+     */
+    public void setCacheInputs( String cacheInputs )
+    {
+        this.cacheInputs = cacheInputs;
+    }
+
+    /**
+     * @return The name of the parameter whose value denotes the output directory of a cacheable mojo, may be
+     *         <code>null</code>
+     * @since 3.2.6
+     */
+    public String getCacheOutput()
+    {
+        return cacheOutput;
+    }
+
+    /**
+     * @param cacheOutput the name of the parameter denoting the output directory of the mojo
+     * @since 3.2.6
+     */
+    public void setCacheOutput( String cacheOutput )
+    {
+        this.cacheOutput = cacheOutput;
+    }
+
     /**
      * @return {@code true} if this mojo forks either a goal or the lifecycle, {@code false} otherwise.
      */
@@ -701,11 +853,14 @@ public boolean isForking()
     }
 
     /**
-     * Creates a shallow copy of this mojo descriptor.
+     * Creates a shallow copy of this mojo descriptor. Deferred parameters are built before copying, so the copy shares
+     * the parameters with this descriptor rather than building its own instances.
      */
     @Override
     public MojoDescriptor clone()
     {
+        resolveParameters();
+
         try
         {
             return (MojoDescriptor) super.clone();
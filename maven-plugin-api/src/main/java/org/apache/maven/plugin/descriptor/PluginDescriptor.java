@@ -58,6 +58,8 @@
 
     private String artifactId;
 
+    private String pluginLookupKey;
+
     private String version;
 
     private String goalPrefix;
@@ -132,6 +134,7 @@ public String getGroupId()
     public void setGroupId( String groupId )
     {
         this.groupId = groupId;
+        this.pluginLookupKey = null;
     }
 
     public String getArtifactId()
@@ -142,6 +145,7 @@ public String getArtifactId()
     public void setArtifactId( String artifactId )
     {
         this.artifactId = artifactId;
+        this.pluginLookupKey = null;
     }
 
     // ----------------------------------------------------------------------
@@ -155,7 +159,14 @@ public static String constructPluginKey( String groupId, String artifactId, Stri
 
     public String getPluginLookupKey()
     {
-        return groupId + ":" + artifactId;
+        // computed once, the key is looked up on every mojo execution
+        String key = pluginLookupKey;
+        if ( key == null )
+        {
+            key = groupId + ":" + artifactId;
+            pluginLookupKey = key;
+        }
+        return key;
     }
 
     public String getId()
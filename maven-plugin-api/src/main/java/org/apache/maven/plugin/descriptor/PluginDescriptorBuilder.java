@@ -22,7 +22,9 @@
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.codehaus.plexus.component.repository.ComponentDependency;
 import org.codehaus.plexus.component.repository.ComponentRequirement;
@@ -254,6 +256,24 @@ public MojoDescriptor buildComponentDescriptor( PlexusConfiguration c, PluginDes
             mojo.setThreadSafe( Boolean.parseBoolean( threadSafe ) );
         }
 
+        String reusable = c.getChild( "reusable" ).getValue();
+
+        if ( reusable != null )
+        {
+            mojo.setReusable( Boolean.parseBoolean( reusable ) );
+        }
+
+        String cacheable = c.getChild( "cacheable" ).getValue();
+
+        if ( cacheable != null )
+        {
+            mojo.setCacheable( Boolean.parseBoolean( cacheable ) );
+        }
+
+        mojo.setCacheInputs( c.getChild( "cacheInputs" ).getValue() );
+
+        mojo.setCacheOutput( c.getChild( "cacheOutput" ).getValue() );
+
         // ----------------------------------------------------------------------
         // Configuration
         // ----------------------------------------------------------------------
@@ -265,6 +285,58 @@ public MojoDescriptor buildComponentDescriptor( PlexusConfiguration c, PluginDes
         // Parameters
         // ----------------------------------------------------------------------
 
+        // only the names are checked eagerly, the parameters themselves are built on first access by the mojo
+        // descriptor as most builds use just a few of the goals of a plugin
+
+        Set<String> parameterNames = new HashSet<String>();
+
+        for ( PlexusConfiguration d : c.getChild( "parameters" ).getChildren( "parameter" ) )
+        {
+            String name = d.getChild( "name" ).getValue();
+
+            if ( !parameterNames.add( name ) )
+            {
+                throw new DuplicateParameterException( name + " has been declared multiple times in mojo with goal: "
+                    + mojo.getGoal() + " (implementation: " + mojo.getImplementation() + ")" );
+            }
+        }
+
+        mojo.setParameterSource( c );
+
+        // TODO: this should not need to be handed off...
+
+        // ----------------------------------------------------------------------
+        // Requirements
+        // ----------------------------------------------------------------------
+
+        PlexusConfiguration[] requirements = c.getChild( "requirements" ).getChildren( "requirement" );
+
+        for ( PlexusConfiguration requirement : requirements )
+        {
+            ComponentRequirement cr = new ComponentRequirement();
+
+            cr.setRole( requirement.getChild( "role" ).getValue() );
+
+            cr.setRoleHint( requirement.getChild( "role-hint" ).getValue() );
+
+            cr.setFieldName( requirement.getChild( "field-name" ).getValue() );
+
+            mojo.addRequirement( cr );
+        }
+
+        return mojo;
+    }
+
+    /**
+     * Builds the parameters declared by the specified mojo element.
+     *
+     * @param c The mojo element from the plugin descriptor, must not be {@code null}.
+     * @return The parameters of the mojo, never {@code null}.
+     */
+    static List<Parameter> buildParameters( PlexusConfiguration c )
+    {
+        PlexusConfiguration mojoConfig = c.getChild( "configuration" );
+
         PlexusConfiguration[] parameterConfigurations = c.getChild( "parameters" ).getChildren( "parameter" );
 
         List<Parameter> parameters = new ArrayList<Parameter>();
@@ -309,30 +381,7 @@ public MojoDescriptor buildComponentDescriptor( PlexusConfiguration c, PluginDes
             parameters.add( parameter );
         }
 
-        mojo.setParameters( parameters );
-
-        // TODO: this should not need to be handed off...
-
-        // ----------------------------------------------------------------------
-        // Requirements
-        // ----------------------------------------------------------------------
-
-        PlexusConfiguration[] requirements = c.getChild( "requirements" ).getChildren( "requirement" );
-
-        for ( PlexusConfiguration requirement : requirements )
-        {
-            ComponentRequirement cr = new ComponentRequirement();
-
-            cr.setRole( requirement.getChild( "role" ).getValue() );
-
-            cr.setRoleHint( requirement.getChild( "role-hint" ).getValue() );
-
-            cr.setFieldName( requirement.getChild( "field-name" ).getValue() );
-
-            mojo.addRequirement( cr );
-        }
-
-        return mojo;
+        return parameters;
     }
 
     // ----------------------------------------------------------------------
@@ -21,6 +21,7 @@
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 
 import org.codehaus.plexus.component.repository.ComponentDependency;
 import org.codehaus.plexus.component.repository.ComponentRequirement;
@@ -74,6 +75,9 @@ public void testBuildReader()
         assertEquals( false, md.isOnlineRequired() );
         assertEquals( true, md.isProjectRequired() );
         assertEquals( false, md.isThreadSafe() );
+        assertEquals( false, md.isReusable() );
+        assertEquals( false, md.isCacheable() );
+        assertEquals( null, md.getCacheOutput() );
         assertEquals( "package", md.getPhase() );
         assertEquals( "org.apache.maven.plugin.jar.JarMojo", md.getImplementation() );
         assertEquals( "antrun", md.getComponentConfigurator() );
@@ -128,6 +132,60 @@ public void testBuildReader()
         assertEquals( null, md.getDependencyResolutionRequired() );
         assertEquals( null, md.getDependencyCollectionRequired() );
         assertEquals( true, md.isThreadSafe() );
+        assertEquals( true, md.isReusable() );
+        assertEquals( true, md.isCacheable() );
+        assertEquals( "warSourceDirectory,webResources", md.getCacheInputs() );
+        assertEquals( "webappDirectory", md.getCacheOutput() );
+    }
+
+    public void testLazyParameters()
+        throws Exception
+    {
+        MojoDescriptor md = build( "/plugin.xml" ).getMojo( "jar" );
+
+        assertEquals( "finalName", md.getParameterMap().get( "finalName" ).getName() );
+
+        try
+        {
+            Parameter parameter = new Parameter();
+            parameter.setName( "finalName" );
+            md.addParameter( parameter );
+            fail( "Expected DuplicateParameterException" );
+        }
+        catch ( DuplicateParameterException e )
+        {
+            assertEquals( 1, md.getParameters().size() );
+        }
+    }
+
+    public void testCloneSharesLazyParameters()
+        throws Exception
+    {
+        MojoDescriptor md = build( "/plugin.xml" ).getMojo( "jar" );
+
+        MojoDescriptor copy = md.clone();
+
+        assertSame( md.getParameters(), copy.getParameters() );
+        assertSame( md.getParameterMap().get( "finalName" ), copy.getParameterMap().get( "finalName" ) );
+    }
+
+    public void testDuplicateParameter()
+        throws Exception
+    {
+        String xml =
+            "<plugin><mojos><mojo><goal>test</goal><parameters>"
+                + "<parameter><name>p</name></parameter><parameter><name>p</name></parameter>"
+                + "</parameters></mojo></mojos></plugin>";
+
+        try
+        {
+            new PluginDescriptorBuilder().build( new StringReader( xml ) );
+            fail( "Expected DuplicateParameterException" );
+        }
+        catch ( DuplicateParameterException e )
+        {
+            assertTrue( e.getMessage().startsWith( "p has been declared multiple times" ) );
+        }
     }
 
 }